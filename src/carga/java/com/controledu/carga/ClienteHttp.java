@@ -0,0 +1,88 @@
+package com.controledu.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente HTTP compartido por todos los usuarios virtuales.
+ *
+ * Un único {@link HttpClient} (con su pool de conexiones) y las sesiones llevadas a mano: cada
+ * usuario guarda su JSESSIONID y lo envía en la cabecera Cookie. Sin seguir redirecciones, para
+ * poder comprobar a dónde manda la aplicación después de un login o de un POST.
+ */
+final class ClienteHttp {
+
+    /** Respuesta reducida a lo que necesitan los escenarios. */
+    record Respuesta(int estado, String ubicacion, String sesion, String cuerpo) {
+
+        boolean redirigeA(String fragmento) {
+            return estado == 302 && ubicacion != null && ubicacion.contains(fragmento);
+        }
+    }
+
+    private final HttpClient cliente;
+    private final String base;
+    private final Duration timeout;
+
+    ClienteHttp(String base, Duration timeout) {
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.timeout = timeout;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    Respuesta get(String ruta, String sesion, boolean conCuerpo) throws IOException, InterruptedException {
+        return enviar(peticion(ruta, sesion).GET().build(), conCuerpo);
+    }
+
+    Respuesta post(String ruta, String sesion, Map<String, String> formulario) throws IOException, InterruptedException {
+        String cuerpo = formulario.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return enviar(peticion(ruta, sesion)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build(), false);
+    }
+
+    private HttpRequest.Builder peticion(String ruta, String sesion) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + ruta)).timeout(timeout);
+        if (sesion != null) {
+            builder.header("Cookie", "JSESSIONID=" + sesion);
+        }
+        return builder;
+    }
+
+    private Respuesta enviar(HttpRequest peticion, boolean conCuerpo) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(peticion, conCuerpo
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpResponse.BodyHandlers.replacing(null));
+        // Sin cuerpo se descarta sin copiarlo, pero se lee entero: la latencia incluye la transferencia
+        return new Respuesta(respuesta.statusCode(),
+                respuesta.headers().firstValue("Location").orElse(null),
+                sesion(respuesta),
+                respuesta.body());
+    }
+
+    private static String sesion(HttpResponse<?> respuesta) {
+        for (String cookie : respuesta.headers().allValues("Set-Cookie")) {
+            if (cookie.startsWith("JSESSIONID=")) {
+                int fin = cookie.indexOf(';');
+                return cookie.substring("JSESSIONID=".length(), fin > 0 ? fin : cookie.length());
+            }
+        }
+        return null;
+    }
+}
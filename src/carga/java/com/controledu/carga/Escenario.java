@@ -0,0 +1,117 @@
+package com.controledu.carga;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Escenarios del día escolar. Cada ejecución es una sola petición medida; los inicios de sesión
+ * que necesite el usuario virtual antes (salvo en {@link #LOGIN}) se hacen en
+ * {@link #prepararSesion(UsuarioVirtual)}, fuera de la medición.
+ */
+enum Escenario {
+
+    /** Avalancha de inicios de sesión de estudiantes al empezar la mañana: sesión nueva cada vez. */
+    LOGIN("login", "POST /auth/login") {
+        @Override
+        String ejecutar(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            String cuenta = "estudiante" + (usuario.random.nextInt(usuario.datos.estudiantes()) + 1);
+            ClienteHttp.Respuesta respuesta = usuario.cliente.post("/auth/login", null,
+                    Map.of("usuario", cuenta, "password", cuenta));
+            return respuesta.redirigeA("/estudiante/dashboard") ? null : error(respuesta);
+        }
+    },
+
+    /** Docente registrando una falta a un estudiante cualquiera. */
+    REGISTRAR_FALTA("falta", "POST /docente/registrar-falta") {
+        @Override
+        void prepararSesion(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            usuario.sesionDocente();
+        }
+
+        @Override
+        String ejecutar(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            long[] estudiantes = usuario.datos.idsEstudiantes();
+            long[] conductas = usuario.datos.idsConductas();
+            ClienteHttp.Respuesta respuesta = usuario.cliente.post("/docente/registrar-falta", usuario.sesionDocente(),
+                    Map.of("estudianteId", String.valueOf(estudiantes[usuario.random.nextInt(estudiantes.length)]),
+                            "conductaId", String.valueOf(conductas[usuario.random.nextInt(conductas.length)]),
+                            "observaciones", "Registrada por la prueba de carga"));
+            return respuesta.redirigeA("/docente/historial") ? null : error(usuario, respuesta);
+        }
+    },
+
+    /** Estudiante recargando su dashboard. */
+    DASHBOARD_ESTUDIANTE("dashboard", "GET /estudiante/dashboard") {
+        @Override
+        void prepararSesion(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            usuario.sesionEstudiante();
+        }
+
+        @Override
+        String ejecutar(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            ClienteHttp.Respuesta respuesta = usuario.cliente.get("/estudiante/dashboard", usuario.sesionEstudiante(), false);
+            return respuesta.estado() == 200 ? null : error(usuario, respuesta);
+        }
+    },
+
+    /** Director revisando incidentes: la mitad de las veces sin filtros, el resto por no leídos o por grado. */
+    INCIDENTES_DIRECTOR("incidentes", "GET /director/incidentes") {
+        @Override
+        void prepararSesion(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            usuario.sesionDirector();
+        }
+
+        @Override
+        String ejecutar(UsuarioVirtual usuario) throws IOException, InterruptedException {
+            String ruta = switch (usuario.random.nextInt(4)) {
+                case 0 -> "/director/incidentes?leido=false";
+                case 1 -> "/director/incidentes?grado=" + (usuario.random.nextInt(9) + 1);
+                default -> "/director/incidentes";
+            };
+            ClienteHttp.Respuesta respuesta = usuario.cliente.get(ruta, usuario.sesionDirector(), false);
+            return respuesta.estado() == 200 ? null : error(usuario, respuesta);
+        }
+    };
+
+    final String clave;
+    final String descripcion;
+
+    Escenario(String clave, String descripcion) {
+        this.clave = clave;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Inicia la sesión que necesita el escenario si el usuario virtual no la tiene; no se mide.
+     * {@link #LOGIN} no necesita ninguna: el inicio de sesión es lo que mide.
+     */
+    void prepararSesion(UsuarioVirtual usuario) throws IOException, InterruptedException {
+    }
+
+    /**
+     * Ejecuta la petición del escenario.
+     *
+     * @return null si la respuesta es la esperada; si no, la descripción del error
+     */
+    abstract String ejecutar(UsuarioVirtual usuario) throws IOException, InterruptedException;
+
+    static Escenario porClave(String clave) {
+        for (Escenario escenario : values()) {
+            if (escenario.clave.equalsIgnoreCase(clave.trim())) {
+                return escenario;
+            }
+        }
+        throw new IllegalArgumentException("Escenario desconocido: " + clave);
+    }
+
+    private static String error(ClienteHttp.Respuesta respuesta) {
+        return "HTTP " + respuesta.estado() + (respuesta.ubicacion() != null ? " -> " + respuesta.ubicacion() : "");
+    }
+
+    private static String error(UsuarioVirtual usuario, ClienteHttp.Respuesta respuesta) {
+        if (respuesta.redirigeA("/auth/login")) {
+            usuario.olvidarSesiones();
+        }
+        return error(respuesta);
+    }
+}
@@ -0,0 +1,358 @@
+package com.controledu.carga;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga de un día escolar contra la aplicación en marcha (por defecto en localhost:8080).
+ *
+ * Modelo cerrado: cada usuario virtual es un hilo que repite escenarios elegidos al azar según la
+ * mezcla ponderada, sin pausa o con {@code pausa-ms} entre peticiones. La concurrencia sube por
+ * etapas ({@code usuarios:segundos}, separadas por comas); de cada etapa se informa, por
+ * escenario, el rendimiento, los percentiles de latencia y la tasa de errores, y al final el
+ * total de la prueba. Las filas se guardan además en CSV.
+ *
+ * Necesita las cuentas del generador de datos, por ejemplo con la aplicación en el perfil
+ * {@code embebido}:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=embebido
+ * mvn -Pcarga -DskipTests verify -Dcarga.etapas=10:30,50:60,100:60
+ * </pre>
+ *
+ * Opciones ({@code clave=valor}): url, etapas, mezcla ({@code login=30,dashboard=40,...}),
+ * estudiantes y docentes (cuentas {@code estudianteN}/{@code docenteN} disponibles), pausa-ms,
+ * timeout-ms, semilla y salida.
+ */
+public final class PruebaCarga {
+
+    private static final Pattern OPCION = Pattern.compile("value=\"(\\d+)\"");
+    private static final int MAXIMO_TIPOS_ERROR = 20;
+
+    private PruebaCarga() {
+    }
+
+    /** Etapa de la rampa: {@code usuarios} concurrentes durante {@code duracion}. */
+    record Etapa(int usuarios, Duration duracion) {
+    }
+
+    /** Peticiones, errores y latencias de un escenario. */
+    static final class Medicion {
+        final LongAdder peticiones = new LongAdder();
+        final LongAdder errores = new LongAdder();
+        final Histograma latencias = new Histograma();
+        final Map<String, LongAdder> tiposError = new ConcurrentHashMap<>();
+
+        void registrar(long micros, String error) {
+            latencias.registrar(micros);
+            contar(error);
+        }
+
+        /** Petición que no llegó a hacerse (falló el inicio de sesión previo): cuenta, pero sin latencia. */
+        void registrarSinLatencia(String error) {
+            contar(error);
+        }
+
+        private void contar(String error) {
+            peticiones.increment();
+            if (error != null) {
+                errores.increment();
+                LongAdder tipo = tiposError.get(error);
+                if (tipo == null && tiposError.size() < MAXIMO_TIPOS_ERROR) {
+                    tipo = tiposError.computeIfAbsent(error, e -> new LongAdder());
+                }
+                if (tipo != null) {
+                    tipo.increment();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = opciones(args);
+        String url = opciones.getOrDefault("url", "http://localhost:8080");
+        List<Etapa> etapas = etapas(opciones.getOrDefault("etapas", "5:20,20:30,50:30"));
+        Map<Escenario, Double> mezcla = mezcla(opciones.getOrDefault("mezcla", "login=30,dashboard=40,falta=15,incidentes=15"));
+        int estudiantes = Integer.parseInt(opciones.getOrDefault("estudiantes", "324"));
+        int docentes = Integer.parseInt(opciones.getOrDefault("docentes", "16"));
+        long pausaMs = Long.parseLong(opciones.getOrDefault("pausa-ms", "0"));
+        long semilla = Long.parseLong(opciones.getOrDefault("semilla", "42"));
+        Path salida = Path.of(opciones.getOrDefault("salida", "target/carga-resultado.csv"));
+
+        ClienteHttp cliente = new ClienteHttp(url, Duration.ofMillis(Long.parseLong(opciones.getOrDefault("timeout-ms", "10000"))));
+        UsuarioVirtual.Datos datos = preparar(cliente, estudiantes, docentes);
+        System.out.printf(Locale.ROOT, "Prueba de carga contra %s: %d estudiantes y %d conductas disponibles, mezcla %s%n",
+                url, datos.idsEstudiantes().length, datos.idsConductas().length, mezcla);
+
+        List<UsuarioVirtual> usuarios = new ArrayList<>();
+        Map<Escenario, Medicion> total = mediciones();
+        long nanosTotales = 0;
+        List<String> filas = new ArrayList<>();
+        filas.add("etapa,usuarios,escenario,peticiones,peticiones_s,errores,p50_ms,p90_ms,p99_ms,max_ms");
+
+        for (int i = 0; i < etapas.size(); i++) {
+            Etapa etapa = etapas.get(i);
+            while (usuarios.size() < etapa.usuarios()) {
+                usuarios.add(new UsuarioVirtual(usuarios.size(), cliente, datos, semilla));
+            }
+            Map<Escenario, Medicion> mediciones = mediciones();
+            long nanos = ejecutar(etapa, usuarios.subList(0, etapa.usuarios()), mezcla, pausaMs, mediciones, total);
+            nanosTotales += nanos;
+
+            String titulo = String.format(Locale.ROOT, "Etapa %d/%d: %d usuarios, %d s",
+                    i + 1, etapas.size(), etapa.usuarios(), etapa.duracion().toSeconds());
+            imprimir(titulo, mediciones, nanos);
+            filas.addAll(filas(String.valueOf(i + 1), etapa.usuarios(), mediciones, nanos));
+        }
+        imprimir("Total", total, nanosTotales);
+        filas.addAll(filas("total", etapas.stream().mapToInt(Etapa::usuarios).max().orElse(0), total, nanosTotales));
+
+        if (salida.getParent() != null) {
+            Files.createDirectories(salida.getParent());
+        }
+        Files.write(salida, filas, StandardCharsets.UTF_8);
+        System.out.println("Resultados en " + salida.toAbsolutePath());
+    }
+
+    // ================================================================
+    // PREPARACIÓN
+    // ================================================================
+
+    /**
+     * Descubre los ids de estudiantes y conductas desde el formulario de registro de faltas, como
+     * los vería un docente.
+     */
+    private static UsuarioVirtual.Datos preparar(ClienteHttp cliente, int estudiantes, int docentes)
+            throws IOException, InterruptedException {
+        String sesion = UsuarioVirtual.iniciarSesion(cliente, "docente1");
+        String formulario = cliente.get("/docente/registrar-falta", sesion, true).cuerpo();
+        long[] idsEstudiantes = ids(formulario, "name=\"estudianteId\"");
+        long[] idsConductas = ids(formulario, "name=\"conductaId\"");
+        if (idsEstudiantes.length == 0 || idsConductas.length == 0) {
+            throw new IllegalStateException("La aplicación no tiene estudiantes o conductas; arránquela con datos"
+                    + " (perfil embebido o controledu.semilla.habilitado=true)");
+        }
+        return new UsuarioVirtual.Datos(Math.max(1, estudiantes), Math.max(1, docentes), idsEstudiantes, idsConductas);
+    }
+
+    private static long[] ids(String html, String select) {
+        int inicio = html == null ? -1 : html.indexOf(select);
+        if (inicio < 0) {
+            return new long[0];
+        }
+        int fin = html.indexOf("</select>", inicio);
+        Matcher matcher = OPCION.matcher(html.substring(inicio, fin > 0 ? fin : html.length()));
+        List<Long> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // ================================================================
+    // EJECUCIÓN
+    // ================================================================
+
+    private static long ejecutar(Etapa etapa, List<UsuarioVirtual> usuarios, Map<Escenario, Double> mezcla,
+                                 long pausaMs, Map<Escenario, Medicion> mediciones, Map<Escenario, Medicion> total)
+            throws InterruptedException {
+        Escenario[] escenarios = mezcla.keySet().toArray(new Escenario[0]);
+        double[] acumulados = new double[escenarios.length];
+        double suma = 0;
+        for (int i = 0; i < escenarios.length; i++) {
+            suma += mezcla.get(escenarios[i]);
+            acumulados[i] = suma;
+        }
+        double pesoTotal = suma;
+
+        long inicio = System.nanoTime();
+        long limite = inicio + etapa.duracion().toNanos();
+        List<Thread> hilos = new ArrayList<>();
+        for (UsuarioVirtual usuario : usuarios) {
+            Thread hilo = new Thread(() -> {
+                while (System.nanoTime() < limite) {
+                    Escenario escenario = elegir(escenarios, acumulados, pesoTotal, usuario.random);
+                    try {
+                        medir(escenario, usuario, mediciones.get(escenario), total.get(escenario));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (pausaMs > 0) {
+                        try {
+                            Thread.sleep(pausaMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+            }, "carga-" + hilos.size());
+            hilo.start();
+            hilos.add(hilo);
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    /**
+     * Una petición del escenario. El inicio de sesión que necesite (también el que se repite tras
+     * {@link UsuarioVirtual#olvidarSesiones()}) se hace antes de tomar el tiempo; si falla, cuenta
+     * como error del escenario sin latencia.
+     */
+    private static void medir(Escenario escenario, UsuarioVirtual usuario, Medicion medicion, Medicion total)
+            throws InterruptedException {
+        try {
+            escenario.prepararSesion(usuario);
+        } catch (IOException | IllegalStateException e) {
+            String error = "Sesión: " + e.getClass().getSimpleName() + ": " + e.getMessage();
+            medicion.registrarSinLatencia(error);
+            total.registrarSinLatencia(error);
+            return;
+        }
+        long t0 = System.nanoTime();
+        String error;
+        try {
+            error = escenario.ejecutar(usuario);
+        } catch (IOException | IllegalStateException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - t0);
+        medicion.registrar(micros, error);
+        total.registrar(micros, error);
+    }
+
+    private static Escenario elegir(Escenario[] escenarios, double[] acumulados, double pesoTotal, Random random) {
+        double valor = random.nextDouble() * pesoTotal;
+        for (int i = 0; i < acumulados.length; i++) {
+            if (valor < acumulados[i]) {
+                return escenarios[i];
+            }
+        }
+        return escenarios[escenarios.length - 1];
+    }
+
+    // ================================================================
+    // INFORME
+    // ================================================================
+
+    private static void imprimir(String titulo, Map<Escenario, Medicion> mediciones, long nanos) {
+        double segundos = nanos / 1e9;
+        System.out.println();
+        System.out.println(titulo);
+        System.out.printf(Locale.ROOT, "%-30s %10s %9s %8s %9s %9s %9s %9s%n",
+                "Escenario", "Peticiones", "Pet/s", "Errores", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long peticiones = 0;
+        long errores = 0;
+        for (Map.Entry<Escenario, Medicion> entrada : mediciones.entrySet()) {
+            Medicion medicion = entrada.getValue();
+            long n = medicion.peticiones.sum();
+            if (n == 0) {
+                continue;
+            }
+            peticiones += n;
+            errores += medicion.errores.sum();
+            Histograma h = medicion.latencias;
+            System.out.printf(Locale.ROOT, "%-30s %10d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                    entrada.getKey().descripcion, n, n / segundos, 100.0 * medicion.errores.sum() / n,
+                    h.percentil(0.50) / 1000.0, h.percentil(0.90) / 1000.0,
+                    h.percentil(0.99) / 1000.0, h.percentil(1.0) / 1000.0);
+            medicion.tiposError.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                    .limit(3)
+                    .forEach(e -> System.out.printf(Locale.ROOT, "    %d x %s%n", e.getValue().sum(), e.getKey()));
+        }
+        System.out.printf(Locale.ROOT, "%-30s %10d %9.1f %7.2f%%%n", "Todas", peticiones, peticiones / segundos,
+                peticiones == 0 ? 0 : 100.0 * errores / peticiones);
+    }
+
+    private static List<String> filas(String etapa, int usuarios, Map<Escenario, Medicion> mediciones, long nanos) {
+        List<String> filas = new ArrayList<>();
+        double segundos = nanos / 1e9;
+        mediciones.forEach((escenario, medicion) -> {
+            long n = medicion.peticiones.sum();
+            if (n == 0) {
+                return;
+            }
+            Histograma h = medicion.latencias;
+            filas.add(String.format(Locale.ROOT, "%s,%d,%s,%d,%.1f,%d,%.1f,%.1f,%.1f,%.1f", etapa, usuarios,
+                    escenario.clave, n, n / segundos, medicion.errores.sum(), h.percentil(0.50) / 1000.0,
+                    h.percentil(0.90) / 1000.0, h.percentil(0.99) / 1000.0, h.percentil(1.0) / 1000.0));
+        });
+        return filas;
+    }
+
+    // ================================================================
+    // OPCIONES
+    // ================================================================
+
+    private static Map<String, String> opciones(String[] args) {
+        Map<String, String> opciones = new LinkedHashMap<>();
+        for (String arg : args) {
+            String opcion = arg.startsWith("--") ? arg.substring(2) : arg;
+            int igual = opcion.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Opción inválida (se espera clave=valor): " + arg);
+            }
+            opciones.put(opcion.substring(0, igual), opcion.substring(igual + 1));
+        }
+        return opciones;
+    }
+
+    private static List<Etapa> etapas(String especificacion) {
+        List<Etapa> etapas = new ArrayList<>();
+        for (String parte : especificacion.split(",")) {
+            String[] campos = parte.trim().split(":");
+            if (campos.length != 2) {
+                throw new IllegalArgumentException("Etapa inválida (se espera usuarios:segundos): " + parte);
+            }
+            etapas.add(new Etapa(Math.max(1, Integer.parseInt(campos[0].trim())),
+                    Duration.ofSeconds(Long.parseLong(campos[1].trim()))));
+        }
+        return etapas;
+    }
+
+    private static Map<Escenario, Double> mezcla(String especificacion) {
+        Map<Escenario, Double> mezcla = new EnumMap<>(Escenario.class);
+        for (String parte : especificacion.split(",")) {
+            String[] campos = parte.split("=");
+            if (campos.length != 2) {
+                throw new IllegalArgumentException("Peso inválido (se espera escenario=peso): " + parte);
+            }
+            double peso = Double.parseDouble(campos[1].trim());
+            if (peso > 0) {
+                mezcla.put(Escenario.porClave(campos[0]), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ningún escenario con peso positivo");
+        }
+        return mezcla;
+    }
+
+    private static Map<Escenario, Medicion> mediciones() {
+        Map<Escenario, Medicion> mediciones = new EnumMap<>(Escenario.class);
+        for (Escenario escenario : Escenario.values()) {
+            mediciones.put(escenario, new Medicion());
+        }
+        return mediciones;
+    }
+}
@@ -0,0 +1,82 @@
+package com.controledu.carga;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Usuario virtual: un hilo de la prueba con su propio generador aleatorio y una sesión abierta
+ * por rol (estudiante, docente y director), que se inicia la primera vez que un escenario la
+ * necesita y se vuelve a iniciar si la aplicación la pierde.
+ *
+ * Las cuentas son las del generador de datos ({@code estudianteN}, {@code docenteN},
+ * {@code director}, con la contraseña igual al usuario).
+ */
+final class UsuarioVirtual {
+
+    final ClienteHttp cliente;
+    final Random random;
+    final Datos datos;
+
+    private final int numeroEstudiante;
+    private final int numeroDocente;
+
+    private String sesionEstudiante;
+    private String sesionDocente;
+    private String sesionDirector;
+
+    /** Ids descubiertos al preparar la prueba, compartidos por todos los usuarios. */
+    record Datos(int estudiantes, int docentes, long[] idsEstudiantes, long[] idsConductas) {
+    }
+
+    UsuarioVirtual(int numero, ClienteHttp cliente, Datos datos, long semilla) {
+        this.cliente = cliente;
+        this.datos = datos;
+        this.random = new Random(semilla + numero);
+        this.numeroEstudiante = numero % datos.estudiantes() + 1;
+        this.numeroDocente = numero % datos.docentes() + 1;
+    }
+
+    String sesionEstudiante() throws IOException, InterruptedException {
+        if (sesionEstudiante == null) {
+            sesionEstudiante = iniciarSesion(cliente, "estudiante" + numeroEstudiante);
+        }
+        return sesionEstudiante;
+    }
+
+    String sesionDocente() throws IOException, InterruptedException {
+        if (sesionDocente == null) {
+            sesionDocente = iniciarSesion(cliente, "docente" + numeroDocente);
+        }
+        return sesionDocente;
+    }
+
+    String sesionDirector() throws IOException, InterruptedException {
+        if (sesionDirector == null) {
+            sesionDirector = iniciarSesion(cliente, "director");
+        }
+        return sesionDirector;
+    }
+
+    /** La aplicación devolvió al login: se descartan las sesiones para iniciarlas de nuevo. */
+    void olvidarSesiones() {
+        sesionEstudiante = null;
+        sesionDocente = null;
+        sesionDirector = null;
+    }
+
+    /**
+     * Inicia sesión y devuelve el JSESSIONID.
+     *
+     * @throws IllegalStateException si la aplicación no redirige al dashboard
+     */
+    static String iniciarSesion(ClienteHttp cliente, String usuario) throws IOException, InterruptedException {
+        ClienteHttp.Respuesta respuesta = cliente.post("/auth/login", null,
+                Map.of("usuario", usuario, "password", usuario));
+        if (!respuesta.redirigeA("/dashboard") || respuesta.sesion() == null) {
+            throw new IllegalStateException("No se pudo iniciar sesión como " + usuario
+                    + " (HTTP " + respuesta.estado() + ")");
+        }
+        return respuesta.sesion();
+    }
+}
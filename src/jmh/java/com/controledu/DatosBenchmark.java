@@ -0,0 +1,89 @@
+package com.controledu;
+
+import com.controledu.model.Conducta;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.model.RegistroConducta;
+import com.controledu.model.TipoGravedad;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos sintéticos compartidos por los benchmarks. Con la misma semilla se generan siempre
+ * los mismos objetos, para que las ejecuciones sean comparables.
+ */
+public final class DatosBenchmark {
+
+    private static final String[] GRAVEDADES = {"Leve", "Grave", "Muy Grave"};
+    private static final String[] GRADOS = {"1", "2", "3", "4", "5", "6", "7", "8", "9"};
+    private static final String[] SECCIONES = {"A", "B", "C"};
+
+    private DatosBenchmark() {
+    }
+
+    public static List<Estudiante> estudiantes(int cantidad, long semilla) {
+        Random random = new Random(semilla);
+        List<Estudiante> estudiantes = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Estudiante estudiante = new Estudiante();
+            estudiante.setId((long) i);
+            estudiante.setNombres("Nombre" + i);
+            estudiante.setApellidos("Apellido" + random.nextInt(cantidad));
+            estudiante.setGrado(GRADOS[random.nextInt(GRADOS.length)]);
+            estudiante.setSeccion(SECCIONES[random.nextInt(SECCIONES.length)]);
+            estudiante.setFechaNacimiento(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(3000)));
+            estudiante.setUsuario("estudiante" + i);
+            estudiante.setPassword("clave" + i);
+            estudiantes.add(estudiante);
+        }
+        return estudiantes;
+    }
+
+    /**
+     * Registros de conducta con el grafo completo (estudiante, docente, conducta y gravedad).
+     * Aproximadamente uno de cada veinte no tiene conducta, como los datos importados a mano.
+     */
+    public static List<RegistroConducta> registros(int cantidad, long semilla) {
+        Random random = new Random(semilla);
+
+        List<Conducta> catalogo = new ArrayList<>();
+        for (int g = 0; g < GRAVEDADES.length; g++) {
+            TipoGravedad gravedad = new TipoGravedad();
+            gravedad.setIdGravedad((long) g + 1);
+            gravedad.setNombreGravedad(GRAVEDADES[g]);
+            gravedad.setPuntos(g + 1);
+            for (int c = 0; c < 5; c++) {
+                Conducta conducta = new Conducta();
+                conducta.setIdConducta((long) catalogo.size() + 1);
+                conducta.setNombreConducta("Conducta " + catalogo.size());
+                conducta.setDescripcion("Descripción de la conducta " + catalogo.size());
+                conducta.setGravedad(gravedad);
+                catalogo.add(conducta);
+            }
+        }
+
+        Docente docente = new Docente();
+        docente.setId(1L);
+        docente.setNombres("Ana");
+        docente.setApellidos("Martínez");
+        docente.setMateria("Matemática");
+
+        List<Estudiante> estudiantes = estudiantes(Math.max(1, cantidad / 10), semilla);
+        List<RegistroConducta> registros = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            RegistroConducta registro = new RegistroConducta();
+            registro.setIdRegistro((long) i);
+            registro.setEstudiante(estudiantes.get(random.nextInt(estudiantes.size())));
+            registro.setDocente(docente);
+            registro.setConducta(random.nextInt(20) == 0 ? null : catalogo.get(random.nextInt(catalogo.size())));
+            registro.setFechaRegistro(LocalDate.of(2024, 2, 1).plusDays(random.nextInt(300)));
+            registro.setObservaciones("Observación del incidente " + i);
+            registro.setLeido(random.nextBoolean());
+            registros.add(registro);
+        }
+        return registros;
+    }
+}
@@ -0,0 +1,56 @@
+package com.controledu.controller;
+
+import com.controledu.DatosBenchmark;
+import com.controledu.model.RegistroConducta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clasificación por gravedad de las faltas de un estudiante: tres conteos en
+ * {@code EstudianteController.historial} y tres listas en {@code misConductas}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltroGravedadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int cantidad;
+
+    private List<RegistroConducta> conductas;
+
+    @Setup
+    public void preparar() {
+        conductas = DatosBenchmark.registros(cantidad, 42);
+    }
+
+    @Benchmark
+    public void historial(Blackhole bh) {
+        bh.consume(EstudianteController.contarPorGravedad(conductas, "leve"));
+        bh.consume(EstudianteController.contarPorGravedad(conductas, "grave"));
+        bh.consume(EstudianteController.contarPorGravedad(conductas, "muy grave"));
+    }
+
+    @Benchmark
+    public void misConductas(Blackhole bh) {
+        bh.consume(EstudianteController.filtrarPorGravedad(conductas, "leve"));
+        bh.consume(EstudianteController.filtrarPorGravedad(conductas, "grave"));
+        bh.consume(EstudianteController.filtrarPorGravedad(conductas, "muy grave"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.controledu.dto;
+
+import com.controledu.DatosBenchmark;
+import com.controledu.model.RegistroConducta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de registros de conducta a {@link RegistroConductaResponseDTO}, como en cada respuesta
+ * de {@code /api/registro-conductas}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistroConductaResponseDTOBenchmark {
+
+    @Param({"1", "100", "1000"})
+    int cantidad;
+
+    private List<RegistroConducta> registros;
+
+    @Setup
+    public void preparar() {
+        registros = DatosBenchmark.registros(cantidad, 42);
+    }
+
+    @Benchmark
+    public List<RegistroConductaResponseDTO> fromEntity() {
+        List<RegistroConductaResponseDTO> dtos = new ArrayList<>(registros.size());
+        for (RegistroConducta registro : registros) {
+            dtos.add(RegistroConductaResponseDTO.fromEntity(registro));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,61 @@
+package com.controledu.dto;
+
+import com.controledu.DatosBenchmark;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de las respuestas de la API, con un ObjectMapper configurado como el de
+ * Spring Boot (fechas ISO, módulos registrados).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionJsonBenchmark {
+
+    @Param({"20", "500"})
+    int cantidad;
+
+    private ObjectMapper objectMapper;
+    private List<RegistroConductaResponseDTO> registros;
+    private List<EstudianteResumenDTO> roster;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        registros = DatosBenchmark.registros(cantidad, 42).stream()
+                .map(RegistroConductaResponseDTO::fromEntity)
+                .toList();
+        roster = DatosBenchmark.estudiantes(cantidad, 42).stream()
+                .map(EstudianteResumenDTO::de)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] registrosConducta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(registros);
+    }
+
+    @Benchmark
+    public byte[] rosterEstudiantes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(roster);
+    }
+}
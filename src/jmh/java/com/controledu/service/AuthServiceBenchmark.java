@@ -0,0 +1,82 @@
+package com.controledu.service;
+
+import com.controledu.ControlEduApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuthService#authenticate} contra la aplicación completa en el perfil {@code embebido}
+ * (H2 en memoria con datos sembrados): recorre directores, docentes y estudiantes hasta encontrar
+ * al usuario, así que el costo depende del rol (o de que las credenciales no existan).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    // 9 grados × 3 secciones × 74 = 1998 estudiantes; 8 materias × 12 = 96 docentes
+    private static final int ESTUDIANTES_POR_SECCION = 74;
+    private static final int DOCENTES_POR_MATERIA = 12;
+    private static final int ESTUDIANTES = 9 * 3 * ESTUDIANTES_POR_SECCION;
+    private static final int DOCENTES = 8 * DOCENTES_POR_MATERIA;
+
+    @Param({"DIRECTOR", "DOCENTE", "ESTUDIANTE", "FALLIDO"})
+    String rol;
+
+    private ConfigurableApplicationContext contexto;
+    private AuthService authService;
+    private String usuario;
+    private String password;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ControlEduApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("embebido")
+                // Como argumentos de línea de comandos, para que prevalezcan sobre los perfiles
+                .run("--controledu.semilla.docentes-por-materia=" + DOCENTES_POR_MATERIA,
+                        "--controledu.semilla.estudiantes-por-seccion=" + ESTUDIANTES_POR_SECCION,
+                        "--logging.level.com.controledu=WARN");
+        authService = contexto.getBean(AuthService.class);
+
+        switch (rol) {
+            case "DIRECTOR" -> credenciales("director", "director");
+            case "DOCENTE" -> credenciales("docente" + DOCENTES / 2, "docente" + DOCENTES / 2);
+            case "ESTUDIANTE" -> credenciales("estudiante" + ESTUDIANTES / 2, "estudiante" + ESTUDIANTES / 2);
+            default -> credenciales("nadie", "incorrecta");
+        }
+    }
+
+    private void credenciales(String usuario, String password) {
+        this.usuario = usuario;
+        this.password = password;
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        return authService.authenticate(usuario, password);
+    }
+}
@@ -0,0 +1,103 @@
+package com.controledu.service;
+
+import com.controledu.DatosBenchmark;
+import com.controledu.dto.EstudianteResumenDTO;
+import com.controledu.util.LongIntHashMap;
+import com.controledu.util.SingleFlight;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cachés en memoria de la aplicación: el roster versionado de {@link RosterService}, la coalescencia
+ * de {@link SingleFlight} y los contadores por estudiante de {@link LongIntHashMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachesBenchmark {
+
+    @Param({"1000", "20000"})
+    int estudiantes;
+
+    private List<EstudianteResumenDTO> filas;
+    private RosterService.Instantanea instantanea;
+    private SingleFlight singleFlight;
+    private LongIntHashMap contadores;
+    private Map<Long, Integer> contadoresHashMap;
+    private long siguiente;
+
+    @Setup
+    public void preparar() {
+        filas = DatosBenchmark.estudiantes(estudiantes, 42).stream()
+                .map(EstudianteResumenDTO::de)
+                .toList();
+        instantanea = new RosterService.Instantanea(1, filas);
+        // TTL largo: mide el camino de una lectura que encuentra el resultado compartido
+        singleFlight = new SingleFlight(TimeUnit.HOURS.toMillis(1));
+        singleFlight.ejecutar("estudiantes:todos", () -> filas);
+        contadores = new LongIntHashMap(estudiantes);
+        contadoresHashMap = new HashMap<>(estudiantes * 2);
+        for (long id = 1; id <= estudiantes; id++) {
+            contadores.put(id, (int) (id % 7));
+            contadoresHashMap.put(id, (int) (id % 7));
+        }
+    }
+
+    // --- Roster ---
+
+    @Benchmark
+    public List<EstudianteResumenDTO> rosterPorGradoSeccion() {
+        return instantanea.findByGradoAndSeccion("7", "B");
+    }
+
+    @Benchmark
+    public List<EstudianteResumenDTO> rosterPorGradoSeccionSinIndice() {
+        return filas.stream()
+                .filter(e -> "7".equals(e.getGrado()) && "B".equals(e.getSeccion()))
+                .toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public RosterService.Instantanea rosterConstruir() {
+        return new RosterService.Instantanea(2, filas);
+    }
+
+    // --- Single flight ---
+
+    @Benchmark
+    public Object singleFlightCompartido() {
+        return singleFlight.ejecutar("estudiantes:todos", () -> filas);
+    }
+
+    // --- Contadores por estudiante ---
+
+    @Benchmark
+    public int contadorLongIntHashMap() {
+        siguiente = siguiente % estudiantes + 1;
+        return contadores.get(siguiente);
+    }
+
+    @Benchmark
+    public Integer contadorHashMap() {
+        siguiente = siguiente % estudiantes + 1;
+        return contadoresHashMap.get(siguiente);
+    }
+}
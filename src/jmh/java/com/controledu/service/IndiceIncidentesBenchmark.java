@@ -0,0 +1,83 @@
+package com.controledu.service;
+
+import com.controledu.DatosBenchmark;
+import com.controledu.dto.FacetasIncidentesDTO;
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.RegistroConducta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Consultas del índice columnar de incidentes, comparadas con el filtrado de la lista de entidades
+ * que haría un listado sin índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceIncidentesBenchmark {
+
+    @Param({"10000", "200000", "500000"})
+    int filas;
+
+    private IndiceIncidentesService indice;
+    private List<RegistroConducta> registros;
+    private FiltroIncidentesDTO filtro;
+
+    @Setup
+    public void preparar() {
+        registros = DatosBenchmark.registros(filas, 42);
+        // Sin repositorio ni coherencia entre nodos: el índice se llena con los mismos eventos
+        // que publica RegistroConductaService
+        CoherenciaCacheService sinCoherencia = new CoherenciaCacheService(null, null, false, "benchmark", 0, 0, 0);
+        indice = new IndiceIncidentesService(null, null, sinCoherencia);
+        indice.cargar(Stream.empty());
+        for (RegistroConducta registro : registros) {
+            indice.aplicar(RegistroConductaEvent.de(RegistroConductaEvent.Tipo.CREADO, registro));
+        }
+        filtro = new FiltroIncidentesDTO();
+        filtro.setGrado("7");
+        filtro.setGravedad("grave");
+        filtro.setLeido(false);
+    }
+
+    @Benchmark
+    public long contar() {
+        return indice.contar(filtro);
+    }
+
+    @Benchmark
+    public FacetasIncidentesDTO facetas() {
+        return indice.facetas(filtro);
+    }
+
+    @Benchmark
+    public List<Long> primeraPagina() {
+        return indice.findIds(filtro, 50);
+    }
+
+    @Benchmark
+    public long contarSinIndice() {
+        return registros.stream()
+                .filter(r -> "7".equals(r.getEstudiante().getGrado()))
+                .filter(r -> r.getConducta() != null && "grave".equalsIgnoreCase(r.getConducta().getGravedad().getNombreGravedad()))
+                .filter(r -> !Boolean.TRUE.equals(r.getLeido()))
+                .count();
+    }
+}
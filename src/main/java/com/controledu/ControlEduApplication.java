@@ -1,12 +1,16 @@
 package com.controledu;
 
 import com.controledu.service.TipoGravedadService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@Slf4j
 @SpringBootApplication
+@EnableScheduling
 public class ControlEduApplication {
 
 	public static void main(String[] args) {
@@ -22,7 +26,7 @@ public class ControlEduApplication {
 			tipoGravedadService.initializeDefaultGravedades();
 
 			// Mensaje de confirmación en la consola
-			System.out.println(" Tipos de gravedad inicializados correctamente (si la tabla estaba vacía).");
+			log.info("Tipos de gravedad inicializados correctamente (si la tabla estaba vacía).");
 		};
 	}
 	// ----------------------
@@ -0,0 +1,80 @@
+package com.controledu.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compartimento estanco ("bulkhead") para una clase de endpoints costosos.
+ *
+ * Un semáforo justo limita cuántas peticiones de la clase se atienden a la vez; el resto espera
+ * como máximo {@code esperaMs} y, si no obtiene lugar, se rechaza de inmediato. Así los reportes
+ * pesados nunca ocupan más de {@code limite} conexiones del pool, que queda libre para las escrituras.
+ *
+ * Publica en Micrometer (etiqueta {@code clase}): en uso, disponibles, en espera, rechazos y tiempo de espera.
+ */
+public class Bulkhead {
+
+    private final String nombre;
+    private final int limite;
+    private final long esperaMs;
+    private final Semaphore permisos;
+
+    private final Counter rechazos;
+    private final Timer espera;
+
+    public Bulkhead(String nombre, int limite, long esperaMs, MeterRegistry registry) {
+        this.nombre = nombre;
+        this.limite = limite;
+        this.esperaMs = esperaMs;
+        this.permisos = new Semaphore(limite, true);
+
+        Gauge.builder("controledu.bulkhead.en_uso", this, Bulkhead::enUso)
+                .tag("clase", nombre).description("Peticiones atendidas ahora").register(registry);
+        Gauge.builder("controledu.bulkhead.disponibles", permisos, Semaphore::availablePermits)
+                .tag("clase", nombre).description("Lugares libres").register(registry);
+        Gauge.builder("controledu.bulkhead.en_espera", permisos, Semaphore::getQueueLength)
+                .tag("clase", nombre).description("Peticiones esperando lugar").register(registry);
+        this.rechazos = Counter.builder("controledu.bulkhead.rechazos")
+                .tag("clase", nombre).description("Peticiones rechazadas por falta de lugar").register(registry);
+        this.espera = Timer.builder("controledu.bulkhead.espera")
+                .tag("clase", nombre).description("Tiempo de espera para obtener lugar").register(registry);
+    }
+
+    /**
+     * Intenta obtener un lugar esperando como máximo el tiempo configurado.
+     *
+     * @return true si se obtuvo (debe liberarse con {@link #salir()}); false si se rechazó.
+     */
+    public boolean entrar() {
+        long inicio = System.nanoTime();
+        boolean obtenido;
+        try {
+            obtenido = permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtenido = false;
+        }
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!obtenido) {
+            rechazos.increment();
+        }
+        return obtenido;
+    }
+
+    public void salir() {
+        permisos.release();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int enUso() {
+        return limite - permisos.availablePermits();
+    }
+}
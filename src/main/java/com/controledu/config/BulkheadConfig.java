@@ -0,0 +1,30 @@
+package com.controledu.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bulkheads de los endpoints costosos. La suma de sus límites debe quedar por debajo del
+ * tamaño del pool de conexiones para que siempre haya conexiones para registrar incidentes.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    /** Vistas de listados completos del director (incidentes, observaciones, estudiantes, ...) */
+    @Bean
+    public Bulkhead bulkheadReportesDirector(MeterRegistry registry,
+                                             @Value("${controledu.bulkhead.reportes-director.limite:3}") int limite,
+                                             @Value("${controledu.bulkhead.reportes-director.espera-ms:500}") long esperaMs) {
+        return new Bulkhead("reportes-director", limite, esperaMs, registry);
+    }
+
+    /** Listados completos de la API REST */
+    @Bean
+    public Bulkhead bulkheadReportesApi(MeterRegistry registry,
+                                        @Value("${controledu.bulkhead.reportes-api.limite:2}") int limite,
+                                        @Value("${controledu.bulkhead.reportes-api.espera-ms:500}") long esperaMs) {
+        return new Bulkhead("reportes-api", limite, esperaMs, registry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.controledu.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Aplica un {@link Bulkhead} a las rutas en las que se registra (ver WebConfig).
+ * Si no hay lugar lanza {@link ServicioOcupadoException}, que se responde con 503.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private final Bulkhead bulkhead;
+    private final boolean soloLecturas;
+    private final String atributo;
+
+    /**
+     * @param soloLecturas Si es true, solo se limitan las peticiones GET.
+     */
+    public BulkheadInterceptor(Bulkhead bulkhead, boolean soloLecturas) {
+        this.bulkhead = bulkhead;
+        this.soloLecturas = soloLecturas;
+        this.atributo = BulkheadInterceptor.class.getName() + "." + bulkhead.getNombre();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (soloLecturas && !"GET".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        if (!bulkhead.entrar()) {
+            throw new ServicioOcupadoException(bulkhead.getNombre());
+        }
+        request.setAttribute(atributo, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(atributo) != null) {
+            request.removeAttribute(atributo);
+            bulkhead.salir();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.controledu.config;
+
+import com.controledu.service.ConsultasLentasService;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Pasa a {@link ConsultasLentasService} las ejecuciones JDBC que superan el umbral de consulta
+ * lenta, con sus parámetros y el método de servicio desde el que se lanzaron.
+ *
+ * Sustituye a {@code show-sql} y al log TRACE de parámetros: las sentencias rápidas no generan
+ * ninguna línea de log, y los parámetros solo se formatean para las lentas.
+ *
+ * Por defecto los parámetros se registran sin valores, solo su posición y tipo ("1=&lt;String&gt;"):
+ * el log y el endpoint de administración no deben exponer datos personales ni credenciales.
+ * Con {@code controledu.sql.lenta.valores=true} se incluyen los valores, salvo en las sentencias
+ * que tocan una columna de contraseña, que siempre se enmascaran y nunca se repiten con EXPLAIN.
+ */
+public class ConsultasLentasListener implements QueryExecutionListener {
+
+    private static final int MAX_LONGITUD_VALOR = 100;
+
+    /** Columnas cuyo valor no puede aparecer nunca en el log */
+    private static final Pattern COLUMNA_SENSIBLE = Pattern.compile("(?i)\\b(password|contrase(n|ñ)a)\\b");
+
+    private final ObjectProvider<ConsultasLentasService> servicioProvider;
+    private final long umbralMs;
+    private final boolean mostrarValores;
+    private volatile ConsultasLentasService servicio;
+
+    public ConsultasLentasListener(ObjectProvider<ConsultasLentasService> servicioProvider, long umbralMs,
+                                   boolean mostrarValores) {
+        this.servicioProvider = servicioProvider;
+        this.umbralMs = umbralMs;
+        this.mostrarValores = mostrarValores;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || execInfo.getElapsedTime() < umbralMs) {
+            return;
+        }
+        ConsultasLentasService lentas = servicio();
+        if (lentas == null) {
+            return;
+        }
+        QueryInfo consulta = queryInfoList.get(0);
+        if (consulta.getQuery().regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+            return;
+        }
+        List<ParameterSetOperation> juego = consulta.getParametersList().isEmpty()
+                ? List.of() : consulta.getParametersList().get(0);
+        boolean conValores = mostrarValores && !esSensible(consulta.getQuery());
+        lentas.registrar(consulta.getQuery(), parametros(juego, consulta.getParametersList().size(), conValores),
+                esSensible(consulta.getQuery()) ? null : valores(juego),
+                MetricasServiciosAspect.metodoActual(), execInfo.getElapsedTime(), execInfo.isBatch());
+    }
+
+    // El DataSource se envuelve antes de que exista el servicio; se resuelve con la primera sentencia
+    // lenta. Si llega durante el arranque y el servicio aún no puede crearse, esa sentencia se omite.
+    private ConsultasLentasService servicio() {
+        ConsultasLentasService actual = servicio;
+        if (actual == null) {
+            try {
+                actual = servicioProvider.getIfAvailable();
+                servicio = actual;
+            } catch (BeansException e) {
+                return null;
+            }
+        }
+        return actual;
+    }
+
+    static boolean esSensible(String sql) {
+        return COLUMNA_SENSIBLE.matcher(sql).find();
+    }
+
+    /**
+     * Parámetros del primer juego de la ejecución: "1=25, 2='ACTIVO'" con valores, o
+     * "1=&lt;Integer&gt;, 2=&lt;String&gt;" sin ellos.
+     */
+    static String parametros(List<ParameterSetOperation> juego, int juegos, boolean conValores) {
+        StringBuilder texto = new StringBuilder();
+        for (ParameterSetOperation operacion : juego) {
+            Object[] args = operacion.getArgs();
+            if (!esParametro(operacion)) {
+                continue;
+            }
+            if (texto.length() > 0) {
+                texto.append(", ");
+            }
+            texto.append(args[0]).append('=');
+            boolean nulo = ParameterSetOperation.isSetNullParameterOperation(operacion) || args.length < 2;
+            if (nulo) {
+                texto.append("NULL");
+            } else {
+                texto.append(conValores ? valor(args[1]) : "<" + tipo(args[1]) + ">");
+            }
+        }
+        if (juegos > 1) {
+            texto.append(" (+").append(juegos - 1).append(" juegos más)");
+        }
+        return texto.toString();
+    }
+
+    /** Valores del primer juego en el orden de sus índices, para repetir la sentencia con EXPLAIN. */
+    private static Object[] valores(List<ParameterSetOperation> juego) {
+        Map<Integer, Object> porIndice = new TreeMap<>();
+        for (ParameterSetOperation operacion : juego) {
+            if (esParametro(operacion) && operacion.getArgs()[0] instanceof Integer indice) {
+                Object[] args = operacion.getArgs();
+                boolean nulo = ParameterSetOperation.isSetNullParameterOperation(operacion) || args.length < 2;
+                porIndice.put(indice, nulo ? null : args[1]);
+            }
+        }
+        return porIndice.values().toArray();
+    }
+
+    private static boolean esParametro(ParameterSetOperation operacion) {
+        Object[] args = operacion.getArgs();
+        return args != null && args.length > 0 && !ParameterSetOperation.isRegisterOutParameterOperation(operacion);
+    }
+
+    private static String tipo(Object valor) {
+        return valor == null ? "NULL" : valor.getClass().getSimpleName();
+    }
+
+    private static String valor(Object valor) {
+        if (valor == null) {
+            return "NULL";
+        }
+        if (valor instanceof Number || valor instanceof Boolean) {
+            return valor.toString();
+        }
+        String texto = valor.toString();
+        if (texto.length() > MAX_LONGITUD_VALOR) {
+            texto = texto.substring(0, MAX_LONGITUD_VALOR) + "…";
+        }
+        return "'" + texto + "'";
+    }
+}
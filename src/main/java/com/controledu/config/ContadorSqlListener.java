@@ -0,0 +1,52 @@
+package com.controledu.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuenta cada ejecución JDBC (JPA, JdbcTemplate y consultas nativas por igual): la suma a los
+ * contadores de la petición en curso y al contador global {@code controledu.sql.sentencias} por tipo.
+ * Un lote JDBC cuenta como una sola ejecución.
+ *
+ * Antes de cada ejecución comprueba el presupuesto SQL de la petición (ver {@link PresupuestoSql}).
+ */
+public class ContadorSqlListener implements QueryExecutionListener {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    public ContadorSqlListener(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!queryInfoList.isEmpty()) {
+            EstadisticasPeticion.antesDeSentencia(queryInfoList.get(0).getQuery());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        EstadisticasPeticion.sentenciaEjecutada(sql, TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()));
+
+        MeterRegistry registry = registryProvider.getIfAvailable();
+        if (registry != null && !sql.isEmpty()) {
+            String tipo = QueryUtils.getQueryType(sql).name();
+            Counter.builder("controledu.sql.sentencias")
+                    .description("Ejecuciones JDBC por tipo de sentencia")
+                    .tag("tipo", tipo)
+                    .tag("lote", String.valueOf(execInfo.isBatch()))
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.controledu.config;
+
+import com.controledu.service.ConsultasLentasService;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource con datasource-proxy para observar todas las sentencias JDBC,
+ * sin importar si vienen de Hibernate o de JdbcTemplate: las cuenta ({@link ContadorSqlListener}),
+ * registra las lentas ({@link ConsultasLentasListener}) y las emite como eventos de JFR mientras
+ * haya una grabación ({@link JfrSqlListener}).
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Estático: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor proxyDataSource(ObjectProvider<MeterRegistry> registryProvider,
+                                                    ObjectProvider<ConsultasLentasService> consultasLentasProvider,
+                                                    Environment environment) {
+        ContadorSqlListener contador = new ContadorSqlListener(registryProvider);
+        ConsultasLentasListener lentas = new ConsultasLentasListener(consultasLentasProvider,
+                environment.getProperty("controledu.sql.lenta.umbral-ms", Long.class, 200L),
+                environment.getProperty("controledu.sql.lenta.valores", Boolean.class, false));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(contador)
+                            .listener(lentas)
+                            .listener(new JfrSqlListener())
+                            .jdbcProxyFactory(JfrSqlListener.fabricaProxies())
+                            .proxyResultSet(JfrSqlListener.fabricaResultSet())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package com.controledu.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contadores de la petición HTTP en curso: sentencias SQL, tiempo en la base de datos y
+ * entidades y colecciones cargadas por Hibernate.
+ *
+ * {@link MetricasPeticionFilter} los abre y cierra; el proxy del DataSource y los listeners de
+ * Hibernate los incrementan. Fuera de una petición (tareas programadas, hilos propios) no hay
+ * contadores y los incrementos se ignoran.
+ *
+ * También lleva el presupuesto SQL de la petición ({@link PresupuestoSql}) y cuántas veces se
+ * ejecutó cada sentencia: el mismo SQL preparado con distintos parámetros muchas veces en una
+ * petición es la firma de un N+1.
+ */
+public final class EstadisticasPeticion {
+
+    private static final ThreadLocal<EstadisticasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private int sentencias;
+    private long nanosSql;
+    private int entidades;
+    private int colecciones;
+
+    /** Ejecuciones por texto SQL */
+    private final Map<String, Integer> repeticiones = new HashMap<>();
+    private String sentenciaMasRepetida;
+    private int maxRepeticiones;
+
+    /** Máximo de sentencias (0 = sin presupuesto) */
+    private int presupuesto;
+    private int umbralRepeticiones;
+    private final boolean estricto;
+
+    private EstadisticasPeticion(int umbralRepeticiones, boolean estricto) {
+        this.umbralRepeticiones = umbralRepeticiones;
+        this.estricto = estricto;
+    }
+
+    static EstadisticasPeticion iniciar(int umbralRepeticiones, boolean estricto) {
+        EstadisticasPeticion estadisticas = new EstadisticasPeticion(umbralRepeticiones, estricto);
+        ACTUAL.set(estadisticas);
+        return estadisticas;
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /** Contadores de la petición del hilo actual, o null fuera de una petición. */
+    public static EstadisticasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    /** Fija el presupuesto del endpoint; {@code repeticiones} negativo conserva el umbral global. */
+    void limitar(int maximo, int repeticiones) {
+        this.presupuesto = maximo;
+        if (repeticiones >= 0) {
+            this.umbralRepeticiones = repeticiones;
+        }
+    }
+
+    /**
+     * En modo estricto, impide ejecutar la sentencia que excedería el presupuesto o el umbral
+     * de repeticiones.
+     */
+    static void antesDeSentencia(String sql) {
+        EstadisticasPeticion estadisticas = ACTUAL.get();
+        if (estadisticas == null || !estadisticas.estricto) {
+            return;
+        }
+        if (estadisticas.presupuesto > 0 && estadisticas.sentencias + 1 > estadisticas.presupuesto) {
+            throw new PresupuestoSqlExcedidoException("La petición excede su presupuesto de "
+                    + estadisticas.presupuesto + " sentencias SQL; siguiente: " + recortar(sql));
+        }
+        int veces = estadisticas.repeticiones.getOrDefault(sql, 0) + 1;
+        if (estadisticas.umbralRepeticiones > 0 && veces > estadisticas.umbralRepeticiones) {
+            throw new PresupuestoSqlExcedidoException("Posible N+1: la misma sentencia se ejecuta " + veces
+                    + " veces en la petición (umbral " + estadisticas.umbralRepeticiones + "): " + recortar(sql));
+        }
+    }
+
+    static void sentenciaEjecutada(String sql, long nanos) {
+        EstadisticasPeticion estadisticas = ACTUAL.get();
+        if (estadisticas != null) {
+            estadisticas.sentencias++;
+            estadisticas.nanosSql += nanos;
+            int veces = estadisticas.repeticiones.merge(sql, 1, Integer::sum);
+            if (veces > estadisticas.maxRepeticiones) {
+                estadisticas.maxRepeticiones = veces;
+                estadisticas.sentenciaMasRepetida = sql;
+            }
+        }
+    }
+
+    static String recortar(String sql) {
+        return sql.length() > 200 ? sql.substring(0, 200) + "..." : sql;
+    }
+
+    static void entidadCargada() {
+        EstadisticasPeticion estadisticas = ACTUAL.get();
+        if (estadisticas != null) {
+            estadisticas.entidades++;
+        }
+    }
+
+    static void coleccionCargada() {
+        EstadisticasPeticion estadisticas = ACTUAL.get();
+        if (estadisticas != null) {
+            estadisticas.colecciones++;
+        }
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanosSql() {
+        return nanosSql;
+    }
+
+    public int getEntidades() {
+        return entidades;
+    }
+
+    public int getColecciones() {
+        return colecciones;
+    }
+
+    public int getPresupuesto() {
+        return presupuesto;
+    }
+
+    public boolean isPresupuestoExcedido() {
+        return presupuesto > 0 && sentencias > presupuesto;
+    }
+
+    /** Si alguna sentencia se repitió más veces que el umbral de N+1. */
+    public boolean isRepeticionExcesiva() {
+        return umbralRepeticiones > 0 && maxRepeticiones > umbralRepeticiones;
+    }
+
+    public int getMaxRepeticiones() {
+        return maxRepeticiones;
+    }
+
+    public String getSentenciaMasRepetida() {
+        return sentenciaMasRepetida;
+    }
+}
@@ -0,0 +1,32 @@
+package com.controledu.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra listeners de Hibernate que cuentan, por petición, las entidades hidratadas y las
+ * colecciones inicializadas (cargas perezosas incluidas).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HibernateEstadisticasConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void registrarListeners() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD,
+                (PostLoadEventListener) evento -> EstadisticasPeticion.entidadCargada());
+        listeners.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) evento -> EstadisticasPeticion.coleccionCargada());
+    }
+}
@@ -0,0 +1,42 @@
+package com.controledu.config;
+
+import com.controledu.jfr.EventoPlantilla;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Emite un {@link EventoPlantilla} por el renderizado de la vista, mientras haya una grabación de
+ * JFR que lo tenga habilitado: empieza en postHandle (el controlador ya terminó) y termina en
+ * afterCompletion, que Spring MVC llama después de renderizar. Las redirecciones no se miden.
+ */
+public class JfrPlantillaInterceptor implements HandlerInterceptor {
+
+    private static final String ATRIBUTO = JfrPlantillaInterceptor.class.getName() + ".evento";
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        EventoPlantilla evento = new EventoPlantilla();
+        if (evento.isEnabled()) {
+            evento.vista = modelAndView.getViewName();
+            evento.begin();
+            request.setAttribute(ATRIBUTO, evento);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATRIBUTO) instanceof EventoPlantilla evento) {
+            request.removeAttribute(ATRIBUTO);
+            evento.exito = ex == null;
+            evento.commit();
+        }
+    }
+}
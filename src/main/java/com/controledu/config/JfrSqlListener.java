@@ -0,0 +1,155 @@
+package com.controledu.config;
+
+import com.controledu.jfr.EventoSql;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.jdk.JdkJdbcProxyFactory;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Emite un {@link EventoSql} por cada ejecución JDBC mientras haya una grabación de JFR que lo
+ * tenga habilitado; sin grabación no hace más que comprobarlo.
+ *
+ * En los DML las filas son el recuento de actualizaciones (la suma, en los lotes). En los SELECT
+ * el recuento no se conoce al terminar la ejecución: el ResultSet se envuelve para contar los
+ * {@code next()} y el evento se emite cuando se agotan las filas o se cierra. Solo se envuelven
+ * los ResultSet de sentencias que se están grabando ({@link #fabricaProxies()}).
+ */
+public class JfrSqlListener implements QueryExecutionListener {
+
+    /** Evento de la sentencia en ejecución en el hilo, entre beforeQuery y afterQuery */
+    private static final ThreadLocal<SentenciaEnCurso> EN_CURSO = new ThreadLocal<>();
+
+    private static final class SentenciaEnCurso {
+        final EventoSql evento;
+        FilasResultSet filas;
+
+        SentenciaEnCurso(EventoSql evento) {
+            this.evento = evento;
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        EventoSql evento = new EventoSql();
+        if (evento.isEnabled()) {
+            evento.begin();
+            EN_CURSO.set(new SentenciaEnCurso(evento));
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SentenciaEnCurso enCurso = EN_CURSO.get();
+        if (enCurso == null) {
+            return;
+        }
+        EN_CURSO.remove();
+        EventoSql evento = enCurso.evento;
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        evento.sentencia = sql;
+        evento.tipo = sql.isEmpty() ? "" : QueryUtils.getQueryType(sql).name();
+        evento.lote = execInfo.isBatch();
+        evento.metodo = MetricasServiciosAspect.metodoActual();
+        evento.exito = execInfo.isSuccess();
+        if (enCurso.filas != null && execInfo.isSuccess()) {
+            // Lo emite el ResultSet cuando se terminen de leer las filas
+            enCurso.filas.evento = evento;
+            return;
+        }
+        evento.filas = filas(execInfo.getResult());
+        evento.commit();
+    }
+
+    private static long filas(Object resultado) {
+        if (resultado instanceof Number numero) {
+            return numero.longValue();
+        }
+        if (resultado instanceof int[] recuentos) {
+            long suma = 0;
+            for (int recuento : recuentos) {
+                suma += Math.max(recuento, 0);
+            }
+            return suma;
+        }
+        if (resultado instanceof long[] recuentos) {
+            long suma = 0;
+            for (long recuento : recuentos) {
+                suma += Math.max(recuento, 0);
+            }
+            return suma;
+        }
+        return -1;
+    }
+
+    // ================================================================
+    // RESULTSET
+    // ================================================================
+
+    /** Solo envuelve el ResultSet si la sentencia en curso se está grabando. */
+    public static JdkJdbcProxyFactory fabricaProxies() {
+        return new JdkJdbcProxyFactory() {
+            @Override
+            public ResultSet createResultSet(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+                return EN_CURSO.get() != null ? super.createResultSet(resultSet, connectionInfo, proxyConfig) : resultSet;
+            }
+        };
+    }
+
+    public static ResultSetProxyLogicFactory fabricaResultSet() {
+        return (resultSet, connectionInfo, proxyConfig) -> {
+            FilasResultSet filas = new FilasResultSet(resultSet, connectionInfo, proxyConfig);
+            SentenciaEnCurso enCurso = EN_CURSO.get();
+            if (enCurso != null) {
+                enCurso.filas = filas;
+            }
+            return filas;
+        };
+    }
+
+    /** Cuenta las filas leídas y emite el evento pendiente al agotarlas o al cerrar. */
+    private static final class FilasResultSet extends SimpleResultSetProxyLogic {
+
+        EventoSql evento;
+        long filas;
+
+        FilasResultSet(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+            super(resultSet, connectionInfo, proxyConfig);
+        }
+
+        @Override
+        protected Object performProxyLogic(Object proxy, Method method, Object[] args,
+                                           MethodExecutionContext methodContext) throws Throwable {
+            Object resultado = super.performProxyLogic(proxy, method, args, methodContext);
+            String nombre = method.getName();
+            if ("next".equals(nombre)) {
+                if (Boolean.TRUE.equals(resultado)) {
+                    filas++;
+                } else {
+                    emitir();
+                }
+            } else if ("close".equals(nombre)) {
+                emitir();
+            }
+            return resultado;
+        }
+
+        private void emitir() {
+            if (evento != null) {
+                evento.filas = filas;
+                evento.commit();
+                evento = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.controledu.config;
+
+import com.controledu.jfr.EventoPeticion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo en base de datos de cada petición: sentencias SQL, tiempo en JDBC, entidades
+ * y colecciones cargadas. Cubre también el renderizado de la vista, donde las relaciones
+ * perezosas se cargan con open-in-view.
+ *
+ * Publica {@code controledu.peticion.sql}, {@code controledu.peticion.sql.tiempo},
+ * {@code controledu.peticion.entidades} y {@code controledu.peticion.colecciones} etiquetadas
+ * por patrón de URL y método HTTP.
+ *
+ * Las peticiones que exceden su {@link PresupuestoSql} o repiten una sentencia más de
+ * {@code controledu.sql.umbral-repeticiones} veces (posible N+1) se registran con un aviso y en
+ * {@code controledu.sql.presupuesto.excedido} / {@code controledu.sql.n_mas_uno}.
+ *
+ * Con una grabación de JFR en curso emite además un {@link EventoPeticion} por petición.
+ */
+@Slf4j
+@Component
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int umbralRepeticiones;
+    private final boolean estricto;
+
+    public MetricasPeticionFilter(MeterRegistry registry,
+                                  @Value("${controledu.sql.umbral-repeticiones:10}") int umbralRepeticiones,
+                                  @Value("${controledu.sql.presupuesto.estricto:false}") boolean estricto) {
+        this.registry = registry;
+        this.umbralRepeticiones = umbralRepeticiones;
+        this.estricto = estricto;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return ruta.startsWith("/css/") || ruta.startsWith("/js/") || ruta.startsWith("/images/")
+                || ruta.startsWith("/webjars/") || ruta.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EstadisticasPeticion estadisticas = EstadisticasPeticion.iniciar(umbralRepeticiones, estricto);
+        EventoPeticion evento = new EventoPeticion();
+        evento.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            EstadisticasPeticion.terminar();
+            registrar(request, estadisticas);
+            if (evento.shouldCommit()) {
+                Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                evento.metodo = request.getMethod();
+                evento.uri = request.getRequestURI();
+                evento.patron = patron != null ? patron.toString() : "";
+                evento.estado = response.getStatus();
+                evento.sentencias = estadisticas.getSentencias();
+                evento.commit();
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, EstadisticasPeticion estadisticas) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("uri", patron != null ? patron.toString() : "NINGUNA", "metodo", request.getMethod());
+
+        DistributionSummary.builder("controledu.peticion.sql")
+                .description("Sentencias SQL por petición").baseUnit("sentencias")
+                .tags(tags).register(registry).record(estadisticas.getSentencias());
+        Timer.builder("controledu.peticion.sql.tiempo")
+                .description("Tiempo en JDBC por petición")
+                .tags(tags).register(registry).record(estadisticas.getNanosSql(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("controledu.peticion.entidades")
+                .description("Entidades cargadas por Hibernate por petición").baseUnit("entidades")
+                .tags(tags).register(registry).record(estadisticas.getEntidades());
+        DistributionSummary.builder("controledu.peticion.colecciones")
+                .description("Colecciones inicializadas por Hibernate por petición").baseUnit("colecciones")
+                .tags(tags).register(registry).record(estadisticas.getColecciones());
+
+        if (estadisticas.isPresupuestoExcedido()) {
+            Counter.builder("controledu.sql.presupuesto.excedido")
+                    .description("Peticiones que excedieron su presupuesto SQL")
+                    .tags(tags).register(registry).increment();
+            log.warn("{} {} excedió su presupuesto SQL: {} sentencias (máximo {})", request.getMethod(), patron,
+                    estadisticas.getSentencias(), estadisticas.getPresupuesto());
+        }
+        if (estadisticas.isRepeticionExcesiva()) {
+            Counter.builder("controledu.sql.n_mas_uno")
+                    .description("Peticiones que repitieron una misma sentencia más veces que el umbral")
+                    .tags(tags).register(registry).increment();
+            log.warn("Posible N+1 en {} {}: la misma sentencia se ejecutó {} veces: {}", request.getMethod(), patron,
+                    estadisticas.getMaxRepeticiones(), EstadisticasPeticion.recortar(estadisticas.getSentenciaMasRepetida()));
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("{} {}: {} SQL ({} ms), {} entidades, {} colecciones", request.getMethod(), patron,
+                    estadisticas.getSentencias(), TimeUnit.NANOSECONDS.toMillis(estadisticas.getNanosSql()),
+                    estadisticas.getEntidades(), estadisticas.getColecciones());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.controledu.config;
+
+import com.controledu.jfr.EventoServicio;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Temporizador {@code controledu.servicio} para cada método público de los servicios, etiquetado
+ * por clase, método y excepción. Los repositorios ya los mide Spring Boot
+ * ({@code spring.data.repository.invocations}).
+ *
+ * También anota el método de servicio en curso en el hilo, para que el log de consultas lentas
+ * ({@link ConsultasLentasListener}) pueda decir desde dónde se ejecutó cada sentencia, y emite un
+ * {@link EventoServicio} por llamada mientras haya una grabación de JFR que lo tenga habilitado.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasServiciosAspect {
+
+    /** Método de servicio más interno en curso en el hilo (Clase.metodo) */
+    private static final ThreadLocal<String> METODO_ACTUAL = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    /** Método de servicio en curso en el hilo actual, o null fuera de los servicios. */
+    public static String metodoActual() {
+        return METODO_ACTUAL.get();
+    }
+
+    @Around("execution(public * com.controledu.service..*(..))")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        Timer.Sample muestra = Timer.start(registry);
+        EventoServicio evento = new EventoServicio();
+        evento.begin();
+        String excepcion = "ninguna";
+        String anterior = METODO_ACTUAL.get();
+        METODO_ACTUAL.set(punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName());
+        try {
+            return punto.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (anterior == null) {
+                METODO_ACTUAL.remove();
+            } else {
+                METODO_ACTUAL.set(anterior);
+            }
+            muestra.stop(Timer.builder("controledu.servicio")
+                    .description("Duración de los métodos públicos de los servicios")
+                    .tag("clase", punto.getSignature().getDeclaringType().getSimpleName())
+                    .tag("metodo", punto.getSignature().getName())
+                    .tag("excepcion", excepcion)
+                    .register(registry));
+            if (evento.shouldCommit()) {
+                evento.clase = punto.getSignature().getDeclaringType().getSimpleName();
+                evento.metodo = punto.getSignature().getName();
+                evento.excepcion = "ninguna".equals(excepcion) ? "" : excepcion;
+                evento.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.controledu.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Presupuesto de sentencias SQL de un endpoint (método de controlador o controlador completo).
+ *
+ * Se mide toda la petición, incluido el renderizado de la vista. En producción, excederlo solo se
+ * registra; con {@code controledu.sql.presupuesto.estricto=true} (pruebas) la sentencia que lo
+ * excede lanza {@link PresupuestoSqlExcedidoException} y la petición falla.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoSql {
+
+    /** Máximo de sentencias SQL por petición. */
+    int value();
+
+    /**
+     * Máximo de ejecuciones de una misma sentencia (mismo SQL, distintos parámetros) antes de
+     * considerarla un N+1; -1 usa {@code controledu.sql.umbral-repeticiones}.
+     */
+    int repeticiones() default -1;
+}
@@ -0,0 +1,12 @@
+package com.controledu.config;
+
+/**
+ * Se lanza en modo estricto cuando una petición excede su {@link PresupuestoSql} o repite una
+ * misma sentencia más veces que el umbral de N+1.
+ */
+public class PresupuestoSqlExcedidoException extends RuntimeException {
+
+    public PresupuestoSqlExcedidoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,30 @@
+package com.controledu.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Aplica a la petición en curso el {@link PresupuestoSql} declarado en el método del controlador
+ * o, en su defecto, en la clase.
+ */
+public class PresupuestoSqlInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        EstadisticasPeticion estadisticas = EstadisticasPeticion.actual();
+        if (estadisticas == null || !(handler instanceof HandlerMethod metodo)) {
+            return true;
+        }
+        PresupuestoSql presupuesto = AnnotatedElementUtils.findMergedAnnotation(metodo.getMethod(), PresupuestoSql.class);
+        if (presupuesto == null) {
+            presupuesto = AnnotatedElementUtils.findMergedAnnotation(metodo.getBeanType(), PresupuestoSql.class);
+        }
+        if (presupuesto != null) {
+            estadisticas.limitar(presupuesto.value(), presupuesto.repeticiones());
+        }
+        return true;
+    }
+}
@@ -1,10 +1,14 @@
 package com.controledu.config;
 
+import jakarta.servlet.http.HttpSession;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
@@ -15,11 +19,32 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authz -> authz
+                        // Administración (consultas lentas, JFR), outbox e importaciones de roster:
+                        // solo con sesión de director
+                        .requestMatchers(new AntPathRequestMatcher("/api/admin/**"),
+                                new AntPathRequestMatcher("/api/outbox/**"),
+                                new AntPathRequestMatcher("/api/importaciones/**")).access(directorEnSesion())
+                        // Actuator: health abierto para balanceadores; métricas (latencia por URI, SQL,
+                        // métodos de servicio) solo con sesión de director
+                        .requestMatchers(new AntPathRequestMatcher("/actuator/health"),
+                                new AntPathRequestMatcher("/actuator/health/**")).permitAll()
+                        .requestMatchers(new AntPathRequestMatcher("/actuator/**")).access(directorEnSesion())
                         // Permitirtodo temporalmente para debugging
                         .anyRequest().permitAll()
                 )
-                .csrf(csrf -> csrf.disable()); // Deshabilitar CSRF temporalmente
+                .csrf(csrf -> csrf.disable()); // Deshabilitar CSRF temporalmente (la cookie de sesión es SameSite=Lax)
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * El login de la aplicación (AuthController) guarda el rol en la sesión HTTP, no en el
+     * SecurityContext: se autoriza con ese atributo. Sin sesión de director se responde 403.
+     */
+    static AuthorizationManager<RequestAuthorizationContext> directorEnSesion() {
+        return (autenticacion, contexto) -> {
+            HttpSession sesion = contexto.getRequest().getSession(false);
+            return new AuthorizationDecision(sesion != null && "DIRECTOR".equals(sesion.getAttribute("rol")));
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.controledu.config;
+
+import com.controledu.service.SemillaDatosService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Siembra de datos sintéticos al arrancar, activa con {@code controledu.semilla.habilitado=true}.
+ *
+ * El perfil {@code embebido} (la aplicación completa sobre H2 en memoria en modo MySQL, ver
+ * application-embebido.properties) la activa siempre. Contra MySQL sirve para preparar una base
+ * vacía de pruebas de escala:
+ *
+ * {@code mvn spring-boot:run -Dspring-boot.run.arguments="--controledu.semilla.habilitado=true --controledu.semilla.incidentes=5000000 --controledu.semilla.anios=5"}
+ *
+ * Siembra los datos antes que cualquier otro runner y antes de ApplicationReadyEvent, así que los
+ * índices en memoria que se construyen al arrancar ya ven el volumen sintético.
+ *
+ * La propiedad se consulta al ejecutar y no con una condición sobre el bean: el procesamiento AOT
+ * (perfil Maven {@code arranque}) fija las condiciones al compilar.
+ */
+@Configuration
+public class SemillaDatosConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner sembrarDatos(SemillaDatosService semillaDatosService,
+                                          @Value("${controledu.semilla.habilitado:false}") boolean habilitado) {
+        return args -> {
+            if (habilitado) {
+                semillaDatosService.sembrar();
+            }
+        };
+    }
+}
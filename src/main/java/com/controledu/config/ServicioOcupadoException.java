@@ -0,0 +1,18 @@
+package com.controledu.config;
+
+/**
+ * Se lanza cuando un {@link Bulkhead} no tiene lugar para atender la petición.
+ */
+public class ServicioOcupadoException extends RuntimeException {
+
+    private final String clase;
+
+    public ServicioOcupadoException(String clase) {
+        super("Servicio ocupado: " + clase);
+        this.clase = clase;
+    }
+
+    public String getClase() {
+        return clase;
+    }
+}
@@ -0,0 +1,34 @@
+package com.controledu.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+
+/**
+ * Respuesta rápida cuando un {@link Bulkhead} rechaza una petición: vista "ocupado" para el
+ * navegador y JSON para la API, ambas con 503 y Retry-After.
+ */
+@ControllerAdvice
+public class ServicioOcupadoHandler {
+
+    private static final String REINTENTAR_SEGUNDOS = "2";
+
+    @ExceptionHandler(ServicioOcupadoException.class)
+    public Object ocupado(ServicioOcupadoException e, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader("Retry-After", REINTENTAR_SEGUNDOS);
+        if (request.getRequestURI().startsWith(request.getContextPath() + "/api/")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Servicio ocupado, intente de nuevo en unos segundos", "clase", e.getClase()));
+        }
+        ModelAndView vista = new ModelAndView("error/ocupado");
+        vista.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        vista.addObject("clase", e.getClase());
+        return vista;
+    }
+}
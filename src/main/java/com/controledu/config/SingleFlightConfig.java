@@ -0,0 +1,30 @@
+package com.controledu.config;
+
+import com.controledu.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Coalescencia de lecturas costosas repetidas (listas del roster y conteos del panel del director).
+ * Una ráfaga de peticiones idénticas ejecuta una sola consulta; el resultado se comparte además
+ * durante {@code controledu.single-flight.ttl-ms} tras terminar.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight singleFlight(MeterRegistry registry,
+                                     @Value("${controledu.single-flight.ttl-ms:250}") long ttlMs) {
+        SingleFlight singleFlight = new SingleFlight(ttlMs);
+        FunctionCounter.builder("controledu.single_flight.ejecuciones", singleFlight, SingleFlight::getEjecuciones)
+                .description("Consultas ejecutadas por la capa single-flight")
+                .register(registry);
+        FunctionCounter.builder("controledu.single_flight.compartidas", singleFlight, SingleFlight::getCompartidas)
+                .description("Lecturas resueltas con el resultado de otra consulta")
+                .register(registry);
+        return singleFlight;
+    }
+}
@@ -1,6 +1,8 @@
 package com.controledu.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -8,6 +10,33 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final Bulkhead bulkheadReportesDirector;
+    private final Bulkhead bulkheadReportesApi;
+
+    public WebConfig(@Qualifier("bulkheadReportesDirector") Bulkhead bulkheadReportesDirector,
+                     @Qualifier("bulkheadReportesApi") Bulkhead bulkheadReportesApi) {
+        this.bulkheadReportesDirector = bulkheadReportesDirector;
+        this.bulkheadReportesApi = bulkheadReportesApi;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Presupuestos SQL declarados con @PresupuestoSql
+        registry.addInterceptor(new PresupuestoSqlInterceptor());
+
+        // Renderizado de vistas en las grabaciones de JFR
+        registry.addInterceptor(new JfrPlantillaInterceptor());
+
+        // Listados completos del director: limitados para no agotar el pool de conexiones
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadReportesDirector, true))
+                .addPathPatterns("/director/incidentes", "/director/observaciones", "/director/estudiantes",
+                        "/director/docentes", "/director/conductas");
+
+        // Listados completos (findAll) de la API REST
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadReportesApi, true))
+                .addPathPatterns("/api/registro-conductas", "/api/observaciones", "/api/conductas");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Handlers para recursos estáticos
@@ -1,5 +1,9 @@
 package com.controledu.controller;
 
+import com.controledu.config.PresupuestoSql;
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.dto.TransicionEstadoDTO;
 import com.controledu.model.Director;
 import com.controledu.model.Estudiante;
 import com.controledu.model.Conducta;
@@ -12,12 +16,17 @@ import com.controledu.service.*;
 import jakarta.persistence.EntityNotFoundException; // Para manejo de errores
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate; // O LocalDateTime si usas esa clase
@@ -50,12 +59,15 @@ public class DirectorController {
     private final RegistroConductaService registroConductaService;
     private final ObservacionService observacionService;
     private final TipoGravedadService tipoGravedadService;
+    private final AcuseLecturaService acuseLecturaService;
+    private final EventosEnVivoService eventosEnVivoService;
 
     // --- DASHBOARD ---
     /**
      * Renderiza el dashboard del director con métricas y listados recientes.
      * Verifica sesión activa; si no hay usuario en sesión, redirige a login.
      */
+    @PresupuestoSql(20)
     @GetMapping("/dashboard")
     public String dashboard(HttpSession session, Model model) {
         // Recupera el usuario (Director) de la sesión.
@@ -95,9 +107,12 @@ public class DirectorController {
     // --- GESTIÓN DE INCIDENTES (LISTA) ---
     /**
      * Página principal de incidentes para el director con filtros y métricas.
+     * Si llegan filtros por query string (gravedad, grado, estado, leido...), la selección
+     * se resuelve en el índice en memoria y solo se cargan los incidentes que cumplen.
      */
     @GetMapping("/incidentes")
-    public String mostrarPaginaIncidentes(HttpSession session, Model model) {
+    public String mostrarPaginaIncidentes(@ModelAttribute("filtro") FiltroIncidentesDTO filtro,
+                                          HttpSession session, Model model) {
         // Control de acceso: requiere director autenticado en sesión.
         Director director = (Director) session.getAttribute("usuario");
         if (director == null) {
@@ -116,8 +131,10 @@ public class DirectorController {
         if (grados == null) grados = new ArrayList<>();
         model.addAttribute("grados", grados);
 
-        // Listado completo de incidentes (podrías paginar en el servicio si crece).
-        List<RegistroConducta> incidentes = registroConductaService.findAll();
+        // Listado de incidentes: filtrado por el índice si hay criterios, completo si no.
+        List<RegistroConducta> incidentes = filtro.tieneCriterios()
+                ? registroConductaService.findFiltrados(filtro)
+                : registroConductaService.findAll();
         if (incidentes == null) incidentes = new ArrayList<>();
         model.addAttribute("incidentes", incidentes);
 
@@ -143,6 +160,7 @@ public class DirectorController {
     /**
      * Listado de estudiantes para el director.
      */
+    @PresupuestoSql(10)
     @GetMapping("/estudiantes")
     public String mostrarPaginaEstudiantes(HttpSession session, Model model) {
         Director director = (Director) session.getAttribute("usuario");
@@ -150,7 +168,9 @@ public class DirectorController {
             return "redirect:/auth/login";
         }
         model.addAttribute("director", director);
-        model.addAttribute("estudiantes", estudianteService.findAll()); // Carga la lista de estudiantes
+        model.addAttribute("estudiantes", estudianteService.findAllResumen()); // Carga la lista de estudiantes
+        // Incidentes por estudiante en una consulta agrupada (columna de la tabla y tarjetas de resumen)
+        model.addAttribute("incidentesPorEstudiante", registroConductaService.countPorEstudiante());
         return "director/estudiantes";
     }
 
@@ -222,7 +242,7 @@ public class DirectorController {
     /**
      * Vista de detalle para un incidente específico.
      * - Recupera por id usando el servicio y maneja caso no encontrado con flash message.
-     * - Marca como leído automáticamente si aún no lo estaba (manejo en try/catch).
+     * - Encola el acuse de lectura si aún no estaba leído; se persiste en lote, sin escribir en este GET.
      */
     @GetMapping("/incidentes/detalle/{id}")
     public String verDetalleIncidente(@PathVariable Long id, HttpSession session, Model model, RedirectAttributes redirectAttributes) {
@@ -243,14 +263,8 @@ public class DirectorController {
         model.addAttribute("director", director);
         model.addAttribute("incidente", incidente);
 
-        // Si no estaba leído, se intenta marcar automáticamente (controlando excepciones).
-        if (!incidente.getLeido()) {
-            try {
-                registroConductaService.marcarComoLeido(id);
-            } catch (Exception e) {
-                redirectAttributes.addFlashAttribute("warningMessage", "No se pudo marcar como leído automáticamente: " + e.getMessage());
-            }
-        }
+        // Si no estaba leído, se encola el acuse (el buffer lo vuelca en lote).
+        acuseLecturaService.incidenteLeido(id, incidente.getLeido());
         return "director/incidente-detalle";
     }
 
@@ -286,8 +300,16 @@ public class DirectorController {
         }
 
         try {
-            registroConductaService.cambiarEstado(id, "RESUELTO");
-            redirectAttributes.addFlashAttribute("successMessage", "Incidente marcado como resuelto.");
+            TransicionEstadoDTO transicion = registroConductaService.cambiarEstado(id, "RESUELTO", director.getUsuario());
+            switch (transicion.getResultado()) {
+                case APLICADA -> redirectAttributes.addFlashAttribute("successMessage", "Incidente marcado como resuelto.");
+                case SIN_CAMBIO -> redirectAttributes.addFlashAttribute("warningMessage", "El incidente ya estaba resuelto.");
+                case CONFLICTO -> redirectAttributes.addFlashAttribute("warningMessage",
+                        "Otro usuario cambió el incidente a " + transicion.getEstadoActual() + ". Revise antes de continuar.");
+                case NO_PERMITIDA -> redirectAttributes.addFlashAttribute("errorMessage",
+                        "No se puede resolver un incidente " + transicion.getEstadoAnterior() + ".");
+                case NO_ENCONTRADO -> redirectAttributes.addFlashAttribute("errorMessage", "Incidente no encontrado.");
+            }
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error al resolver el incidente: " + e.getMessage());
         }
@@ -295,12 +317,56 @@ public class DirectorController {
         return "redirect:/director/incidentes";
     }
 
+    /**
+     * Acción POST masiva sobre incidentes: marca como leídos los seleccionados
+     * (casillas de la tabla) o todos los anteriores a una fecha.
+     */
+    @PostMapping("/incidentes/masivo/marcar-leidos")
+    public String marcarIncidentesLeidosMasivo(@ModelAttribute SeleccionMasivaDTO seleccion, HttpSession session,
+                                               RedirectAttributes redirectAttributes) {
+        Director director = (Director) session.getAttribute("usuario");
+        if (director == null) {
+            return "redirect:/auth/login";
+        }
+
+        try {
+            int afectados = registroConductaService.marcarComoLeidoMasivo(seleccion).getAfectados();
+            redirectAttributes.addFlashAttribute("successMessage", afectados + " incidente(s) marcado(s) como leído(s).");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error al marcar como leídos: " + e.getMessage());
+        }
+
+        return "redirect:/director/incidentes";
+    }
+
+    /**
+     * Acción POST masiva sobre incidentes: cambia el estado de los seleccionados
+     * o de todos los anteriores a una fecha.
+     */
+    @PostMapping("/incidentes/masivo/estado")
+    public String cambiarEstadoIncidentesMasivo(@ModelAttribute SeleccionMasivaDTO seleccion, HttpSession session,
+                                                RedirectAttributes redirectAttributes) {
+        Director director = (Director) session.getAttribute("usuario");
+        if (director == null) {
+            return "redirect:/auth/login";
+        }
+
+        try {
+            int afectados = registroConductaService.cambiarEstadoMasivo(seleccion, director.getUsuario()).getAfectados();
+            redirectAttributes.addFlashAttribute("successMessage", afectados + " incidente(s) actualizado(s).");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error al cambiar el estado: " + e.getMessage());
+        }
+
+        return "redirect:/director/incidentes";
+    }
+
     // --- MÉTODOS PARA ACCIONES DE OBSERVACIONES ---
 
     /**
      * Vista de detalle para una observación específica.
      * Similar al detalle de incidente: valida existencia, carga en modelo,
-     * e intenta marcar como leída si aún no lo estaba.
+     * y encola el acuse de lectura si aún no estaba leída.
      */
     @GetMapping("/observaciones/detalle/{id}")
     public String verDetalleObservacion(@PathVariable Long id, HttpSession session, Model model, RedirectAttributes redirectAttributes) {
@@ -319,14 +385,8 @@ public class DirectorController {
         model.addAttribute("director", director);
         model.addAttribute("observacion", observacion);
 
-        // Intento de marcado automático como leída.
-        if (!observacion.getLeido()) {
-            try {
-                observacionService.marcarComoLeida(id);
-            } catch (Exception e) {
-                redirectAttributes.addFlashAttribute("warningMessage", "No se pudo marcar como leída automáticamente: " + e.getMessage());
-            }
-        }
+        // Acuse de lectura diferido.
+        acuseLecturaService.observacionLeida(id, observacion.getLeido());
 
         return "director/observacion-detalle";
     }
@@ -351,6 +411,28 @@ public class DirectorController {
         return "redirect:/director/observaciones";
     }
 
+    /**
+     * Acción POST masiva: marca como leídas las observaciones seleccionadas
+     * o todas las anteriores a una fecha.
+     */
+    @PostMapping("/observaciones/masivo/marcar-leidas")
+    public String marcarObservacionesLeidasMasivo(@ModelAttribute SeleccionMasivaDTO seleccion, HttpSession session,
+                                                  RedirectAttributes redirectAttributes) {
+        Director director = (Director) session.getAttribute("usuario");
+        if (director == null) {
+            return "redirect:/auth/login";
+        }
+
+        try {
+            int afectados = observacionService.marcarComoLeidaMasivo(seleccion).getAfectados();
+            redirectAttributes.addFlashAttribute("successMessage", afectados + " observación(es) marcada(s) como leída(s).");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error al marcar como leídas: " + e.getMessage());
+        }
+
+        return "redirect:/director/observaciones";
+    }
+
     /**
      * Acción POST para eliminar una observación por su id.
      */
@@ -370,4 +452,18 @@ public class DirectorController {
 
         return "redirect:/director/observaciones";
     }
+
+    // --- EVENTOS EN VIVO ---
+    /**
+     * Flujo SSE con los cambios de incidentes y observaciones que le corresponden al director,
+     * para actualizar el panel abierto sin recargar.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos(HttpSession session) {
+        Director director = (Director) session.getAttribute("usuario");
+        if (director == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(eventosEnVivoService.suscribir(EventosEnVivoService.Rol.DIRECTOR, null));
+    }
 }
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -31,6 +32,7 @@ public class DirectorGestionController {
     private final EstudianteService estudianteService;
     private final ConductaService conductaService;
     private final TipoGravedadService tipoGravedadService;
+    private final ImportacionRosterService importacionRosterService;
 
     // =================================================================
     // GESTIÓN DE DOCENTES
@@ -123,7 +125,7 @@ public class DirectorGestionController {
         }
         model.addAttribute("director", director);
 
-        model.addAttribute("estudiantes", estudianteService.findAll());
+        model.addAttribute("estudiantes", estudianteService.findAllResumen());
         model.addAttribute("estudiante", new Estudiante());
 
         // Carga catálogos auxiliares para la vista (filtros/combos)
@@ -177,6 +179,46 @@ public class DirectorGestionController {
     }
 
 
+    // =================================================================
+    // IMPORTACIÓN CSV DE ESTUDIANTES Y DOCENTES
+    // =================================================================
+
+    /**
+     * Muestra la página de importación con las importaciones recientes.
+     * Si llega {@code id}, muestra además el progreso de esa importación (se consulta por la API).
+     */
+    @GetMapping("/importar")
+    public String importar(@RequestParam(value = "id", required = false) String importacionId,
+                           Model model, HttpSession session) {
+        Director director = (Director) session.getAttribute("usuario");
+        if (director == null) {
+            return "redirect:/auth/login";
+        }
+        model.addAttribute("director", director);
+        model.addAttribute("importaciones", importacionRosterService.findRecientes());
+        model.addAttribute("importacionId", importacionId);
+        return "director/importar";
+    }
+
+    /**
+     * Recibe el CSV, inicia la importación en segundo plano y redirige a su progreso.
+     */
+    @PostMapping("/importar")
+    public String iniciarImportacion(@RequestParam("tipo") ImportacionRosterService.Tipo tipo,
+                                     @RequestParam("archivo") MultipartFile archivo,
+                                     HttpSession session, RedirectAttributes redirectAttributes) {
+        if (session.getAttribute("usuario") == null) {
+            return "redirect:/auth/login";
+        }
+        try {
+            String id = importacionRosterService.iniciar(tipo, archivo).getId();
+            return "redirect:/director/gestion/importar?id=" + id;
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error al importar el archivo: " + e.getMessage());
+            return "redirect:/director/gestion/importar";
+        }
+    }
+
     // =================================================================
     // GESTIÓN DE CONDUCTAS (REGLAS)
     // =================================================================
@@ -1,12 +1,14 @@
 package com.controledu.controller;
 
+import com.controledu.config.PresupuestoSql;
+import com.controledu.dto.EstudianteResumenDTO;
 import com.controledu.model.Docente;
 import com.controledu.model.Estudiante;
 import com.controledu.model.Conducta;
 import com.controledu.model.RegistroConducta;
 import com.controledu.model.Observacion;
-import com.controledu.repository.EstudianteRepository;
-import com.controledu.repository.ConductaRepository;
+import com.controledu.service.EstudianteService;
+import com.controledu.service.ConductaService;
 import com.controledu.service.RegistroConductaService;
 import com.controledu.service.ObservacionService;
 
@@ -14,13 +16,19 @@ import com.controledu.service.ObservacionService;
 import jakarta.persistence.EntityNotFoundException; // Para manejo de errores de entidades no encontradas
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import com.controledu.service.EventosEnVivoService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.bind.annotation.RequestParam; // Para recibir los IDs desde el formulario
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -44,11 +52,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DocenteController {
 
-    // Servicios/repositorios requeridos por el controlador
+    // Servicios requeridos por el controlador
     private final RegistroConductaService registroConductaService;
     private final ObservacionService observacionService;
-    private final EstudianteRepository estudianteRepository;
-    private final ConductaRepository conductaRepository;
+    private final EstudianteService estudianteService;
+    private final ConductaService conductaService;
+    private final EventosEnVivoService eventosEnVivoService;
 
     // --- DASHBOARD ---
     /**
@@ -56,6 +65,7 @@ public class DocenteController {
      * - Requiere docente autenticado en sesión.
      * - KPIs: total de incidentes y observaciones del docente.
      */
+    @PresupuestoSql(15)
     @GetMapping("/dashboard")
     public String dashboard(HttpSession session, Model model) {
         Docente docente = (Docente) session.getAttribute("usuario");
@@ -86,6 +96,7 @@ public class DocenteController {
      * Lista todos los estudiantes (catálogo simple) para que el docente pueda consultarlos.
      * También expone en el modelo los servicios de registro/observación si la vista los utiliza.
      */
+    @PresupuestoSql(10)
     @GetMapping("/estudiantes")
     public String verEstudiantes(HttpSession session, Model model) {
         Docente docente = (Docente) session.getAttribute("usuario");
@@ -93,13 +104,13 @@ public class DocenteController {
             return "redirect:/auth/login";
         }
         // Obtiene todos los estudiantes (podría paginarse si la lista crece)
-        List<Estudiante> estudiantes = estudianteRepository.findAll();
+        List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
 
         model.addAttribute("docente", docente);
         model.addAttribute("estudiantes", estudiantes != null ? estudiantes : new ArrayList<>());
-        // Exponer servicios a la vista (si se invocan métodos desde la plantilla)
-        model.addAttribute("registroConductaService", registroConductaService);
-        model.addAttribute("observacionService", observacionService);
+        // Conteos por estudiante en dos consultas agrupadas (no un COUNT por tarjeta)
+        model.addAttribute("incidentesPorEstudiante", registroConductaService.countPorEstudiante());
+        model.addAttribute("observacionesPorEstudiante", observacionService.countPorEstudiante());
         return "docente/estudiantes";
     }
 
@@ -110,6 +121,7 @@ public class DocenteController {
      * - Carga listas de estudiantes y conductas para combos.
      * - Acepta opcionalmente un estudiante preseleccionado (estudianteIdSeleccionado).
      */
+    @PresupuestoSql(10)
     @GetMapping("/registrar-falta")
     public String registrarFaltaForm(HttpSession session, Model model,
                                      @RequestParam(value = "estudianteId", required = false) Long estudianteIdSeleccionado) {
@@ -118,8 +130,8 @@ public class DocenteController {
             return "redirect:/auth/login";
         }
         // Catálogos para la vista
-        List<Estudiante> estudiantes = estudianteRepository.findAll();
-        List<Conducta> conductas = conductaRepository.findAll();
+        List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
+        List<Conducta> conductas = conductaService.findAll();
 
         model.addAttribute("docente", docente);
         model.addAttribute("estudiantes", estudiantes != null ? estudiantes : new ArrayList<>());
@@ -155,11 +167,11 @@ public class DocenteController {
 
         try {
             // 1. Buscar Estudiante (o lanzar excepción si no existe)
-            Estudiante estudiante = estudianteRepository.findById(estudianteId)
+            Estudiante estudiante = estudianteService.findById(estudianteId)
                     .orElseThrow(() -> new EntityNotFoundException("Estudiante no encontrado"));
 
             // 2. Buscar Conducta (o lanzar excepción si no existe)
-            Conducta conducta = conductaRepository.findById(conductaId)
+            Conducta conducta = conductaService.findById(conductaId)
                     .orElseThrow(() -> new EntityNotFoundException("Conducta no encontrada"));
 
             // 3. Poblar el objeto de dominio con relaciones y metadatos
@@ -179,8 +191,8 @@ public class DocenteController {
             model.addAttribute("errorMessage", e.getMessage());
 
             // Recargar catálogos necesarios para la vista
-            List<Estudiante> estudiantes = estudianteRepository.findAll();
-            List<Conducta> conductas = conductaRepository.findAll();
+            List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
+            List<Conducta> conductas = conductaService.findAll();
             model.addAttribute("docente", docente);
             model.addAttribute("estudiantes", estudiantes != null ? estudiantes : new ArrayList<>());
             model.addAttribute("conductas", conductas != null ? conductas : new ArrayList<>());
@@ -190,6 +202,58 @@ public class DocenteController {
         }
     }
 
+    // --- REGISTRAR FALTA MASIVA (GET - Mostrar Formulario) ---
+    /**
+     * Muestra el formulario para registrar la misma falta a varios estudiantes
+     * (por ejemplo, una sección completa).
+     * - Los estudiantes se listan ordenados por grado, sección y apellidos para seleccionarlos por grupo.
+     */
+    @PresupuestoSql(10)
+    @GetMapping("/registrar-falta-masiva")
+    public String registrarFaltaMasivaForm(HttpSession session, Model model) {
+        Docente docente = (Docente) session.getAttribute("usuario");
+        if (docente == null) {
+            return "redirect:/auth/login";
+        }
+        List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
+
+        model.addAttribute("docente", docente);
+        model.addAttribute("estudiantes", estudiantes);
+        model.addAttribute("conductas", conductaService.findAll());
+        return "docente/registrar-falta-masiva";
+    }
+
+    // --- REGISTRAR FALTA MASIVA (POST - Guardar Datos) ---
+    /**
+     * Registra la conducta seleccionada para todos los estudiantes marcados en una sola transacción.
+     * - Si algún estudiante o la conducta no existen, no se registra ninguno y se vuelve al formulario.
+     */
+    @PostMapping("/registrar-falta-masiva")
+    public String guardarFaltaMasiva(
+            @RequestParam(value = "estudianteIds", required = false) List<Long> estudianteIds,
+            @RequestParam("conductaId") Long conductaId,
+            @RequestParam(value = "accionesTomadas", required = false) String accionesTomadas,
+            @RequestParam(value = "comentarios", required = false) String comentarios,
+            HttpSession session,
+            RedirectAttributes redirectAttributes) {
+
+        Docente docente = (Docente) session.getAttribute("usuario");
+        if (docente == null) {
+            return "redirect:/auth/login";
+        }
+
+        try {
+            int registrados = registroConductaService.registrarIncidentesMasivo(
+                    estudianteIds, conductaId, docente.getId(), accionesTomadas, comentarios).size();
+            redirectAttributes.addFlashAttribute("successMessage",
+                    "Falta registrada para " + registrados + " estudiante(s)");
+            return "redirect:/docente/historial";
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/docente/registrar-falta-masiva";
+        }
+    }
+
     // --- REGISTRAR OBSERVACIÓN (GET - Mostrar Formulario) ---
     // **** CORREGIDO ****
     /**
@@ -197,6 +261,7 @@ public class DocenteController {
      * - Carga catálogo de estudiantes.
      * - Permite llegar con un estudiante preseleccionado.
      */
+    @PresupuestoSql(10)
     @GetMapping("/registrar-observacion")
     public String registrarObservacionForm(HttpSession session, Model model,
                                            @RequestParam(value = "estudianteId", required = false) Long estudianteIdSeleccionado) {
@@ -204,7 +269,7 @@ public class DocenteController {
         if (docente == null) {
             return "redirect:/auth/login";
         }
-        List<Estudiante> estudiantes = estudianteRepository.findAll();
+        List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
 
         model.addAttribute("docente", docente);
         model.addAttribute("estudiantes", estudiantes != null ? estudiantes : new ArrayList<>());
@@ -234,13 +299,13 @@ public class DocenteController {
 
         try {
             // Buscar estudiante o devolver mensaje de error
-            Estudiante estudiante = estudianteRepository.findById(estudianteId)
+            Estudiante estudiante = estudianteService.findById(estudianteId)
                     .orElseThrow(() -> new EntityNotFoundException("Estudiante no encontrado con ID: " + estudianteId));
             observacion.setEstudiante(estudiante);
         } catch (EntityNotFoundException e) {
             // Devolver al formulario con mensaje y datos previos
             model.addAttribute("errorMessage", e.getMessage());
-            List<Estudiante> estudiantes = estudianteRepository.findAll();
+            List<EstudianteResumenDTO> estudiantes = estudianteService.findAllResumen();
             model.addAttribute("docente", docente);
             model.addAttribute("estudiantes", estudiantes != null ? estudiantes : new ArrayList<>());
             model.addAttribute("observacion", observacion);
@@ -306,4 +371,18 @@ public class DocenteController {
         model.addAttribute("docente", docente);
         return "docente/perfil";
     }
+
+    // --- EVENTOS EN VIVO ---
+    /**
+     * Flujo SSE con los cambios de incidentes y observaciones que le corresponden al docente,
+     * para actualizar el panel abierto sin recargar.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos(HttpSession session) {
+        Docente docente = (Docente) session.getAttribute("usuario");
+        if (docente == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(eventosEnVivoService.suscribir(EventosEnVivoService.Rol.DOCENTE, docente.getId()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.controledu.controller;
 
+import com.controledu.config.PresupuestoSql;
 import com.controledu.model.Estudiante;
 import com.controledu.model.RegistroConducta;
 import com.controledu.model.Observacion;
@@ -7,10 +8,15 @@ import com.controledu.service.RegistroConductaService;
 import com.controledu.service.ObservacionService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
+import com.controledu.service.EventosEnVivoService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -37,12 +43,14 @@ public class EstudianteController {
     // Servicios de dominio que exponen consultas y operaciones de negocio.
     private final RegistroConductaService registroConductaService;
     private final ObservacionService observacionService;
+    private final EventosEnVivoService eventosEnVivoService;
 
     // --- DASHBOARD ---
     /**
      * Muestra el panel principal del estudiante con KPIs y últimos registros.
      * Requiere que el estudiante esté autenticado (presente en sesión).
      */
+    @PresupuestoSql(15)
     @GetMapping("/dashboard")
     public String dashboard(HttpSession session, Model model) {
         // Recupera el estudiante autenticado desde la sesión HTTP
@@ -55,6 +63,9 @@ public class EstudianteController {
         // Métricas por estudiante
         long totalFaltas = registroConductaService.countByEstudianteId(estudiante.getId());
         long totalObservaciones = observacionService.countByEstudianteId(estudiante.getId());
+        // Insignias de no leídos (contadores en memoria, sin COUNT)
+        long faltasNoLeidas = registroConductaService.countNoLeidosByEstudianteId(estudiante.getId());
+        long observacionesNoLeidas = observacionService.countNoLeidasByEstudianteId(estudiante.getId());
 
         // Listado (podría limitarse a “recientes” desde el servicio si se requiere)
         List<RegistroConducta> faltasRecientes = registroConductaService.findByEstudianteId(estudiante.getId());
@@ -66,6 +77,8 @@ public class EstudianteController {
         model.addAttribute("estudiante", estudiante);
         model.addAttribute("totalFaltas", totalFaltas);
         model.addAttribute("totalObservaciones", totalObservaciones);
+        model.addAttribute("faltasNoLeidas", faltasNoLeidas);
+        model.addAttribute("observacionesNoLeidas", observacionesNoLeidas);
         model.addAttribute("faltasRecientes", faltasRecientes);
 
         return "estudiante/dashboard";
@@ -93,18 +106,9 @@ public class EstudianteController {
 
         // Cálculos de totales y por severidad (defensa ante nulos en el grafo de objetos)
         long totalFaltas = conductas.size();
-        long faltasLeves = conductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("leve"))
-                .count();
-        long faltasGraves = conductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("grave"))
-                .count();
-        long faltasMuyGraves = conductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("muy grave"))
-                .count();
+        long faltasLeves = contarPorGravedad(conductas, "leve");
+        long faltasGraves = contarPorGravedad(conductas, "grave");
+        long faltasMuyGraves = contarPorGravedad(conductas, "muy grave");
 
         // Unir faltas y observaciones en una sola lista heterogénea
         List<Object> timelineItems = new ArrayList<>();
@@ -150,20 +154,11 @@ public class EstudianteController {
         }
 
         // Filtrar por severidad (con chequeos nulos defensivos)
-        List<RegistroConducta> conductasLeves = todasLasConductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("leve"))
-                .collect(Collectors.toList());
+        List<RegistroConducta> conductasLeves = filtrarPorGravedad(todasLasConductas, "leve");
 
-        List<RegistroConducta> conductasGraves = todasLasConductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("grave"))
-                .collect(Collectors.toList());
+        List<RegistroConducta> conductasGraves = filtrarPorGravedad(todasLasConductas, "grave");
 
-        List<RegistroConducta> conductasMuyGraves = todasLasConductas.stream()
-                .filter(c -> c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
-                        c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase("muy grave"))
-                .collect(Collectors.toList());
+        List<RegistroConducta> conductasMuyGraves = filtrarPorGravedad(todasLasConductas, "muy grave");
 
         // Datos para la vista
         model.addAttribute("estudiante", estudiante);
@@ -252,4 +247,41 @@ public class EstudianteController {
 
         return "estudiante/perfil";
     }
+
+    // --- EVENTOS EN VIVO ---
+    /**
+     * Flujo SSE con los cambios de incidentes y observaciones que le corresponden al estudiante,
+     * para actualizar el panel abierto sin recargar.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> eventos(HttpSession session) {
+        Estudiante estudiante = (Estudiante) session.getAttribute("usuario");
+        if (estudiante == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(eventosEnVivoService.suscribir(EventosEnVivoService.Rol.ESTUDIANTE, estudiante.getId()));
+    }
+
+    // --- FILTRO POR GRAVEDAD ---
+    /**
+     * Faltas cuya conducta tiene la gravedad indicada (sin distinguir mayúsculas).
+     * Los registros sin conducta o sin gravedad no pertenecen a ninguna.
+     */
+    static List<RegistroConducta> filtrarPorGravedad(List<RegistroConducta> conductas, String gravedad) {
+        return conductas.stream()
+                .filter(c -> esDeGravedad(c, gravedad))
+                .collect(Collectors.toList());
+    }
+
+    /** Cantidad de faltas con la gravedad indicada. */
+    static long contarPorGravedad(List<RegistroConducta> conductas, String gravedad) {
+        return conductas.stream()
+                .filter(c -> esDeGravedad(c, gravedad))
+                .count();
+    }
+
+    private static boolean esDeGravedad(RegistroConducta c, String gravedad) {
+        return c.getConducta() != null && c.getConducta().getGravedad() != null && c.getConducta().getGravedad().getNombreGravedad() != null &&
+                c.getConducta().getGravedad().getNombreGravedad().equalsIgnoreCase(gravedad);
+    }
 }
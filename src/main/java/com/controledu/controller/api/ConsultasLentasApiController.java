@@ -0,0 +1,81 @@
+package com.controledu.controller.api;
+
+import com.controledu.dto.ConsultaLentaDTO;
+import com.controledu.dto.ResumenConsultaLentaDTO;
+import com.controledu.service.ConsultasLentasService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para consultar el log de consultas lentas.
+ *
+ * Expone endpoints bajo el prefijo /api/admin/consultas-lentas.
+ */
+@RestController
+@RequestMapping("/api/admin/consultas-lentas")
+@RequiredArgsConstructor
+@Tag(name = "Consultas lentas", description = "Sentencias SQL que superaron el umbral de consulta lenta")
+public class ConsultasLentasApiController {
+
+    private final ConsultasLentasService consultasLentasService;
+
+    // ================================================================
+    // GET: Peores sentencias
+    // ================================================================
+
+    /**
+     * Devuelve las sentencias con peor comportamiento, con su acumulado y, si se capturó, su EXPLAIN.
+     *
+     * @param orden  "total" (tiempo lento acumulado), "maximo" o "ejecuciones".
+     * @param limite Número máximo de sentencias.
+     * @return Lista de resúmenes ordenada de peor a mejor con código 200 OK.
+     */
+    @GetMapping
+    @Operation(summary = "Sentencias SQL más lentas")
+    public ResponseEntity<List<ResumenConsultaLentaDTO>> getPeores(
+            @Parameter(description = "total, maximo o ejecuciones") @RequestParam(defaultValue = "total") String orden,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(consultasLentasService.peores(orden, limite));
+    }
+
+    // ================================================================
+    // GET: Ejecuciones recientes
+    // ================================================================
+
+    /**
+     * Devuelve las últimas ejecuciones lentas, con sus parámetros y el método de servicio que las lanzó.
+     *
+     * @return Lista de ejecuciones, la más reciente primero, con código 200 OK.
+     */
+    @GetMapping("/recientes")
+    @Operation(summary = "Últimas ejecuciones lentas")
+    public ResponseEntity<List<ConsultaLentaDTO>> getRecientes() {
+        return ResponseEntity.ok(consultasLentasService.recientes());
+    }
+
+    // ================================================================
+    // DELETE: Vaciar
+    // ================================================================
+
+    /**
+     * Descarta las ejecuciones y acumulados registrados hasta ahora.
+     *
+     * @return Código 204 No Content.
+     */
+    @DeleteMapping
+    @Operation(summary = "Vaciar el log de consultas lentas")
+    public ResponseEntity<Void> limpiar() {
+        consultasLentasService.limpiar();
+        return ResponseEntity.noContent().build();
+    }
+}
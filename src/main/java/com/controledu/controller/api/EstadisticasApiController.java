@@ -0,0 +1,97 @@
+package com.controledu.controller.api;
+
+import com.controledu.dto.ActividadDocenteDTO;
+import com.controledu.dto.TasaIncidentesDTO;
+import com.controledu.service.ActividadDocentesService;
+import com.controledu.service.TasaIncidentesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST de estadísticas en vivo para el director.
+ *
+ * Ruta base: /api/estadisticas
+ *
+ * Los valores se sirven desde contadores en memoria, por lo que estas consultas
+ * no ejecutan SQL y pueden refrescarse con frecuencia desde el dashboard.
+ */
+@RestController
+@RequestMapping("/api/estadisticas")
+@RequiredArgsConstructor
+@Tag(name = "Estadísticas", description = "API de estadísticas en vivo")
+public class EstadisticasApiController {
+
+    private final TasaIncidentesService tasaIncidentesService;
+    private final ActividadDocentesService actividadDocentesService;
+
+    // ================================================================
+    // GET: Tasas de incidentes por grado y sección
+    // ================================================================
+    /**
+     * Devuelve los incidentes de hoy, últimos 7 y últimos 30 días por grado y sección.
+     * Si se indica un grado (y opcionalmente una sección), se filtra el resultado.
+     *
+     * @param grado   Grado a consultar (opcional).
+     * @param seccion Sección a consultar (opcional, requiere grado).
+     * @return Lista de tasas con código 200 OK.
+     */
+    @GetMapping("/incidentes/tasas")
+    @Operation(summary = "Incidentes en ventanas móviles por grado y sección")
+    public ResponseEntity<List<TasaIncidentesDTO>> getTasasPorGradoSeccion(
+            @RequestParam(required = false) String grado,
+            @RequestParam(required = false) String seccion) {
+        if (grado != null && seccion != null) {
+            return ResponseEntity.ok(List.of(tasaIncidentesService.findTasa(grado, seccion)));
+        }
+        List<TasaIncidentesDTO> tasas = tasaIncidentesService.findTasasPorGradoSeccion();
+        if (grado != null) {
+            tasas = tasas.stream().filter(t -> grado.equals(t.getGrado())).toList();
+        }
+        return ResponseEntity.ok(tasas);
+    }
+
+    // ================================================================
+    // GET: Tasas de incidentes agregadas por grado
+    // ================================================================
+    /**
+     * Devuelve las tasas sumando todas las secciones de cada grado.
+     *
+     * @return Lista de tasas por grado con código 200 OK.
+     */
+    @GetMapping("/incidentes/tasas/grados")
+    @Operation(summary = "Incidentes en ventanas móviles por grado")
+    public ResponseEntity<List<TasaIncidentesDTO>> getTasasPorGrado() {
+        return ResponseEntity.ok(tasaIncidentesService.findTasasPorGrado());
+    }
+
+    // ================================================================
+    // GET: Actividad de docentes
+    // ================================================================
+    /**
+     * Devuelve la actividad de todos los docentes, ordenada por incidentes registrados.
+     *
+     * @return Lista de actividad por docente con código 200 OK.
+     */
+    @GetMapping("/docentes")
+    @Operation(summary = "Actividad de los docentes (ranking)")
+    public ResponseEntity<List<ActividadDocenteDTO>> getActividadDocentes() {
+        return ResponseEntity.ok(actividadDocentesService.findAll());
+    }
+
+    /**
+     * Devuelve la actividad de un docente con su desglose mensual.
+     *
+     * @param docenteId ID del docente.
+     * @return Actividad del docente con código 200 OK.
+     */
+    @GetMapping("/docentes/{docenteId}")
+    @Operation(summary = "Actividad de un docente")
+    public ResponseEntity<ActividadDocenteDTO> getActividadDocente(@PathVariable Long docenteId) {
+        return ResponseEntity.ok(actividadDocentesService.findActividad(docenteId));
+    }
+}
@@ -0,0 +1,78 @@
+package com.controledu.controller.api;
+
+import com.controledu.dto.ImportacionEstadoDTO;
+import com.controledu.service.ImportacionRosterService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * Controlador REST para la importación masiva de estudiantes y docentes desde CSV.
+ *
+ * Expone endpoints bajo el prefijo /api/importaciones.
+ * La importación es asíncrona: el POST devuelve un id y el progreso se consulta con GET.
+ */
+@RestController
+@RequestMapping("/api/importaciones")
+@RequiredArgsConstructor
+@Tag(name = "Importaciones", description = "API para importar estudiantes y docentes desde CSV")
+public class ImportacionApiController {
+
+    private final ImportacionRosterService importacionRosterService;
+
+    // ================================================================
+    // POST: Iniciar importación
+    // ================================================================
+
+    /**
+     * Recibe un archivo CSV y encola su importación.
+     *
+     * @param tipo    ESTUDIANTES o DOCENTES.
+     * @param archivo Archivo CSV con encabezado.
+     * @return Estado inicial con el id de la importación y código 202 ACCEPTED, o 400 si el archivo no es válido.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar estudiantes o docentes desde un CSV")
+    public ResponseEntity<ImportacionEstadoDTO> iniciarImportacion(@RequestParam ImportacionRosterService.Tipo tipo,
+                                                                   @RequestParam MultipartFile archivo) {
+        try {
+            return new ResponseEntity<>(importacionRosterService.iniciar(tipo, archivo), HttpStatus.ACCEPTED);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ================================================================
+    // GET: Progreso y reporte de errores
+    // ================================================================
+
+    /**
+     * Devuelve el progreso de una importación y, al terminar, el reporte de errores por fila.
+     *
+     * @param id Identificador de la importación.
+     * @return Estado de la importación o 404 si no existe (o ya no se conserva).
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Progreso y errores de una importación")
+    public ResponseEntity<ImportacionEstadoDTO> getImportacion(@PathVariable String id) {
+        return importacionRosterService.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lista las importaciones recientes, de la más reciente a la más antigua (sin detalle de errores).
+     */
+    @GetMapping
+    @Operation(summary = "Importaciones recientes")
+    public ResponseEntity<List<ImportacionEstadoDTO>> getImportaciones() {
+        return ResponseEntity.ok(importacionRosterService.findRecientes());
+    }
+}
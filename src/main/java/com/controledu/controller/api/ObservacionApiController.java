@@ -1,5 +1,7 @@
 package com.controledu.controller.api;
 
+import com.controledu.dto.ActualizacionMasivaDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
 import com.controledu.model.Observacion;
 import com.controledu.service.ObservacionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -172,4 +174,24 @@ public class ObservacionApiController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    // ================================================================
+    // PATCH: Marcar observaciones como leídas (masivo)
+    // ================================================================
+    /**
+     * Marca como leídas, con un solo UPDATE, todas las observaciones no leídas que cumplan
+     * los criterios (ids, estudianteId, antesDe). Debe indicarse al menos un criterio.
+     *
+     * @param seleccion Criterios de selección.
+     * @return Cantidad e IDs de las observaciones que cambiaron, o 400 si no hay criterios.
+     */
+    @PatchMapping("/marcar-leidas")
+    @Operation(summary = "Marcar varias observaciones como leídas")
+    public ResponseEntity<ActualizacionMasivaDTO> marcarComoLeidasMasivo(@RequestBody SeleccionMasivaDTO seleccion) {
+        try {
+            return ResponseEntity.ok(observacionService.marcarComoLeidaMasivo(seleccion));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.controledu.controller.api;
+
+import com.controledu.service.RelayOutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controlador REST para supervisar el outbox de eventos.
+ *
+ * Expone endpoints bajo el prefijo /api/outbox.
+ */
+@RestController
+@RequestMapping("/api/outbox")
+@RequiredArgsConstructor
+@Tag(name = "Outbox", description = "Estado de la entrega de eventos a sistemas externos")
+public class OutboxApiController {
+
+    private final RelayOutboxService relayOutboxService;
+
+    // ================================================================
+    // GET: Pendientes por sink
+    // ================================================================
+
+    /**
+     * Devuelve, por cada destino registrado, cuántos eventos del outbox faltan por entregarle.
+     *
+     * @return Mapa nombre del sink → eventos pendientes con código 200 OK.
+     */
+    @GetMapping("/pendientes")
+    @Operation(summary = "Eventos pendientes de entrega por destino")
+    public ResponseEntity<Map<String, Long>> getPendientes() {
+        return ResponseEntity.ok(relayOutboxService.pendientesPorSink());
+    }
+}
@@ -0,0 +1,158 @@
+package com.controledu.controller.api;
+
+import com.controledu.dto.GrabacionJfrDTO;
+import com.controledu.service.PerfiladoJfrService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controlador REST para perfilar la aplicación en producción con Java Flight Recorder.
+ *
+ * Expone endpoints bajo el prefijo /api/admin/jfr. Los archivos descargados se abren con
+ * JDK Mission Control o con {@code jfr print --events controledu.* archivo.jfr}.
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+@Tag(name = "Perfilado JFR", description = "Grabaciones de Java Flight Recorder bajo demanda")
+public class PerfiladoJfrApiController {
+
+    private final PerfiladoJfrService perfiladoJfrService;
+
+    // ================================================================
+    // GET: Grabaciones
+    // ================================================================
+
+    /**
+     * Lista las grabaciones de la JVM.
+     *
+     * @return Lista de grabaciones con código 200 OK, o 503 si la JVM no tiene Flight Recorder.
+     */
+    @GetMapping("/grabaciones")
+    @Operation(summary = "Grabaciones de JFR")
+    public ResponseEntity<List<GrabacionJfrDTO>> getGrabaciones() {
+        try {
+            return ResponseEntity.ok(perfiladoJfrService.listar());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // ================================================================
+    // POST: Iniciar y detener
+    // ================================================================
+
+    /**
+     * Inicia una grabación.
+     *
+     * @param configuracion    "default" (costo bajo) o "profile" (más detalle).
+     * @param duracionSegundos Duración; sin valor o por encima de {@code controledu.jfr.duracion-maxima}, esa.
+     * @param umbralMs         Duración mínima de los eventos de la aplicación que se graban.
+     * @return Grabación iniciada con código 201 CREATED, 400 si la configuración no existe, 409 si
+     *         ya hay el máximo de grabaciones en curso o 503 si la JVM no tiene Flight Recorder.
+     */
+    @PostMapping("/grabaciones")
+    @Operation(summary = "Iniciar una grabación de JFR")
+    public ResponseEntity<GrabacionJfrDTO> iniciar(
+            @Parameter(description = "default o profile") @RequestParam(defaultValue = "profile") String configuracion,
+            @RequestParam(required = false) Long duracionSegundos,
+            @RequestParam(defaultValue = "0") long umbralMs) {
+        try {
+            Duration duracion = duracionSegundos != null ? Duration.ofSeconds(duracionSegundos) : null;
+            return perfiladoJfrService.iniciar(configuracion, duracion, umbralMs)
+                    .map(grabacion -> new ResponseEntity<>(grabacion, HttpStatus.CREATED))
+                    .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Detiene una grabación en curso; sus datos se pueden seguir descargando.
+     *
+     * @param id Identificador de la grabación.
+     * @return Grabación detenida o 404 si no existe.
+     */
+    @PostMapping("/grabaciones/{id}/detener")
+    @Operation(summary = "Detener una grabación de JFR")
+    public ResponseEntity<GrabacionJfrDTO> detener(@PathVariable long id) {
+        return perfiladoJfrService.detener(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // ================================================================
+    // GET: Descarga
+    // ================================================================
+
+    /**
+     * Descarga los datos grabados hasta ahora como archivo .jfr; la grabación puede seguir en curso.
+     *
+     * @param id Identificador de la grabación.
+     * @return Archivo .jfr o 404 si la grabación no existe o todavía no tiene datos.
+     */
+    @GetMapping("/grabaciones/{id}/archivo")
+    @Operation(summary = "Descargar una grabación de JFR")
+    public ResponseEntity<StreamingResponseBody> descargar(@PathVariable long id) throws IOException {
+        Optional<Path> volcado = perfiladoJfrService.volcar(id);
+        if (volcado.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path archivo = volcado.get();
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                Files.copy(archivo, salida);
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(archivo))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("controledu-" + id + ".jfr").build().toString())
+                .body(cuerpo);
+    }
+
+    // ================================================================
+    // DELETE: Cerrar
+    // ================================================================
+
+    /**
+     * Cierra una grabación y libera sus datos.
+     *
+     * @param id Identificador de la grabación.
+     * @return Código 204 No Content o 404 si no existe.
+     */
+    @DeleteMapping("/grabaciones/{id}")
+    @Operation(summary = "Cerrar una grabación de JFR")
+    public ResponseEntity<Void> cerrar(@PathVariable long id) {
+        return perfiladoJfrService.cerrar(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,8 +1,18 @@
 package com.controledu.controller.api;
 
+import com.controledu.dto.ActualizacionMasivaDTO;
+import com.controledu.dto.CambioEstadoRequest;
+import com.controledu.dto.FacetasIncidentesDTO;
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.dto.RegistroConductaMasivoRequest;
 import com.controledu.dto.RegistroConductaRequest;
 import com.controledu.dto.RegistroConductaResponseDTO; // DTO de respuesta
+import com.controledu.dto.RegistroMasivoResponseDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.dto.TransicionEstadoDTO;
+import com.controledu.model.HistorialEstado;
 import com.controledu.model.RegistroConducta;
+import com.controledu.service.FlujoIncidentesService;
 import com.controledu.service.RegistroConductaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,6 +38,7 @@ import java.util.stream.Collectors; // Necesario para mapear listas de entidades
 public class RegistroConductaApiController {
 
     private final RegistroConductaService registroConductaService;
+    private final FlujoIncidentesService flujoIncidentesService;
 
     // ================================================================
     // GET: Obtener todos los registros de conducta
@@ -102,4 +113,147 @@ public class RegistroConductaApiController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // ================================================================
+    // POST: Registro masivo (misma conducta, varios estudiantes)
+    // ================================================================
+
+    /**
+     * Registra la misma conducta para varios estudiantes en una sola transacción,
+     * con inserciones JDBC en lote. Si algún estudiante no existe no se registra ninguno.
+     *
+     * @param request IDs de estudiantes, docente y conducta, más acciones y comentarios comunes.
+     * @return Cantidad e IDs de los registros creados con código 201 CREATED, o 400 BAD REQUEST.
+     */
+    @PostMapping("/masivo")
+    @Operation(summary = "Registrar la misma conducta para varios estudiantes")
+    public ResponseEntity<RegistroMasivoResponseDTO> createRegistrosMasivos(@RequestBody RegistroConductaMasivoRequest request) {
+        try {
+            List<Long> ids = registroConductaService.registrarIncidentesMasivo(
+                    request.getEstudianteIds(),
+                    request.getConductaId(),
+                    request.getDocenteId(),
+                    request.getAccionesTomadas(),
+                    request.getComentarios()
+            ).stream().map(RegistroConducta::getIdRegistro).collect(Collectors.toList());
+
+            return new ResponseEntity<>(new RegistroMasivoResponseDTO(ids.size(), ids), HttpStatus.CREATED);
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ================================================================
+    // PATCH: Acciones masivas (marcar leídos, cambiar estado)
+    // ================================================================
+
+    /**
+     * Marca como leídos, con un solo UPDATE, todos los registros no leídos que cumplan
+     * los criterios (ids, estudianteId, antesDe). Debe indicarse al menos un criterio.
+     *
+     * @param seleccion Criterios de selección.
+     * @return Cantidad e IDs de los registros que cambiaron, o 400 si no hay criterios.
+     */
+    @PatchMapping("/marcar-leidos")
+    @Operation(summary = "Marcar varios registros de conducta como leídos")
+    public ResponseEntity<ActualizacionMasivaDTO> marcarLeidosMasivo(@RequestBody SeleccionMasivaDTO seleccion) {
+        try {
+            return ResponseEntity.ok(registroConductaService.marcarComoLeidoMasivo(seleccion));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Cambia el estado (ACTIVO, RESUELTO, ARCHIVADO) de todos los registros que cumplan los
+     * criterios, opcionalmente solo los que estén en {@code estadoOrigen}.
+     *
+     * @param seleccion Criterios de selección y nuevo estado.
+     * @return Cantidad e IDs de los registros que cambiaron, o 400 si la solicitud no es válida.
+     */
+    @PatchMapping("/estado")
+    @Operation(summary = "Cambiar el estado de varios registros de conducta")
+    public ResponseEntity<ActualizacionMasivaDTO> cambiarEstadoMasivo(@RequestBody SeleccionMasivaDTO seleccion) {
+        try {
+            return ResponseEntity.ok(registroConductaService.cambiarEstadoMasivo(seleccion, null));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ================================================================
+    // PATCH: Transición de estado de un registro
+    // ================================================================
+
+    /**
+     * Aplica una transición de estado con UPDATE condicional. Si se envía {@code estadoEsperado}
+     * y el registro ya no está en ese estado, no se modifica y se responde 409.
+     *
+     * @param id      ID del registro.
+     * @param request Nuevo estado y, opcionalmente, estado esperado y usuario.
+     * @return 200 si se aplicó o ya estaba así, 409 en conflicto, 422 si la transición no está
+     *         permitida, 404 si no existe o 400 si el estado no es válido.
+     */
+    @PatchMapping("/{id}/estado")
+    @Operation(summary = "Cambiar el estado de un registro de conducta")
+    public ResponseEntity<TransicionEstadoDTO> cambiarEstado(@PathVariable Long id, @RequestBody CambioEstadoRequest request) {
+        TransicionEstadoDTO transicion;
+        try {
+            transicion = flujoIncidentesService.transicionar(id, request.getEstadoEsperado(), request.getEstado(), request.getUsuario());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        HttpStatus status = switch (transicion.getResultado()) {
+            case APLICADA, SIN_CAMBIO -> HttpStatus.OK;
+            case CONFLICTO -> HttpStatus.CONFLICT;
+            case NO_PERMITIDA -> HttpStatus.UNPROCESSABLE_ENTITY;
+            case NO_ENCONTRADO -> HttpStatus.NOT_FOUND;
+        };
+        return ResponseEntity.status(status).body(transicion);
+    }
+
+    /**
+     * Devuelve las transiciones de estado registradas para un incidente, de la más reciente a la más antigua.
+     *
+     * @param id ID del registro.
+     * @return Historial de estados con código 200 OK.
+     */
+    @GetMapping("/{id}/historial")
+    @Operation(summary = "Historial de estados de un registro de conducta")
+    public ResponseEntity<List<HistorialEstado>> getHistorial(@PathVariable Long id) {
+        return ResponseEntity.ok(flujoIncidentesService.findHistorial(id));
+    }
+
+    // ================================================================
+    // GET: Facetas sobre el índice en memoria
+    // ================================================================
+
+    /**
+     * Cuenta los incidentes que cumplen el filtro y los desglosa por gravedad, grado,
+     * sección, estado y leído. Se resuelve sobre el índice columnar en memoria, sin SQL.
+     *
+     * @param filtro Criterios opcionales (gravedad, grado, seccion, estado, leido, estudianteId,
+     *               conductaId, desde, hasta).
+     * @return Total y conteos por dimensión con código 200 OK.
+     */
+    @GetMapping("/facetas")
+    @Operation(summary = "Conteos por faceta de los registros de conducta filtrados")
+    public ResponseEntity<FacetasIncidentesDTO> getFacetas(@ModelAttribute FiltroIncidentesDTO filtro) {
+        return ResponseEntity.ok(registroConductaService.findFacetas(filtro));
+    }
+
+    /**
+     * Devuelve los IDs de los incidentes que cumplen el filtro, del más reciente al más antiguo.
+     *
+     * @param filtro Criterios opcionales de filtrado.
+     * @param limite Máximo de IDs a devolver (por defecto 1000).
+     * @return Lista de IDs con código 200 OK.
+     */
+    @GetMapping("/facetas/ids")
+    @Operation(summary = "IDs de los registros de conducta filtrados")
+    public ResponseEntity<List<Long>> getIdsFiltrados(@ModelAttribute FiltroIncidentesDTO filtro,
+                                                      @RequestParam(defaultValue = "1000") int limite) {
+        return ResponseEntity.ok(registroConductaService.findIdsFiltrados(filtro, limite));
+    }
 }
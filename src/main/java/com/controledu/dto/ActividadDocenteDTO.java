@@ -0,0 +1,56 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO con las estadísticas de actividad de un docente.
+ *
+ * Se construye desde contadores en memoria que se actualizan con cada registro de
+ * incidente u observación, por lo que no requiere consultas agregadas al leerse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActividadDocenteDTO {
+
+    /** Identificador del docente */
+    private Long docenteId;
+
+    /** Total de incidentes registrados por el docente */
+    private long totalIncidentes;
+
+    /** Total de observaciones registradas por el docente */
+    private long totalObservaciones;
+
+    /** Fecha del último incidente u observación registrado (null si no hay actividad) */
+    private LocalDate ultimaActividad;
+
+    /** Desglose mensual, ordenado del mes más antiguo al más reciente */
+    private List<Mes> porMes;
+
+    /**
+     * Actividad de un docente en un mes concreto.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mes {
+
+        /** Año del mes */
+        private int anio;
+
+        /** Número de mes (1-12) */
+        private int mes;
+
+        /** Incidentes registrados en el mes */
+        private long incidentes;
+
+        /** Observaciones registradas en el mes */
+        private long observaciones;
+    }
+}
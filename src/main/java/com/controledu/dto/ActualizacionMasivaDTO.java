@@ -0,0 +1,22 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de una acción masiva sobre incidentes u observaciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualizacionMasivaDTO {
+
+    /** Cantidad de elementos que realmente cambiaron (los que ya estaban así no cuentan) */
+    private int afectados;
+
+    /** IDs de los elementos que cambiaron */
+    private List<Long> ids;
+}
@@ -0,0 +1,19 @@
+package com.controledu.dto;
+
+import lombok.Data;
+
+/**
+ * Solicitud de transición de estado de un registro de conducta.
+ */
+@Data
+public class CambioEstadoRequest {
+
+    /** Nuevo estado (ACTIVO, RESUELTO, ARCHIVADO) */
+    private String estado;
+
+    /** Estado que el cliente vio por última vez; si no coincide se responde con conflicto (opcional) */
+    private String estadoEsperado;
+
+    /** Usuario que solicita el cambio (opcional) */
+    private String usuario;
+}
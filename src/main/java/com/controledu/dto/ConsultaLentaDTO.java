@@ -0,0 +1,34 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una ejecución de SQL que superó el umbral de consulta lenta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaLentaDTO {
+
+    /** Sentencia SQL con marcadores ? */
+    private String sql;
+
+    /** Valores de los parámetros en orden (p. ej. "1=25, 2='ACTIVO'"); del primer juego si fue un lote */
+    private String parametros;
+
+    /** Método de servicio en curso (Clase.metodo) o null si la sentencia no vino de un servicio */
+    private String metodo;
+
+    /** Duración de la ejecución en milisegundos */
+    private long duracionMs;
+
+    /** Si fue una ejecución en lote */
+    private boolean lote;
+
+    /** Momento en que terminó la ejecución */
+    private LocalDateTime fecha;
+}
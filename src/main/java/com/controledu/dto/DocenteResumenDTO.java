@@ -0,0 +1,29 @@
+package com.controledu.dto;
+
+import lombok.Value;
+
+/**
+ * Fila inmutable de la plantilla docente en memoria que usa el ranking de actividad.
+ *
+ * Solo lleva los datos que se muestran (sin usuario ni contraseña), por lo que puede
+ * compartirse entre peticiones sin copiarla.
+ */
+@Value
+public class DocenteResumenDTO {
+
+    /** Identificador único del docente */
+    Long id;
+
+    /** Nombres del docente */
+    String nombres;
+
+    /** Apellidos del docente */
+    String apellidos;
+
+    /** Materia que dicta */
+    String materia;
+
+    public String getNombreCompleto() {
+        return this.nombres + " " + this.apellidos;
+    }
+}
@@ -0,0 +1,50 @@
+package com.controledu.dto;
+
+import com.controledu.model.Estudiante;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Fila inmutable del roster de estudiantes en memoria.
+ *
+ * Contiene solo los datos que muestran los listados y combos (sin contraseña ni relaciones),
+ * por lo que puede compartirse entre peticiones sin copiarla.
+ */
+@Value
+public class EstudianteResumenDTO {
+
+    /** Identificador único del estudiante */
+    Long id;
+
+    /** Nombres del estudiante */
+    String nombres;
+
+    /** Apellidos del estudiante */
+    String apellidos;
+
+    /** Grado académico del estudiante */
+    String grado;
+
+    /** Sección dentro del grado */
+    String seccion;
+
+    /** Usuario de acceso (lo muestran las vistas de gestión del director) */
+    String usuario;
+
+    /** Fecha de nacimiento */
+    LocalDate fechaNacimiento;
+
+    public static EstudianteResumenDTO de(Estudiante estudiante) {
+        return new EstudianteResumenDTO(estudiante.getId(), estudiante.getNombres(), estudiante.getApellidos(),
+                estudiante.getGrado(), estudiante.getSeccion(), estudiante.getUsuario(), estudiante.getFechaNacimiento());
+    }
+
+    public String getNombreCompleto() {
+        return this.nombres + " " + this.apellidos;
+    }
+
+    public String getGradoSeccion() {
+        return this.grado + "° " + this.seccion;
+    }
+}
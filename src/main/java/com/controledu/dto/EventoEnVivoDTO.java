@@ -0,0 +1,41 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Delta compacto enviado por SSE a los paneles abiertos. El cliente lo aplica sobre los
+ * contadores y listados que ya tiene, sin volver a consultar todo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoEnVivoDTO {
+
+    /** INCIDENTE u OBSERVACION */
+    private String entidad;
+
+    /** CREADO, ACTUALIZADO, LEIDO, ESTADO_CAMBIADO o ELIMINADO */
+    private String tipo;
+
+    /** ID del incidente u observación */
+    private Long id;
+
+    /** Estudiante afectado (null si el cambio no lo incluye) */
+    private Long estudianteId;
+
+    /** Docente que lo registró (null si el cambio no lo incluye) */
+    private Long docenteId;
+
+    /** Nuevo estado del incidente (solo ESTADO_CAMBIADO) */
+    private String estado;
+
+    /** Gravedad del incidente o tipo de la observación, si se conoce */
+    private String categoria;
+
+    /** Fecha del incidente u observación, si se conoce */
+    private LocalDate fecha;
+}
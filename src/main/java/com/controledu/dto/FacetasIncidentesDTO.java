@@ -0,0 +1,25 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Resultado de una consulta de facetas sobre el índice en memoria de incidentes.
+ *
+ * Contiene el total de incidentes que cumplen el filtro y, por cada dimensión
+ * (gravedad, grado, sección, estado, leído), el conteo de esos incidentes por valor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetasIncidentesDTO {
+
+    /** Total de incidentes que cumplen el filtro */
+    private long total;
+
+    /** Conteos por dimensión y valor, p. ej. {"gravedad": {"leve": 10, "grave": 3}} */
+    private Map<String, Map<String, Long>> facetas;
+}
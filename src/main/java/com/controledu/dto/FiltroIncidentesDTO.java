@@ -0,0 +1,51 @@
+package com.controledu.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Criterios de filtrado para consultar incidentes sobre el índice en memoria.
+ *
+ * Todos los campos son opcionales; un campo nulo no restringe el resultado.
+ * Se recibe como parámetros de consulta (query string) en la API y en la vista del director.
+ */
+@Data
+public class FiltroIncidentesDTO {
+
+    /** Nombre de la gravedad (leve, grave, muy grave) */
+    private String gravedad;
+
+    /** Grado del estudiante */
+    private String grado;
+
+    /** Sección del estudiante */
+    private String seccion;
+
+    /** Estado del registro (ACTIVO, RESUELTO, ARCHIVADO) */
+    private String estado;
+
+    /** true = solo leídos, false = solo no leídos */
+    private Boolean leido;
+
+    /** ID del estudiante involucrado */
+    private Long estudianteId;
+
+    /** ID de la conducta registrada */
+    private Long conductaId;
+
+    /** Fecha de registro mínima (inclusive) */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate desde;
+
+    /** Fecha de registro máxima (inclusive) */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate hasta;
+
+    /** Indica si se definió al menos un criterio */
+    public boolean tieneCriterios() {
+        return gravedad != null || grado != null || seccion != null || estado != null || leido != null
+                || estudianteId != null || conductaId != null || desde != null || hasta != null;
+    }
+}
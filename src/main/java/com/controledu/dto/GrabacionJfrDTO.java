@@ -0,0 +1,40 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Estado de una grabación de Java Flight Recorder.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrabacionJfrDTO {
+
+    /** Identificador de la grabación en la JVM */
+    private long id;
+
+    /** Nombre de la grabación */
+    private String nombre;
+
+    /** NEW, DELAYED, RUNNING, STOPPED o CLOSED */
+    private String estado;
+
+    /** Configuración de JFR con la que se inició ("default", "profile"), o null si no la inició este servicio */
+    private String configuracion;
+
+    /** Momento de inicio, o null si todavía no empezó */
+    private Instant inicio;
+
+    /** Momento de fin, o null si sigue en curso */
+    private Instant fin;
+
+    /** Duración máxima en segundos (se detiene sola al cumplirla); 0 si no tiene */
+    private long duracionMaximaSegundos;
+
+    /** Tamaño de los datos grabados en bytes */
+    private long tamanioBytes;
+}
@@ -0,0 +1,77 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el progreso y el resultado de una importación CSV de estudiantes o docentes.
+ *
+ * Se consulta mientras la importación avanza (porcentaje y filas procesadas) y al terminar
+ * incluye el reporte de errores por fila.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionEstadoDTO {
+
+    /** Identificador de la importación */
+    private String id;
+
+    /** Tipo de registros importados: ESTUDIANTES o DOCENTES */
+    private String tipo;
+
+    /** Nombre original del archivo subido */
+    private String archivo;
+
+    /** PENDIENTE, EN_PROCESO, COMPLETADA o FALLIDA */
+    private String estado;
+
+    /** Avance aproximado (0-100) según lo leído del archivo */
+    private int porcentaje;
+
+    /** Filas de datos leídas (sin contar el encabezado ni filas vacías) */
+    private int filasProcesadas;
+
+    /** Filas insertadas en la base de datos */
+    private int filasImportadas;
+
+    /** Filas rechazadas por validación o por error al guardar su lote */
+    private int filasConError;
+
+    /** Mensaje general (motivo de fallo o resumen) */
+    private String mensaje;
+
+    /** Momento de inicio de la importación */
+    private LocalDateTime iniciada;
+
+    /** Momento de finalización (null mientras está en proceso) */
+    private LocalDateTime finalizada;
+
+    /** Duración en milisegundos hasta el momento de la consulta */
+    private long duracionMs;
+
+    /** Errores por fila (limitado a los primeros 1000) */
+    private List<ErrorFila> errores;
+
+    /**
+     * Error asociado a una fila del archivo.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+
+        /** Número de línea en el archivo (1 = encabezado) */
+        private long linea;
+
+        /** Usuario de la fila, si se pudo leer */
+        private String usuario;
+
+        /** Descripción del problema */
+        private String mensaje;
+    }
+}
@@ -0,0 +1,40 @@
+package com.controledu.dto;
+
+import lombok.Data;
+
+/**
+ * Tamaño y forma del conjunto de datos sintético que produce {@code GeneradorDatosService}.
+ *
+ * Los valores por defecto corresponden a un colegio pequeño; para pruebas de escala basta con
+ * subir {@code estudiantesPorSeccion}, {@code anios} e {@code incidentes}.
+ */
+@Data
+public class ParametrosGeneracionDTO {
+
+    /** Grados (1 a N) */
+    private int grados = 9;
+
+    /** Secciones por grado (A, B, C, ...) */
+    private int seccionesPorGrado = 3;
+
+    /** Estudiantes en cada sección */
+    private int estudiantesPorSeccion = 30;
+
+    /** Docentes por cada materia del plan de estudios */
+    private int docentesPorMateria = 2;
+
+    /** Años lectivos hacia atrás desde hoy que cubren incidentes y observaciones */
+    private int anios = 1;
+
+    /** Total de registros de conducta a generar */
+    private long incidentes = 10_000;
+
+    /** Total de observaciones a generar */
+    private long observaciones = 3_000;
+
+    /** Exponente de la distribución Zipf del uso del catálogo de conductas (0 = uniforme) */
+    private double exponenteZipf = 1.1;
+
+    /** Semilla: los mismos parámetros y semilla producen exactamente los mismos datos */
+    private long semilla = 42;
+}
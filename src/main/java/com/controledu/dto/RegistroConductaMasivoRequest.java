@@ -0,0 +1,31 @@
+package com.controledu.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO para registrar la misma conducta a varios estudiantes en una sola operación
+ * (por ejemplo, una sección completa).
+ *
+ * Se recibe como cuerpo JSON en POST /api/registro-conductas/masivo.
+ * Los IDs de estudiante repetidos se ignoran; si alguno no existe no se registra ninguno.
+ */
+@Data
+public class RegistroConductaMasivoRequest {
+
+    /** IDs de los estudiantes involucrados */
+    private List<Long> estudianteIds;
+
+    /** ID del docente que registra la incidencia */
+    private Long docenteId;
+
+    /** ID de la conducta (regla) asociada al incidente */
+    private Long conductaId;
+
+    /** Acciones tomadas, comunes a todos los registros (texto libre) */
+    private String accionesTomadas;
+
+    /** Comentarios adicionales, comunes a todos los registros */
+    private String comentarios;
+}
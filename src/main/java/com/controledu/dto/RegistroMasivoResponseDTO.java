@@ -0,0 +1,22 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de un registro masivo de conducta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroMasivoResponseDTO {
+
+    /** Cantidad de registros creados */
+    private int registrados;
+
+    /** IDs de los registros creados, en el orden de los estudiantes recibidos */
+    private List<Long> ids;
+}
@@ -0,0 +1,38 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumulado de las ejecuciones lentas de una misma sentencia SQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenConsultaLentaDTO {
+
+    /** Sentencia SQL con marcadores ? */
+    private String sql;
+
+    /** Ejecuciones lentas registradas */
+    private long ejecuciones;
+
+    /** Suma de sus duraciones en milisegundos */
+    private long totalMs;
+
+    /** Duración de la más lenta en milisegundos */
+    private long maximoMs;
+
+    /** Parámetros de la última ejecución lenta */
+    private String ultimosParametros;
+
+    /** Método de servicio de la última ejecución lenta */
+    private String ultimoMetodo;
+
+    /** Filas del EXPLAIN de la sentencia (null si no se capturó) */
+    private List<Map<String, Object>> plan;
+}
@@ -0,0 +1,39 @@
+package com.controledu.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selección de incidentes u observaciones para una acción masiva (marcar leídos, cambiar estado).
+ *
+ * Los criterios presentes se combinan con AND; debe indicarse al menos uno para no
+ * afectar toda la tabla por accidente. Se recibe como JSON en la API o como parámetros
+ * de formulario en las vistas del director.
+ */
+@Data
+public class SeleccionMasivaDTO {
+
+    /** IDs concretos a afectar */
+    private List<Long> ids;
+
+    /** Solo elementos de este estudiante */
+    private Long estudianteId;
+
+    /** Solo elementos con fecha anterior a esta (ISO yyyy-MM-dd) */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate antesDe;
+
+    /** Solo para cambios de estado: estado actual requerido (opcional) */
+    private String estadoOrigen;
+
+    /** Solo para cambios de estado: nuevo estado (ACTIVO, RESUELTO, ARCHIVADO) */
+    private String estado;
+
+    /** Indica si se envió al menos un criterio de selección. */
+    public boolean tieneCriterios() {
+        return (ids != null && !ids.isEmpty()) || estudianteId != null || antesDe != null;
+    }
+}
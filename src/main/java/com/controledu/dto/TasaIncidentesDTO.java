@@ -0,0 +1,33 @@
+package com.controledu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con la cantidad de incidentes de un grado/sección en ventanas móviles de tiempo.
+ *
+ * Los valores se leen de contadores en memoria, por lo que consultarlos no toca la base de datos.
+ * La granularidad es diaria (la fecha de registro no guarda hora): "ultimas24h" corresponde
+ * a los incidentes con fecha de hoy.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TasaIncidentesDTO {
+
+    /** Grado académico (null cuando el valor agrega todos los grados) */
+    private String grado;
+
+    /** Sección dentro del grado (null cuando el valor agrega todas las secciones del grado) */
+    private String seccion;
+
+    /** Incidentes registrados hoy */
+    private long ultimas24h;
+
+    /** Incidentes de los últimos 7 días (incluyendo hoy) */
+    private long ultimos7d;
+
+    /** Incidentes de los últimos 30 días (incluyendo hoy) */
+    private long ultimos30d;
+}
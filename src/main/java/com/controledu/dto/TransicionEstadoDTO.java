@@ -0,0 +1,35 @@
+package com.controledu.dto;
+
+import com.controledu.service.FlujoIncidentesService;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de intentar una transición de estado sobre un registro de conducta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransicionEstadoDTO {
+
+    /** ID del registro */
+    private Long idRegistro;
+
+    /** APLICADA, SIN_CAMBIO, CONFLICTO, NO_PERMITIDA o NO_ENCONTRADO */
+    private FlujoIncidentesService.Resultado resultado;
+
+    /** Estado desde el que se intentó la transición */
+    private String estadoAnterior;
+
+    /** Estado solicitado */
+    private String estadoSolicitado;
+
+    /** Estado en la base de datos tras el intento (null si el registro no existe) */
+    private String estadoActual;
+
+    /** Indica si la transición se aplicó */
+    public boolean isAplicada() {
+        return resultado == FlujoIncidentesService.Resultado.APLICADA;
+    }
+}
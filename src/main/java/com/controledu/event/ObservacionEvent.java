@@ -0,0 +1,57 @@
+package com.controledu.event;
+
+import com.controledu.model.Observacion;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de dominio publicado por ObservacionService cuando una observación
+ * se crea, actualiza, se marca como leída o se elimina.
+ *
+ * Igual que {@link RegistroConductaEvent}, transporta una copia plana de los datos
+ * y se entrega a los listeners después del commit. En una edición (ACTUALIZADO),
+ * {@code anterior} lleva el estudiante y el docente que tenía la observación antes del cambio.
+ */
+public record ObservacionEvent(
+        Tipo tipo,
+        Long idObservacion,
+        Long estudianteId,
+        Long docenteId,
+        String tipoObservacion,
+        LocalDate fecha,
+        boolean leido,
+        Anterior anterior) {
+
+    /** Estudiante y docente de la observación antes de una edición. */
+    public record Anterior(Long estudianteId, Long docenteId) {
+    }
+
+    public ObservacionEvent(Tipo tipo, Long idObservacion, Long estudianteId, Long docenteId,
+                            String tipoObservacion, LocalDate fecha, boolean leido) {
+        this(tipo, idObservacion, estudianteId, docenteId, tipoObservacion, fecha, leido, null);
+    }
+
+    /** Tipo de cambio ocurrido sobre la observación. */
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        LEIDO,
+        ELIMINADO
+    }
+
+    public static ObservacionEvent de(Tipo tipo, Observacion observacion) {
+        return de(tipo, observacion, null);
+    }
+
+    public static ObservacionEvent de(Tipo tipo, Observacion observacion, Anterior anterior) {
+        return new ObservacionEvent(
+                tipo,
+                observacion.getIdObservacion(),
+                observacion.getEstudiante() != null ? observacion.getEstudiante().getId() : null,
+                observacion.getDocente() != null ? observacion.getDocente().getId() : null,
+                observacion.getTipoObservacion(),
+                observacion.getFecha(),
+                Boolean.TRUE.equals(observacion.getLeido()),
+                anterior);
+    }
+}
@@ -0,0 +1,96 @@
+package com.controledu.event;
+
+import com.controledu.model.RegistroConducta;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de dominio publicado por RegistroConductaService cada vez que un registro
+ * de conducta cambia (creación, lectura, cambio de estado, eliminación).
+ *
+ * Lleva una copia plana de los datos del registro para que los consumidores
+ * (contadores e índices en memoria) no dependan de entidades JPA fuera de la transacción.
+ * Se entrega después del commit mediante @TransactionalEventListener.
+ *
+ * Una edición (ACTUALIZADO) puede mover el registro a otro estudiante o docente: {@code anterior}
+ * lleva las claves que tenía antes, para que los contadores vuelvan a contar también esas.
+ * En los demás tipos es null.
+ */
+public record RegistroConductaEvent(
+        Tipo tipo,
+        Long idRegistro,
+        Long estudianteId,
+        Long docenteId,
+        Long conductaId,
+        String gravedad,
+        String grado,
+        String seccion,
+        LocalDate fechaRegistro,
+        String estado,
+        boolean leido,
+        Anterior anterior) {
+
+    /** Estudiante (con su grado y sección) y docente del registro antes de una edición. */
+    public record Anterior(Long estudianteId, Long docenteId, String grado, String seccion) {
+    }
+
+    public RegistroConductaEvent(Tipo tipo, Long idRegistro, Long estudianteId, Long docenteId, Long conductaId,
+                                 String gravedad, String grado, String seccion, LocalDate fechaRegistro,
+                                 String estado, boolean leido) {
+        this(tipo, idRegistro, estudianteId, docenteId, conductaId, gravedad, grado, seccion, fechaRegistro,
+                estado, leido, null);
+    }
+
+    /** Tipo de cambio ocurrido sobre el registro. */
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        LEIDO,
+        ESTADO_CAMBIADO,
+        ELIMINADO
+    }
+
+    /**
+     * Construye el evento a partir de la entidad ya persistida.
+     * Se protege ante relaciones nulas para no romper el flujo de escritura.
+     */
+    public static RegistroConductaEvent de(Tipo tipo, RegistroConducta registro) {
+        return de(tipo, registro, null);
+    }
+
+    public static RegistroConductaEvent de(Tipo tipo, RegistroConducta registro, Anterior anterior) {
+        Long estudianteId = null;
+        String grado = null;
+        String seccion = null;
+        if (registro.getEstudiante() != null) {
+            estudianteId = registro.getEstudiante().getId();
+            grado = registro.getEstudiante().getGrado();
+            seccion = registro.getEstudiante().getSeccion();
+        }
+
+        Long conductaId = null;
+        String gravedad = null;
+        if (registro.getConducta() != null) {
+            conductaId = registro.getConducta().getIdConducta();
+            if (registro.getConducta().getGravedad() != null) {
+                gravedad = registro.getConducta().getGravedad().getNombreGravedad();
+            }
+        }
+
+        Long docenteId = registro.getDocente() != null ? registro.getDocente().getId() : null;
+
+        return new RegistroConductaEvent(
+                tipo,
+                registro.getIdRegistro(),
+                estudianteId,
+                docenteId,
+                conductaId,
+                gravedad,
+                grado,
+                seccion,
+                registro.getFechaRegistro(),
+                registro.getEstado(),
+                Boolean.TRUE.equals(registro.getLeido()),
+                anterior);
+    }
+}
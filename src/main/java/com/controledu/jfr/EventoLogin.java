@@ -0,0 +1,29 @@
+package com.controledu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Intento de inicio de sesión (ver {@code AuthService#authenticate}).
+ */
+@Name("controledu.Login")
+@Label("Intento de login")
+@Category("ControlEdu")
+@Description("Intento de inicio de sesión con su resultado")
+@StackTrace(false)
+public class EventoLogin extends Event {
+
+    @Label("Usuario")
+    public String usuario;
+
+    @Label("Rol")
+    @Description("Rol del usuario autenticado, o vacío si falló")
+    public String rol;
+
+    @Label("Correcto")
+    public boolean exito;
+}
@@ -0,0 +1,36 @@
+package com.controledu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Petición HTTP completa (controlador y vista). Los eventos de servicio, SQL y plantilla del
+ * mismo hilo quedan dentro de su intervalo.
+ */
+@Name("controledu.Peticion")
+@Label("Petición HTTP")
+@Category("ControlEdu")
+@Description("Petición HTTP atendida por la aplicación")
+@StackTrace(false)
+public class EventoPeticion extends Event {
+
+    @Label("Método")
+    public String metodo;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Patrón")
+    @Description("Patrón de la ruta que atendió la petición")
+    public String patron;
+
+    @Label("Estado HTTP")
+    public int estado;
+
+    @Label("Sentencias SQL")
+    public long sentencias;
+}
@@ -0,0 +1,26 @@
+package com.controledu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Renderizado de una vista Thymeleaf, incluidas las relaciones perezosas que carga
+ * (ver {@code JfrPlantillaInterceptor}).
+ */
+@Name("controledu.Plantilla")
+@Label("Renderizado de plantilla")
+@Category("ControlEdu")
+@Description("Renderizado de la vista de una petición MVC")
+@StackTrace(false)
+public class EventoPlantilla extends Event {
+
+    @Label("Vista")
+    public String vista;
+
+    @Label("Correcta")
+    public boolean exito;
+}
@@ -0,0 +1,29 @@
+package com.controledu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Llamada a un método público de un servicio (ver {@code MetricasServiciosAspect}).
+ */
+@Name("controledu.Servicio")
+@Label("Llamada a servicio")
+@Category("ControlEdu")
+@Description("Método público de un servicio de la aplicación")
+@StackTrace(false)
+public class EventoServicio extends Event {
+
+    @Label("Clase")
+    public String clase;
+
+    @Label("Método")
+    public String metodo;
+
+    @Label("Excepción")
+    @Description("Excepción lanzada, o vacío si terminó bien")
+    public String excepcion;
+}
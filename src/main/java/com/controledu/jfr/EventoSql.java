@@ -0,0 +1,39 @@
+package com.controledu.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sentencia JDBC (ver {@code JfrSqlListener}). En los SELECT la duración llega hasta que se
+ * terminan de leer las filas o se cierra el ResultSet.
+ */
+@Name("controledu.Sql")
+@Label("Sentencia SQL")
+@Category("ControlEdu")
+@Description("Sentencia JDBC con las filas leídas o afectadas")
+@StackTrace(false)
+public class EventoSql extends Event {
+
+    @Label("Sentencia")
+    public String sentencia;
+
+    @Label("Tipo")
+    public String tipo;
+
+    @Label("Filas")
+    @Description("Filas leídas (SELECT) o afectadas (DML, suma del lote); -1 si no se conocen")
+    public long filas;
+
+    @Label("Lote")
+    public boolean lote;
+
+    @Label("Método de servicio")
+    public String metodo;
+
+    @Label("Correcta")
+    public boolean exito;
+}
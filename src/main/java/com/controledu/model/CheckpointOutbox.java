@@ -0,0 +1,24 @@
+package com.controledu.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Último evento del outbox entregado con éxito a un destino (sink).
+ */
+@Data
+@Entity
+@Table(name = "outbox_checkpoints")
+public class CheckpointOutbox {
+
+    @Id
+    @Column(name = "sink", length = 100)
+    private String sink;
+
+    @Column(name = "ultimo_id", nullable = false)
+    private Long ultimoId = 0L;
+
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+}
@@ -0,0 +1,39 @@
+package com.controledu.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Evento pendiente de entregar a sistemas externos (patrón "transactional outbox").
+ * Se inserta en la misma transacción que el cambio que describe; el id AUTO_INCREMENT
+ * define el orden de entrega.
+ */
+@Data
+@Entity
+@Table(name = "outbox_eventos", indexes = @Index(name = "idx_outbox_creado", columnList = "creado_en"))
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long idEvento;
+
+    /** INCIDENTE u OBSERVACION */
+    @Column(name = "agregado", nullable = false, length = 20)
+    private String agregado;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    /** CREADO, ACTUALIZADO, LEIDO, ESTADO_CAMBIADO o ELIMINADO */
+    @Column(name = "tipo", nullable = false, length = 30)
+    private String tipo;
+
+    /** Evento de dominio serializado como JSON */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+}
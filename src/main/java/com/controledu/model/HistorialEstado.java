@@ -0,0 +1,37 @@
+package com.controledu.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Transición de estado aplicada a un registro de conducta (ACTIVO → RESUELTO, etc.).
+ * Se inserta por JDBC en la misma transacción que el UPDATE del registro.
+ */
+@Data
+@Entity
+@Table(name = "historial_estados", indexes = @Index(name = "idx_historial_registro", columnList = "id_registro"))
+public class HistorialEstado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_historial")
+    private Long idHistorial;
+
+    // Se guarda solo el id para no cargar el registro al consultar o insertar el historial
+    @Column(name = "id_registro", nullable = false)
+    private Long idRegistro;
+
+    @Column(name = "estado_anterior", nullable = false)
+    private String estadoAnterior;
+
+    @Column(name = "estado_nuevo", nullable = false)
+    private String estadoNuevo;
+
+    @Column(name = "fecha_cambio", nullable = false)
+    private LocalDateTime fechaCambio;
+
+    /** Usuario que aplicó la transición (null si fue el sistema) */
+    @Column(name = "usuario")
+    private String usuario;
+}
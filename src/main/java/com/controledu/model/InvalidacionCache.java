@@ -0,0 +1,41 @@
+package com.controledu.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Entrada del log de invalidaciones compartido entre nodos.
+ * Cada nodo inserta una fila al modificar un dato que mantiene en memoria; los demás la leen
+ * con un sondeo periódico y descartan o recargan su copia local.
+ */
+@Data
+@Entity
+@Table(name = "invalidaciones_cache", indexes = @Index(name = "idx_invalidaciones_creado", columnList = "creado_en"))
+public class InvalidacionCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_invalidacion")
+    private Long idInvalidacion;
+
+    /** Nombre de la caché afectada (p. ej. roster, no-leidos) */
+    @Column(name = "cache", nullable = false, length = 50)
+    private String cache;
+
+    /** Clave afectada dentro de la caché; "*" invalida la caché completa */
+    @Column(name = "clave", nullable = false, length = 100)
+    private String clave;
+
+    /** Versión local del dato en el nodo que escribió (informativa) */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /** Nodo que publicó la invalidación; cada nodo ignora las suyas */
+    @Column(name = "nodo", nullable = false, length = 100)
+    private String nodo;
+
+    /** Hora de la base de datos al insertar, común a todos los nodos */
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+}
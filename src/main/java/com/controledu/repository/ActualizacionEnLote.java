@@ -0,0 +1,120 @@
+package com.controledu.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * UPDATE condicional en lote sobre registroconductas u observaciones.
+ *
+ * Primero bloquea con SELECT ... FOR UPDATE las filas que cumplen la selección y la condición,
+ * y luego las actualiza por id con la misma condición, en tramos de {@value #MAX_IDS_POR_SENTENCIA}.
+ * Un UPDATE de conjunto (como los {@code @Modifying} de JPQL) solo devuelve cuántas filas cambió,
+ * y los eventos de dominio necesitan el estudiante, el docente, la fecha y el valor previo de
+ * cada una; MySQL no tiene UPDATE ... RETURNING. El bloqueo garantiza que las filas leídas son
+ * exactamente las que cambian: sin él, otra transacción podría cambiarlas entre la lectura y el
+ * UPDATE y se notificaría a los contadores en memoria un cambio que no hizo esta.
+ * Debe ejecutarse dentro de una transacción.
+ *
+ * Solo se concatenan los nombres de tabla y columna y las cláusulas fijas de los repositorios;
+ * todos los valores van como parámetros.
+ */
+final class ActualizacionEnLote {
+
+    private static final int MAX_IDS_POR_SENTENCIA = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tabla;
+    private final String columnaId;
+    private final String columnaFecha;
+    /** "SELECT id, id_estudiante, id_docente, fecha" de la tabla, sin FROM */
+    private final String selectFilas;
+
+    ActualizacionEnLote(JdbcTemplate jdbcTemplate, String tabla, String columnaId, String columnaFecha) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tabla = tabla;
+        this.columnaId = columnaId;
+        this.columnaFecha = columnaFecha;
+        this.selectFilas = "SELECT " + columnaId + ", id_estudiante, id_docente, " + columnaFecha;
+    }
+
+    /**
+     * Igual que {@link #ejecutar(String, List, String, List, List, Long, LocalDate, List)} sin columnas adicionales.
+     */
+    List<Object[]> ejecutar(String asignacion, List<Object> paramsAsignacion,
+                            String condicion, List<Object> paramsCondicion,
+                            List<Long> ids, Long estudianteId, LocalDate antesDe) {
+        return ejecutar(asignacion, paramsAsignacion, condicion, paramsCondicion, ids, estudianteId, antesDe, List.of());
+    }
+
+    /**
+     * @param asignacion      Cláusula SET (p. ej. "leido = true, fecha_lectura = CURRENT_DATE").
+     * @param paramsAsignacion Parámetros de la cláusula SET.
+     * @param condicion       Condición que debe cumplir la fila para cambiar (p. ej. "leido = false").
+     * @param paramsCondicion Parámetros de la condición.
+     * @param ids             IDs concretos (opcional).
+     * @param estudianteId    Solo filas de este estudiante (opcional).
+     * @param antesDe         Solo filas con fecha anterior a esta (opcional).
+     * @param columnasAdicionales Columnas cuyo valor previo al UPDATE se devuelve a partir del quinto elemento.
+     * @return Filas actualizadas: [id, estudianteId, docenteId, fecha, valores adicionales...];
+     *         estudianteId y docenteId son null si la columna lo es.
+     */
+    List<Object[]> ejecutar(String asignacion, List<Object> paramsAsignacion,
+                            String condicion, List<Object> paramsCondicion,
+                            List<Long> ids, Long estudianteId, LocalDate antesDe, List<String> columnasAdicionales) {
+        StringBuilder where = new StringBuilder(condicion);
+        List<Object> params = new ArrayList<>(paramsCondicion);
+        if (ids != null && !ids.isEmpty()) {
+            where.append(" AND ").append(columnaId).append(" IN (").append(marcadores(ids.size())).append(')');
+            params.addAll(ids);
+        }
+        if (estudianteId != null) {
+            where.append(" AND id_estudiante = ?");
+            params.add(estudianteId);
+        }
+        if (antesDe != null) {
+            where.append(" AND ").append(columnaFecha).append(" < ?");
+            params.add(antesDe);
+        }
+
+        String columnas = columnasAdicionales.isEmpty()
+                ? selectFilas : selectFilas + ", " + String.join(", ", columnasAdicionales);
+        int adicionales = columnasAdicionales.size();
+        List<Object[]> filas = jdbcTemplate.query(
+                columnas + " FROM " + tabla + " WHERE " + where + " FOR UPDATE",
+                (rs, n) -> {
+                    Object[] fila = new Object[4 + adicionales];
+                    fila[0] = rs.getLong(1);
+                    // getLong convertiría un id_docente NULL en 0
+                    fila[1] = rs.getObject(2, Long.class);
+                    fila[2] = rs.getObject(3, Long.class);
+                    fila[3] = rs.getObject(4, LocalDate.class);
+                    for (int i = 0; i < adicionales; i++) {
+                        fila[4 + i] = rs.getObject(5 + i);
+                    }
+                    return fila;
+                },
+                params.toArray());
+        if (filas.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String update = "UPDATE " + tabla + " SET " + asignacion + " WHERE " + columnaId + " IN (";
+        String condicionUpdate = ") AND " + condicion;
+        for (int desde = 0; desde < filas.size(); desde += MAX_IDS_POR_SENTENCIA) {
+            List<Object[]> tramo = filas.subList(desde, Math.min(desde + MAX_IDS_POR_SENTENCIA, filas.size()));
+            List<Object> paramsUpdate = new ArrayList<>(paramsAsignacion);
+            tramo.forEach(fila -> paramsUpdate.add(fila[0]));
+            paramsUpdate.addAll(paramsCondicion);
+            jdbcTemplate.update(update + marcadores(tramo.size()) + condicionUpdate, paramsUpdate.toArray());
+        }
+        return filas;
+    }
+
+    static String marcadores(int cantidad) {
+        return String.join(", ", Collections.nCopies(cantidad, "?"));
+    }
+}
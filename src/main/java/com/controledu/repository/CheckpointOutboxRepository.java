@@ -0,0 +1,9 @@
+package com.controledu.repository;
+
+import com.controledu.model.CheckpointOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckpointOutboxRepository extends JpaRepository<CheckpointOutbox, String> {
+}
@@ -1,5 +1,6 @@
 package com.controledu.repository;
 
+import com.controledu.dto.DocenteResumenDTO;
 import com.controledu.model.Docente;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DocenteRepository extends JpaRepository<Docente, Long> {
+public interface DocenteRepository extends JpaRepository<Docente, Long>, DocenteRepositoryCustom {
 
     // Métodos básicos
     Optional<Docente> findByUsuario(String usuario);
@@ -36,6 +37,10 @@ public interface DocenteRepository extends JpaRepository<Docente, Long> {
             "ORDER BY total DESC")
     List<Object[]> findDocentesConMasRegistros();
 
+    // Plantilla del ranking en memoria: sin usuario ni contraseña
+    @Query("SELECT new com.controledu.dto.DocenteResumenDTO(d.id, d.nombres, d.apellidos, d.materia) FROM Docente d")
+    List<DocenteResumenDTO> findAllResumen();
+
     // Métodos adicionales útiles
     List<Docente> findAllByOrderByNombresAsc();
 
@@ -0,0 +1,18 @@
+package com.controledu.repository;
+
+import com.controledu.model.Docente;
+
+import java.util.List;
+
+/**
+ * Operaciones de DocenteRepository que no se expresan con Spring Data.
+ */
+public interface DocenteRepositoryCustom {
+
+    /**
+     * Inserta los docentes con sentencias JDBC en lote (sin cargar ni devolver entidades).
+     *
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<Docente> docentes);
+}
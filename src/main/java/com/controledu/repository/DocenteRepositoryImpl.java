@@ -0,0 +1,32 @@
+package com.controledu.repository;
+
+import com.controledu.model.Docente;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link DocenteRepositoryCustom} para la importación de planta docente.
+ */
+@RequiredArgsConstructor
+public class DocenteRepositoryImpl implements DocenteRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO docente (nombres, apellidos, materia, usuario, password) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarEnLote(List<Docente> docentes) {
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, docentes, docentes.size(), (ps, d) -> {
+            ps.setString(1, d.getNombres());
+            ps.setString(2, d.getApellidos());
+            ps.setString(3, d.getMateria());
+            ps.setString(4, d.getUsuario());
+            ps.setString(5, d.getPassword());
+        });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+}
@@ -1,5 +1,6 @@
 package com.controledu.repository;
 
+import com.controledu.dto.EstudianteResumenDTO;
 import com.controledu.model.Estudiante;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
+public interface EstudianteRepository extends JpaRepository<Estudiante, Long>, EstudianteRepositoryCustom {
 
     // Métodos básicos
     Optional<Estudiante> findByUsuario(String usuario);
@@ -49,4 +50,18 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
 
     @Query("SELECT COUNT(e) FROM Estudiante e")
     long countEstudiantes();
-}
\ No newline at end of file
+
+    // Filas del roster en memoria: solo las columnas de los listados, sin la contraseña
+    @Query("SELECT new com.controledu.dto.EstudianteResumenDTO(e.id, e.nombres, e.apellidos, e.grado, e.seccion, " +
+            "e.usuario, e.fechaNacimiento) FROM Estudiante e")
+    List<EstudianteResumenDTO> findAllResumen();
+
+    @Query("SELECT new com.controledu.dto.EstudianteResumenDTO(e.id, e.nombres, e.apellidos, e.grado, e.seccion, " +
+            "e.usuario, e.fechaNacimiento) FROM Estudiante e WHERE e.id = :id")
+    Optional<EstudianteResumenDTO> findResumenById(@Param("id") Long id);
+
+    // Nombres de usuario de los tres roles, para validar importaciones con una sola consulta
+    @Query(value = "SELECT usuario FROM estudiante UNION SELECT usuario FROM docente UNION SELECT usuario FROM director",
+            nativeQuery = true)
+    List<String> findAllUsuariosDelSistema();
+}
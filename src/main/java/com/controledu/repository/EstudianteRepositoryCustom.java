@@ -0,0 +1,18 @@
+package com.controledu.repository;
+
+import com.controledu.model.Estudiante;
+
+import java.util.List;
+
+/**
+ * Operaciones de EstudianteRepository que no se expresan con Spring Data.
+ */
+public interface EstudianteRepositoryCustom {
+
+    /**
+     * Inserta los estudiantes con sentencias JDBC en lote (sin cargar ni devolver entidades).
+     *
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<Estudiante> estudiantes);
+}
@@ -0,0 +1,41 @@
+package com.controledu.repository;
+
+import com.controledu.model.Estudiante;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link EstudianteRepositoryCustom} para la importación de matrícula.
+ */
+@RequiredArgsConstructor
+public class EstudianteRepositoryImpl implements EstudianteRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO estudiante (nombres, apellidos, grado, seccion, fecha_nacimiento, usuario, password) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarEnLote(List<Estudiante> estudiantes) {
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, estudiantes, estudiantes.size(), (ps, e) -> {
+            ps.setString(1, e.getNombres());
+            ps.setString(2, e.getApellidos());
+            ps.setString(3, e.getGrado());
+            ps.setString(4, e.getSeccion());
+            if (e.getFechaNacimiento() != null) {
+                ps.setDate(5, Date.valueOf(e.getFechaNacimiento()));
+            } else {
+                ps.setNull(5, Types.DATE);
+            }
+            ps.setString(6, e.getUsuario());
+            ps.setString(7, e.getPassword());
+        });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+}
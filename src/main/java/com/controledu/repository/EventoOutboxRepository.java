@@ -0,0 +1,30 @@
+package com.controledu.repository;
+
+import com.controledu.model.EventoOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long>, EventoOutboxRepositoryCustom {
+
+    // Siguiente lote a entregar: posteriores al checkpoint y ya asentados, en orden de id
+    List<EventoOutbox> findByIdEventoGreaterThanAndCreadoEnLessThanEqualOrderByIdEventoAsc(
+            Long desde, LocalDateTime hasta, Limit limite);
+
+    long countByIdEventoGreaterThan(Long desde);
+
+    // Cambios desde un instante, en lotes por id (reproducción al restaurar el snapshot de índices)
+    List<EventoOutbox> findByCreadoEnGreaterThanEqualAndIdEventoGreaterThanOrderByIdEventoAsc(
+            LocalDateTime desde, Long idEvento, Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.idEvento <= :hastaId AND e.creadoEn < :antesDe")
+    int purgar(@Param("hastaId") Long hastaId, @Param("antesDe") LocalDateTime antesDe);
+}
@@ -0,0 +1,18 @@
+package com.controledu.repository;
+
+import com.controledu.model.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Operaciones de EventoOutboxRepository que no se expresan con Spring Data.
+ */
+public interface EventoOutboxRepositoryCustom {
+
+    /**
+     * Inserta los eventos con sentencias JDBC en lote, en la transacción en curso.
+     *
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<EventoOutbox> eventos);
+}
@@ -0,0 +1,37 @@
+package com.controledu.repository;
+
+import com.controledu.model.EventoOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link EventoOutboxRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class EventoOutboxRepositoryImpl implements EventoOutboxRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO outbox_eventos (agregado, agregado_id, tipo, payload, creado_en) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarEnLote(List<EventoOutbox> eventos) {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, eventos, RegistroConductaRepositoryImpl.TAMANIO_LOTE,
+                (ps, e) -> {
+                    ps.setString(1, e.getAgregado());
+                    ps.setLong(2, e.getAgregadoId());
+                    ps.setString(3, e.getTipo());
+                    ps.setString(4, e.getPayload());
+                    ps.setTimestamp(5, Timestamp.valueOf(e.getCreadoEn()));
+                });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+}
@@ -0,0 +1,13 @@
+package com.controledu.repository;
+
+import com.controledu.model.HistorialEstado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HistorialEstadoRepository extends JpaRepository<HistorialEstado, Long>, HistorialEstadoRepositoryCustom {
+
+    List<HistorialEstado> findByIdRegistroOrderByFechaCambioDesc(Long idRegistro);
+}
@@ -0,0 +1,18 @@
+package com.controledu.repository;
+
+import com.controledu.model.HistorialEstado;
+
+import java.util.List;
+
+/**
+ * Operaciones de HistorialEstadoRepository que no se expresan con Spring Data.
+ */
+public interface HistorialEstadoRepositoryCustom {
+
+    /**
+     * Inserta las transiciones con sentencias JDBC en lote, en la transacción en curso.
+     *
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<HistorialEstado> transiciones);
+}
@@ -0,0 +1,38 @@
+package com.controledu.repository;
+
+import com.controledu.model.HistorialEstado;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link HistorialEstadoRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class HistorialEstadoRepositoryImpl implements HistorialEstadoRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO historial_estados (id_registro, estado_anterior, estado_nuevo, fecha_cambio, usuario) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertarEnLote(List<HistorialEstado> transiciones) {
+        if (transiciones.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, transiciones, RegistroConductaRepositoryImpl.TAMANIO_LOTE,
+                (ps, h) -> {
+                    ps.setLong(1, h.getIdRegistro());
+                    ps.setString(2, h.getEstadoAnterior());
+                    ps.setString(3, h.getEstadoNuevo());
+                    ps.setTimestamp(4, Timestamp.valueOf(h.getFechaCambio()));
+                    ps.setString(5, h.getUsuario());
+                });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+}
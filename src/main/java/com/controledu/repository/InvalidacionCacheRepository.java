@@ -0,0 +1,27 @@
+package com.controledu.repository;
+
+import com.controledu.model.InvalidacionCache;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InvalidacionCacheRepository extends JpaRepository<InvalidacionCache, Long>, InvalidacionCacheRepositoryCustom {
+
+    // Siguiente lote a aplicar: posteriores al último id leído y ya asentados, en orden de id
+    List<InvalidacionCache> findByIdInvalidacionGreaterThanAndCreadoEnLessThanEqualOrderByIdInvalidacionAsc(
+            Long desde, LocalDateTime hasta, Limit limite);
+
+    @Query("SELECT COALESCE(MAX(i.idInvalidacion), 0) FROM InvalidacionCache i")
+    long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM InvalidacionCache i WHERE i.creadoEn < :antesDe")
+    int purgar(@Param("antesDe") LocalDateTime antesDe);
+}
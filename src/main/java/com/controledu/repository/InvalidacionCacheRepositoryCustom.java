@@ -0,0 +1,22 @@
+package com.controledu.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Operaciones de InvalidacionCacheRepository que no se expresan con Spring Data.
+ */
+public interface InvalidacionCacheRepositoryCustom {
+
+    /**
+     * Inserta las invalidaciones en lote con la hora de la base de datos, para que todos los
+     * nodos las comparen contra el mismo reloj.
+     *
+     * @param filas Arreglos {cache, clave, version}.
+     * @return Cantidad de filas insertadas.
+     */
+    int publicarEnLote(List<Object[]> filas, String nodo);
+
+    /** Hora actual de la base de datos. */
+    LocalDateTime ahora();
+}
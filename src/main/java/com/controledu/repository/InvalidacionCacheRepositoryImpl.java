@@ -0,0 +1,40 @@
+package com.controledu.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link InvalidacionCacheRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+public class InvalidacionCacheRepositoryImpl implements InvalidacionCacheRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO invalidaciones_cache (cache, clave, version, nodo, creado_en) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(3))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int publicarEnLote(List<Object[]> filas, String nodo) {
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, filas, RegistroConductaRepositoryImpl.TAMANIO_LOTE,
+                (ps, fila) -> {
+                    ps.setString(1, (String) fila[0]);
+                    ps.setString(2, (String) fila[1]);
+                    ps.setLong(3, (Long) fila[2]);
+                    ps.setString(4, nodo);
+                });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+
+    @Override
+    public LocalDateTime ahora() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", LocalDateTime.class);
+    }
+}
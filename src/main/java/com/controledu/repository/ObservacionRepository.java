@@ -1,9 +1,12 @@
 package com.controledu.repository;
 
 import com.controledu.model.Observacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,7 +14,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface ObservacionRepository extends JpaRepository<Observacion, Long> {
+public interface ObservacionRepository extends JpaRepository<Observacion, Long>, ObservacionRepositoryCustom {
 
     @Query("SELECT o FROM Observacion o WHERE o.estudiante.id = :estudianteId ORDER BY o.fecha DESC")
     List<Observacion> findByEstudianteId(@Param("estudianteId") Long estudianteId);
@@ -41,9 +44,18 @@ public interface ObservacionRepository extends JpaRepository<Observacion, Long>
     @Query("SELECT COUNT(o) FROM Observacion o")
     long countObservaciones();
 
-    @Query("SELECT COUNT(o) FROM Observacion o WHERE o.estudiante.id = :estudianteId AND o.leido = false")
+    // Mismo criterio que countNoLeidasPorEstudiante: leido NULL cuenta como no leída
+    @Query("SELECT COUNT(o) FROM Observacion o WHERE o.estudiante.id = :estudianteId AND (o.leido = false OR o.leido IS NULL)")
     long countNoLeidasByEstudianteId(@Param("estudianteId") Long estudianteId);
 
+    // Fila: [estudianteId, observaciones] (listados de estudiantes sin un COUNT por fila)
+    @Query("SELECT o.estudiante.id, COUNT(o) FROM Observacion o GROUP BY o.estudiante.id")
+    List<Object[]> countPorEstudiante();
+
+    // Fila: [estudianteId, no leídas]; una observación con leido NULL cuenta como no leída
+    @Query("SELECT o.estudiante.id, COUNT(o) FROM Observacion o WHERE o.leido = false OR o.leido IS NULL GROUP BY o.estudiante.id")
+    List<Object[]> countNoLeidasPorEstudiante();
+
     @Modifying
     @Query("UPDATE Observacion o SET o.leido = true, o.fechaLectura = CURRENT_DATE WHERE o.idObservacion = :id")
     void marcarComoLeida(@Param("id") Long id);
@@ -56,4 +68,31 @@ public interface ObservacionRepository extends JpaRepository<Observacion, Long>
 
     @Query("SELECT o.tipoObservacion, COUNT(o) FROM Observacion o GROUP BY o.tipoObservacion")
     List<Object[]> countByTipoObservacion();
-}
\ No newline at end of file
+
+    // Actividad por docente y mes: [docenteId, año, mes, total, última fecha]
+    @Query("SELECT o.docente.id, YEAR(o.fecha), MONTH(o.fecha), COUNT(o), MAX(o.fecha) " +
+            "FROM Observacion o " +
+            "GROUP BY o.docente.id, YEAR(o.fecha), MONTH(o.fecha)")
+    List<Object[]> countByDocenteYMes();
+
+    @Query("SELECT o.docente.id, YEAR(o.fecha), MONTH(o.fecha), COUNT(o), MAX(o.fecha) " +
+            "FROM Observacion o WHERE o.docente.id = :docenteId " +
+            "GROUP BY o.docente.id, YEAR(o.fecha), MONTH(o.fecha)")
+    List<Object[]> countByMesParaDocente(@Param("docenteId") Long docenteId);
+
+    // Reproducción de observaciones posteriores a un snapshot
+    List<Observacion> findByIdObservacionGreaterThanOrderByIdObservacionAsc(Long idObservacion);
+
+    @Query("SELECT o.idObservacion FROM Observacion o WHERE o.idObservacion > :desde")
+    List<Long> findIdsMayoresA(@Param("desde") Long desde);
+
+    @Query("SELECT MAX(o.idObservacion) FROM Observacion o")
+    Long findMaxId();
+
+    // Claves de la observación antes de guardar una edición: [estudianteId, docenteId].
+    // Sin flush previo, para que una entidad gestionada ya modificada no adelante los valores nuevos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT e.id, d.id FROM Observacion o LEFT JOIN o.estudiante e LEFT JOIN o.docente d " +
+            "WHERE o.idObservacion = :id")
+    List<Object[]> findClavesById(@Param("id") Long id);
+}
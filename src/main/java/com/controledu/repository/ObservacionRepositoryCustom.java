@@ -0,0 +1,28 @@
+package com.controledu.repository;
+
+import com.controledu.model.Observacion;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Operaciones de ObservacionRepository que no se expresan con Spring Data.
+ */
+public interface ObservacionRepositoryCustom {
+
+    /**
+     * Marca como leídas, con un UPDATE por conjunto, las observaciones no leídas que cumplan
+     * todos los criterios indicados (ids, estudiante, fecha anterior a).
+     *
+     * @return Filas que cambiaron: [idObservacion, estudianteId, docenteId, fecha].
+     */
+    List<Object[]> marcarLeidasEnLote(List<Long> ids, Long estudianteId, LocalDate antesDe);
+
+    /**
+     * Inserta las observaciones con sentencias JDBC en lote (sin cargar ni devolver entidades).
+     *
+     * @param observaciones Observaciones nuevas (sin id) con estudiante y docente asignados.
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<Observacion> observaciones);
+}
@@ -0,0 +1,58 @@
+package com.controledu.repository;
+
+import com.controledu.model.Observacion;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementación JDBC de {@link ObservacionRepositoryCustom}.
+ */
+public class ObservacionRepositoryImpl implements ObservacionRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO observaciones (id_estudiante, id_docente, tipo_observacion, descripcion, fecha, leido, fecha_lectura) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActualizacionEnLote actualizacion;
+
+    public ObservacionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.actualizacion = new ActualizacionEnLote(jdbcTemplate, "observaciones", "id_observacion", "fecha");
+    }
+
+    @Override
+    public int insertarEnLote(List<Observacion> observaciones) {
+        if (observaciones.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT, observaciones, RegistroConductaRepositoryImpl.TAMANIO_LOTE,
+                (ps, o) -> {
+                    ps.setLong(1, o.getEstudiante().getId());
+                    ps.setLong(2, o.getDocente().getId());
+                    ps.setString(3, o.getTipoObservacion());
+                    ps.setString(4, o.getDescripcion());
+                    ps.setDate(5, Date.valueOf(o.getFecha()));
+                    ps.setBoolean(6, Boolean.TRUE.equals(o.getLeido()));
+                    if (o.getFechaLectura() != null) {
+                        ps.setDate(7, Date.valueOf(o.getFechaLectura()));
+                    } else {
+                        ps.setNull(7, Types.DATE);
+                    }
+                });
+        return Arrays.stream(resultado).mapToInt(lote -> lote.length).sum();
+    }
+
+    @Override
+    public List<Object[]> marcarLeidasEnLote(List<Long> ids, Long estudianteId, LocalDate antesDe) {
+        return actualizacion.ejecutar(
+                "leido = true, fecha_lectura = CURRENT_DATE", List.of(),
+                "(leido = false OR leido IS NULL)", List.of(),
+                ids, estudianteId, antesDe);
+    }
+}
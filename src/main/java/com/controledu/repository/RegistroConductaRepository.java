@@ -1,17 +1,23 @@
 package com.controledu.repository;
 
 import com.controledu.model.RegistroConducta;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable; // <-- Importante para LIMIT
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface RegistroConductaRepository extends JpaRepository<RegistroConducta, Long> {
+public interface RegistroConductaRepository extends JpaRepository<RegistroConducta, Long>, RegistroConductaRepositoryCustom {
 
     // Spring Data JPA puede crear esta consulta solo con el nombre del método
     List<RegistroConducta> findByFechaRegistro(LocalDate fechaRegistro);
@@ -33,6 +39,14 @@ public interface RegistroConductaRepository extends JpaRepository<RegistroConduc
     @Query("SELECT COUNT(rc) FROM RegistroConducta rc WHERE rc.estudiante.id = :estudianteId AND rc.leido = false")
     long countNoLeidosByEstudianteId(@Param("estudianteId") Long estudianteId);
 
+    // Fila: [estudianteId, incidentes] (listados de estudiantes sin un COUNT por fila)
+    @Query("SELECT rc.estudiante.id, COUNT(rc) FROM RegistroConducta rc GROUP BY rc.estudiante.id")
+    List<Object[]> countPorEstudiante();
+
+    // Fila: [estudianteId, no leídos] (reconciliación de los contadores en memoria)
+    @Query("SELECT rc.estudiante.id, COUNT(rc) FROM RegistroConducta rc WHERE rc.leido = false GROUP BY rc.estudiante.id")
+    List<Object[]> countNoLeidosPorEstudiante();
+
     // FORMA MÁS FLEXIBLE DE BUSCAR RECIENTES (LIMIT)
     List<RegistroConducta> findTop5ByOrderByFechaRegistroDesc();
 
@@ -45,4 +59,111 @@ public interface RegistroConductaRepository extends JpaRepository<RegistroConduc
 
     @Query("SELECT YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro), COUNT(rc) FROM RegistroConducta rc GROUP BY YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro)")
     List<Object[]> countByMes();
-}
\ No newline at end of file
+
+    // Conteo diario por grado y sección desde una fecha (semilla de las ventanas móviles)
+    @Query("SELECT rc.estudiante.grado, rc.estudiante.seccion, rc.fechaRegistro, COUNT(rc) FROM RegistroConducta rc " +
+            "WHERE rc.fechaRegistro >= :desde " +
+            "GROUP BY rc.estudiante.grado, rc.estudiante.seccion, rc.fechaRegistro")
+    List<Object[]> countByGradoSeccionYFechaDesde(@Param("desde") LocalDate desde);
+
+    // Conteo diario de un solo grado y sección (vacíos = sin valor): [fecha, total]
+    @Query("SELECT rc.fechaRegistro, COUNT(rc) FROM RegistroConducta rc " +
+            "WHERE rc.fechaRegistro >= :desde AND COALESCE(rc.estudiante.grado, '') = :grado " +
+            "AND COALESCE(rc.estudiante.seccion, '') = :seccion " +
+            "GROUP BY rc.fechaRegistro")
+    List<Object[]> countByFechaDesdeParaGradoSeccion(@Param("grado") String grado,
+                                                     @Param("seccion") String seccion,
+                                                     @Param("desde") LocalDate desde);
+
+    // Actividad por docente y mes: [docenteId, año, mes, total, última fecha]
+    @Query("SELECT rc.docente.id, YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro), COUNT(rc), MAX(rc.fechaRegistro) " +
+            "FROM RegistroConducta rc " +
+            "GROUP BY rc.docente.id, YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro)")
+    List<Object[]> countByDocenteYMes();
+
+    @Query("SELECT rc.docente.id, YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro), COUNT(rc), MAX(rc.fechaRegistro) " +
+            "FROM RegistroConducta rc WHERE rc.docente.id = :docenteId " +
+            "GROUP BY rc.docente.id, YEAR(rc.fechaRegistro), MONTH(rc.fechaRegistro)")
+    List<Object[]> countByMesParaDocente(@Param("docenteId") Long docenteId);
+
+    // Proyección plana para el índice columnar (sin entidades administradas). Debe consumirse
+    // dentro de una transacción y cerrarse; el fetch size permite leer por bloques.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT rc.idRegistro, rc.estudiante.id, rc.conducta.idConducta, rc.conducta.gravedad.nombreGravedad, " +
+            "rc.estudiante.grado, rc.estudiante.seccion, rc.estado, rc.fechaRegistro, rc.leido " +
+            "FROM RegistroConducta rc ORDER BY rc.idRegistro")
+    Stream<Object[]> streamResumen();
+
+    // Criterios de FiltroIncidentesDTO resueltos en la base de datos, para cuando el índice columnar
+    // todavía no está cargado. Un criterio nulo no restringe; leído nulo cuenta como no leído.
+    String FILTRO_INCIDENTES = "WHERE (:gravedad IS NULL OR LOWER(rc.conducta.gravedad.nombreGravedad) = LOWER(:gravedad)) " +
+            "AND (:grado IS NULL OR rc.estudiante.grado = :grado) " +
+            "AND (:seccion IS NULL OR rc.estudiante.seccion = :seccion) " +
+            "AND (:estado IS NULL OR UPPER(rc.estado) = UPPER(:estado)) " +
+            "AND (:leido IS NULL OR COALESCE(rc.leido, false) = :leido) " +
+            "AND (:estudianteId IS NULL OR rc.estudiante.id = :estudianteId) " +
+            "AND (:conductaId IS NULL OR rc.conducta.idConducta = :conductaId) " +
+            "AND (:desde IS NULL OR rc.fechaRegistro >= :desde) " +
+            "AND (:hasta IS NULL OR rc.fechaRegistro <= :hasta) ";
+
+    @Query("SELECT COUNT(rc) FROM RegistroConducta rc " + FILTRO_INCIDENTES)
+    long countFiltrados(@Param("gravedad") String gravedad, @Param("grado") String grado,
+                        @Param("seccion") String seccion, @Param("estado") String estado,
+                        @Param("leido") Boolean leido, @Param("estudianteId") Long estudianteId,
+                        @Param("conductaId") Long conductaId, @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
+
+    @Query("SELECT rc.idRegistro FROM RegistroConducta rc " + FILTRO_INCIDENTES + "ORDER BY rc.idRegistro DESC")
+    List<Long> findIdsFiltrados(@Param("gravedad") String gravedad, @Param("grado") String grado,
+                                @Param("seccion") String seccion, @Param("estado") String estado,
+                                @Param("leido") Boolean leido, @Param("estudianteId") Long estudianteId,
+                                @Param("conductaId") Long conductaId, @Param("desde") LocalDate desde,
+                                @Param("hasta") LocalDate hasta, Limit limite);
+
+    // Fila: [gravedad, grado, sección, estado, leído, total]
+    @Query("SELECT rc.conducta.gravedad.nombreGravedad, rc.estudiante.grado, rc.estudiante.seccion, rc.estado, " +
+            "COALESCE(rc.leido, false), COUNT(rc) FROM RegistroConducta rc " + FILTRO_INCIDENTES +
+            "GROUP BY rc.conducta.gravedad.nombreGravedad, rc.estudiante.grado, rc.estudiante.seccion, rc.estado, " +
+            "COALESCE(rc.leido, false)")
+    List<Object[]> countFacetasFiltradas(@Param("gravedad") String gravedad, @Param("grado") String grado,
+                                         @Param("seccion") String seccion, @Param("estado") String estado,
+                                         @Param("leido") Boolean leido, @Param("estudianteId") Long estudianteId,
+                                         @Param("conductaId") Long conductaId, @Param("desde") LocalDate desde,
+                                         @Param("hasta") LocalDate hasta);
+
+    // Las mismas columnas de streamResumen para un solo registro (vacía si ya no existe)
+    @Query("SELECT rc.idRegistro, rc.estudiante.id, rc.conducta.idConducta, rc.conducta.gravedad.nombreGravedad, " +
+            "rc.estudiante.grado, rc.estudiante.seccion, rc.estado, rc.fechaRegistro, rc.leido " +
+            "FROM RegistroConducta rc WHERE rc.idRegistro = :id")
+    List<Object[]> findResumenById(@Param("id") Long id);
+
+    // Datos planos de RegistroConductaEvent tras un cambio de estado por SQL (vacía si ya no existe):
+    // [estudianteId, docenteId, conductaId, gravedad, grado, seccion, fechaRegistro, leido]
+    @Query("SELECT e.id, d.id, c.idConducta, g.nombreGravedad, e.grado, e.seccion, rc.fechaRegistro, rc.leido " +
+            "FROM RegistroConducta rc LEFT JOIN rc.estudiante e LEFT JOIN rc.docente d " +
+            "LEFT JOIN rc.conducta c LEFT JOIN c.gravedad g WHERE rc.idRegistro = :id")
+    List<Object[]> findDatosEventoById(@Param("id") Long id);
+
+    // Lo mismo para un cambio de estado en lote, con el id al final:
+    // [estudianteId, docenteId, conductaId, gravedad, grado, seccion, fechaRegistro, leido, idRegistro]
+    @Query("SELECT e.id, d.id, c.idConducta, g.nombreGravedad, e.grado, e.seccion, rc.fechaRegistro, rc.leido, " +
+            "rc.idRegistro FROM RegistroConducta rc LEFT JOIN rc.estudiante e LEFT JOIN rc.docente d " +
+            "LEFT JOIN rc.conducta c LEFT JOIN c.gravedad g WHERE rc.idRegistro IN :ids")
+    List<Object[]> findDatosEventoByIds(@Param("ids") Collection<Long> ids);
+
+    // Claves del registro antes de guardar una edición: [estudianteId, docenteId, grado, seccion].
+    // Sin flush previo, para que una entidad gestionada ya modificada no adelante los valores nuevos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT e.id, d.id, e.grado, e.seccion " +
+            "FROM RegistroConducta rc LEFT JOIN rc.estudiante e LEFT JOIN rc.docente d WHERE rc.idRegistro = :id")
+    List<Object[]> findClavesById(@Param("id") Long id);
+
+    // Reproducción de registros posteriores a un snapshot
+    List<RegistroConducta> findByIdRegistroGreaterThanOrderByIdRegistroAsc(Long idRegistro);
+
+    @Query("SELECT rc.idRegistro FROM RegistroConducta rc WHERE rc.idRegistro > :desde")
+    List<Long> findIdsMayoresA(@Param("desde") Long desde);
+
+    @Query("SELECT MAX(rc.idRegistro) FROM RegistroConducta rc")
+    Long findMaxId();
+}
@@ -0,0 +1,55 @@
+package com.controledu.repository;
+
+import com.controledu.model.RegistroConducta;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Operaciones de RegistroConductaRepository que no se expresan con Spring Data.
+ */
+public interface RegistroConductaRepositoryCustom {
+
+    /**
+     * Inserta los registros con sentencias JDBC en lote y asigna a cada uno su id generado.
+     * Debe ejecutarse dentro de una transacción para que el lote sea atómico.
+     *
+     * @param registros Registros nuevos (sin id) con estudiante, docente y conducta asignados.
+     * @return Cantidad de filas insertadas.
+     */
+    int insertarEnLote(List<RegistroConducta> registros);
+
+    /**
+     * Marca como leídos, con un UPDATE por conjunto, los registros no leídos que cumplan todos
+     * los criterios indicados (ids, estudiante, fecha anterior a).
+     *
+     * @return Filas que cambiaron: [idRegistro, estudianteId, docenteId, fechaRegistro].
+     */
+    List<Object[]> marcarLeidosEnLote(List<Long> ids, Long estudianteId, LocalDate antesDe);
+
+    /**
+     * Cambia el estado de los registros que cumplan los criterios y cuyo estado actual esté en
+     * {@code estadosOrigen}, con un UPDATE por conjunto. El estado actual se compara normalizado
+     * (sin espacios y en mayúsculas), igual que en {@link #cambiarEstadoSi}.
+     *
+     * @return Filas que cambiaron: [idRegistro, estudianteId, docenteId, fechaRegistro, estadoAnterior, leido].
+     */
+    List<Object[]> cambiarEstadoEnLote(Collection<String> estadosOrigen, String estadoNuevo,
+                                       List<Long> ids, Long estudianteId, LocalDate antesDe);
+
+    /**
+     * Cambia el estado de un registro solo si sigue en {@code estadoEsperado}
+     * ({@code UPDATE ... WHERE id_registro = ? AND UPPER(TRIM(estado)) = ?}), sin cargar la entidad.
+     * La columna se compara normalizada porque filas antiguas pueden tener el estado en minúsculas
+     * o con espacios; {@code estadoEsperado} debe venir normalizado.
+     *
+     * @return true si la fila cambió; false si no existe o su estado ya era otro.
+     */
+    boolean cambiarEstadoSi(Long idRegistro, String estadoEsperado, String estadoNuevo);
+
+    /**
+     * Estado actual del registro leído directamente de la columna, o null si no existe.
+     */
+    String findEstadoById(Long idRegistro);
+}
@@ -0,0 +1,120 @@
+package com.controledu.repository;
+
+import com.controledu.model.RegistroConducta;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación JDBC de {@link RegistroConductaRepositoryCustom}.
+ *
+ * Hibernate desactiva el batching de INSERT con GenerationType.IDENTITY, así que las altas masivas
+ * se hacen con JdbcTemplate. Con rewriteBatchedStatements=true el driver de MySQL convierte cada
+ * lote en un único INSERT multi-fila y devuelve los ids AUTO_INCREMENT generados, en orden.
+ */
+public class RegistroConductaRepositoryImpl implements RegistroConductaRepositoryCustom {
+
+    static final int TAMANIO_LOTE = 500;
+
+    private static final String INSERT =
+            "INSERT INTO registroconductas (id_estudiante, id_docente, id_conducta, fecha_registro, " +
+            "observaciones, acciones_tomadas, leido, comentarios, evidencia_url, estado) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActualizacionEnLote actualizacion;
+
+    public RegistroConductaRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.actualizacion = new ActualizacionEnLote(jdbcTemplate, "registroconductas", "id_registro", "fecha_registro");
+    }
+
+    @Override
+    public int insertarEnLote(List<RegistroConducta> registros) {
+        int insertados = 0;
+        for (int desde = 0; desde < registros.size(); desde += TAMANIO_LOTE) {
+            List<RegistroConducta> lote = registros.subList(desde, Math.min(desde + TAMANIO_LOTE, registros.size()));
+            KeyHolder claves = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            RegistroConducta r = lote.get(i);
+                            ps.setLong(1, r.getEstudiante().getId());
+                            ps.setLong(2, r.getDocente().getId());
+                            ps.setLong(3, r.getConducta().getIdConducta());
+                            ps.setDate(4, Date.valueOf(r.getFechaRegistro()));
+                            ps.setString(5, r.getObservaciones());
+                            ps.setString(6, r.getAccionesTomadas());
+                            ps.setBoolean(7, Boolean.TRUE.equals(r.getLeido()));
+                            ps.setString(8, r.getComentarios());
+                            ps.setString(9, r.getEvidenciaUrl());
+                            ps.setString(10, r.getEstado());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return lote.size();
+                        }
+                    },
+                    claves);
+
+            List<Map<String, Object>> generadas = claves.getKeyList();
+            if (generadas.size() != lote.size()) {
+                // Los eventos CREADO necesitan el id de cada fila: no se puede seguir con ids a medias
+                throw new IllegalStateException("El driver devolvió " + generadas.size()
+                        + " claves generadas para un lote de " + lote.size() + " registros");
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                Object id = generadas.get(i).values().iterator().next();
+                lote.get(i).setIdRegistro(((Number) id).longValue());
+            }
+            insertados += lote.size();
+        }
+        return insertados;
+    }
+
+    @Override
+    public List<Object[]> marcarLeidosEnLote(List<Long> ids, Long estudianteId, LocalDate antesDe) {
+        return actualizacion.ejecutar(
+                "leido = true, fecha_lectura = CURRENT_DATE", List.of(),
+                "leido = false", List.of(),
+                ids, estudianteId, antesDe);
+    }
+
+    @Override
+    public List<Object[]> cambiarEstadoEnLote(Collection<String> estadosOrigen, String estadoNuevo,
+                                              List<Long> ids, Long estudianteId, LocalDate antesDe) {
+        if (estadosOrigen.isEmpty()) {
+            return List.of();
+        }
+        return actualizacion.ejecutar("estado = ?", List.of(estadoNuevo),
+                "UPPER(TRIM(estado)) IN (" + ActualizacionEnLote.marcadores(estadosOrigen.size()) + ")", new ArrayList<>(estadosOrigen),
+                ids, estudianteId, antesDe, List.of("estado", "leido"));
+    }
+
+    @Override
+    public boolean cambiarEstadoSi(Long idRegistro, String estadoEsperado, String estadoNuevo) {
+        return jdbcTemplate.update("UPDATE registroconductas SET estado = ? WHERE id_registro = ? AND UPPER(TRIM(estado)) = ?",
+                estadoNuevo, idRegistro, estadoEsperado) == 1;
+    }
+
+    @Override
+    public String findEstadoById(Long idRegistro) {
+        List<String> estados = jdbcTemplate.queryForList(
+                "SELECT estado FROM registroconductas WHERE id_registro = ?", String.class, idRegistro);
+        return estados.isEmpty() ? null : estados.get(0);
+    }
+}
@@ -0,0 +1,396 @@
+package com.controledu.service;
+
+import com.controledu.dto.ActividadDocenteDTO;
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estadísticas de actividad por docente mantenidas en memoria.
+ *
+ * Guarda por docente el total de incidentes y observaciones, la fecha de la última actividad
+ * y un desglose mensual. Se inicializa desde el snapshot o con dos consultas agrupadas y luego se
+ * actualiza con los eventos de RegistroConductaService y ObservacionService, de modo que el
+ * ranking de docentes y los KPIs del dashboard no ejecutan COUNT ni JOIN por petición.
+ *
+ * Como en {@link TasaIncidentesService}, los cambios que llegan mientras se recuenta desde la base
+ * de datos se anotan en un diario y se aplican sobre el resultado antes de reemplazar los contadores.
+ *
+ * Con varios nodos, cada cambio local se anuncia por {@link CoherenciaCacheService} con el id del
+ * docente y los demás nodos recalculan desde la base de datos los contadores de ese docente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActividadDocentesService implements IndiceEnMemoria, CacheCoherente {
+
+    private final RegistroConductaRepository registroConductaRepository;
+    private final ObservacionRepository observacionRepository;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    private volatile Map<Long, ActividadDocente> actividades = new ConcurrentHashMap<>();
+    private volatile boolean inicializado = false;
+
+    /** Un diario por recuento en curso; se modifica y se recorre sincronizando sobre el servicio */
+    private final List<List<Cambio>> diarios = new ArrayList<>();
+
+    // ================================================================
+    // CARGA INICIAL
+    // ================================================================
+
+    @Override
+    public String nombre() {
+        return "actividad-docentes";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void reconstruir() {
+        Map<Long, ActividadDocente> nuevas = new ConcurrentHashMap<>();
+        List<Cambio> diario = abrirDiario();
+        try {
+            for (Object[] fila : registroConductaRepository.countByDocenteYMes()) {
+                cargarFila(nuevas, fila, true);
+            }
+            for (Object[] fila : observacionRepository.countByDocenteYMes()) {
+                cargarFila(nuevas, fila, false);
+            }
+            synchronized (this) {
+                diario.forEach(cambio -> cambio.aplicarEn(nuevas));
+                this.actividades = nuevas;
+                this.inicializado = true;
+            }
+        } finally {
+            cerrarDiario(diario);
+        }
+        log.info("Actividad de docentes inicializada para {} docentes", nuevas.size());
+    }
+
+    private void cargarFila(Map<Long, ActividadDocente> destino, Object[] fila, boolean incidente) {
+        if (fila[0] == null) {
+            return;
+        }
+        Long docenteId = ((Number) fila[0]).longValue();
+        YearMonth mes = YearMonth.of(((Number) fila[1]).intValue(), ((Number) fila[2]).intValue());
+        long total = ((Number) fila[3]).longValue();
+        LocalDate ultima = (LocalDate) fila[4];
+        destino.computeIfAbsent(docenteId, id -> new ActividadDocente()).sumar(mes, ultima, total, incidente);
+    }
+
+    // ================================================================
+    // ACTUALIZACIÓN POR ESCRITURAS
+    // ================================================================
+
+    @Override
+    public void aplicar(RegistroConductaEvent evento) {
+        switch (evento.tipo()) {
+            case CREADO -> sumar(evento.docenteId(), evento.fechaRegistro(), 1, true);
+            case ELIMINADO -> sumar(evento.docenteId(), evento.fechaRegistro(), -1, true);
+            // Una edición puede cambiar el docente o la fecha: se recuentan los docentes afectados
+            case ACTUALIZADO -> clavesAfectadas(evento).forEach(this::recontar);
+            default -> { /* sin impacto en la actividad del docente */ }
+        }
+    }
+
+    @Override
+    public void aplicar(ObservacionEvent evento) {
+        switch (evento.tipo()) {
+            case CREADO -> sumar(evento.docenteId(), evento.fecha(), 1, false);
+            case ELIMINADO -> sumar(evento.docenteId(), evento.fecha(), -1, false);
+            case ACTUALIZADO -> clavesAfectadas(evento).forEach(this::recontar);
+            default -> { /* sin impacto en la actividad del docente */ }
+        }
+    }
+
+    private void sumar(Long docenteId, LocalDate fecha, long delta, boolean incidente) {
+        if (docenteId == null || fecha == null) {
+            return;
+        }
+        Cambio cambio = new Cambio(docenteId, fecha, delta, incidente);
+        synchronized (this) {
+            cambio.aplicarEn(actividades);
+            for (List<Cambio> diario : diarios) {
+                diario.add(cambio);
+            }
+        }
+        coherenciaCacheService.publicar(nombreCache(), docenteId.toString(), 0);
+    }
+
+    /** Vuelve a contar el docente desde la base de datos y avisa a los demás nodos. */
+    private void recontar(String clave) {
+        invalidarRemoto(clave);
+        coherenciaCacheService.publicar(nombreCache(), clave, 0);
+    }
+
+    private synchronized List<Cambio> abrirDiario() {
+        List<Cambio> diario = new ArrayList<>();
+        diarios.add(diario);
+        return diario;
+    }
+
+    private synchronized void cerrarDiario(List<Cambio> diario) {
+        // Por identidad: dos diarios vacíos son iguales según equals
+        diarios.removeIf(d -> d == diario);
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return nombre();
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+        return claves(evento.docenteId(), evento.anterior() != null ? evento.anterior().docenteId() : null);
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(ObservacionEvent evento) {
+        return claves(evento.docenteId(), evento.anterior() != null ? evento.anterior().docenteId() : null);
+    }
+
+    /** Docente actual y, tras una edición, el anterior. */
+    private static Set<String> claves(Long docenteId, Long anterior) {
+        Set<String> claves = new HashSet<>();
+        if (docenteId != null) {
+            claves.add(docenteId.toString());
+        }
+        if (anterior != null) {
+            claves.add(anterior.toString());
+        }
+        return claves;
+    }
+
+    /**
+     * Reemplaza los contadores del docente modificado en otro nodo por los de la base de datos,
+     * conservando los cambios locales del docente que lleguen durante la consulta.
+     */
+    @Override
+    public void invalidarRemoto(String clave) {
+        if (!inicializado) {
+            return;
+        }
+        if (CoherenciaCacheService.TODAS.equals(clave)) {
+            reconstruir();
+            return;
+        }
+        Long docenteId = Long.valueOf(clave);
+        Map<Long, ActividadDocente> recalculada = new HashMap<>();
+        List<Cambio> diario = abrirDiario();
+        try {
+            for (Object[] fila : registroConductaRepository.countByMesParaDocente(docenteId)) {
+                cargarFila(recalculada, fila, true);
+            }
+            for (Object[] fila : observacionRepository.countByMesParaDocente(docenteId)) {
+                cargarFila(recalculada, fila, false);
+            }
+            synchronized (this) {
+                for (Cambio cambio : diario) {
+                    if (cambio.docenteId().equals(docenteId)) {
+                        cambio.aplicarEn(recalculada);
+                    }
+                }
+                ActividadDocente actividad = recalculada.get(docenteId);
+                if (actividad == null) {
+                    actividades.remove(docenteId);
+                } else {
+                    actividades.put(docenteId, actividad);
+                }
+            }
+        } finally {
+            cerrarDiario(diario);
+        }
+    }
+
+    // ================================================================
+    // SNAPSHOT
+    // ================================================================
+
+    @Override
+    public void escribir(DataOutputStream out) throws IOException {
+        Map<Long, ActividadDocente> actuales = this.actividades;
+        out.writeInt(actuales.size());
+        for (Map.Entry<Long, ActividadDocente> entrada : actuales.entrySet()) {
+            out.writeLong(entrada.getKey());
+            entrada.getValue().escribir(out);
+        }
+    }
+
+    @Override
+    public void leer(ByteBuffer in) {
+        Map<Long, ActividadDocente> nuevas = new ConcurrentHashMap<>();
+        int cantidad = in.getInt();
+        for (int i = 0; i < cantidad; i++) {
+            long docenteId = in.getLong();
+            ActividadDocente actividad = new ActividadDocente();
+            actividad.leer(in);
+            nuevas.put(docenteId, actividad);
+        }
+        this.actividades = nuevas;
+        this.inicializado = true;
+    }
+
+    // ================================================================
+    // LECTURA
+    // ================================================================
+
+    /**
+     * Total de incidentes registrados por el docente.
+     * Mientras no se haya completado la carga inicial, se consulta la base de datos.
+     */
+    public long countIncidentesByDocenteId(Long docenteId) {
+        if (!inicializado) {
+            return registroConductaRepository.countByDocenteId(docenteId);
+        }
+        ActividadDocente actividad = actividades.get(docenteId);
+        return actividad == null ? 0 : actividad.totalIncidentes();
+    }
+
+    /**
+     * Total de observaciones registradas por el docente.
+     * Mientras no se haya completado la carga inicial, se consulta la base de datos.
+     */
+    public long countObservacionesByDocenteId(Long docenteId) {
+        if (!inicializado) {
+            return observacionRepository.countByDocenteId(docenteId);
+        }
+        ActividadDocente actividad = actividades.get(docenteId);
+        return actividad == null ? 0 : actividad.totalObservaciones();
+    }
+
+    public Optional<LocalDate> findUltimaActividad(Long docenteId) {
+        ActividadDocente actividad = actividades.get(docenteId);
+        return actividad == null ? Optional.empty() : Optional.ofNullable(actividad.ultimaActividad());
+    }
+
+    /**
+     * Estadísticas completas de un docente (ceros si aún no tiene actividad).
+     */
+    public ActividadDocenteDTO findActividad(Long docenteId) {
+        ActividadDocente actividad = actividades.get(docenteId);
+        if (actividad == null) {
+            return new ActividadDocenteDTO(docenteId, 0, 0, null, List.of());
+        }
+        return actividad.toDto(docenteId);
+    }
+
+    /**
+     * Estadísticas de todos los docentes con actividad, ordenadas por total de incidentes.
+     */
+    public List<ActividadDocenteDTO> findAll() {
+        List<ActividadDocenteDTO> resultado = new ArrayList<>();
+        actividades.forEach((id, actividad) -> resultado.add(actividad.toDto(id)));
+        resultado.sort((a, b) -> Long.compare(b.getTotalIncidentes(), a.getTotalIncidentes()));
+        return resultado;
+    }
+
+    // ================================================================
+    // ESTRUCTURA INTERNA
+    // ================================================================
+
+    /** Alta o baja de un incidente u observación, aplicada a los contadores o anotada en un diario. */
+    private record Cambio(Long docenteId, LocalDate fecha, long delta, boolean incidente) {
+
+        void aplicarEn(Map<Long, ActividadDocente> destino) {
+            destino.computeIfAbsent(docenteId, id -> new ActividadDocente())
+                    .sumar(YearMonth.from(fecha), delta > 0 ? fecha : null, delta, incidente);
+        }
+    }
+
+    /**
+     * Contadores de un docente. Las escrituras son escasas frente a las lecturas,
+     * por lo que cada instancia se sincroniza sobre sí misma.
+     */
+    private static final class ActividadDocente {
+
+        private long incidentes;
+        private long observaciones;
+        private LocalDate ultimaActividad;
+        /** Por mes: [0] incidentes, [1] observaciones */
+        private final TreeMap<YearMonth, long[]> porMes = new TreeMap<>();
+
+        synchronized void sumar(YearMonth mes, LocalDate fecha, long delta, boolean incidente) {
+            long[] conteo = porMes.computeIfAbsent(mes, m -> new long[2]);
+            int i = incidente ? 0 : 1;
+            conteo[i] = Math.max(0, conteo[i] + delta);
+            if (incidente) {
+                incidentes = Math.max(0, incidentes + delta);
+            } else {
+                observaciones = Math.max(0, observaciones + delta);
+            }
+            if (fecha != null && (ultimaActividad == null || fecha.isAfter(ultimaActividad))) {
+                ultimaActividad = fecha;
+            }
+        }
+
+        synchronized void escribir(DataOutputStream out) throws IOException {
+            out.writeLong(incidentes);
+            out.writeLong(observaciones);
+            out.writeLong(ultimaActividad != null ? ultimaActividad.toEpochDay() : Long.MIN_VALUE);
+            out.writeInt(porMes.size());
+            for (Map.Entry<YearMonth, long[]> mes : porMes.entrySet()) {
+                out.writeInt(mes.getKey().getYear());
+                out.writeInt(mes.getKey().getMonthValue());
+                out.writeLong(mes.getValue()[0]);
+                out.writeLong(mes.getValue()[1]);
+            }
+        }
+
+        synchronized void leer(ByteBuffer in) {
+            incidentes = in.getLong();
+            observaciones = in.getLong();
+            long dia = in.getLong();
+            ultimaActividad = dia == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(dia);
+            int meses = in.getInt();
+            for (int i = 0; i < meses; i++) {
+                YearMonth mes = YearMonth.of(in.getInt(), in.getInt());
+                porMes.put(mes, new long[]{in.getLong(), in.getLong()});
+            }
+        }
+
+        synchronized long totalIncidentes() {
+            return incidentes;
+        }
+
+        synchronized long totalObservaciones() {
+            return observaciones;
+        }
+
+        synchronized LocalDate ultimaActividad() {
+            return ultimaActividad;
+        }
+
+        synchronized ActividadDocenteDTO toDto(Long docenteId) {
+            List<ActividadDocenteDTO.Mes> meses = new ArrayList<>(porMes.size());
+            porMes.forEach((mes, conteo) -> meses.add(
+                    new ActividadDocenteDTO.Mes(mes.getYear(), mes.getMonthValue(), conteo[0], conteo[1])));
+            return new ActividadDocenteDTO(docenteId, incidentes, observaciones, ultimaActividad, meses);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.controledu.service;
+
+import com.controledu.dto.SeleccionMasivaDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Buffer de acuses de lectura ("write-behind") para incidentes y observaciones.
+ *
+ * Abrir el detalle de un elemento no leído solo encola su id; los ids se deduplican en memoria
+ * y se vuelcan periódicamente ({@code controledu.acuses.intervalo-ms}) o en cuanto se acumulan
+ * {@code controledu.acuses.tamanio-lote}, con un único UPDATE por tipo a través de las
+ * operaciones masivas de los servicios. Así los GET de detalle no escriben en la base de datos.
+ *
+ * Al cerrar la aplicación se vacía lo pendiente. Si un volcado falla, los ids vuelven al buffer
+ * y se reintentan en el siguiente ciclo.
+ */
+@Slf4j
+@Service
+public class AcuseLecturaService {
+
+    private final RegistroConductaService registroConductaService;
+    private final ObservacionService observacionService;
+    private final int tamanioLote;
+
+    private final Set<Long> incidentesPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> observacionesPendientes = ConcurrentHashMap.newKeySet();
+
+    /** Evita encolar más de un volcado anticipado a la vez. */
+    private final AtomicBoolean volcadoEnCurso = new AtomicBoolean(false);
+    /** Serializa los volcados (tarea programada, volcado anticipado y cierre). */
+    private final Object volcado = new Object();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "acuses-lectura");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public AcuseLecturaService(RegistroConductaService registroConductaService,
+                               ObservacionService observacionService,
+                               @Value("${controledu.acuses.tamanio-lote:200}") int tamanioLote) {
+        this.registroConductaService = registroConductaService;
+        this.observacionService = observacionService;
+        this.tamanioLote = tamanioLote;
+    }
+
+    // ================================================================
+    // ENCOLADO
+    // ================================================================
+
+    /**
+     * Registra la lectura de un incidente. No hace nada si ya se sabe leído.
+     */
+    public void incidenteLeido(Long id, Boolean leido) {
+        encolar(incidentesPendientes, id, leido);
+    }
+
+    /**
+     * Registra la lectura de una observación. No hace nada si ya se sabe leída.
+     */
+    public void observacionLeida(Long id, Boolean leido) {
+        encolar(observacionesPendientes, id, leido);
+    }
+
+    /** Cantidad de acuses pendientes de volcar. */
+    public int pendientes() {
+        return incidentesPendientes.size() + observacionesPendientes.size();
+    }
+
+    private void encolar(Set<Long> pendientes, Long id, Boolean leido) {
+        if (id == null || Boolean.TRUE.equals(leido)) {
+            return;
+        }
+        if (pendientes.add(id) && pendientes.size() >= tamanioLote
+                && volcadoEnCurso.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    vaciar();
+                } finally {
+                    volcadoEnCurso.set(false);
+                }
+            });
+        }
+    }
+
+    // ================================================================
+    // VOLCADO
+    // ================================================================
+
+    /**
+     * Vuelca los acuses pendientes en lotes. Se ejecuta cada pocos cientos de milisegundos,
+     * antes si el buffer alcanza el tamaño de lote, y al cerrar la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${controledu.acuses.intervalo-ms:250}")
+    public void vaciar() {
+        synchronized (volcado) {
+            volcar(incidentesPendientes, "incidentes", registroConductaService::marcarComoLeidoMasivo);
+            volcar(observacionesPendientes, "observaciones", observacionService::marcarComoLeidaMasivo);
+        }
+    }
+
+    private void volcar(Set<Long> pendientes, String tipo, Function<SeleccionMasivaDTO, ?> marcar) {
+        while (!pendientes.isEmpty()) {
+            List<Long> lote = new ArrayList<>(Math.min(pendientes.size(), tamanioLote));
+            Iterator<Long> it = pendientes.iterator();
+            while (it.hasNext() && lote.size() < tamanioLote) {
+                lote.add(it.next());
+                it.remove();
+            }
+
+            SeleccionMasivaDTO seleccion = new SeleccionMasivaDTO();
+            seleccion.setIds(lote);
+            try {
+                marcar.apply(seleccion);
+            } catch (Exception e) {
+                // Se devuelven al buffer para reintentar en el próximo ciclo.
+                pendientes.addAll(lote);
+                log.warn("No se pudieron volcar {} acuses de lectura de {}: {}", lote.size(), tipo, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        vaciar();
+        if (pendientes() > 0) {
+            log.warn("Se perdieron {} acuses de lectura al cerrar", pendientes());
+        }
+    }
+}
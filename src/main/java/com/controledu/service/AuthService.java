@@ -1,15 +1,19 @@
 package com.controledu.service;
 
+import com.controledu.dto.EstudianteResumenDTO;
+import com.controledu.jfr.EventoLogin;
 import com.controledu.model.*;
 import com.controledu.repository.DirectorRepository;
 import com.controledu.repository.DocenteRepository;
 import com.controledu.repository.EstudianteRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 import java.util.Date;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -17,30 +21,45 @@ public class AuthService {
     private final DirectorRepository directorRepository;
     private final DocenteRepository docenteRepository;
     private final EstudianteRepository estudianteRepository;
+    private final RosterService rosterService;
+    private final DocenteService docenteService;
 
     public Object authenticate(String usuario, String password) {
-        System.out.println("Intentando autenticar: " + usuario);
+        EventoLogin evento = new EventoLogin();
+        evento.begin();
+        Object user = buscarUsuario(usuario, password);
+        if (evento.shouldCommit()) {
+            evento.usuario = usuario;
+            evento.rol = user != null ? getUserRole(user) : "";
+            evento.exito = user != null;
+            evento.commit();
+        }
+        return user;
+    }
+
+    private Object buscarUsuario(String usuario, String password) {
+        log.debug("Intentando autenticar: {}", usuario);
 
         // Buscar en todas las tablas
         Optional<Director> director = directorRepository.findByUsuarioAndPassword(usuario, password);
         if (director.isPresent()) {
-            System.out.println("Director encontrado: " + director.get().getNombreCompleto());
+            log.debug("Director encontrado: {}", director.get().getNombreCompleto());
             return director.get();
         }
 
         Optional<Docente> docente = docenteRepository.findByUsuarioAndPassword(usuario, password);
         if (docente.isPresent()) {
-            System.out.println("Docente encontrado: " + docente.get().getNombreCompleto());
+            log.debug("Docente encontrado: {}", docente.get().getNombreCompleto());
             return docente.get();
         }
 
         Optional<Estudiante> estudiante = estudianteRepository.findByUsuarioAndPassword(usuario, password);
         if (estudiante.isPresent()) {
-            System.out.println("Estudiante encontrado: " + estudiante.get().getNombreCompleto());
+            log.debug("Estudiante encontrado: {}", estudiante.get().getNombreCompleto());
             return estudiante.get();
         }
 
-        System.out.println("No se encontró usuario con esas credenciales");
+        log.info("Intento de acceso fallido para el usuario {}", usuario);
         return null;
     }
 
@@ -71,13 +90,17 @@ public class AuthService {
             docente.setNombres(nombres);
             docente.setApellidos(apellidos);
             // Si el formulario enviara la materia, se actualizaría aquí: docente.setMateria(materia);
-            return docenteRepository.save(docente);
+            Docente guardado = docenteRepository.save(docente);
+            docenteService.olvidarPlantilla();
+            return guardado;
 
         } else if (currentUsuario instanceof Estudiante estudiante) {
             estudiante.setNombres(nombres);
             estudiante.setApellidos(apellidos);
             // Si el formulario enviara otros campos (grado, seccion, fechaNacimiento), se actualizarían aquí.
-            return estudianteRepository.save(estudiante);
+            Estudiante guardado = estudianteRepository.save(estudiante);
+            rosterService.guardado(EstudianteResumenDTO.de(guardado));
+            return guardado;
 
         } else {
             throw new Exception("Tipo de usuario no reconocido o perfil no editable.");
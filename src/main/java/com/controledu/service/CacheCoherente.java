@@ -0,0 +1,20 @@
+package com.controledu.service;
+
+/**
+ * Caché en memoria que debe mantenerse coherente entre nodos.
+ *
+ * CoherenciaCacheService le entrega las invalidaciones publicadas por otros nodos; las propias
+ * nunca se reenvían.
+ */
+public interface CacheCoherente {
+
+    /** Nombre de la caché en el log de invalidaciones. */
+    String nombreCache();
+
+    /**
+     * Aplica una invalidación remota.
+     *
+     * @param clave Clave afectada, o {@link CoherenciaCacheService#TODAS} para la caché completa.
+     */
+    void invalidarRemoto(String clave);
+}
@@ -0,0 +1,243 @@
+package com.controledu.service;
+
+import com.controledu.model.InvalidacionCache;
+import com.controledu.repository.InvalidacionCacheRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coherencia de las cachés en memoria entre varios nodos, usando la base de datos como canal.
+ *
+ * Al modificar un dato cacheado, el nodo anota (caché, clave, versión) y en el siguiente ciclo
+ * inserta las anotaciones pendientes en lote en {@code invalidaciones_cache}, una por clave aunque
+ * haya cambiado varias veces (una marcación masiva no genera miles de filas). Cada nodo sondea la
+ * tabla cada {@code controledu.coherencia.intervalo-ms} y entrega las filas de otros nodos al
+ * {@link CacheCoherente} correspondiente. Como en el relay del outbox, solo se leen filas con más
+ * de {@code controledu.coherencia.asentamiento-ms} de antigüedad (medida con el reloj de la base de
+ * datos) para no saltarse ids AUTO_INCREMENT que confirman tarde; el retraso máximo de una
+ * invalidación es aproximadamente dos intervalos más el asentamiento.
+ *
+ * Para probarlo localmente basta con dos instancias contra la misma base de datos, con distinto
+ * {@code server.port} y {@code controledu.coherencia.nodo}.
+ */
+@Slf4j
+@Service
+public class CoherenciaCacheService {
+
+    /** Clave que invalida una caché completa */
+    public static final String TODAS = "*";
+
+    private static final int MAX_LOTES_POR_CICLO = 20;
+
+    private final InvalidacionCacheRepository invalidacionCacheRepository;
+    private final ObjectProvider<CacheCoherente> cachesProvider;
+
+    private final boolean habilitado;
+    private final String nodo;
+    private final int tamanioLote;
+    private final Duration asentamiento;
+    private final Duration retencion;
+
+    /** Invalidaciones locales aún no insertadas, por caché y clave: {cache, clave, version} */
+    private final Map<String, Object[]> pendientes = new ConcurrentHashMap<>();
+
+    private volatile Map<String, CacheCoherente> caches;
+    /** Último id aplicado; -1 hasta conocer el máximo al arrancar */
+    private long ultimoId = -1;
+
+    public CoherenciaCacheService(InvalidacionCacheRepository invalidacionCacheRepository,
+                                  ObjectProvider<CacheCoherente> cachesProvider,
+                                  @Value("${controledu.coherencia.habilitado:true}") boolean habilitado,
+                                  @Value("${controledu.coherencia.nodo:}") String nodo,
+                                  @Value("${controledu.coherencia.tamanio-lote:500}") int tamanioLote,
+                                  @Value("${controledu.coherencia.asentamiento-ms:1000}") long asentamientoMs,
+                                  @Value("${controledu.coherencia.retencion-minutos:60}") long retencionMinutos) {
+        this.invalidacionCacheRepository = invalidacionCacheRepository;
+        this.cachesProvider = cachesProvider;
+        this.habilitado = habilitado;
+        this.nodo = nodo.isBlank() ? nodoPorDefecto() : nodo;
+        this.tamanioLote = tamanioLote;
+        this.asentamiento = Duration.ofMillis(asentamientoMs);
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+    }
+
+    private static String nodoPorDefecto() {
+        String nombre = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return nombre.length() > 100 ? nombre.substring(nombre.length() - 100) : nombre;
+    }
+
+    /**
+     * Parte del último id existente: lo anterior ya está reflejado en la base de datos
+     * que las cachés de este nodo van a leer.
+     */
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            ultimoId = invalidacionCacheRepository.findMaxId();
+            log.info("Coherencia de cachés activa en el nodo {} desde la invalidación {}", nodo, ultimoId);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer el log de invalidaciones al arrancar: {}", e.getMessage());
+        }
+    }
+
+    public String getNodo() {
+        return nodo;
+    }
+
+    // ================================================================
+    // PUBLICACIÓN
+    // ================================================================
+
+    /**
+     * Anuncia a los demás nodos que la clave de la caché cambió. Dentro de una transacción se
+     * anota al confirmarla; la inserción ocurre en el siguiente ciclo de sondeo.
+     */
+    public void publicar(String cache, String clave, long version) {
+        if (!habilitado) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    anotar(cache, clave, version);
+                }
+            });
+        } else {
+            anotar(cache, clave, version);
+        }
+    }
+
+    private void anotar(String cache, String clave, long version) {
+        pendientes.put(cache + "\u0000" + clave, new Object[]{cache, clave, version});
+    }
+
+    /** Inserta las invalidaciones anotadas; si falla, vuelven a quedar pendientes. */
+    private void enviarPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        Map<String, Object[]> enviadas = new HashMap<>();
+        for (String clave : List.copyOf(pendientes.keySet())) {
+            Object[] fila = pendientes.remove(clave);
+            if (fila != null) {
+                enviadas.put(clave, fila);
+            }
+        }
+        try {
+            invalidacionCacheRepository.publicarEnLote(new ArrayList<>(enviadas.values()), nodo);
+        } catch (RuntimeException e) {
+            enviadas.forEach(pendientes::putIfAbsent);
+            log.warn("No se pudieron publicar {} invalidaciones: {}", enviadas.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (habilitado) {
+            enviarPendientes();
+        }
+    }
+
+    // ================================================================
+    // SONDEO
+    // ================================================================
+
+    @Scheduled(initialDelayString = "${controledu.coherencia.intervalo-ms:1000}",
+               fixedDelayString = "${controledu.coherencia.intervalo-ms:1000}")
+    public void sondear() {
+        if (!habilitado) {
+            return;
+        }
+        enviarPendientes();
+        try {
+            if (ultimoId < 0) {
+                ultimoId = invalidacionCacheRepository.findMaxId();
+                return;
+            }
+            LocalDateTime hasta = invalidacionCacheRepository.ahora().minus(asentamiento);
+            for (int lote = 0; lote < MAX_LOTES_POR_CICLO; lote++) {
+                List<InvalidacionCache> filas = invalidacionCacheRepository
+                        .findByIdInvalidacionGreaterThanAndCreadoEnLessThanEqualOrderByIdInvalidacionAsc(
+                                ultimoId, hasta, Limit.of(tamanioLote));
+                for (InvalidacionCache fila : filas) {
+                    if (!nodo.equals(fila.getNodo())) {
+                        aplicar(fila);
+                    }
+                    ultimoId = fila.getIdInvalidacion();
+                }
+                if (filas.size() < tamanioLote) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error leyendo el log de invalidaciones: {}", e.getMessage());
+        }
+    }
+
+    private void aplicar(InvalidacionCache fila) {
+        CacheCoherente cache = caches().get(fila.getCache());
+        if (cache == null) {
+            log.debug("Invalidación para una caché desconocida: {}", fila.getCache());
+            return;
+        }
+        try {
+            cache.invalidarRemoto(fila.getClave());
+            log.debug("Invalidación remota {}:{} v{} del nodo {}", fila.getCache(), fila.getClave(),
+                    fila.getVersion(), fila.getNodo());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo aplicar la invalidación {}:{}: {}", fila.getCache(), fila.getClave(), e.getMessage());
+        }
+    }
+
+    private Map<String, CacheCoherente> caches() {
+        Map<String, CacheCoherente> actuales = caches;
+        if (actuales == null) {
+            actuales = new HashMap<>();
+            for (CacheCoherente cache : cachesProvider.orderedStream().toList()) {
+                actuales.put(cache.nombreCache(), cache);
+            }
+            caches = actuales;
+        }
+        return actuales;
+    }
+
+    // ================================================================
+    // PURGA
+    // ================================================================
+
+    @Scheduled(initialDelayString = "${controledu.coherencia.purga-ms:600000}",
+               fixedDelayString = "${controledu.coherencia.purga-ms:600000}")
+    @Transactional
+    public void purgar() {
+        if (!habilitado) {
+            return;
+        }
+        int eliminadas = invalidacionCacheRepository.purgar(invalidacionCacheRepository.ahora().minus(retencion));
+        if (eliminadas > 0) {
+            log.debug("Invalidaciones purgadas: {}", eliminadas);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.controledu.service;
 import com.controledu.model.Conducta;
 import com.controledu.model.TipoGravedad;
 import com.controledu.repository.ConductaRepository;
+import com.controledu.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +17,16 @@ public class ConductaService {
 
     private final ConductaRepository conductaRepository;
     private final TipoGravedadService tipoGravedadService;
+    private final SingleFlight singleFlight;
 
+    private static final String CLAVE_TODAS = "conductas:todas";
+
+    /**
+     * Catálogo completo de conductas. Las peticiones simultáneas comparten una sola consulta;
+     * las entidades devueltas son compartidas y no deben modificarse.
+     */
     public List<Conducta> findAll() {
-        return conductaRepository.findAll();
+        return new ArrayList<>(singleFlight.ejecutar(CLAVE_TODAS, conductaRepository::findAll));
     }
 
     public Optional<Conducta> findById(Long id) {
@@ -49,7 +58,9 @@ public class ConductaService {
     }
 
     public Conducta save(Conducta conducta) {
-        return conductaRepository.save(conducta);
+        Conducta guardada = conductaRepository.save(conducta);
+        singleFlight.olvidar(CLAVE_TODAS);
+        return guardada;
     }
 
     public Conducta createConducta(String nombre, String descripcion, Long gravedadId) {
@@ -62,7 +73,9 @@ public class ConductaService {
         conducta.setGravedad(gravedad);
         conducta.setActivo(true);
 
-        return conductaRepository.save(conducta);
+        Conducta guardada = conductaRepository.save(conducta);
+        singleFlight.olvidar(CLAVE_TODAS);
+        return guardada;
     }
 
     public Conducta update(Long idConducta, String nombre, String descripcion, Long gravedadId) {
@@ -76,17 +89,21 @@ public class ConductaService {
         conductaExistente.setDescripcion(descripcion);
         conductaExistente.setGravedad(gravedadSeleccionada);
 
-        return conductaRepository.save(conductaExistente);
+        Conducta guardada = conductaRepository.save(conductaExistente);
+        singleFlight.olvidar(CLAVE_TODAS);
+        return guardada;
     }
 
     public void deleteById(Long id) {
         conductaRepository.deleteById(id);
+        singleFlight.olvidar(CLAVE_TODAS);
     }
 
     public void desactivarConducta(Long id) {
         conductaRepository.findById(id).ifPresent(conducta -> {
             conducta.setActivo(false);
             conductaRepository.save(conducta);
+            singleFlight.olvidar(CLAVE_TODAS);
         });
     }
 
@@ -94,6 +111,7 @@ public class ConductaService {
         conductaRepository.findById(id).ifPresent(conducta -> {
             conducta.setActivo(true);
             conductaRepository.save(conducta);
+            singleFlight.olvidar(CLAVE_TODAS);
         });
     }
 
@@ -0,0 +1,211 @@
+package com.controledu.service;
+
+import com.controledu.dto.ConsultaLentaDTO;
+import com.controledu.dto.ResumenConsultaLentaDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log de consultas lentas.
+ *
+ * Recibe de {@code ConsultasLentasListener} las sentencias que superan
+ * {@code controledu.sql.lenta.umbral-ms}, las escribe en el log con sus parámetros y el método de
+ * servicio que las lanzó, y conserva en memoria, acotadas a {@code controledu.sql.lenta.capacidad}:
+ * las últimas ejecuciones lentas y un acumulado por texto de sentencia (las menos usadas recientemente
+ * se descartan primero).
+ *
+ * Con {@code controledu.sql.lenta.explain=true}, la primera vez que un SELECT resulta lento se captura
+ * su EXPLAIN con los mismos parámetros, en un hilo aparte y con una cola pequeña: si está llena, el
+ * plan no se captura y se reintenta con la siguiente ejecución lenta de esa sentencia.
+ */
+@Slf4j
+@Service
+public class ConsultasLentasService {
+
+    private static final int CAPACIDAD_COLA_EXPLAIN = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long umbralMs;
+    private final int capacidad;
+    private final boolean explain;
+
+    private final Deque<ConsultaLentaDTO> recientes = new ArrayDeque<>();
+    private final Map<String, Acumulado> porSentencia;
+
+    private final ThreadPoolExecutor ejecutorExplain = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(CAPACIDAD_COLA_EXPLAIN), r -> {
+                Thread hilo = new Thread(r, "sql-explain");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+
+    public ConsultasLentasService(JdbcTemplate jdbcTemplate,
+                                  @Value("${controledu.sql.lenta.umbral-ms:200}") long umbralMs,
+                                  @Value("${controledu.sql.lenta.capacidad:200}") int capacidad,
+                                  @Value("${controledu.sql.lenta.explain:false}") boolean explain) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.umbralMs = umbralMs;
+        this.capacidad = Math.max(1, capacidad);
+        this.explain = explain;
+        this.porSentencia = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Acumulado> mayor) {
+                return size() > ConsultasLentasService.this.capacidad;
+            }
+        };
+    }
+
+    /** Ejecuciones lentas de una misma sentencia. Se modifica siempre bajo el monitor del servicio. */
+    private static final class Acumulado {
+        final String sql;
+        long ejecuciones;
+        long totalMs;
+        long maximoMs;
+        String ultimosParametros;
+        String ultimoMetodo;
+        boolean explainSolicitado;
+        volatile List<Map<String, Object>> plan;
+
+        Acumulado(String sql) {
+            this.sql = sql;
+        }
+
+        ResumenConsultaLentaDTO resumen() {
+            return new ResumenConsultaLentaDTO(sql, ejecuciones, totalMs, maximoMs,
+                    ultimosParametros, ultimoMetodo, plan);
+        }
+    }
+
+    // ================================================================
+    // REGISTRO
+    // ================================================================
+
+    /**
+     * Registra una ejecución lenta.
+     *
+     * @param sql        Sentencia con marcadores ?
+     * @param parametros Parámetros ya formateados (y enmascarados) para el log
+     * @param valores    Valores de los parámetros en orden, para el EXPLAIN; null si no puede repetirse
+     * @param metodo     Método de servicio en curso, o null
+     * @param duracionMs Duración de la ejecución
+     * @param lote       Si fue una ejecución en lote
+     */
+    public void registrar(String sql, String parametros, Object[] valores, String metodo,
+                          long duracionMs, boolean lote) {
+        log.warn("Consulta lenta ({} ms, umbral {} ms) desde {}: {} | parámetros: [{}]",
+                duracionMs, umbralMs, metodo != null ? metodo : "-", sql, parametros);
+
+        boolean pedirPlan;
+        synchronized (this) {
+            recientes.addFirst(new ConsultaLentaDTO(sql, parametros, metodo, duracionMs, lote, LocalDateTime.now()));
+            while (recientes.size() > capacidad) {
+                recientes.removeLast();
+            }
+            Acumulado acumulado = porSentencia.computeIfAbsent(sql, Acumulado::new);
+            acumulado.ejecuciones++;
+            acumulado.totalMs += duracionMs;
+            acumulado.maximoMs = Math.max(acumulado.maximoMs, duracionMs);
+            acumulado.ultimosParametros = parametros;
+            acumulado.ultimoMetodo = metodo;
+            pedirPlan = explain && valores != null && !lote && !acumulado.explainSolicitado && esSelect(sql);
+            if (pedirPlan) {
+                acumulado.explainSolicitado = true;
+            }
+        }
+        if (pedirPlan) {
+            solicitarPlan(sql, valores);
+        }
+    }
+
+    private static boolean esSelect(String sql) {
+        String inicio = sql.stripLeading();
+        return inicio.regionMatches(true, 0, "select", 0, 6) || inicio.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    // ================================================================
+    // EXPLAIN
+    // ================================================================
+
+    private void solicitarPlan(String sql, Object[] valores) {
+        try {
+            ejecutorExplain.execute(() -> capturarPlan(sql, valores));
+        } catch (RejectedExecutionException e) {
+            // Cola llena: que lo intente la próxima ejecución lenta
+            synchronized (this) {
+                Acumulado acumulado = porSentencia.get(sql);
+                if (acumulado != null) {
+                    acumulado.explainSolicitado = false;
+                }
+            }
+        }
+    }
+
+    private void capturarPlan(String sql, Object[] valores) {
+        try {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, valores);
+            synchronized (this) {
+                Acumulado acumulado = porSentencia.get(sql);
+                if (acumulado != null) {
+                    acumulado.plan = plan;
+                }
+            }
+            log.info("Plan de la consulta lenta {}: {}", sql, plan);
+        } catch (RuntimeException e) {
+            log.debug("No se pudo obtener el EXPLAIN de {}: {}", sql, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutorExplain.shutdownNow();
+    }
+
+    // ================================================================
+    // CONSULTA
+    // ================================================================
+
+    /**
+     * Sentencias con más tiempo lento acumulado ("total"), con la ejecución más lenta ("maximo")
+     * o con más ejecuciones lentas ("ejecuciones").
+     */
+    public List<ResumenConsultaLentaDTO> peores(String orden, int limite) {
+        Comparator<ResumenConsultaLentaDTO> comparador = switch (orden.toLowerCase(Locale.ROOT)) {
+            case "maximo" -> Comparator.comparingLong(ResumenConsultaLentaDTO::getMaximoMs);
+            case "ejecuciones" -> Comparator.comparingLong(ResumenConsultaLentaDTO::getEjecuciones);
+            default -> Comparator.comparingLong(ResumenConsultaLentaDTO::getTotalMs);
+        };
+        List<ResumenConsultaLentaDTO> resumenes = new ArrayList<>();
+        synchronized (this) {
+            porSentencia.values().forEach(acumulado -> resumenes.add(acumulado.resumen()));
+        }
+        resumenes.sort(comparador.reversed());
+        return resumenes.subList(0, Math.min(Math.max(limite, 0), resumenes.size()));
+    }
+
+    /** Últimas ejecuciones lentas, la más reciente primero. */
+    public synchronized List<ConsultaLentaDTO> recientes() {
+        return new ArrayList<>(recientes);
+    }
+
+    public synchronized void limpiar() {
+        recientes.clear();
+        porSentencia.clear();
+    }
+}
@@ -1,18 +1,32 @@
 package com.controledu.service;
 
+import com.controledu.dto.DocenteResumenDTO;
 import com.controledu.model.Docente;
 import com.controledu.repository.DocenteRepository;
+import com.controledu.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class DocenteService {
+public class DocenteService implements CacheCoherente {
+
+    private static final String CLAVE_PLANTILLA = "docentes:plantilla";
 
     private final DocenteRepository docenteRepository;
+    private final ActividadDocentesService actividadDocentesService;
+    private final SingleFlight singleFlight;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    /** Plantilla docente para el ranking (sin credenciales); null hasta la primera lectura o tras un cambio */
+    private volatile List<DocenteResumenDTO> plantilla;
+    /** Aumenta con cada descarte, para no guardar una plantilla leída antes de un cambio */
+    private long versionPlantilla;
 
     public List<Docente> findAll() {
         return docenteRepository.findAll();
@@ -35,7 +49,9 @@ public class DocenteService {
     }
 
     public Docente save(Docente docente) {
-        return docenteRepository.save(docente);
+        Docente guardado = docenteRepository.save(docente);
+        olvidarPlantilla();
+        return guardado;
     }
 
     public Docente update(Docente docenteActualizado) {
@@ -53,11 +69,14 @@ public class DocenteService {
             docenteExistente.setPassword(docenteActualizado.getPassword());
         }
 
-        return docenteRepository.save(docenteExistente);
+        Docente guardado = docenteRepository.save(docenteExistente);
+        olvidarPlantilla();
+        return guardado;
     }
 
     public void deleteById(Long id) {
         docenteRepository.deleteById(id);
+        olvidarPlantilla();
     }
 
     public boolean existsById(Long id) {
@@ -69,7 +88,7 @@ public class DocenteService {
     }
 
     public long count() {
-        return docenteRepository.count();
+        return singleFlight.ejecutar("docentes:count", docenteRepository::count);
     }
 
     public long countByMateria(String materia) {
@@ -80,7 +99,64 @@ public class DocenteService {
         return docenteRepository.findAllMateriasDistinct();
     }
 
+    /**
+     * Ranking de docentes por cantidad de incidentes registrados: [DocenteResumenDTO, Long total].
+     * Los totales salen de los contadores de actividad y los docentes de la plantilla en memoria,
+     * así que no consulta la base de datos.
+     */
     public List<Object[]> findDocentesConMasRegistros() {
-        return docenteRepository.findDocentesConMasRegistros();
+        List<Object[]> ranking = new ArrayList<>();
+        for (DocenteResumenDTO docente : plantilla()) {
+            ranking.add(new Object[]{docente, actividadDocentesService.countIncidentesByDocenteId(docente.getId())});
+        }
+        ranking.sort(Comparator.comparingLong((Object[] fila) -> (Long) fila[1]).reversed());
+        return ranking;
+    }
+
+    // ================================================================
+    // PLANTILLA EN MEMORIA
+    // ================================================================
+
+    private List<DocenteResumenDTO> plantilla() {
+        List<DocenteResumenDTO> actual = plantilla;
+        if (actual == null) {
+            long version;
+            synchronized (this) {
+                version = versionPlantilla;
+            }
+            actual = List.copyOf(singleFlight.ejecutar(CLAVE_PLANTILLA, docenteRepository::findAllResumen));
+            synchronized (this) {
+                if (version == versionPlantilla) {
+                    plantilla = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    /** Descarta la plantilla tras un alta, edición, baja o importación de docentes, también en los demás nodos. */
+    public void olvidarPlantilla() {
+        descartarPlantilla();
+        coherenciaCacheService.publicar(nombreCache(), CoherenciaCacheService.TODAS, 0);
+    }
+
+    private synchronized void descartarPlantilla() {
+        plantilla = null;
+        versionPlantilla++;
+        singleFlight.olvidar(CLAVE_PLANTILLA);
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return "docentes";
+    }
+
+    @Override
+    public void invalidarRemoto(String clave) {
+        descartarPlantilla();
     }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.controledu.service;
 
+import com.controledu.dto.EstudianteResumenDTO;
 import com.controledu.model.Estudiante;
 import com.controledu.repository.EstudianteRepository;
+import com.controledu.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,10 +15,26 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class EstudianteService {
 
+    private static final String CLAVE_TODOS = "estudiantes:todos";
+
     private final EstudianteRepository estudianteRepository;
+    private final SingleFlight singleFlight;
+    private final RosterService rosterService;
 
+    /**
+     * Todos los estudiantes. Las peticiones simultáneas comparten una sola consulta; cada llamador
+     * recibe su propia lista, pero las entidades son compartidas y no deben modificarse.
+     */
     public List<Estudiante> findAll() {
-        return estudianteRepository.findAll();
+        return new ArrayList<>(singleFlight.ejecutar(CLAVE_TODOS, estudianteRepository::findAll));
+    }
+
+    /**
+     * Roster completo desde la instantánea en memoria, ordenado por grado, sección y apellidos.
+     * Es lo que usan los listados y combos; la lista devuelta es inmutable.
+     */
+    public List<EstudianteResumenDTO> findAllResumen() {
+        return rosterService.findAll();
     }
 
     public Optional<Estudiante> findById(Long id) {
@@ -43,7 +62,10 @@ public class EstudianteService {
     }
 
     public Estudiante save(Estudiante estudiante) {
-        return estudianteRepository.save(estudiante);
+        Estudiante guardado = estudianteRepository.save(estudiante);
+        singleFlight.olvidar(CLAVE_TODOS);
+        rosterService.guardado(EstudianteResumenDTO.de(guardado));
+        return guardado;
     }
 
     /**
@@ -70,11 +92,22 @@ public class EstudianteService {
         }
 
         // Guarda el estudiante ya actualizado.
-        return estudianteRepository.save(estudianteExistente);
+        Estudiante guardado = estudianteRepository.save(estudianteExistente);
+        singleFlight.olvidar(CLAVE_TODOS);
+        rosterService.guardado(EstudianteResumenDTO.de(guardado));
+        return guardado;
     }
 
     public void deleteById(Long id) {
         estudianteRepository.deleteById(id);
+        singleFlight.olvidar(CLAVE_TODOS);
+        rosterService.eliminado(id);
+    }
+
+    /** Descarta el roster en memoria tras escrituras masivas (p. ej. una importación CSV). */
+    public void olvidarRoster() {
+        singleFlight.olvidar(CLAVE_TODOS);
+        rosterService.invalidar();
     }
 
     public boolean existsById(Long id) {
@@ -86,24 +119,24 @@ public class EstudianteService {
     }
 
     public long count() {
-        return estudianteRepository.count();
+        return rosterService.instantanea().size();
     }
 
     public long countByGradoAndSeccion(String grado, String seccion) {
-        return estudianteRepository.countByGradoAndSeccion(grado, seccion);
+        return rosterService.instantanea().findByGradoAndSeccion(grado, seccion).size();
     }
 
     public long countByGrado(String grado) {
-        return estudianteRepository.countByGrado(grado);
+        return rosterService.instantanea().findByGrado(grado).size();
     }
 
     public List<String> findAllGradosDistinct() { // <-- El cambio está aquí
-        return estudianteRepository.findAllGradosDistinct();
+        return rosterService.instantanea().getGrados();
     }
 
     // Este método para las secciones ya es correcto porque las secciones son texto ("A", "B", etc.)
     public List<String> findAllSeccionesDistinct() {
-        return estudianteRepository.findAllSeccionesDistinct();
+        return rosterService.instantanea().getSecciones();
     }
 
     public List<Object[]> findEstudiantesConMasIncidencias() {
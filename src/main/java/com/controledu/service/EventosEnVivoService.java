@@ -0,0 +1,237 @@
+package com.controledu.service;
+
+import com.controledu.dto.EventoEnVivoDTO;
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía por Server-Sent Events los cambios de incidentes y observaciones a los paneles abiertos.
+ *
+ * Escucha los eventos de dominio después del commit y los reparte como deltas compactos:
+ * los directores reciben todo, cada docente lo que registró y cada estudiante lo suyo. Los
+ * cambios de estado, individuales o en lote, llevan el estudiante y el docente de la fila, así que
+ * también les llegan a ellos.
+ *
+ * Cada suscriptor tiene una cola acotada; si un cliente lento la llena se descarta el evento más
+ * antiguo y, al volver a enviar, se le avisa con un evento {@code desfase} para que recargue los
+ * contadores. Las conexiones inactivas no ocupan hilos: un pool pequeño vacía las colas solo
+ * cuando hay algo que enviar.
+ */
+@Slf4j
+@Service
+public class EventosEnVivoService {
+
+    /** Rol del suscriptor, que determina qué eventos recibe */
+    public enum Rol { DIRECTOR, DOCENTE, ESTUDIANTE }
+
+    private final int capacidadCola;
+    private final long timeoutMs;
+
+    private final Set<Suscriptor> directores = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Suscriptor>> docentes = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Suscriptor>> estudiantes = new ConcurrentHashMap<>();
+    private final AtomicInteger conectados = new AtomicInteger();
+
+    private final ExecutorService envio = Executors.newFixedThreadPool(2, r -> {
+        Thread hilo = new Thread(r, "sse-envio");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public EventosEnVivoService(@Value("${controledu.sse.capacidad-cola:32}") int capacidadCola,
+                                @Value("${controledu.sse.timeout-ms:1800000}") long timeoutMs) {
+        this.capacidadCola = capacidadCola;
+        this.timeoutMs = timeoutMs;
+    }
+
+    // ================================================================
+    // SUSCRIPCIÓN
+    // ================================================================
+
+    /**
+     * Registra un panel abierto. El navegador reconecta solo cuando vence el timeout.
+     *
+     * @param rol Rol del usuario en sesión.
+     * @param id  ID del docente o estudiante (ignorado para directores).
+     */
+    public SseEmitter suscribir(Rol rol, Long id) {
+        return suscribir(rol, id, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter suscribir(Rol rol, Long id, SseEmitter emitter) {
+        Suscriptor suscriptor = new Suscriptor(rol, id, emitter);
+        switch (rol) {
+            case DIRECTOR -> directores.add(suscriptor);
+            case DOCENTE -> docentes.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+            case ESTUDIANTE -> estudiantes.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        }
+        conectados.incrementAndGet();
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(e -> quitar(suscriptor));
+        return emitter;
+    }
+
+    /** Cantidad de paneles conectados. */
+    public int getConectados() {
+        return conectados.get();
+    }
+
+    private void quitar(Suscriptor suscriptor) {
+        if (suscriptor.cerrado.compareAndSet(false, true)) {
+            switch (suscriptor.rol) {
+                case DIRECTOR -> directores.remove(suscriptor);
+                case DOCENTE -> quitarDe(docentes, suscriptor);
+                case ESTUDIANTE -> quitarDe(estudiantes, suscriptor);
+            }
+            conectados.decrementAndGet();
+        }
+    }
+
+    private static void quitarDe(Map<Long, Set<Suscriptor>> porId, Suscriptor suscriptor) {
+        porId.computeIfPresent(suscriptor.id, (k, set) -> {
+            set.remove(suscriptor);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // ================================================================
+    // EVENTOS DE DOMINIO
+    // ================================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistroConducta(RegistroConductaEvent evento) {
+        publicar(new EventoEnVivoDTO("INCIDENTE", evento.tipo().name(), evento.idRegistro(), evento.estudianteId(),
+                evento.docenteId(), evento.estado(), evento.gravedad(), evento.fechaRegistro()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onObservacion(ObservacionEvent evento) {
+        publicar(new EventoEnVivoDTO("OBSERVACION", evento.tipo().name(), evento.idObservacion(), evento.estudianteId(),
+                evento.docenteId(), null, evento.tipoObservacion(), evento.fecha()));
+    }
+
+    /** Encola el delta para todos los suscriptores interesados. */
+    public void publicar(EventoEnVivoDTO delta) {
+        directores.forEach(s -> encolar(s, delta));
+        if (delta.getDocenteId() != null) {
+            docentes.getOrDefault(delta.getDocenteId(), Set.of()).forEach(s -> encolar(s, delta));
+        }
+        if (delta.getEstudianteId() != null) {
+            estudiantes.getOrDefault(delta.getEstudianteId(), Set.of()).forEach(s -> encolar(s, delta));
+        }
+    }
+
+    // ================================================================
+    // ENVÍO
+    // ================================================================
+
+    private void encolar(Suscriptor suscriptor, EventoEnVivoDTO delta) {
+        boolean programar;
+        synchronized (suscriptor) {
+            if (suscriptor.cola.size() >= capacidadCola) {
+                suscriptor.cola.pollFirst();
+                suscriptor.descartados++;
+            }
+            suscriptor.cola.addLast(delta);
+            programar = !suscriptor.programado;
+            suscriptor.programado = true;
+        }
+        if (programar) {
+            envio.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    private void vaciar(Suscriptor suscriptor) {
+        while (true) {
+            EventoEnVivoDTO delta;
+            int descartados;
+            synchronized (suscriptor) {
+                delta = suscriptor.cola.pollFirst();
+                descartados = suscriptor.descartados;
+                suscriptor.descartados = 0;
+                if (delta == null) {
+                    suscriptor.programado = false;
+                    return;
+                }
+            }
+            try {
+                if (descartados > 0) {
+                    suscriptor.emitter.send(SseEmitter.event().name("desfase").data(descartados));
+                }
+                suscriptor.emitter.send(SseEmitter.event().name("cambio").data(delta));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Panel SSE desconectado ({} {}): {}", suscriptor.rol, suscriptor.id, e.getMessage());
+                synchronized (suscriptor) {
+                    suscriptor.cola.clear();
+                    suscriptor.programado = false;
+                }
+                quitar(suscriptor);
+                suscriptor.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Comentario periódico para que proxies no corten las conexiones inactivas y para
+     * detectar clientes que ya se fueron.
+     */
+    @Scheduled(fixedDelayString = "${controledu.sse.latido-ms:25000}")
+    public void latido() {
+        directores.forEach(this::latido);
+        docentes.values().forEach(set -> set.forEach(this::latido));
+        estudiantes.values().forEach(set -> set.forEach(this::latido));
+    }
+
+    private void latido(Suscriptor suscriptor) {
+        try {
+            suscriptor.emitter.send(SseEmitter.event().comment("latido"));
+        } catch (IOException | IllegalStateException e) {
+            quitar(suscriptor);
+            suscriptor.emitter.completeWithError(e);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        envio.shutdownNow();
+        directores.forEach(s -> s.emitter.complete());
+        docentes.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        estudiantes.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+    }
+
+    /** Panel conectado con su cola acotada de deltas pendientes. */
+    private static final class Suscriptor {
+        final Rol rol;
+        final Long id;
+        final SseEmitter emitter;
+        final ArrayDeque<EventoEnVivoDTO> cola = new ArrayDeque<>();
+        int descartados;
+        boolean programado;
+        final AtomicBoolean cerrado = new AtomicBoolean(false);
+
+        Suscriptor(Rol rol, Long id, SseEmitter emitter) {
+            this.rol = rol;
+            this.id = id;
+            this.emitter = emitter;
+        }
+    }
+}
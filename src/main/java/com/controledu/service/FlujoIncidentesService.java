@@ -0,0 +1,220 @@
+package com.controledu.service;
+
+import com.controledu.dto.ActualizacionMasivaDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.dto.TransicionEstadoDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.HistorialEstado;
+import com.controledu.repository.HistorialEstadoRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Motor de flujo de estados de los registros de conducta.
+ *
+ * Las transiciones permitidas están en una tabla explícita y cada una se aplica como un UPDATE
+ * condicional ({@code WHERE id_registro = ? AND UPPER(TRIM(estado)) = ?}) sin cargar la entidad: si otro usuario
+ * cambió el estado entre la lectura y la escritura, la fila no cambia y se informa un CONFLICTO en
+ * lugar de sobrescribir en silencio. Cada transición aplicada se registra en {@code historial_estados}
+ * dentro de la misma transacción.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlujoIncidentesService {
+
+    /** Resultado de una transición */
+    public enum Resultado {
+        /** La fila cambió y se registró en el historial */
+        APLICADA,
+        /** El registro ya estaba en el estado solicitado */
+        SIN_CAMBIO,
+        /** El estado en la base de datos no era el esperado (modificación concurrente) */
+        CONFLICTO,
+        /** La tabla de transiciones no permite pasar del estado actual al solicitado */
+        NO_PERMITIDA,
+        /** El registro no existe */
+        NO_ENCONTRADO
+    }
+
+    /** Estados válidos de un registro de conducta */
+    public static final Set<String> ESTADOS = Set.of("ACTIVO", "RESUELTO", "ARCHIVADO");
+
+    /** Tabla de transiciones: estado actual → estados a los que puede pasar */
+    private static final Map<String, Set<String>> TRANSICIONES = Map.of(
+            "ACTIVO", Set.of("RESUELTO", "ARCHIVADO"),
+            "RESUELTO", Set.of("ACTIVO", "ARCHIVADO"),
+            "ARCHIVADO", Set.of("ACTIVO"));
+
+    /** Ids por consulta al leer los datos de los eventos de un cambio en lote */
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    private final RegistroConductaRepository registroConductaRepository;
+    private final HistorialEstadoRepository historialEstadoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // ================================================================
+    // TABLA DE TRANSICIONES
+    // ================================================================
+
+    public static boolean esPermitida(String desde, String hacia) {
+        return TRANSICIONES.getOrDefault(desde, Set.of()).contains(hacia);
+    }
+
+    /** Estados desde los que se puede llegar a {@code destino}. */
+    public static Set<String> origenesHacia(String destino) {
+        Set<String> origenes = new LinkedHashSet<>();
+        TRANSICIONES.forEach((desde, destinos) -> {
+            if (destinos.contains(destino)) {
+                origenes.add(desde);
+            }
+        });
+        return origenes;
+    }
+
+    public static String normalizarEstado(String estado) {
+        String normalizado = estado == null ? "" : estado.trim().toUpperCase();
+        if (!ESTADOS.contains(normalizado)) {
+            throw new RuntimeException("Estado no válido: " + estado);
+        }
+        return normalizado;
+    }
+
+    /** Estado leído de la columna, sin espacios y en mayúsculas (null si el registro no existe). */
+    private static String normalizarLeido(String estado) {
+        return estado == null ? null : estado.trim().toUpperCase();
+    }
+
+    // ================================================================
+    // TRANSICIONES
+    // ================================================================
+
+    /**
+     * Aplica una transición a un registro.
+     *
+     * @param idRegistro     Registro a cambiar.
+     * @param estadoEsperado Estado que el solicitante vio; si es null se usa el estado actual leído
+     *                       de la columna, normalizado (la escritura sigue siendo condicional sobre ese valor).
+     * @param estadoNuevo    Estado destino.
+     * @param usuario        Usuario que solicita el cambio, para el historial (opcional).
+     */
+    @Transactional
+    public TransicionEstadoDTO transicionar(Long idRegistro, String estadoEsperado, String estadoNuevo, String usuario) {
+        String destino = normalizarEstado(estadoNuevo);
+        String desde = estadoEsperado == null || estadoEsperado.isBlank()
+                ? normalizarLeido(registroConductaRepository.findEstadoById(idRegistro))
+                : normalizarEstado(estadoEsperado);
+        if (desde == null) {
+            return new TransicionEstadoDTO(idRegistro, Resultado.NO_ENCONTRADO, null, destino, null);
+        }
+        if (desde.equals(destino)) {
+            return conEstadoActual(idRegistro, Resultado.SIN_CAMBIO, desde, destino);
+        }
+        if (!esPermitida(desde, destino)) {
+            return conEstadoActual(idRegistro, Resultado.NO_PERMITIDA, desde, destino);
+        }
+
+        if (!registroConductaRepository.cambiarEstadoSi(idRegistro, desde, destino)) {
+            String actual = normalizarLeido(registroConductaRepository.findEstadoById(idRegistro));
+            Resultado resultado = actual == null ? Resultado.NO_ENCONTRADO
+                    : actual.equals(destino) ? Resultado.SIN_CAMBIO : Resultado.CONFLICTO;
+            return new TransicionEstadoDTO(idRegistro, resultado, desde, destino, actual);
+        }
+
+        historialEstadoRepository.insertarEnLote(List.of(historial(idRegistro, desde, destino, usuario, LocalDateTime.now())));
+        publicarEstadoCambiado(idRegistro, destino);
+        return new TransicionEstadoDTO(idRegistro, Resultado.APLICADA, desde, destino, destino);
+    }
+
+    /**
+     * Aplica la misma transición a todos los registros de la selección cuyo estado actual la permita
+     * (y, si se indica, que estén en {@code estadoOrigen}), con un UPDATE por conjunto y el historial
+     * insertado en lote.
+     */
+    @Transactional
+    public ActualizacionMasivaDTO transicionarEnLote(SeleccionMasivaDTO seleccion, String usuario) {
+        if (seleccion == null || !seleccion.tieneCriterios()) {
+            throw new RuntimeException("Debe indicar IDs, un estudiante o una fecha límite");
+        }
+        String destino = normalizarEstado(seleccion.getEstado());
+        Set<String> origenes = origenesHacia(destino);
+        if (seleccion.getEstadoOrigen() != null && !seleccion.getEstadoOrigen().isBlank()) {
+            String origen = normalizarEstado(seleccion.getEstadoOrigen());
+            if (!origenes.contains(origen)) {
+                throw new RuntimeException("Transición no permitida: " + origen + " → " + destino);
+            }
+            origenes = Set.of(origen);
+        }
+
+        List<Object[]> filas = registroConductaRepository.cambiarEstadoEnLote(origenes, destino,
+                seleccion.getIds(), seleccion.getEstudianteId(), seleccion.getAntesDe());
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(filas.size());
+        List<HistorialEstado> historial = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Long id = (Long) fila[0];
+            ids.add(id);
+            historial.add(historial(id, normalizarLeido((String) fila[4]), destino, usuario, ahora));
+        }
+        historialEstadoRepository.insertarEnLote(historial);
+        // Las filas siguen bloqueadas por el UPDATE: sus datos son los que quedan al confirmar
+        for (int desde = 0; desde < ids.size(); desde += MAX_IDS_POR_CONSULTA) {
+            List<Long> tramo = ids.subList(desde, Math.min(desde + MAX_IDS_POR_CONSULTA, ids.size()));
+            for (Object[] datos : registroConductaRepository.findDatosEventoByIds(tramo)) {
+                eventPublisher.publishEvent(estadoCambiado((Long) datos[8], datos, destino));
+            }
+        }
+        return new ActualizacionMasivaDTO(ids.size(), ids);
+    }
+
+    /**
+     * Evento de un cambio de estado hecho por SQL, con los datos de la fila: el UPDATE condicional
+     * la dejó bloqueada, así que son los que quedan al confirmar.
+     */
+    private void publicarEstadoCambiado(Long idRegistro, String estado) {
+        List<Object[]> datos = registroConductaRepository.findDatosEventoById(idRegistro);
+        if (datos.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(estadoCambiado(idRegistro, datos.get(0), estado));
+    }
+
+    /** Evento a partir de las columnas de {@code findDatosEventoById}. */
+    private static RegistroConductaEvent estadoCambiado(Long idRegistro, Object[] fila, String estado) {
+        return new RegistroConductaEvent(RegistroConductaEvent.Tipo.ESTADO_CAMBIADO, idRegistro,
+                (Long) fila[0], (Long) fila[1], (Long) fila[2], (String) fila[3], (String) fila[4], (String) fila[5],
+                (LocalDate) fila[6], estado, Boolean.TRUE.equals(fila[7]));
+    }
+
+    /** Transiciones registradas para un incidente, de la más reciente a la más antigua. */
+    public List<HistorialEstado> findHistorial(Long idRegistro) {
+        return historialEstadoRepository.findByIdRegistroOrderByFechaCambioDesc(idRegistro);
+    }
+
+    private TransicionEstadoDTO conEstadoActual(Long idRegistro, Resultado resultado, String desde, String destino) {
+        return new TransicionEstadoDTO(idRegistro, resultado, desde, destino,
+                registroConductaRepository.findEstadoById(idRegistro));
+    }
+
+    private static HistorialEstado historial(Long idRegistro, String desde, String hacia, String usuario,
+                                             LocalDateTime fecha) {
+        HistorialEstado h = new HistorialEstado();
+        h.setIdRegistro(idRegistro);
+        h.setEstadoAnterior(desde);
+        h.setEstadoNuevo(hacia);
+        h.setFechaCambio(fecha);
+        h.setUsuario(usuario);
+        return h;
+    }
+}
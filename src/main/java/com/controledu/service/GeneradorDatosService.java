@@ -0,0 +1,505 @@
+package com.controledu.service;
+
+import com.controledu.dto.EstudianteResumenDTO;
+import com.controledu.dto.ParametrosGeneracionDTO;
+import com.controledu.model.Conducta;
+import com.controledu.model.Director;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.model.Observacion;
+import com.controledu.model.RegistroConducta;
+import com.controledu.model.TipoGravedad;
+import com.controledu.repository.ConductaRepository;
+import com.controledu.repository.DirectorRepository;
+import com.controledu.repository.DocenteRepository;
+import com.controledu.repository.EstudianteRepository;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generador determinista de datos escolares para pruebas de escala.
+ *
+ * Con los mismos {@link ParametrosGeneracionDTO} y la misma semilla produce siempre los mismos datos
+ * sobre una base vacía. Las distribuciones buscan parecerse a las de un colegio real:
+ * <ul>
+ *   <li>grados × secciones con el mismo número de estudiantes y docentes por materia;</li>
+ *   <li>uso del catálogo de conductas con sesgo Zipf (las faltas leves más comunes dominan);</li>
+ *   <li>propensión por estudiante log-normal, mayor en los grados altos: pocos estudiantes
+ *       acumulan muchos incidentes;</li>
+ *   <li>calendario escolar: solo días hábiles entre mediados de enero y mediados de noviembre, sin
+ *       Semana Santa ni la primera semana de agosto, con más incidentes los lunes y viernes y en
+ *       marzo, mayo y septiembre;</li>
+ *   <li>registros antiguos casi siempre leídos y resueltos; los recientes, activos y por leer.</li>
+ * </ul>
+ *
+ * Incidentes y observaciones se generan en orden de fecha (los ids crecen con el tiempo, como en
+ * producción) y se insertan por bloques con los INSERT JDBC en lote de los repositorios, cada
+ * bloque en su propia transacción; nunca hay más de un bloque en memoria.
+ */
+@Slf4j
+@Service
+public class GeneradorDatosService {
+
+    private static final int TAMANIO_BLOQUE = 10_000;
+
+    private static final String[] MATERIAS = {"Matemática", "Lenguaje", "Ciencias", "Sociales", "Inglés",
+            "Educación Física", "Artística", "Informática"};
+    private static final String[] NOMBRES = {"María", "José", "Ana", "Carlos", "Sofía", "Luis", "Valeria",
+            "Diego", "Camila", "Jorge", "Daniela", "Miguel", "Gabriela", "Andrés", "Fernanda", "Ricardo",
+            "Alejandra", "Kevin", "Paola", "Óscar"};
+    private static final String[] APELLIDOS = {"Hernández", "López", "Martínez", "González", "Pérez",
+            "Rodríguez", "Ramírez", "Flores", "Rivera", "Castillo", "Morales", "Cruz", "Aguilar", "Mejía",
+            "Romero", "Vásquez", "Orellana", "Portillo"};
+
+    /** Catálogo inicial por gravedad, de la conducta más frecuente a la menos frecuente */
+    private static final Map<String, List<String>> CATALOGO = Map.of(
+            "leve", List.of("Llegada tarde", "No presentar tareas", "Uso de celular en clase",
+                    "No portar el uniforme", "Interrumpir la clase", "Comer en el aula"),
+            "grave", List.of("Salida sin permiso", "Irrespeto a un docente", "Copia en evaluación",
+                    "Daño a la propiedad escolar", "Lenguaje ofensivo"),
+            "muy grave", List.of("Acoso escolar", "Agresión física", "Consumo de sustancias",
+                    "Portación de objetos peligrosos"));
+
+    private static final String[] TIPOS_OBSERVACION = {"positiva", "negativa", "neutra", "mejora", "recomendacion"};
+    private static final double[] PESOS_TIPO_OBSERVACION = {35, 25, 15, 15, 10};
+
+    /** Peso relativo de incidentes por mes (enero a diciembre) */
+    private static final double[] PESOS_MES = {0.6, 1.0, 1.2, 0.8, 1.1, 1.0, 1.0, 0.8, 1.2, 1.0, 0.5, 0.0};
+
+    private final TipoGravedadService tipoGravedadService;
+    private final ConductaRepository conductaRepository;
+    private final DirectorRepository directorRepository;
+    private final DocenteRepository docenteRepository;
+    private final EstudianteRepository estudianteRepository;
+    private final RegistroConductaRepository registroConductaRepository;
+    private final ObservacionRepository observacionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public GeneradorDatosService(TipoGravedadService tipoGravedadService,
+                                 ConductaRepository conductaRepository,
+                                 DirectorRepository directorRepository,
+                                 DocenteRepository docenteRepository,
+                                 EstudianteRepository estudianteRepository,
+                                 RegistroConductaRepository registroConductaRepository,
+                                 ObservacionRepository observacionRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.tipoGravedadService = tipoGravedadService;
+        this.conductaRepository = conductaRepository;
+        this.directorRepository = directorRepository;
+        this.docenteRepository = docenteRepository;
+        this.estudianteRepository = estudianteRepository;
+        this.registroConductaRepository = registroConductaRepository;
+        this.observacionRepository = observacionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ================================================================
+    // GENERACIÓN
+    // ================================================================
+
+    /**
+     * Genera el conjunto de datos completo. Exige que no haya estudiantes: los usuarios generados
+     * ({@code director}, {@code docenteN}, {@code estudianteN}, con la contraseña igual al usuario)
+     * chocarían con los existentes.
+     *
+     * @throws IllegalStateException si la base de datos ya tiene estudiantes
+     */
+    public void generar(ParametrosGeneracionDTO parametros) {
+        if (estudianteRepository.count() > 0) {
+            throw new IllegalStateException("El generador necesita una base de datos sin estudiantes");
+        }
+        long inicio = System.currentTimeMillis();
+        tipoGravedadService.initializeDefaultGravedades();
+        List<Conducta> catalogo = catalogo();
+
+        Random random = new Random(parametros.getSemilla());
+        crearDirector();
+        List<Docente> docentes = crearDocentes(parametros, random);
+        List<EstudianteResumenDTO> estudiantes = crearEstudiantes(parametros, random);
+
+        LocalDate hasta = LocalDate.now();
+        LocalDate desde = hasta.minusYears(Math.max(1, parametros.getAnios())).plusDays(1);
+        Calendario calendario = new Calendario(desde, hasta, new Random(parametros.getSemilla() + 1));
+        Distribucion propension = propension(estudiantes, parametros.getGrados(), new Random(parametros.getSemilla() + 2));
+
+        generarIncidentes(parametros, calendario, propension, estudiantes, docentes, catalogo, hasta);
+        generarObservaciones(parametros, calendario, propension, estudiantes, docentes, hasta);
+
+        log.info("Datos generados: {} estudiantes, {} docentes, {} incidentes y {} observaciones en {} años ({} ms)",
+                estudiantes.size(), docentes.size(), parametros.getIncidentes(), parametros.getObservaciones(),
+                parametros.getAnios(), System.currentTimeMillis() - inicio);
+    }
+
+    /** Catálogo ordenado de la conducta más frecuente a la menos frecuente; lo crea si está vacío. */
+    private List<Conducta> catalogo() {
+        if (conductaRepository.count() == 0) {
+            List<Conducta> conductas = new ArrayList<>();
+            for (TipoGravedad gravedad : tipoGravedadService.findAll()) {
+                for (String nombre : CATALOGO.getOrDefault(gravedad.getNombreGravedad().toLowerCase(), List.of())) {
+                    Conducta conducta = new Conducta();
+                    conducta.setNombreConducta(nombre);
+                    conducta.setDescripcion(nombre);
+                    conducta.setGravedad(gravedad);
+                    conductas.add(conducta);
+                }
+            }
+            conductaRepository.saveAll(conductas);
+        }
+        List<Conducta> catalogo = new ArrayList<>(conductaRepository.findAll());
+        catalogo.removeIf(c -> Boolean.FALSE.equals(c.getActivo()));
+        catalogo.sort(Comparator.comparing((Conducta c) -> c.getGravedad() != null ? c.getGravedad().getPuntos() : 0,
+                        Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Conducta::getIdConducta));
+        if (catalogo.isEmpty()) {
+            throw new IllegalStateException("No hay conductas activas para generar incidentes");
+        }
+        return catalogo;
+    }
+
+    private void crearDirector() {
+        if (directorRepository.count() > 0) {
+            return;
+        }
+        Director director = new Director();
+        director.setNombres("Dirección");
+        director.setApellidos("General");
+        director.setUsuario("director");
+        director.setPassword("director");
+        directorRepository.save(director);
+    }
+
+    private List<Docente> crearDocentes(ParametrosGeneracionDTO parametros, Random random) {
+        List<Docente> docentes = new ArrayList<>();
+        int numero = 1;
+        for (String materia : MATERIAS) {
+            for (int i = 0; i < parametros.getDocentesPorMateria(); i++, numero++) {
+                Docente docente = new Docente();
+                docente.setNombres(elegir(random, NOMBRES));
+                docente.setApellidos(elegir(random, APELLIDOS) + " " + elegir(random, APELLIDOS));
+                docente.setMateria(materia);
+                docente.setUsuario("docente" + numero);
+                docente.setPassword("docente" + numero);
+                docentes.add(docente);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> docenteRepository.insertarEnLote(docentes));
+        // Los lotes JDBC no devuelven entidades: se releen para tener los ids
+        List<Docente> creados = new ArrayList<>(docenteRepository.findAll());
+        creados.sort(Comparator.comparing(Docente::getId));
+        return creados;
+    }
+
+    private List<EstudianteResumenDTO> crearEstudiantes(ParametrosGeneracionDTO parametros, Random random) {
+        LocalDate hoy = LocalDate.now();
+        List<Estudiante> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        int numero = 1;
+        for (int grado = 1; grado <= parametros.getGrados(); grado++) {
+            for (int s = 0; s < parametros.getSeccionesPorGrado(); s++) {
+                for (int i = 0; i < parametros.getEstudiantesPorSeccion(); i++, numero++) {
+                    Estudiante estudiante = new Estudiante();
+                    estudiante.setNombres(elegir(random, NOMBRES));
+                    estudiante.setApellidos(elegir(random, APELLIDOS) + " " + elegir(random, APELLIDOS));
+                    estudiante.setGrado(String.valueOf(grado));
+                    estudiante.setSeccion(String.valueOf((char) ('A' + s)));
+                    estudiante.setFechaNacimiento(hoy.minusYears(6L + grado).minusDays(random.nextInt(365)));
+                    estudiante.setUsuario("estudiante" + numero);
+                    estudiante.setPassword("estudiante" + numero);
+                    bloque.add(estudiante);
+                    if (bloque.size() == TAMANIO_BLOQUE) {
+                        insertarEstudiantes(bloque);
+                    }
+                }
+            }
+        }
+        insertarEstudiantes(bloque);
+        List<EstudianteResumenDTO> creados = new ArrayList<>(estudianteRepository.findAllResumen());
+        creados.sort(Comparator.comparing(EstudianteResumenDTO::getId));
+        return creados;
+    }
+
+    private void insertarEstudiantes(List<Estudiante> bloque) {
+        if (!bloque.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> estudianteRepository.insertarEnLote(bloque));
+            bloque.clear();
+        }
+    }
+
+    private void generarIncidentes(ParametrosGeneracionDTO parametros, Calendario calendario, Distribucion propension,
+                                   List<EstudianteResumenDTO> estudiantes, List<Docente> docentes,
+                                   List<Conducta> catalogo, LocalDate hoy) {
+        Random random = new Random(parametros.getSemilla() + 3);
+        Distribucion zipf = Distribucion.zipf(catalogo.size(), parametros.getExponenteZipf());
+        Estudiante[] referencias = referencias(estudiantes);
+        List<RegistroConducta> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        long[] generados = {0};
+
+        calendario.repartir(parametros.getIncidentes(), (dia, cantidad) -> {
+            long antiguedad = ChronoUnit.DAYS.between(dia, hoy);
+            for (int i = 0; i < cantidad; i++) {
+                RegistroConducta registro = new RegistroConducta();
+                registro.setEstudiante(referencias[propension.muestra(random)]);
+                registro.setDocente(elegir(random, docentes));
+                registro.setConducta(catalogo.get(zipf.muestra(random)));
+                registro.setFechaRegistro(dia);
+                registro.setObservaciones("Incidente registrado durante la jornada");
+                registro.setLeido(random.nextDouble() < probabilidadLeido(antiguedad));
+                registro.setEstado(estado(random, antiguedad));
+                bloque.add(registro);
+                if (bloque.size() == TAMANIO_BLOQUE) {
+                    insertarIncidentes(bloque, generados, parametros.getIncidentes());
+                }
+            }
+        });
+        insertarIncidentes(bloque, generados, parametros.getIncidentes());
+    }
+
+    private void insertarIncidentes(List<RegistroConducta> bloque, long[] generados, long total) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> registroConductaRepository.insertarEnLote(bloque));
+        generados[0] += bloque.size();
+        bloque.clear();
+        progreso("incidentes", generados[0], total);
+    }
+
+    private void generarObservaciones(ParametrosGeneracionDTO parametros, Calendario calendario, Distribucion propension,
+                                      List<EstudianteResumenDTO> estudiantes, List<Docente> docentes, LocalDate hoy) {
+        Random random = new Random(parametros.getSemilla() + 4);
+        Distribucion tipos = new Distribucion(PESOS_TIPO_OBSERVACION);
+        Estudiante[] referencias = referencias(estudiantes);
+        List<Observacion> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        long[] generadas = {0};
+
+        calendario.repartir(parametros.getObservaciones(), (dia, cantidad) -> {
+            long antiguedad = ChronoUnit.DAYS.between(dia, hoy);
+            for (int i = 0; i < cantidad; i++) {
+                String tipo = TIPOS_OBSERVACION[tipos.muestra(random)];
+                Observacion observacion = new Observacion();
+                // Las negativas siguen la propensión a incidentes; el resto se reparte entre todos
+                observacion.setEstudiante(referencias["negativa".equals(tipo)
+                        ? propension.muestra(random) : random.nextInt(referencias.length)]);
+                observacion.setDocente(elegir(random, docentes));
+                observacion.setTipoObservacion(tipo);
+                observacion.setDescripcion("Observación " + tipo + " registrada durante la jornada");
+                observacion.setFecha(dia);
+                boolean leida = random.nextDouble() < probabilidadLeido(antiguedad);
+                observacion.setLeido(leida);
+                if (leida) {
+                    LocalDate lectura = dia.plusDays(random.nextInt(8));
+                    observacion.setFechaLectura(lectura.isAfter(hoy) ? hoy : lectura);
+                }
+                bloque.add(observacion);
+                if (bloque.size() == TAMANIO_BLOQUE) {
+                    insertarObservaciones(bloque, generadas, parametros.getObservaciones());
+                }
+            }
+        });
+        insertarObservaciones(bloque, generadas, parametros.getObservaciones());
+    }
+
+    private void insertarObservaciones(List<Observacion> bloque, long[] generadas, long total) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> observacionRepository.insertarEnLote(bloque));
+        generadas[0] += bloque.size();
+        bloque.clear();
+        progreso("observaciones", generadas[0], total);
+    }
+
+    private static void progreso(String que, long generados, long total) {
+        if (generados % (TAMANIO_BLOQUE * 50L) == 0 || generados == total) {
+            log.info("Generador: {} de {} {}", generados, total, que);
+        }
+    }
+
+    // ================================================================
+    // DISTRIBUCIONES
+    // ================================================================
+
+    private static double probabilidadLeido(long antiguedadDias) {
+        if (antiguedadDias < 14) {
+            return 0.3;
+        }
+        return antiguedadDias < 60 ? 0.7 : 0.95;
+    }
+
+    private static String estado(Random random, long antiguedadDias) {
+        double p = random.nextDouble();
+        if (antiguedadDias > 90) {
+            return p < 0.70 ? "RESUELTO" : p < 0.85 ? "ARCHIVADO" : "ACTIVO";
+        }
+        return p < 0.85 ? "ACTIVO" : "RESUELTO";
+    }
+
+    /**
+     * Propensión a incidentes de cada estudiante: log-normal (sigma 1) por un factor que crece
+     * con el grado (los últimos grados registran el doble que el primero).
+     */
+    private static Distribucion propension(List<EstudianteResumenDTO> estudiantes, int grados, Random random) {
+        double[] pesos = new double[estudiantes.size()];
+        for (int i = 0; i < pesos.length; i++) {
+            int grado = Integer.parseInt(estudiantes.get(i).getGrado());
+            double factorGrado = 1.0 + (grados > 1 ? (grado - 1.0) / (grados - 1.0) : 0);
+            pesos[i] = Math.exp(random.nextGaussian()) * factorGrado;
+        }
+        return new Distribucion(pesos);
+    }
+
+    /** Referencias con solo el id, suficientes para los INSERT en lote. */
+    private static Estudiante[] referencias(List<EstudianteResumenDTO> estudiantes) {
+        Estudiante[] referencias = new Estudiante[estudiantes.size()];
+        for (int i = 0; i < referencias.length; i++) {
+            referencias[i] = new Estudiante();
+            referencias[i].setId(estudiantes.get(i).getId());
+        }
+        return referencias;
+    }
+
+    private static <T> T elegir(Random random, T[] valores) {
+        return valores[random.nextInt(valores.length)];
+    }
+
+    private static <T> T elegir(Random random, List<T> valores) {
+        return valores.get(random.nextInt(valores.size()));
+    }
+
+    /**
+     * Distribución discreta por pesos: muestreo por búsqueda binaria en los pesos acumulados.
+     */
+    static final class Distribucion {
+
+        private final double[] acumulados;
+
+        Distribucion(double[] pesos) {
+            acumulados = new double[pesos.length];
+            double suma = 0;
+            for (int i = 0; i < pesos.length; i++) {
+                suma += pesos[i];
+                acumulados[i] = suma;
+            }
+        }
+
+        /** Zipf sobre {@code n} rangos: el peso del rango k es 1 / k^s. */
+        static Distribucion zipf(int n, double exponente) {
+            double[] pesos = new double[n];
+            for (int k = 0; k < n; k++) {
+                pesos[k] = 1.0 / Math.pow(k + 1, exponente);
+            }
+            return new Distribucion(pesos);
+        }
+
+        int muestra(Random random) {
+            double valor = random.nextDouble() * acumulados[acumulados.length - 1];
+            int posicion = Arrays.binarySearch(acumulados, valor);
+            return Math.min(posicion >= 0 ? posicion + 1 : -posicion - 1, acumulados.length - 1);
+        }
+    }
+
+    /**
+     * Días lectivos del rango con su peso relativo (mes, día de la semana y una variación diaria).
+     */
+    static final class Calendario {
+
+        interface Reparto {
+            void dia(LocalDate dia, int cantidad);
+        }
+
+        private final List<LocalDate> dias = new ArrayList<>();
+        private final List<Double> pesos = new ArrayList<>();
+        private double sumaPesos;
+
+        Calendario(LocalDate desde, LocalDate hasta, Random random) {
+            for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+                double peso = peso(dia);
+                if (peso > 0) {
+                    peso *= 0.7 + 0.6 * random.nextDouble();
+                    dias.add(dia);
+                    pesos.add(peso);
+                    sumaPesos += peso;
+                }
+            }
+        }
+
+        /**
+         * Reparte {@code total} elementos entre los días en orden cronológico, proporcionalmente a
+         * su peso y sin perder ninguno por redondeo.
+         */
+        void repartir(long total, Reparto reparto) {
+            if (dias.isEmpty() || total <= 0) {
+                return;
+            }
+            double acumulado = 0;
+            long asignados = 0;
+            for (int i = 0; i < dias.size(); i++) {
+                acumulado += total * pesos.get(i) / sumaPesos;
+                long hastaAqui = i == dias.size() - 1 ? total : Math.round(acumulado);
+                int cantidad = (int) (hastaAqui - asignados);
+                asignados = hastaAqui;
+                if (cantidad > 0) {
+                    reparto.dia(dias.get(i), cantidad);
+                }
+            }
+        }
+
+        private static double peso(LocalDate dia) {
+            DayOfWeek diaSemana = dia.getDayOfWeek();
+            if (diaSemana == DayOfWeek.SATURDAY || diaSemana == DayOfWeek.SUNDAY) {
+                return 0;
+            }
+            // Año lectivo de mediados de enero a mediados de noviembre
+            if ((dia.getMonth() == Month.JANUARY && dia.getDayOfMonth() < 15)
+                    || (dia.getMonth() == Month.NOVEMBER && dia.getDayOfMonth() > 15)) {
+                return 0;
+            }
+            // Vacaciones de agosto y de Semana Santa
+            if (dia.getMonth() == Month.AUGUST && dia.getDayOfMonth() <= 6) {
+                return 0;
+            }
+            LocalDate pascua = domingoDePascua(dia.getYear());
+            if (!dia.isBefore(pascua.minusDays(6)) && dia.isBefore(pascua)) {
+                return 0;
+            }
+            double peso = PESOS_MES[dia.getMonthValue() - 1];
+            if (diaSemana == DayOfWeek.MONDAY || diaSemana == DayOfWeek.FRIDAY) {
+                peso *= 1.2;
+            }
+            return peso;
+        }
+
+        /** Domingo de Pascua (algoritmo anónimo gregoriano). */
+        private static LocalDate domingoDePascua(int anio) {
+            int a = anio % 19;
+            int b = anio / 100;
+            int c = anio % 100;
+            int d = b / 4;
+            int e = b % 4;
+            int f = (b + 8) / 25;
+            int g = (b - f + 1) / 3;
+            int h = (19 * a + b - d - g + 15) % 30;
+            int i = c / 4;
+            int k = c % 4;
+            int l = (32 + 2 * e + 2 * i - h - k) % 7;
+            int m = (a + 11 * h + 22 * l) / 451;
+            int mes = (h + l - 7 * m + 114) / 31;
+            int dia = (h + l - 7 * m + 114) % 31 + 1;
+            return LocalDate.of(anio, mes, dia);
+        }
+    }
+}
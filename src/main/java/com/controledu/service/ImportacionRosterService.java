@@ -0,0 +1,394 @@
+package com.controledu.service;
+
+import com.controledu.dto.ImportacionEstadoDTO;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.repository.DocenteRepository;
+import com.controledu.repository.EstudianteRepository;
+import com.controledu.util.LectorCsv;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Importación masiva de estudiantes y docentes desde archivos CSV.
+ *
+ * El archivo se lee en streaming fila a fila. Los usuarios existentes de los tres roles se cargan
+ * en un conjunto en memoria con una sola consulta, de modo que validar duplicados no consulta la
+ * base de datos por fila. Las filas válidas se insertan por JDBC en lotes de {@link #TAMANIO_LOTE}
+ * con un commit por lote: un error en un lote no deshace los anteriores y queda reportado fila a fila.
+ *
+ * Las importaciones corren de a una en un hilo propio; el progreso se consulta por id.
+ *
+ * Columnas (la primera fila es el encabezado, en cualquier orden, separador ',' o ';'):
+ * <ul>
+ *   <li>Estudiantes: nombres, apellidos, grado, seccion, fechaNacimiento (opcional), usuario, password</li>
+ *   <li>Docentes: nombres, apellidos, materia (opcional), usuario, password</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class ImportacionRosterService {
+
+    public enum Tipo { ESTUDIANTES, DOCENTES }
+
+    static final int TAMANIO_LOTE = 500;
+    private static final int MAX_IMPORTACIONES = 20;
+    private static final int MAX_ERRORES = 1000;
+
+    private static final List<DateTimeFormatter> FORMATOS_FECHA = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ofPattern("d-M-yyyy"));
+
+    private final EstudianteRepository estudianteRepository;
+    private final DocenteRepository docenteRepository;
+    private final EstudianteService estudianteService;
+    private final DocenteService docenteService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "importacion-roster");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** Últimas importaciones, de la más antigua a la más reciente */
+    private final Map<String, Importacion> importaciones = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Importacion> masAntigua) {
+                    return size() > MAX_IMPORTACIONES;
+                }
+            });
+
+    public ImportacionRosterService(EstudianteRepository estudianteRepository,
+                                    DocenteRepository docenteRepository,
+                                    EstudianteService estudianteService,
+                                    DocenteService docenteService,
+                                    PlatformTransactionManager transactionManager) {
+        this.estudianteRepository = estudianteRepository;
+        this.docenteRepository = docenteRepository;
+        this.estudianteService = estudianteService;
+        this.docenteService = docenteService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ================================================================
+    // API PÚBLICA
+    // ================================================================
+
+    /**
+     * Guarda el archivo subido en un temporal y encola su importación.
+     *
+     * @return Estado inicial de la importación (PENDIENTE) con su id para consultar el progreso.
+     */
+    public ImportacionEstadoDTO iniciar(Tipo tipo, MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        try {
+            Path temporal = Files.createTempFile("importacion-", ".csv");
+            archivo.transferTo(temporal);
+            Importacion importacion = new Importacion(UUID.randomUUID().toString(), tipo,
+                    archivo.getOriginalFilename(), Files.size(temporal));
+            importaciones.put(importacion.id, importacion);
+            ejecutor.submit(() -> ejecutar(importacion, temporal));
+            return importacion.aDto(false);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo leer el archivo: " + e.getMessage());
+        }
+    }
+
+    public Optional<ImportacionEstadoDTO> findById(String id) {
+        Importacion importacion = importaciones.get(id);
+        return Optional.ofNullable(importacion).map(i -> i.aDto(true));
+    }
+
+    /** Importaciones recientes (sin el detalle de errores), de la más reciente a la más antigua. */
+    public List<ImportacionEstadoDTO> findRecientes() {
+        List<ImportacionEstadoDTO> resultado = new ArrayList<>();
+        synchronized (importaciones) {
+            importaciones.values().forEach(i -> resultado.add(0, i.aDto(false)));
+        }
+        return resultado;
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    // ================================================================
+    // EJECUCIÓN
+    // ================================================================
+
+    private void ejecutar(Importacion importacion, Path archivo) {
+        importacion.estado = "EN_PROCESO";
+        try (LectorCsv lector = new LectorCsv(Files.newBufferedReader(archivo, StandardCharsets.UTF_8))) {
+            List<String> encabezado = lector.siguiente();
+            if (encabezado == null) {
+                throw new IllegalArgumentException("El archivo no tiene encabezado");
+            }
+            Map<String, Integer> columnas = indexarColumnas(encabezado);
+
+            Set<String> usuarios = new HashSet<>();
+            for (String usuario : estudianteRepository.findAllUsuariosDelSistema()) {
+                if (usuario != null) {
+                    usuarios.add(usuario.toLowerCase(Locale.ROOT));
+                }
+            }
+
+            if (importacion.tipo == Tipo.ESTUDIANTES) {
+                exigirColumnas(columnas, "nombres", "apellidos", "grado", "seccion", "usuario", "password");
+                procesar(importacion, lector, usuarios, fila -> construirEstudiante(fila, columnas),
+                        Estudiante::getUsuario, estudianteRepository::insertarEnLote);
+            } else {
+                exigirColumnas(columnas, "nombres", "apellidos", "usuario", "password");
+                procesar(importacion, lector, usuarios, fila -> construirDocente(fila, columnas),
+                        Docente::getUsuario, docenteRepository::insertarEnLote);
+            }
+            importacion.estado = "COMPLETADA";
+            importacion.mensaje = importacion.importadas + " de " + importacion.procesadas + " filas importadas";
+        } catch (IOException | RuntimeException e) {
+            log.warn("Importación {} fallida: {}", importacion.id, e.getMessage());
+            importacion.estado = "FALLIDA";
+            importacion.mensaje = e.getMessage();
+        } finally {
+            if (importacion.importadas > 0) {
+                if (importacion.tipo == Tipo.ESTUDIANTES) {
+                    estudianteService.olvidarRoster();
+                } else {
+                    docenteService.olvidarPlantilla();
+                }
+            }
+            importacion.finalizada = LocalDateTime.now();
+            importacion.caracteresLeidos = importacion.tamanio;
+            try {
+                Files.deleteIfExists(archivo);
+            } catch (IOException e) {
+                log.debug("No se pudo borrar el temporal {}", archivo);
+            }
+            log.info("Importación {} de {}: {} ({} ms)", importacion.id, importacion.tipo, importacion.mensaje,
+                    Duration.between(importacion.iniciada, importacion.finalizada).toMillis());
+        }
+    }
+
+    /**
+     * Recorre las filas, valida cada una contra el conjunto de usuarios y confirma por lotes.
+     */
+    private <T> void procesar(Importacion importacion, LectorCsv lector, Set<String> usuarios,
+                              Function<List<String>, T> construir, Function<T, String> usuarioDe,
+                              Function<List<T>, Integer> insertar) throws IOException {
+        List<T> lote = new ArrayList<>(TAMANIO_LOTE);
+        List<Long> lineas = new ArrayList<>(TAMANIO_LOTE);
+        List<String> fila;
+        while ((fila = lector.siguiente()) != null) {
+            long linea = lector.getLineaActual();
+            importacion.caracteresLeidos = lector.getCaracteresLeidos();
+            if (fila.stream().allMatch(String::isEmpty)) {
+                continue;
+            }
+            importacion.procesadas++;
+
+            T entidad;
+            try {
+                entidad = construir.apply(fila);
+            } catch (IllegalArgumentException e) {
+                importacion.error(linea, null, e.getMessage());
+                continue;
+            }
+            String usuario = usuarioDe.apply(entidad);
+            if (!usuarios.add(usuario.toLowerCase(Locale.ROOT))) {
+                importacion.error(linea, usuario, "El usuario ya existe");
+                continue;
+            }
+
+            lote.add(entidad);
+            lineas.add(linea);
+            if (lote.size() == TAMANIO_LOTE) {
+                confirmar(importacion, lote, lineas, usuarioDe, insertar);
+            }
+        }
+        if (!lote.isEmpty()) {
+            confirmar(importacion, lote, lineas, usuarioDe, insertar);
+        }
+    }
+
+    private <T> void confirmar(Importacion importacion, List<T> lote, List<Long> lineas,
+                               Function<T, String> usuarioDe, Function<List<T>, Integer> insertar) {
+        try {
+            Integer insertados = transactionTemplate.execute(status -> insertar.apply(lote));
+            importacion.importadas += insertados != null ? insertados : 0;
+        } catch (RuntimeException e) {
+            String causa = "Error al guardar el lote: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (int i = 0; i < lote.size(); i++) {
+                importacion.error(lineas.get(i), usuarioDe.apply(lote.get(i)), causa);
+            }
+        }
+        lote.clear();
+        lineas.clear();
+    }
+
+    // ================================================================
+    // CONSTRUCCIÓN Y VALIDACIÓN DE FILAS
+    // ================================================================
+
+    private Estudiante construirEstudiante(List<String> fila, Map<String, Integer> columnas) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setNombres(requerido(fila, columnas, "nombres"));
+        estudiante.setApellidos(requerido(fila, columnas, "apellidos"));
+        estudiante.setGrado(requerido(fila, columnas, "grado"));
+        estudiante.setSeccion(requerido(fila, columnas, "seccion"));
+        estudiante.setUsuario(requerido(fila, columnas, "usuario"));
+        estudiante.setPassword(requerido(fila, columnas, "password"));
+        String fecha = opcional(fila, columnas, "fechanacimiento");
+        if (fecha != null) {
+            estudiante.setFechaNacimiento(parsearFecha(fecha));
+        }
+        return estudiante;
+    }
+
+    private Docente construirDocente(List<String> fila, Map<String, Integer> columnas) {
+        Docente docente = new Docente();
+        docente.setNombres(requerido(fila, columnas, "nombres"));
+        docente.setApellidos(requerido(fila, columnas, "apellidos"));
+        docente.setMateria(opcional(fila, columnas, "materia"));
+        docente.setUsuario(requerido(fila, columnas, "usuario"));
+        docente.setPassword(requerido(fila, columnas, "password"));
+        return docente;
+    }
+
+    /** Normaliza el encabezado: minúsculas, sin BOM, sin tildes ni separadores ("Fecha_Nacimiento" → "fechanacimiento"). */
+    private Map<String, Integer> indexarColumnas(List<String> encabezado) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            String nombre = Normalizer.normalize(encabezado.get(i).replace("\uFEFF", ""), Normalizer.Form.NFD)
+                    .replaceAll("[^A-Za-z]", "")
+                    .toLowerCase(Locale.ROOT);
+            columnas.putIfAbsent(nombre, i);
+        }
+        return columnas;
+    }
+
+    private void exigirColumnas(Map<String, Integer> columnas, String... requeridas) {
+        List<String> faltantes = new ArrayList<>();
+        for (String requerida : requeridas) {
+            if (!columnas.containsKey(requerida)) {
+                faltantes.add(requerida);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas en el encabezado: " + faltantes);
+        }
+    }
+
+    private String requerido(List<String> fila, Map<String, Integer> columnas, String columna) {
+        String valor = opcional(fila, columnas, columna);
+        if (valor == null) {
+            throw new IllegalArgumentException("El campo '" + columna + "' es obligatorio");
+        }
+        return valor;
+    }
+
+    private String opcional(List<String> fila, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= fila.size() || fila.get(indice).isEmpty()) {
+            return null;
+        }
+        return fila.get(indice);
+    }
+
+    private LocalDate parsearFecha(String valor) {
+        for (DateTimeFormatter formato : FORMATOS_FECHA) {
+            try {
+                return LocalDate.parse(valor, formato);
+            } catch (DateTimeParseException e) {
+                // se prueba el siguiente formato
+            }
+        }
+        throw new IllegalArgumentException("Fecha de nacimiento inválida: " + valor);
+    }
+
+    // ================================================================
+    // ESTADO DE UNA IMPORTACIÓN
+    // ================================================================
+
+    /**
+     * Estado mutable de una importación. Lo escribe solo el hilo de importación;
+     * los campos volátiles permiten consultarlo desde las peticiones de progreso.
+     */
+    private static final class Importacion {
+
+        final String id;
+        final Tipo tipo;
+        final String archivo;
+        final long tamanio;
+        final LocalDateTime iniciada = LocalDateTime.now();
+        final List<ImportacionEstadoDTO.ErrorFila> errores = Collections.synchronizedList(new ArrayList<>());
+
+        volatile String estado = "PENDIENTE";
+        volatile String mensaje;
+        volatile LocalDateTime finalizada;
+        volatile long caracteresLeidos;
+        volatile int procesadas;
+        volatile int importadas;
+        volatile int conError;
+
+        Importacion(String id, Tipo tipo, String archivo, long tamanio) {
+            this.id = id;
+            this.tipo = tipo;
+            this.archivo = archivo;
+            this.tamanio = tamanio;
+        }
+
+        void error(long linea, String usuario, String mensaje) {
+            conError++;
+            if (errores.size() < MAX_ERRORES) {
+                errores.add(new ImportacionEstadoDTO.ErrorFila(linea, usuario, mensaje));
+            }
+        }
+
+        ImportacionEstadoDTO aDto(boolean conErrores) {
+            int porcentaje = tamanio == 0 ? 100 : (int) Math.min(100, caracteresLeidos * 100 / tamanio);
+            LocalDateTime fin = finalizada != null ? finalizada : LocalDateTime.now();
+            List<ImportacionEstadoDTO.ErrorFila> detalle = null;
+            if (conErrores) {
+                synchronized (errores) {
+                    detalle = new ArrayList<>(errores);
+                }
+            }
+            return new ImportacionEstadoDTO(id, tipo.name(), archivo, estado, porcentaje, procesadas, importadas,
+                    conError, mensaje, iniciada, finalizada, Duration.between(iniciada, fin).toMillis(), detalle);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+
+/**
+ * Contrato de las estructuras en memoria derivadas de registros de conducta y observaciones
+ * (contadores, índices, rankings).
+ *
+ * SnapshotIndicesService las coordina: decide si se restauran desde el archivo de snapshot
+ * o se reconstruyen desde la base de datos, y les reenvía los eventos de escritura en orden.
+ * Las que además son {@link CacheCoherente} indican qué claves toca cada cambio, para volver a
+ * leerlas al restaurar un snapshot anterior a ese cambio.
+ */
+public interface IndiceEnMemoria {
+
+    /** Nombre único de la sección dentro del archivo de snapshot. */
+    String nombre();
+
+    /** Versión del formato de la sección; si cambia, el snapshot de esta sección se descarta. */
+    int version();
+
+    /** Reconstruye la estructura completa consultando la base de datos. */
+    void reconstruir();
+
+    /** Serializa el estado actual para el snapshot. */
+    void escribir(DataOutputStream out) throws IOException;
+
+    /** Restaura el estado desde una sección del snapshot (posicionada al inicio de la sección). */
+    void leer(ByteBuffer in);
+
+    /** Aplica un cambio de registro de conducta. */
+    default void aplicar(RegistroConductaEvent evento) {
+    }
+
+    /** Aplica un cambio de observación. */
+    default void aplicar(ObservacionEvent evento) {
+    }
+
+    /** Claves de {@link CacheCoherente#invalidarRemoto(String)} que el cambio puede afectar. */
+    default Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+        return Set.of();
+    }
+
+    /** Claves de {@link CacheCoherente#invalidarRemoto(String)} que el cambio puede afectar. */
+    default Set<String> clavesAfectadas(ObservacionEvent evento) {
+        return Set.of();
+    }
+}
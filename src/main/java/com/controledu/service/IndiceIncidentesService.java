@@ -0,0 +1,650 @@
+package com.controledu.service;
+
+import com.controledu.dto.FacetasIncidentesDTO;
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.RegistroConductaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Índice columnar en memoria de la tabla registroconductas para filtros y facetas ad hoc.
+ *
+ * Cada fila del índice es un incidente. Las columnas de alta cardinalidad (estudiante, conducta)
+ * y el día (epoch day) se guardan como arreglos int con codificación por diccionario. Las columnas
+ * de baja cardinalidad (gravedad, grado, sección, estado, leído) se guardan como un BitSet por
+ * valor del diccionario, de forma que un filtro es una intersección de bitsets y una faceta es la
+ * cardinalidad de esa intersección con el bitset de cada valor.
+ *
+ * Memoria aproximada: 16 bytes por fila + 1 bit por fila y valor de dimensión
+ * (unos 8 MB para 500.000 incidentes). Se restaura del snapshot o se carga con una proyección
+ * en streaming al arrancar, y se mantiene con los eventos de RegistroConductaService. Una
+ * modificación reescribe la fila del registro en su lugar; solo las eliminaciones dejan filas
+ * muertas, que desaparecen en la siguiente reconstrucción.
+ *
+ * Mientras no se haya completado la carga inicial, las consultas se resuelven en la base de datos
+ * con los mismos criterios.
+ *
+ * Con varios nodos, cada cambio local se anuncia por {@link CoherenciaCacheService} con el id del
+ * registro y los demás nodos vuelven a leer solo esa fila.
+ */
+@Slf4j
+@Service
+public class IndiceIncidentesService implements IndiceEnMemoria, CacheCoherente {
+
+    public static final String GRAVEDAD = "gravedad";
+    public static final String GRADO = "grado";
+    public static final String SECCION = "seccion";
+    public static final String ESTADO = "estado";
+    public static final String LEIDO = "leido";
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final RegistroConductaRepository registroConductaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean inicializado = false;
+
+    // --- Columnas ---
+    private int filas;
+    private int[] ids;
+    private int[] estudiantes;
+    private int[] conductas;
+    private int[] dias;
+    /** Posición de cada id de registro en las columnas (+1; 0 = ausente) */
+    private int[] filaPorId;
+    private BitSet vivos;
+    private BitSet leidos;
+
+    // --- Diccionarios ---
+    private Diccionario<Long> dicEstudiantes;
+    private Diccionario<Long> dicConductas;
+    private DimensionBitmap gravedades;
+    private DimensionBitmap grados;
+    private DimensionBitmap secciones;
+    private DimensionBitmap estados;
+
+    public IndiceIncidentesService(RegistroConductaRepository registroConductaRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   CoherenciaCacheService coherenciaCacheService) {
+        this.registroConductaRepository = registroConductaRepository;
+        this.coherenciaCacheService = coherenciaCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        limpiar();
+    }
+
+    // ================================================================
+    // CARGA INICIAL
+    // ================================================================
+
+    @Override
+    public String nombre() {
+        return "indice-incidentes";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    /**
+     * Reconstruye el índice completo leyendo una proyección plana de todos los registros.
+     */
+    @Override
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> resumen = registroConductaRepository.streamResumen()) {
+                cargar(resumen);
+            }
+        });
+        log.info("Índice de incidentes cargado: {} filas en {} ms", filas, System.currentTimeMillis() - inicio);
+    }
+
+    /** Reemplaza el contenido por las filas de {@link RegistroConductaRepository#streamResumen()}. */
+    void cargar(Stream<Object[]> resumen) {
+        lock.writeLock().lock();
+        try {
+            limpiar();
+            resumen.forEach(this::guardarResumen);
+            inicializado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Guarda una fila de {@link RegistroConductaRepository#streamResumen()}. */
+    private void guardarResumen(Object[] fila) {
+        guardar(((Number) fila[0]).longValue(),
+                (Long) fila[1],
+                (Long) fila[2],
+                (String) fila[3],
+                (String) fila[4],
+                (String) fila[5],
+                (String) fila[6],
+                (LocalDate) fila[7],
+                Boolean.TRUE.equals(fila[8]));
+    }
+
+    private void limpiar() {
+        filas = 0;
+        ids = new int[CAPACIDAD_INICIAL];
+        estudiantes = new int[CAPACIDAD_INICIAL];
+        conductas = new int[CAPACIDAD_INICIAL];
+        dias = new int[CAPACIDAD_INICIAL];
+        filaPorId = new int[CAPACIDAD_INICIAL];
+        vivos = new BitSet();
+        leidos = new BitSet();
+        dicEstudiantes = new Diccionario<>();
+        dicConductas = new Diccionario<>();
+        gravedades = new DimensionBitmap(String::toLowerCase);
+        grados = new DimensionBitmap(UnaryOperator.identity());
+        secciones = new DimensionBitmap(UnaryOperator.identity());
+        estados = new DimensionBitmap(String::toUpperCase);
+    }
+
+    // ================================================================
+    // ACTUALIZACIÓN POR ESCRITURAS
+    // ================================================================
+
+    @Override
+    public void aplicar(RegistroConductaEvent evento) {
+        if (evento.idRegistro() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            switch (evento.tipo()) {
+                case CREADO, ACTUALIZADO -> guardar(evento.idRegistro(), evento.estudianteId(), evento.conductaId(),
+                        evento.gravedad(), evento.grado(), evento.seccion(), evento.estado(), evento.fechaRegistro(),
+                        evento.leido());
+                case LEIDO -> {
+                    int fila = fila(evento.idRegistro());
+                    if (fila >= 0) {
+                        leidos.set(fila);
+                    }
+                }
+                case ESTADO_CAMBIADO -> {
+                    int fila = fila(evento.idRegistro());
+                    if (fila >= 0) {
+                        estados.asignar(fila, evento.estado());
+                    }
+                }
+                case ELIMINADO -> eliminar(evento.idRegistro());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        coherenciaCacheService.publicar(nombreCache(), evento.idRegistro().toString(), 0);
+    }
+
+    /**
+     * Reescribe la fila del registro si ya está en el índice (conserva su posición, así que el
+     * orden por antigüedad no cambia) o agrega una nueva al final.
+     */
+    private void guardar(long id, Long estudianteId, Long conductaId, String gravedad, String grado,
+                         String seccion, String estado, LocalDate fecha, boolean leido) {
+        if (id <= 0 || id >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id de registro fuera del rango del índice: " + id);
+        }
+        int fila = fila(id);
+        if (fila < 0) {
+            asegurarCapacidad(filas + 1);
+            fila = filas++;
+            ids[fila] = (int) id;
+            vivos.set(fila);
+            if (id >= filaPorId.length) {
+                filaPorId = Arrays.copyOf(filaPorId, (int) Math.max(id + 1, filaPorId.length * 2L));
+            }
+            filaPorId[(int) id] = fila + 1;
+        }
+        estudiantes[fila] = dicEstudiantes.codigo(estudianteId);
+        conductas[fila] = dicConductas.codigo(conductaId);
+        dias[fila] = fecha != null ? (int) fecha.toEpochDay() : Integer.MIN_VALUE;
+        gravedades.asignar(fila, gravedad);
+        grados.asignar(fila, grado);
+        secciones.asignar(fila, seccion);
+        estados.asignar(fila, estado);
+        leidos.set(fila, leido);
+    }
+
+    private void eliminar(long id) {
+        int fila = fila(id);
+        if (fila >= 0) {
+            vivos.clear(fila);
+            filaPorId[(int) id] = 0;
+        }
+    }
+
+    private int fila(long id) {
+        if (id <= 0 || id >= filaPorId.length) {
+            return -1;
+        }
+        return filaPorId[(int) id] - 1;
+    }
+
+    private void asegurarCapacidad(int requerida) {
+        if (requerida <= ids.length) {
+            return;
+        }
+        int nueva = Math.max(requerida, ids.length * 2);
+        ids = Arrays.copyOf(ids, nueva);
+        estudiantes = Arrays.copyOf(estudiantes, nueva);
+        conductas = Arrays.copyOf(conductas, nueva);
+        dias = Arrays.copyOf(dias, nueva);
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return nombre();
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+        return evento.idRegistro() == null ? Set.of() : Set.of(evento.idRegistro().toString());
+    }
+
+    /**
+     * Vuelve a leer de la base de datos el registro modificado en otro nodo y reemplaza su fila,
+     * o la quita si el registro ya no existe.
+     */
+    @Override
+    public void invalidarRemoto(String clave) {
+        if (!inicializado) {
+            return;
+        }
+        if (CoherenciaCacheService.TODAS.equals(clave)) {
+            reconstruir();
+            return;
+        }
+        long id = Long.parseLong(clave);
+        List<Object[]> resumen = registroConductaRepository.findResumenById(id);
+        lock.writeLock().lock();
+        try {
+            if (resumen.isEmpty()) {
+                eliminar(id);
+            } else {
+                guardarResumen(resumen.get(0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================================================================
+    // SNAPSHOT
+    // ================================================================
+
+    @Override
+    public void escribir(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(filas);
+            SnapshotFormato.escribirInts(out, ids, filas);
+            SnapshotFormato.escribirInts(out, estudiantes, filas);
+            SnapshotFormato.escribirInts(out, conductas, filas);
+            SnapshotFormato.escribirInts(out, dias, filas);
+            SnapshotFormato.escribirBits(out, vivos);
+            SnapshotFormato.escribirBits(out, leidos);
+            dicEstudiantes.escribir(out);
+            dicConductas.escribir(out);
+            gravedades.escribir(out);
+            grados.escribir(out);
+            secciones.escribir(out);
+            estados.escribir(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void leer(ByteBuffer in) {
+        lock.writeLock().lock();
+        try {
+            limpiar();
+            filas = in.getInt();
+            ids = SnapshotFormato.leerInts(in, CAPACIDAD_INICIAL);
+            estudiantes = SnapshotFormato.leerInts(in, ids.length);
+            conductas = SnapshotFormato.leerInts(in, ids.length);
+            dias = SnapshotFormato.leerInts(in, ids.length);
+            vivos = SnapshotFormato.leerBits(in);
+            leidos = SnapshotFormato.leerBits(in);
+            dicEstudiantes.leer(in);
+            dicConductas.leer(in);
+            gravedades.leer(in);
+            grados.leer(in);
+            secciones.leer(in);
+            estados.leer(in);
+
+            // La tabla id → fila se deriva de las filas vivas
+            int maximoId = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                maximoId = Math.max(maximoId, ids[fila]);
+            }
+            filaPorId = new int[Math.max(CAPACIDAD_INICIAL, maximoId + 1)];
+            for (int fila = vivos.nextSetBit(0); fila >= 0; fila = vivos.nextSetBit(fila + 1)) {
+                filaPorId[ids[fila]] = fila + 1;
+            }
+            inicializado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================================================================
+    // CONSULTAS
+    // ================================================================
+
+    public boolean isInicializado() {
+        return inicializado;
+    }
+
+    /**
+     * Total de incidentes que cumplen el filtro y conteos por valor de cada dimensión.
+     */
+    public FacetasIncidentesDTO facetas(FiltroIncidentesDTO filtro) {
+        if (!inicializado) {
+            return facetasEnBaseDeDatos(filtro);
+        }
+        lock.readLock().lock();
+        try {
+            BitSet seleccion = seleccionar(filtro);
+            Map<String, Map<String, Long>> facetas = new LinkedHashMap<>();
+            facetas.put(GRAVEDAD, gravedades.contar(seleccion));
+            facetas.put(GRADO, grados.contar(seleccion));
+            facetas.put(SECCION, secciones.contar(seleccion));
+            facetas.put(ESTADO, estados.contar(seleccion));
+
+            Map<String, Long> porLeido = new LinkedHashMap<>();
+            BitSet tmp = (BitSet) seleccion.clone();
+            tmp.and(leidos);
+            long totalLeidos = tmp.cardinality();
+            long total = seleccion.cardinality();
+            porLeido.put("true", totalLeidos);
+            porLeido.put("false", total - totalLeidos);
+            facetas.put(LEIDO, porLeido);
+
+            return new FacetasIncidentesDTO(total, facetas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de incidentes que cumplen el filtro.
+     */
+    public long contar(FiltroIncidentesDTO filtro) {
+        if (!inicializado) {
+            Criterios c = Criterios.de(filtro);
+            return registroConductaRepository.countFiltrados(c.gravedad(), c.grado(), c.seccion(), c.estado(),
+                    c.leido(), c.estudianteId(), c.conductaId(), c.desde(), c.hasta());
+        }
+        lock.readLock().lock();
+        try {
+            return seleccionar(filtro).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los incidentes que cumplen el filtro, del más reciente al más antiguo.
+     *
+     * @param limite máximo de IDs a devolver (0 o negativo = sin límite)
+     */
+    public List<Long> findIds(FiltroIncidentesDTO filtro, int limite) {
+        if (!inicializado) {
+            Criterios c = Criterios.de(filtro);
+            return registroConductaRepository.findIdsFiltrados(c.gravedad(), c.grado(), c.seccion(), c.estado(),
+                    c.leido(), c.estudianteId(), c.conductaId(), c.desde(), c.hasta(),
+                    limite > 0 ? Limit.of(limite) : Limit.unlimited());
+        }
+        lock.readLock().lock();
+        try {
+            BitSet seleccion = seleccionar(filtro);
+            int maximo = limite > 0 ? limite : Integer.MAX_VALUE;
+            List<Long> resultado = new ArrayList<>(Math.min(maximo, seleccion.cardinality()));
+            for (int fila = seleccion.previousSetBit(filas - 1);
+                 fila >= 0 && resultado.size() < maximo;
+                 fila = seleccion.previousSetBit(fila - 1)) {
+                resultado.add((long) ids[fila]);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facetas con una consulta agrupada por todas las dimensiones, sumadas en memoria.
+     */
+    private FacetasIncidentesDTO facetasEnBaseDeDatos(FiltroIncidentesDTO filtro) {
+        Criterios c = Criterios.de(filtro);
+        List<Object[]> grupos = registroConductaRepository.countFacetasFiltradas(c.gravedad(), c.grado(), c.seccion(),
+                c.estado(), c.leido(), c.estudianteId(), c.conductaId(), c.desde(), c.hasta());
+        Map<String, Map<String, Long>> facetas = new LinkedHashMap<>();
+        facetas.put(GRAVEDAD, new LinkedHashMap<>());
+        facetas.put(GRADO, new LinkedHashMap<>());
+        facetas.put(SECCION, new LinkedHashMap<>());
+        facetas.put(ESTADO, new LinkedHashMap<>());
+        Map<String, Long> porLeido = new LinkedHashMap<>();
+        porLeido.put("true", 0L);
+        porLeido.put("false", 0L);
+        facetas.put(LEIDO, porLeido);
+        long total = 0;
+        for (Object[] grupo : grupos) {
+            long cantidad = ((Number) grupo[5]).longValue();
+            total += cantidad;
+            sumarFaceta(facetas.get(GRAVEDAD), grupo[0] == null ? null : ((String) grupo[0]).toLowerCase(), cantidad);
+            sumarFaceta(facetas.get(GRADO), (String) grupo[1], cantidad);
+            sumarFaceta(facetas.get(SECCION), (String) grupo[2], cantidad);
+            sumarFaceta(facetas.get(ESTADO), grupo[3] == null ? null : ((String) grupo[3]).toUpperCase(), cantidad);
+            sumarFaceta(porLeido, String.valueOf(Boolean.TRUE.equals(grupo[4])), cantidad);
+        }
+        return new FacetasIncidentesDTO(total, facetas);
+    }
+
+    private static void sumarFaceta(Map<String, Long> faceta, String valor, long cantidad) {
+        if (valor != null) {
+            faceta.merge(valor, cantidad, Long::sum);
+        }
+    }
+
+    /** Criterios del filtro para las consultas a la base de datos (un texto en blanco no restringe). */
+    private record Criterios(String gravedad, String grado, String seccion, String estado, Boolean leido,
+                             Long estudianteId, Long conductaId, LocalDate desde, LocalDate hasta) {
+
+        static Criterios de(FiltroIncidentesDTO filtro) {
+            if (filtro == null) {
+                return new Criterios(null, null, null, null, null, null, null, null, null);
+            }
+            return new Criterios(texto(filtro.getGravedad()), texto(filtro.getGrado()), texto(filtro.getSeccion()),
+                    texto(filtro.getEstado()), filtro.getLeido(), filtro.getEstudianteId(), filtro.getConductaId(),
+                    filtro.getDesde(), filtro.getHasta());
+        }
+
+        private static String texto(String valor) {
+            return valor == null || valor.isBlank() ? null : valor;
+        }
+    }
+
+    /**
+     * Intersección de bitsets para las dimensiones de baja cardinalidad y
+     * barrido de columnas int solo sobre las filas ya seleccionadas para el resto.
+     * Debe llamarse con el lock de lectura tomado.
+     */
+    private BitSet seleccionar(FiltroIncidentesDTO filtro) {
+        BitSet seleccion = (BitSet) vivos.clone();
+        if (filtro == null) {
+            return seleccion;
+        }
+        gravedades.filtrar(seleccion, filtro.getGravedad());
+        grados.filtrar(seleccion, filtro.getGrado());
+        secciones.filtrar(seleccion, filtro.getSeccion());
+        estados.filtrar(seleccion, filtro.getEstado());
+        if (filtro.getLeido() != null) {
+            if (filtro.getLeido()) {
+                seleccion.and(leidos);
+            } else {
+                seleccion.andNot(leidos);
+            }
+        }
+
+        int estudiante = filtro.getEstudianteId() != null ? dicEstudiantes.buscar(filtro.getEstudianteId()) : -2;
+        int conducta = filtro.getConductaId() != null ? dicConductas.buscar(filtro.getConductaId()) : -2;
+        int desde = filtro.getDesde() != null ? (int) filtro.getDesde().toEpochDay() : Integer.MIN_VALUE;
+        int hasta = filtro.getHasta() != null ? (int) filtro.getHasta().toEpochDay() : Integer.MAX_VALUE;
+
+        if (estudiante == -1 || conducta == -1) {
+            seleccion.clear(); // valor que no existe en el diccionario
+            return seleccion;
+        }
+        if (estudiante >= 0 || conducta >= 0 || filtro.getDesde() != null || filtro.getHasta() != null) {
+            for (int fila = seleccion.nextSetBit(0); fila >= 0; fila = seleccion.nextSetBit(fila + 1)) {
+                if ((estudiante >= 0 && estudiantes[fila] != estudiante)
+                        || (conducta >= 0 && conductas[fila] != conducta)
+                        || dias[fila] < desde || dias[fila] > hasta) {
+                    seleccion.clear(fila);
+                }
+            }
+        }
+        return seleccion;
+    }
+
+    // ================================================================
+    // ESTRUCTURAS INTERNAS
+    // ================================================================
+
+    /** Diccionario valor → código int consecutivo. */
+    private static final class Diccionario<T> {
+
+        private final Map<T, Integer> codigos = new HashMap<>();
+
+        int codigo(T valor) {
+            if (valor == null) {
+                return -1;
+            }
+            return codigos.computeIfAbsent(valor, v -> codigos.size());
+        }
+
+        /** Código del valor o -1 si no existe. */
+        int buscar(T valor) {
+            Integer codigo = codigos.get(valor);
+            return codigo == null ? -1 : codigo;
+        }
+
+        /** Escribe los valores (solo Long) en orden de código. */
+        void escribir(DataOutputStream out) throws IOException {
+            Object[] porCodigo = new Object[codigos.size()];
+            codigos.forEach((valor, codigo) -> porCodigo[codigo] = valor);
+            out.writeInt(porCodigo.length);
+            for (Object valor : porCodigo) {
+                out.writeLong((Long) valor);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void leer(ByteBuffer in) {
+            codigos.clear();
+            int cantidad = in.getInt();
+            for (int codigo = 0; codigo < cantidad; codigo++) {
+                codigos.put((T) Long.valueOf(in.getLong()), codigo);
+            }
+        }
+    }
+
+    /**
+     * Dimensión de baja cardinalidad codificada como un BitSet por valor del diccionario.
+     * Normaliza el valor (p. ej. a minúsculas) para que el filtro no dependa del formato.
+     */
+    private static final class DimensionBitmap {
+
+        private final UnaryOperator<String> normalizador;
+        private final Map<String, BitSet> porValor = new LinkedHashMap<>();
+
+        DimensionBitmap(UnaryOperator<String> normalizador) {
+            this.normalizador = normalizador;
+        }
+
+        private String normalizar(String valor) {
+            return valor == null ? null : normalizador.apply(valor);
+        }
+
+        void asignar(int fila, String valor) {
+            for (BitSet bits : porValor.values()) {
+                bits.clear(fila);
+            }
+            String clave = normalizar(valor);
+            if (clave != null) {
+                porValor.computeIfAbsent(clave, v -> new BitSet()).set(fila);
+            }
+        }
+
+        void filtrar(BitSet seleccion, String valor) {
+            if (valor == null || valor.isBlank()) {
+                return;
+            }
+            BitSet bits = porValor.get(normalizar(valor));
+            if (bits == null) {
+                seleccion.clear();
+            } else {
+                seleccion.and(bits);
+            }
+        }
+
+        void escribir(DataOutputStream out) throws IOException {
+            out.writeInt(porValor.size());
+            for (Map.Entry<String, BitSet> entrada : porValor.entrySet()) {
+                SnapshotFormato.escribirTexto(out, entrada.getKey());
+                SnapshotFormato.escribirBits(out, entrada.getValue());
+            }
+        }
+
+        void leer(ByteBuffer in) {
+            porValor.clear();
+            int cantidad = in.getInt();
+            for (int i = 0; i < cantidad; i++) {
+                porValor.put(SnapshotFormato.leerTexto(in), SnapshotFormato.leerBits(in));
+            }
+        }
+
+        Map<String, Long> contar(BitSet seleccion) {
+            Map<String, Long> conteos = new LinkedHashMap<>();
+            porValor.forEach((valor, bits) -> {
+                BitSet tmp = (BitSet) bits.clone();
+                tmp.and(seleccion);
+                int total = tmp.cardinality();
+                if (total > 0) {
+                    conteos.put(valor, (long) total);
+                }
+            });
+            return conteos;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import com.controledu.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Contadores de incidentes y observaciones no leídos por estudiante, en memoria.
+ *
+ * Alimentan las insignias del panel del estudiante sin ejecutar COUNT por petición. Se actualizan
+ * con los eventos de alta, lectura y eliminación y, cada {@code controledu.no-leidos.reconciliacion-ms},
+ * se recalculan con dos consultas agrupadas para corregir cualquier desvío (por ejemplo, cambios
+ * hechos directamente en la base de datos).
+ *
+ * Los cambios que llegan mientras corre la reconciliación se anotan aparte y se aplican sobre el
+ * resultado nuevo. Un cambio confirmado justo antes de la consulta pero notificado después puede
+ * contarse dos veces; la siguiente reconciliación lo corrige.
+ *
+ * Con varios nodos, cada cambio local se anuncia por {@link CoherenciaCacheService} y los demás
+ * nodos recalculan los contadores de ese estudiante desde la base de datos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NoLeidosEstudiantesService implements IndiceEnMemoria, CacheCoherente {
+
+    private final RegistroConductaRepository registroConductaRepository;
+    private final ObservacionRepository observacionRepository;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    private LongIntHashMap incidentes = new LongIntHashMap();
+    private LongIntHashMap observaciones = new LongIntHashMap();
+    private volatile boolean inicializado = false;
+
+    /** Cambios recibidos durante una reconciliación en curso (null si no hay ninguna) */
+    private LongIntHashMap incidentesDiario;
+    private LongIntHashMap observacionesDiario;
+
+    // ================================================================
+    // CARGA INICIAL Y RECONCILIACIÓN
+    // ================================================================
+
+    @Override
+    public String nombre() {
+        return "no-leidos-estudiantes";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void reconstruir() {
+        LongIntHashMap nuevosIncidentes = cargar(registroConductaRepository.countNoLeidosPorEstudiante());
+        LongIntHashMap nuevasObservaciones = cargar(observacionRepository.countNoLeidasPorEstudiante());
+        synchronized (this) {
+            this.incidentes = nuevosIncidentes;
+            this.observaciones = nuevasObservaciones;
+            this.inicializado = true;
+        }
+        log.info("No leídos por estudiante inicializados: {} con incidentes, {} con observaciones",
+                nuevosIncidentes.size(), nuevasObservaciones.size());
+    }
+
+    /**
+     * Recalcula los contadores desde la base de datos y reemplaza los actuales.
+     */
+    @Scheduled(initialDelayString = "${controledu.no-leidos.reconciliacion-ms:600000}",
+               fixedDelayString = "${controledu.no-leidos.reconciliacion-ms:600000}")
+    public void reconciliar() {
+        if (!inicializado) {
+            return;
+        }
+        synchronized (this) {
+            incidentesDiario = new LongIntHashMap();
+            observacionesDiario = new LongIntHashMap();
+        }
+        LongIntHashMap nuevosIncidentes;
+        LongIntHashMap nuevasObservaciones;
+        try {
+            nuevosIncidentes = cargar(registroConductaRepository.countNoLeidosPorEstudiante());
+            nuevasObservaciones = cargar(observacionRepository.countNoLeidasPorEstudiante());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                incidentesDiario = null;
+                observacionesDiario = null;
+            }
+            log.warn("No se pudo reconciliar los no leídos por estudiante: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            incidentesDiario.forEach(nuevosIncidentes::sumar);
+            observacionesDiario.forEach(nuevasObservaciones::sumar);
+            int desvio = diferencias(incidentes, nuevosIncidentes) + diferencias(observaciones, nuevasObservaciones);
+            if (desvio > 0) {
+                log.info("Reconciliación de no leídos: {} estudiantes corregidos", desvio);
+            }
+            incidentes = nuevosIncidentes;
+            observaciones = nuevasObservaciones;
+            incidentesDiario = null;
+            observacionesDiario = null;
+        }
+    }
+
+    private static LongIntHashMap cargar(List<Object[]> filas) {
+        LongIntHashMap mapa = new LongIntHashMap(filas.size());
+        for (Object[] fila : filas) {
+            if (fila[0] != null) {
+                mapa.put(((Number) fila[0]).longValue(), ((Number) fila[1]).intValue());
+            }
+        }
+        return mapa;
+    }
+
+    private static int diferencias(LongIntHashMap actual, LongIntHashMap nuevo) {
+        int[] distintos = {0};
+        actual.forEach((clave, valor) -> {
+            if (nuevo.get(clave) != valor) {
+                distintos[0]++;
+            }
+        });
+        nuevo.forEach((clave, valor) -> {
+            if (actual.get(clave) == 0) {
+                distintos[0]++;
+            }
+        });
+        return distintos[0];
+    }
+
+    // ================================================================
+    // ACTUALIZACIÓN POR ESCRITURAS
+    // ================================================================
+
+    @Override
+    public void aplicar(RegistroConductaEvent evento) {
+        switch (evento.tipo()) {
+            case CREADO -> {
+                if (!evento.leido()) {
+                    sumar(true, evento.estudianteId(), 1);
+                }
+            }
+            case LEIDO -> sumar(true, evento.estudianteId(), -1);
+            case ELIMINADO -> {
+                if (!evento.leido()) {
+                    sumar(true, evento.estudianteId(), -1);
+                }
+            }
+            // Una edición puede cambiar la lectura o el estudiante: se recuentan los estudiantes afectados
+            case ACTUALIZADO -> clavesAfectadas(evento).forEach(this::recontar);
+            default -> { /* un cambio de estado no afecta la lectura */ }
+        }
+    }
+
+    @Override
+    public void aplicar(ObservacionEvent evento) {
+        switch (evento.tipo()) {
+            case CREADO -> {
+                if (!evento.leido()) {
+                    sumar(false, evento.estudianteId(), 1);
+                }
+            }
+            case LEIDO -> sumar(false, evento.estudianteId(), -1);
+            case ELIMINADO -> {
+                if (!evento.leido()) {
+                    sumar(false, evento.estudianteId(), -1);
+                }
+            }
+            case ACTUALIZADO -> clavesAfectadas(evento).forEach(this::recontar);
+            default -> { /* sin impacto en los no leídos */ }
+        }
+    }
+
+    private void sumar(boolean incidente, Long estudianteId, int delta) {
+        if (estudianteId == null) {
+            return;
+        }
+        sumarLocal(incidente, estudianteId, delta);
+        coherenciaCacheService.publicar(nombreCache(), estudianteId.toString(), 0);
+    }
+
+    /** Vuelve a contar el estudiante desde la base de datos y avisa a los demás nodos. */
+    private void recontar(String clave) {
+        invalidarRemoto(clave);
+        coherenciaCacheService.publicar(nombreCache(), clave, 0);
+    }
+
+    private synchronized void sumarLocal(boolean incidente, long estudianteId, int delta) {
+        (incidente ? incidentes : observaciones).sumar(estudianteId, delta);
+        LongIntHashMap diario = incidente ? incidentesDiario : observacionesDiario;
+        if (diario != null) {
+            diario.put(estudianteId, diario.get(estudianteId) + delta);
+        }
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return nombre();
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+        return claves(evento.estudianteId(), evento.anterior() != null ? evento.anterior().estudianteId() : null);
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(ObservacionEvent evento) {
+        return claves(evento.estudianteId(), evento.anterior() != null ? evento.anterior().estudianteId() : null);
+    }
+
+    /** Estudiante actual y, tras una edición, el anterior. */
+    private static Set<String> claves(Long estudianteId, Long anterior) {
+        Set<String> claves = new HashSet<>();
+        if (estudianteId != null) {
+            claves.add(estudianteId.toString());
+        }
+        if (anterior != null) {
+            claves.add(anterior.toString());
+        }
+        return claves;
+    }
+
+    /**
+     * Recalcula desde la base de datos los contadores del estudiante modificado en otro nodo.
+     * La diferencia se aplica como un cambio más, así también queda anotada si hay una
+     * reconciliación en curso.
+     */
+    @Override
+    public void invalidarRemoto(String clave) {
+        if (!inicializado || CoherenciaCacheService.TODAS.equals(clave)) {
+            return;
+        }
+        long estudianteId = Long.parseLong(clave);
+        int incidentesDb = (int) registroConductaRepository.countNoLeidosByEstudianteId(estudianteId);
+        int observacionesDb = (int) observacionRepository.countNoLeidasByEstudianteId(estudianteId);
+        synchronized (this) {
+            sumarLocal(true, estudianteId, incidentesDb - incidentes.get(estudianteId));
+            sumarLocal(false, estudianteId, observacionesDb - observaciones.get(estudianteId));
+        }
+    }
+
+    // ================================================================
+    // SNAPSHOT
+    // ================================================================
+
+    @Override
+    public synchronized void escribir(DataOutputStream out) throws IOException {
+        escribirMapa(out, incidentes);
+        escribirMapa(out, observaciones);
+    }
+
+    private static void escribirMapa(DataOutputStream out, LongIntHashMap mapa) throws IOException {
+        long[] claves = new long[mapa.size()];
+        int[] valores = new int[mapa.size()];
+        int[] n = {0};
+        mapa.forEach((clave, valor) -> {
+            claves[n[0]] = clave;
+            valores[n[0]++] = valor;
+        });
+        out.writeInt(n[0]);
+        for (int i = 0; i < n[0]; i++) {
+            out.writeLong(claves[i]);
+            out.writeInt(valores[i]);
+        }
+    }
+
+    @Override
+    public void leer(ByteBuffer in) {
+        LongIntHashMap nuevosIncidentes = leerMapa(in);
+        LongIntHashMap nuevasObservaciones = leerMapa(in);
+        synchronized (this) {
+            this.incidentes = nuevosIncidentes;
+            this.observaciones = nuevasObservaciones;
+            this.inicializado = true;
+        }
+    }
+
+    private static LongIntHashMap leerMapa(ByteBuffer in) {
+        int cantidad = in.getInt();
+        LongIntHashMap mapa = new LongIntHashMap(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            mapa.put(in.getLong(), in.getInt());
+        }
+        return mapa;
+    }
+
+    // ================================================================
+    // LECTURA
+    // ================================================================
+
+    /**
+     * Incidentes no leídos del estudiante.
+     * Mientras no se haya completado la carga inicial, se consulta la base de datos.
+     */
+    public long countIncidentesNoLeidos(Long estudianteId) {
+        if (!inicializado) {
+            return registroConductaRepository.countNoLeidosByEstudianteId(estudianteId);
+        }
+        synchronized (this) {
+            return incidentes.get(estudianteId);
+        }
+    }
+
+    /**
+     * Observaciones no leídas del estudiante.
+     * Mientras no se haya completado la carga inicial, se consulta la base de datos.
+     */
+    public long countObservacionesNoLeidas(Long estudianteId) {
+        if (!inicializado) {
+            return observacionRepository.countNoLeidasByEstudianteId(estudianteId);
+        }
+        synchronized (this) {
+            return observaciones.get(estudianteId);
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package com.controledu.service;
 
+import com.controledu.dto.ActualizacionMasivaDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.event.ObservacionEvent;
 import com.controledu.model.Estudiante;
 import com.controledu.model.Observacion;
 import com.controledu.model.Docente;
 import com.controledu.repository.ObservacionRepository;
+import com.controledu.util.SingleFlight;
 import com.controledu.repository.EstudianteRepository;
 import com.controledu.repository.DocenteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,6 +29,10 @@ public class ObservacionService {
     private final ObservacionRepository observacionRepository;
     private final EstudianteRepository estudianteRepository;
     private final DocenteRepository docenteRepository;
+    private final ActividadDocentesService actividadDocentesService;
+    private final NoLeidosEstudiantesService noLeidosEstudiantesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
 
     public List<Observacion> findAll() {
         return observacionRepository.findAll();
@@ -65,7 +77,21 @@ public class ObservacionService {
     // --- ✅ RENAMED THIS METHOD ---
     @Transactional
     public Observacion guardar(Observacion observacion) { // Was named 'save'
-        return observacionRepository.save(observacion);
+        boolean nueva = observacion.getIdObservacion() == null;
+        if (nueva) {
+            Observacion guardada = observacionRepository.save(observacion);
+            publicar(ObservacionEvent.Tipo.CREADO, guardada);
+            return guardada;
+        }
+        // Una edición puede cambiar el estudiante o el docente: los contadores recuentan ambas claves
+        ObservacionEvent.Anterior anterior = observacionRepository.findClavesById(observacion.getIdObservacion())
+                .stream()
+                .findFirst()
+                .map(fila -> new ObservacionEvent.Anterior((Long) fila[0], (Long) fila[1]))
+                .orElse(null);
+        Observacion guardada = observacionRepository.save(observacion);
+        eventPublisher.publishEvent(ObservacionEvent.de(ObservacionEvent.Tipo.ACTUALIZADO, guardada, anterior));
+        return guardada;
     }
     // ----------------------------
 
@@ -85,7 +111,9 @@ public class ObservacionService {
         observacion.setLeido(false);
 
         // Now calling the renamed method 'guardar' implicitly via repository.save
-        return observacionRepository.save(observacion);
+        Observacion guardada = observacionRepository.save(observacion);
+        publicar(ObservacionEvent.Tipo.CREADO, guardada);
+        return guardada;
     }
 
     @Transactional
@@ -93,16 +121,47 @@ public class ObservacionService {
         Optional<Observacion> observacionOpt = observacionRepository.findById(id);
         if (observacionOpt.isPresent()) {
             Observacion observacion = observacionOpt.get();
+            boolean yaLeida = Boolean.TRUE.equals(observacion.getLeido());
             // Assuming your Observacion model has a method like this
             // If not, just do: observacion.setLeido(true); observacion.setFechaLectura(LocalDate.now());
             observacion.marcarComoLeido();
-            return Optional.of(observacionRepository.save(observacion));
+            Observacion guardada = observacionRepository.save(observacion);
+            if (!yaLeida) {
+                publicar(ObservacionEvent.Tipo.LEIDO, guardada);
+            }
+            return Optional.of(guardada);
         }
         return Optional.empty();
     }
 
+    /**
+     * Marca como leídas todas las observaciones no leídas de la selección con un UPDATE por conjunto
+     * y publica un evento por cada una que cambió.
+     */
+    @Transactional
+    public ActualizacionMasivaDTO marcarComoLeidaMasivo(SeleccionMasivaDTO seleccion) {
+        if (seleccion == null || !seleccion.tieneCriterios()) {
+            throw new RuntimeException("Debe indicar IDs, un estudiante o una fecha límite");
+        }
+        List<Object[]> filas = observacionRepository.marcarLeidasEnLote(
+                seleccion.getIds(), seleccion.getEstudianteId(), seleccion.getAntesDe());
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Long id = (Long) fila[0];
+            ids.add(id);
+            eventPublisher.publishEvent(new ObservacionEvent(ObservacionEvent.Tipo.LEIDO, id,
+                    (Long) fila[1], (Long) fila[2], null, (LocalDate) fila[3], true));
+        }
+        return new ActualizacionMasivaDTO(ids.size(), ids);
+    }
+
+    @Transactional
     public void deleteById(Long id) {
-        observacionRepository.deleteById(id);
+        // Se carga antes de borrar para que los contadores en memoria sepan qué descontar
+        observacionRepository.findById(id).ifPresent(observacion -> {
+            observacionRepository.delete(observacion);
+            publicar(ObservacionEvent.Tipo.ELIMINADO, observacion);
+        });
     }
 
     public boolean existsById(Long id) {
@@ -110,19 +169,30 @@ public class ObservacionService {
     }
 
     public long count() {
-        return observacionRepository.count();
+        return singleFlight.ejecutar("observaciones:count", observacionRepository::count);
     }
 
     public long countByEstudianteId(Long estudianteId) {
         return observacionRepository.countByEstudianteId(estudianteId);
     }
 
+    /** Observaciones por estudiante en una sola consulta agrupada (estudianteId → total), para los listados. */
+    public Map<Long, Long> countPorEstudiante() {
+        Map<Long, Long> conteos = new HashMap<>();
+        for (Object[] fila : observacionRepository.countPorEstudiante()) {
+            conteos.put((Long) fila[0], (Long) fila[1]);
+        }
+        return conteos;
+    }
+
     public long countByDocenteId(Long docenteId) {
-        return observacionRepository.countByDocenteId(docenteId);
+        // Servido desde los contadores de actividad por docente (sin COUNT por petición)
+        return actividadDocentesService.countObservacionesByDocenteId(docenteId);
     }
 
     public long countNoLeidasByEstudianteId(Long estudianteId) {
-        return observacionRepository.countNoLeidasByEstudianteId(estudianteId);
+        // Servido desde los contadores de no leídos por estudiante
+        return noLeidosEstudiantesService.countObservacionesNoLeidas(estudianteId);
     }
 
     // These methods seem to expect Pageable or rely on specific repository queries
@@ -143,4 +213,11 @@ public class ObservacionService {
     public List<Object[]> countByTipoObservacion() {
         return observacionRepository.countByTipoObservacion();
     }
+
+    /**
+     * Publica el cambio para los consumidores en memoria; se entrega tras el commit.
+     */
+    private void publicar(ObservacionEvent.Tipo tipo, Observacion observacion) {
+        eventPublisher.publishEvent(ObservacionEvent.de(tipo, observacion));
+    }
 }
\ No newline at end of file
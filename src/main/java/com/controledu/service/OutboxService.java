@@ -0,0 +1,98 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.EventoOutbox;
+import com.controledu.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escribe en el outbox cada cambio de incidentes y observaciones, dentro de la misma transacción.
+ *
+ * Escucha los eventos de dominio de forma síncrona (en la transacción del servicio que los publica),
+ * los acumula por transacción y los inserta en un solo lote JDBC justo antes del commit. Si la
+ * transacción se revierte, no queda nada en el outbox. Insertar al final también deja la marca
+ * {@code creado_en} muy cerca del commit, lo que permite al relay usar una espera de asentamiento
+ * corta para no saltarse filas confirmadas fuera de orden.
+ */
+@Service
+public class OutboxService {
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean habilitado;
+
+    public OutboxService(EventoOutboxRepository eventoOutboxRepository, ObjectMapper objectMapper,
+                         @Value("${controledu.outbox.habilitado:true}") boolean habilitado) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+    }
+
+    @EventListener
+    public void onRegistroConducta(RegistroConductaEvent evento) {
+        registrar("INCIDENTE", evento.idRegistro(), evento.tipo().name(), evento);
+    }
+
+    @EventListener
+    public void onObservacion(ObservacionEvent evento) {
+        registrar("OBSERVACION", evento.idObservacion(), evento.tipo().name(), evento);
+    }
+
+    private void registrar(String agregado, Long agregadoId, String tipo, Object evento) {
+        if (!habilitado || agregadoId == null) {
+            return;
+        }
+        EventoOutbox fila = new EventoOutbox();
+        fila.setAgregado(agregado);
+        fila.setAgregadoId(agregadoId);
+        fila.setTipo(tipo);
+        try {
+            fila.setPayload(objectMapper.writeValueAsString(evento));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar el evento para el outbox", e);
+        }
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Sin transacción (no debería ocurrir desde los servicios): se inserta de inmediato
+            fila.setCreadoEn(LocalDateTime.now());
+            eventoOutboxRepository.insertarEnLote(List.of(fila));
+            return;
+        }
+        pendientesDeLaTransaccion().add(fila);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EventoOutbox> pendientesDeLaTransaccion() {
+        List<EventoOutbox> pendientes = (List<EventoOutbox>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<EventoOutbox> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    LocalDateTime ahora = LocalDateTime.now();
+                    nuevos.forEach(fila -> fila.setCreadoEn(ahora));
+                    eventoOutboxRepository.insertarEnLote(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+}
@@ -0,0 +1,212 @@
+package com.controledu.service;
+
+import com.controledu.dto.GrabacionJfrDTO;
+import com.controledu.jfr.EventoLogin;
+import com.controledu.jfr.EventoPeticion;
+import com.controledu.jfr.EventoPlantilla;
+import com.controledu.jfr.EventoServicio;
+import com.controledu.jfr.EventoSql;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grabaciones de Java Flight Recorder bajo demanda, para perfilar en producción sin adjuntar un
+ * profiler.
+ *
+ * Cada grabación usa una de las configuraciones de la JVM ("default", con un costo cercano al 1 %,
+ * o "profile", más detallada) y habilita además los eventos de la aplicación
+ * ({@code com.controledu.jfr}): peticiones, llamadas a servicios, sentencias SQL con sus filas,
+ * renderizado de plantillas e intentos de login, con el umbral de duración indicado. Se detiene
+ * sola al cumplir la duración pedida, que nunca pasa de {@code controledu.jfr.duracion-maxima}, y
+ * se acota en disco a {@code controledu.jfr.tamanio-maximo-mb}. Como mucho hay
+ * {@code controledu.jfr.maximo-activas} grabaciones de este servicio en curso a la vez.
+ *
+ * Las grabaciones se descargan, así que se les quitan los eventos de la JVM que exponen el
+ * entorno del servidor: variables de entorno (credenciales de la base de datos), propiedades del
+ * sistema, argumentos de la JVM y procesos del sistema.
+ */
+@Slf4j
+@Service
+public class PerfiladoJfrService {
+
+    private static final List<Class<? extends Event>> EVENTOS = List.of(EventoPeticion.class, EventoServicio.class,
+            EventoSql.class, EventoPlantilla.class, EventoLogin.class);
+
+    /** Eventos de la JVM deshabilitados en toda grabación (los que no existan en esta JVM se ignoran) */
+    static final List<String> EVENTOS_SENSIBLES = List.of("jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty", "jdk.InitialSecurityProperty", "jdk.JVMInformation",
+            "jdk.SystemProcess", "jdk.ProcessStart");
+
+    private final Duration duracionMaxima;
+    private final long tamanioMaximoBytes;
+    private final int maximoActivas;
+
+    /** Configuración con la que se inició cada grabación de este servicio, por id */
+    private final Map<Long, String> configuraciones = new ConcurrentHashMap<>();
+
+    public PerfiladoJfrService(@Value("${controledu.jfr.duracion-maxima:PT5M}") Duration duracionMaxima,
+                               @Value("${controledu.jfr.tamanio-maximo-mb:200}") long tamanioMaximoMb,
+                               @Value("${controledu.jfr.maximo-activas:1}") int maximoActivas) {
+        this.duracionMaxima = duracionMaxima;
+        this.tamanioMaximoBytes = tamanioMaximoMb * 1024 * 1024;
+        this.maximoActivas = maximoActivas;
+    }
+
+    // ================================================================
+    // CICLO DE VIDA
+    // ================================================================
+
+    /**
+     * Inicia una grabación.
+     *
+     * @param configuracion Configuración de JFR de la JVM ("default" o "profile")
+     * @param duracion      Duración pedida, o null para la de {@code controledu.jfr.duracion-maxima};
+     *                      se recorta a esa duración máxima
+     * @param umbralMs      Duración mínima de los eventos de la aplicación que se graban
+     * @return Grabación iniciada, o vacío si ya hay {@code controledu.jfr.maximo-activas} en curso
+     * @throws IllegalArgumentException si la configuración no existe
+     * @throws IllegalStateException    si la JVM no tiene Flight Recorder
+     */
+    public synchronized Optional<GrabacionJfrDTO> iniciar(String configuracion, Duration duracion, long umbralMs) {
+        verificarDisponible();
+        if (activas() >= maximoActivas) {
+            log.warn("Grabación JFR rechazada: ya hay {} en curso (máximo {})", activas(), maximoActivas);
+            return Optional.empty();
+        }
+        Configuration configuracionJfr;
+        try {
+            configuracionJfr = Configuration.getConfiguration(configuracion);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Configuración de JFR desconocida: " + configuracion, e);
+        }
+
+        Recording grabacion = new Recording(configuracionJfr);
+        grabacion.setName("controledu-" + configuracion);
+        for (Class<? extends Event> evento : EVENTOS) {
+            grabacion.enable(evento).withThreshold(Duration.ofMillis(Math.max(0, umbralMs)));
+        }
+        for (String evento : EVENTOS_SENSIBLES) {
+            grabacion.disable(evento);
+        }
+        grabacion.setDuration(duracionAcotada(duracion, duracionMaxima));
+        grabacion.setMaxSize(tamanioMaximoBytes);
+        grabacion.setToDisk(true);
+        grabacion.start();
+        configuraciones.put(grabacion.getId(), configuracion);
+        log.info("Grabación JFR {} iniciada (configuración {}, duración máxima {}, umbral {} ms)",
+                grabacion.getId(), configuracion, grabacion.getDuration(), umbralMs);
+        return Optional.of(dto(grabacion));
+    }
+
+    /** Duración pedida recortada a la máxima; sin duración (o no positiva) se usa la máxima. */
+    static Duration duracionAcotada(Duration pedida, Duration maxima) {
+        if (pedida == null || pedida.isZero() || pedida.isNegative() || pedida.compareTo(maxima) > 0) {
+            return maxima;
+        }
+        return pedida;
+    }
+
+    /** Grabaciones iniciadas por este servicio que todavía no terminaron. */
+    private long activas() {
+        return configuraciones.keySet().stream()
+                .map(this::buscar)
+                .flatMap(Optional::stream)
+                .filter(grabacion -> grabacion.getState() == RecordingState.NEW
+                        || grabacion.getState() == RecordingState.DELAYED
+                        || grabacion.getState() == RecordingState.RUNNING)
+                .count();
+    }
+
+    /** Detiene la grabación si sigue en curso; los datos quedan disponibles hasta cerrarla. */
+    public Optional<GrabacionJfrDTO> detener(long id) {
+        return buscar(id).map(grabacion -> {
+            if (grabacion.getState() == RecordingState.RUNNING) {
+                grabacion.stop();
+                log.info("Grabación JFR {} detenida ({} bytes)", id, grabacion.getSize());
+            }
+            return dto(grabacion);
+        });
+    }
+
+    /** Cierra la grabación y libera sus datos. */
+    public boolean cerrar(long id) {
+        Optional<Recording> grabacion = buscar(id);
+        grabacion.ifPresent(Recording::close);
+        configuraciones.remove(id);
+        return grabacion.isPresent();
+    }
+
+    /** Todas las grabaciones de la JVM, también las iniciadas con -XX:StartFlightRecording o jcmd. */
+    public List<GrabacionJfrDTO> listar() {
+        verificarDisponible();
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .map(this::dto)
+                .toList();
+    }
+
+    // ================================================================
+    // DESCARGA
+    // ================================================================
+
+    /**
+     * Vuelca los datos grabados hasta ahora (la grabación puede seguir en curso) a un archivo .jfr
+     * temporal. Quien lo recibe debe borrarlo.
+     *
+     * @return Archivo temporal, o vacío si la grabación no existe o todavía no tiene datos
+     */
+    public Optional<Path> volcar(long id) throws IOException {
+        Optional<Recording> grabacion = buscar(id);
+        if (grabacion.isEmpty() || grabacion.get().getState() == RecordingState.NEW
+                || grabacion.get().getState() == RecordingState.DELAYED) {
+            return Optional.empty();
+        }
+        Path archivo = Files.createTempFile("controledu-" + id + "-", ".jfr");
+        try {
+            grabacion.get().dump(archivo);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(archivo);
+            throw e;
+        }
+        return Optional.of(archivo);
+    }
+
+    private Optional<Recording> buscar(long id) {
+        if (!FlightRecorder.isAvailable()) {
+            return Optional.empty();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(grabacion -> grabacion.getId() == id)
+                .findFirst();
+    }
+
+    private static void verificarDisponible() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder no está disponible en esta JVM");
+        }
+    }
+
+    private GrabacionJfrDTO dto(Recording grabacion) {
+        Duration duracion = grabacion.getDuration();
+        return new GrabacionJfrDTO(grabacion.getId(), grabacion.getName(), grabacion.getState().name(),
+                configuraciones.get(grabacion.getId()), grabacion.getStartTime(), grabacion.getStopTime(),
+                duracion != null ? duracion.toSeconds() : 0, grabacion.getSize());
+    }
+}
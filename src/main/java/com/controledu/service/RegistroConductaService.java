@@ -1,16 +1,28 @@
 package com.controledu.service;
 
+import com.controledu.dto.ActualizacionMasivaDTO;
+import com.controledu.dto.FacetasIncidentesDTO;
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.dto.TransicionEstadoDTO;
+import com.controledu.event.RegistroConductaEvent;
 import com.controledu.model.*;
 import com.controledu.repository.ConductaRepository;
 import com.controledu.repository.DocenteRepository;
 import com.controledu.repository.EstudianteRepository;
 import com.controledu.repository.RegistroConductaRepository;
+import com.controledu.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,6 +33,12 @@ public class RegistroConductaService {
     private final EstudianteRepository estudianteRepository;
     private final DocenteRepository docenteRepository;
     private final ConductaRepository conductaRepository;
+    private final ActividadDocentesService actividadDocentesService;
+    private final IndiceIncidentesService indiceIncidentesService;
+    private final FlujoIncidentesService flujoIncidentesService;
+    private final NoLeidosEstudiantesService noLeidosEstudiantesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
 
     // --- Existing Methods ---
     public List<RegistroConducta> findAll() { return registroConductaRepository.findAll(); }
@@ -31,6 +49,31 @@ public class RegistroConductaService {
     public List<RegistroConducta> findByFecha(LocalDate fecha) { return registroConductaRepository.findByFechaRegistro(fecha); }
     public List<RegistroConducta> findByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) { return registroConductaRepository.findByFechaRegistroBetween(fechaInicio, fechaFin); }
     public List<RegistroConducta> findNoLeidos() { return registroConductaRepository.findByLeidoFalse(); }
+    public List<RegistroConducta> findAllById(List<Long> ids) { return registroConductaRepository.findAllById(ids); }
+
+    // --- Consultas sobre el índice columnar en memoria ---
+    public FacetasIncidentesDTO findFacetas(FiltroIncidentesDTO filtro) { return indiceIncidentesService.facetas(filtro); }
+    public List<Long> findIdsFiltrados(FiltroIncidentesDTO filtro, int limite) { return indiceIncidentesService.findIds(filtro, limite); }
+
+    /**
+     * Registros que cumplen el filtro, resueltos con el índice en memoria y cargados por ID,
+     * en orden del más reciente al más antiguo.
+     */
+    public List<RegistroConducta> findFiltrados(FiltroIncidentesDTO filtro) {
+        List<Long> ids = indiceIncidentesService.findIds(filtro, 0);
+        Map<Long, RegistroConducta> porId = new HashMap<>();
+        for (RegistroConducta registro : registroConductaRepository.findAllById(ids)) {
+            porId.put(registro.getIdRegistro(), registro);
+        }
+        List<RegistroConducta> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RegistroConducta registro = porId.get(id);
+            if (registro != null) {
+                resultado.add(registro);
+            }
+        }
+        return resultado;
+    }
 
     @Transactional
     public RegistroConducta registrarIncidente(Long estudianteId, Long conductaId, Long docenteId, String observaciones) {
@@ -48,32 +91,166 @@ public class RegistroConductaService {
         registro.setLeido(false);
         registro.setEstado("ACTIVO");
 
-        return registroConductaRepository.save(registro);
+        RegistroConducta guardado = registroConductaRepository.save(registro);
+        publicar(RegistroConductaEvent.Tipo.CREADO, guardado);
+        return guardado;
+    }
+
+    /**
+     * Registra la misma conducta para varios estudiantes en una sola transacción.
+     *
+     * Los estudiantes se cargan con una única consulta (se necesitan su grado y sección), el docente
+     * se referencia por proxy sin cargarlo y los INSERT se envían en lote por JDBC.
+     *
+     * @return Registros creados, con su id asignado, en el orden de los estudiantes recibidos.
+     */
+    @Transactional
+    public List<RegistroConducta> registrarIncidentesMasivo(List<Long> estudianteIds, Long conductaId, Long docenteId,
+                                                            String accionesTomadas, String comentarios) {
+        if (estudianteIds == null || estudianteIds.isEmpty()) {
+            throw new RuntimeException("Debe seleccionar al menos un estudiante");
+        }
+        List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(estudianteIds));
+        Conducta conducta = conductaRepository.findById(conductaId).orElseThrow(() -> new RuntimeException("Conducta no encontrada"));
+        if (docenteId == null || !docenteRepository.existsById(docenteId)) {
+            throw new RuntimeException("Docente no encontrado");
+        }
+        Docente docente = docenteRepository.getReferenceById(docenteId);
+
+        Map<Long, Estudiante> estudiantes = new HashMap<>();
+        for (Estudiante estudiante : estudianteRepository.findAllById(unicos)) {
+            estudiantes.put(estudiante.getId(), estudiante);
+        }
+        List<Long> faltantes = unicos.stream().filter(id -> !estudiantes.containsKey(id)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new RuntimeException("Estudiantes no encontrados: " + faltantes);
+        }
+
+        LocalDate hoy = LocalDate.now();
+        List<RegistroConducta> registros = new ArrayList<>(unicos.size());
+        for (Long estudianteId : unicos) {
+            RegistroConducta registro = new RegistroConducta();
+            registro.setEstudiante(estudiantes.get(estudianteId));
+            registro.setDocente(docente);
+            registro.setConducta(conducta);
+            registro.setAccionesTomadas(accionesTomadas);
+            registro.setComentarios(comentarios);
+            registro.setFechaRegistro(hoy);
+            registro.setLeido(false);
+            registro.setEstado("ACTIVO");
+            registros.add(registro);
+        }
+
+        registroConductaRepository.insertarEnLote(registros);
+        registros.forEach(registro -> publicar(RegistroConductaEvent.Tipo.CREADO, registro));
+        return registros;
     }
 
     @Transactional
     public Optional<RegistroConducta> marcarComoLeido(Long id) {
         return registroConductaRepository.findById(id).map(registro -> {
+            boolean yaLeido = Boolean.TRUE.equals(registro.getLeido());
             registro.setLeido(true);
             registro.setFechaLectura(LocalDate.now());
-            return registroConductaRepository.save(registro);
+            RegistroConducta guardado = registroConductaRepository.save(registro);
+            if (!yaLeido) {
+                publicar(RegistroConductaEvent.Tipo.LEIDO, guardado);
+            }
+            return guardado;
         });
     }
 
+    /**
+     * Cambia el estado con el motor de flujo: UPDATE condicional sobre el estado actual,
+     * sin cargar la entidad, con historial. Un cambio concurrente se informa como CONFLICTO.
+     */
+    public TransicionEstadoDTO cambiarEstado(Long id, String estado, String usuario) {
+        return flujoIncidentesService.transicionar(id, null, estado, usuario);
+    }
+
+    /**
+     * Marca como leídos todos los registros no leídos de la selección con un UPDATE por conjunto.
+     */
     @Transactional
-    public Optional<RegistroConducta> cambiarEstado(Long id, String estado) {
-        return registroConductaRepository.findById(id).map(registro -> {
-            registro.setEstado(estado);
-            return registroConductaRepository.save(registro);
-        });
+    public ActualizacionMasivaDTO marcarComoLeidoMasivo(SeleccionMasivaDTO seleccion) {
+        validarSeleccion(seleccion);
+        List<Object[]> filas = registroConductaRepository.marcarLeidosEnLote(
+                seleccion.getIds(), seleccion.getEstudianteId(), seleccion.getAntesDe());
+        return publicarMasivo(RegistroConductaEvent.Tipo.LEIDO, filas);
+    }
+
+    /**
+     * Aplica la transición a todos los registros de la selección cuyo estado actual la permita
+     * (y, si se indica, que estén en el estado de origen) con un UPDATE por conjunto.
+     */
+    public ActualizacionMasivaDTO cambiarEstadoMasivo(SeleccionMasivaDTO seleccion, String usuario) {
+        return flujoIncidentesService.transicionarEnLote(seleccion, usuario);
+    }
+
+    private void validarSeleccion(SeleccionMasivaDTO seleccion) {
+        if (seleccion == null || !seleccion.tieneCriterios()) {
+            throw new RuntimeException("Debe indicar IDs, un estudiante o una fecha límite");
+        }
+    }
+
+    /**
+     * Publica un evento por fila cambiada para que los contadores en memoria queden consistentes.
+     * Cada fila es [idRegistro, estudianteId, docenteId, fechaRegistro].
+     */
+    private ActualizacionMasivaDTO publicarMasivo(RegistroConductaEvent.Tipo tipo, List<Object[]> filas) {
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Long id = (Long) fila[0];
+            ids.add(id);
+            eventPublisher.publishEvent(new RegistroConductaEvent(tipo, id, (Long) fila[1], (Long) fila[2],
+                    null, null, null, null, (LocalDate) fila[3], null, tipo == RegistroConductaEvent.Tipo.LEIDO));
+        }
+        return new ActualizacionMasivaDTO(ids.size(), ids);
     }
 
-    public void deleteById(Long id) { registroConductaRepository.deleteById(id); }
-    public long count() { return registroConductaRepository.count(); }
-    public long countByEstado(String estado) { return registroConductaRepository.countByEstado(estado); }
-    public long countByLeido(boolean leido) { return registroConductaRepository.countByLeido(leido); }
-    public long countByDocenteId(Long docenteId) { return registroConductaRepository.countByDocenteId(docenteId); }
+    @Transactional
+    public void deleteById(Long id) {
+        // Se carga antes de borrar para que los contadores en memoria sepan qué descontar
+        registroConductaRepository.findById(id).ifPresent(registro -> {
+            registroConductaRepository.delete(registro);
+            publicar(RegistroConductaEvent.Tipo.ELIMINADO, registro);
+        });
+    }
+    // Conteos de los paneles: salen del índice en memoria; hasta que termine de cargarse, las
+    // peticiones simultáneas comparten una sola consulta
+    public long count() {
+        return indiceIncidentesService.isInicializado()
+                ? indiceIncidentesService.contar(null)
+                : singleFlight.ejecutar("incidentes:count", registroConductaRepository::count);
+    }
+    public long countByEstado(String estado) {
+        if (indiceIncidentesService.isInicializado()) {
+            FiltroIncidentesDTO filtro = new FiltroIncidentesDTO();
+            filtro.setEstado(estado);
+            return indiceIncidentesService.contar(filtro);
+        }
+        return singleFlight.ejecutar("incidentes:estado:" + estado, () -> registroConductaRepository.countByEstado(estado));
+    }
+    public long countByLeido(boolean leido) {
+        if (indiceIncidentesService.isInicializado()) {
+            FiltroIncidentesDTO filtro = new FiltroIncidentesDTO();
+            filtro.setLeido(leido);
+            return indiceIncidentesService.contar(filtro);
+        }
+        return singleFlight.ejecutar("incidentes:leido:" + leido, () -> registroConductaRepository.countByLeido(leido));
+    }
+    public long countByDocenteId(Long docenteId) { return actividadDocentesService.countIncidentesByDocenteId(docenteId); }
     public long countByEstudianteId(Long estudianteId) { return registroConductaRepository.countByEstudianteId(estudianteId); }
+    public long countNoLeidosByEstudianteId(Long estudianteId) { return noLeidosEstudiantesService.countIncidentesNoLeidos(estudianteId); }
+
+    /** Incidentes por estudiante en una sola consulta agrupada (estudianteId → total), para los listados. */
+    public Map<Long, Long> countPorEstudiante() {
+        Map<Long, Long> conteos = new HashMap<>();
+        for (Object[] fila : registroConductaRepository.countPorEstudiante()) {
+            conteos.put((Long) fila[0], (Long) fila[1]);
+        }
+        return conteos;
+    }
 
     public List<RegistroConducta> findRecent(int count) {
         // Simplified this logic
@@ -87,8 +264,30 @@ public class RegistroConductaService {
     // --- ✅ MÉTODO GUARDAR AÑADIDO ---
     @Transactional // Good practice to add Transactional for save operations
     public RegistroConducta guardar(RegistroConducta registroConducta) {
-        // It simply calls the repository's save method
-        return registroConductaRepository.save(registroConducta);
+        boolean nuevo = registroConducta.getIdRegistro() == null;
+        if (nuevo) {
+            RegistroConducta guardado = registroConductaRepository.save(registroConducta);
+            publicar(RegistroConductaEvent.Tipo.CREADO, guardado);
+            return guardado;
+        }
+        // Una edición puede cambiar el estudiante o el docente: los contadores recuentan ambas claves
+        RegistroConductaEvent.Anterior anterior = registroConductaRepository
+                .findClavesById(registroConducta.getIdRegistro()).stream()
+                .findFirst()
+                .map(fila -> new RegistroConductaEvent.Anterior((Long) fila[0], (Long) fila[1],
+                        (String) fila[2], (String) fila[3]))
+                .orElse(null);
+        RegistroConducta guardado = registroConductaRepository.save(registroConducta);
+        eventPublisher.publishEvent(RegistroConductaEvent.de(RegistroConductaEvent.Tipo.ACTUALIZADO, guardado, anterior));
+        return guardado;
     }
     // ---------------------------------
+
+    /**
+     * Publica el cambio para los consumidores en memoria (contadores, índices).
+     * Los listeners lo reciben tras el commit, así un rollback no altera los contadores.
+     */
+    private void publicar(RegistroConductaEvent.Tipo tipo, RegistroConducta registro) {
+        eventPublisher.publishEvent(RegistroConductaEvent.de(tipo, registro));
+    }
 }
\ No newline at end of file
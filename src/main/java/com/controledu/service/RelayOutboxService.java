@@ -0,0 +1,150 @@
+package com.controledu.service;
+
+import com.controledu.model.CheckpointOutbox;
+import com.controledu.model.EventoOutbox;
+import com.controledu.repository.CheckpointOutboxRepository;
+import com.controledu.repository.EventoOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relay local del outbox: entrega los eventos pendientes a cada {@link SinkOutbox} registrado.
+ *
+ * Por cada sink lee lotes ordenados por id a partir de su checkpoint y lo avanza solo después de
+ * una entrega exitosa (al menos una vez). Solo se leen filas con más de
+ * {@code controledu.outbox.asentamiento-ms} de antigüedad: los ids AUTO_INCREMENT se asignan al
+ * insertar, no al confirmar, y una transacción con un id menor podría confirmar después de que
+ * el relay ya avanzara más allá. Las filas entregadas a todos los sinks se purgan al superar
+ * {@code controledu.outbox.retencion-horas}.
+ *
+ * Pensado para una sola instancia del relay; con varios nodos, el primer lote podría entregarse
+ * dos veces, lo cual sigue siendo compatible con la entrega al menos una vez.
+ */
+@Slf4j
+@Service
+public class RelayOutboxService {
+
+    /** Lotes por sink en cada ciclo, para no acaparar el hilo de tareas programadas */
+    private static final int MAX_LOTES_POR_CICLO = 20;
+
+    private final List<SinkOutbox> sinks;
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final CheckpointOutboxRepository checkpointOutboxRepository;
+
+    private final boolean habilitado;
+    private final int tamanioLote;
+    private final Duration asentamiento;
+    private final Duration retencion;
+
+    public RelayOutboxService(List<SinkOutbox> sinks,
+                              EventoOutboxRepository eventoOutboxRepository,
+                              CheckpointOutboxRepository checkpointOutboxRepository,
+                              @Value("${controledu.outbox.habilitado:true}") boolean habilitado,
+                              @Value("${controledu.outbox.tamanio-lote:500}") int tamanioLote,
+                              @Value("${controledu.outbox.asentamiento-ms:2000}") long asentamientoMs,
+                              @Value("${controledu.outbox.retencion-horas:72}") long retencionHoras) {
+        this.sinks = sinks;
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.checkpointOutboxRepository = checkpointOutboxRepository;
+        this.habilitado = habilitado;
+        this.tamanioLote = tamanioLote;
+        this.asentamiento = Duration.ofMillis(asentamientoMs);
+        this.retencion = Duration.ofHours(retencionHoras);
+    }
+
+    // ================================================================
+    // ENTREGA
+    // ================================================================
+
+    @Scheduled(fixedDelayString = "${controledu.outbox.intervalo-ms:1000}")
+    public void drenar() {
+        if (!habilitado || sinks.isEmpty()) {
+            return;
+        }
+        LocalDateTime hasta = LocalDateTime.now().minus(asentamiento);
+        for (SinkOutbox sink : sinks) {
+            try {
+                drenar(sink, hasta);
+            } catch (RuntimeException e) {
+                log.warn("Error leyendo el outbox para {}: {}", sink.nombre(), e.getMessage());
+            }
+        }
+    }
+
+    private void drenar(SinkOutbox sink, LocalDateTime hasta) {
+        CheckpointOutbox checkpoint = checkpoint(sink.nombre());
+        for (int i = 0; i < MAX_LOTES_POR_CICLO; i++) {
+            List<EventoOutbox> lote = eventoOutboxRepository
+                    .findByIdEventoGreaterThanAndCreadoEnLessThanEqualOrderByIdEventoAsc(
+                            checkpoint.getUltimoId(), hasta, Limit.of(tamanioLote));
+            if (lote.isEmpty()) {
+                return;
+            }
+            try {
+                sink.enviar(lote);
+            } catch (Exception e) {
+                // Sin avanzar el checkpoint: el mismo lote se reintenta en el próximo ciclo
+                log.warn("El sink {} rechazó el lote desde el id {}: {}",
+                        sink.nombre(), lote.get(0).getIdEvento(), e.getMessage());
+                return;
+            }
+            checkpoint.setUltimoId(lote.get(lote.size() - 1).getIdEvento());
+            checkpoint.setActualizadoEn(LocalDateTime.now());
+            checkpoint = checkpointOutboxRepository.save(checkpoint);
+            if (lote.size() < tamanioLote) {
+                return;
+            }
+        }
+    }
+
+    private CheckpointOutbox checkpoint(String sink) {
+        return checkpointOutboxRepository.findById(sink).orElseGet(() -> {
+            CheckpointOutbox nuevo = new CheckpointOutbox();
+            nuevo.setSink(sink);
+            return nuevo;
+        });
+    }
+
+    // ================================================================
+    // PURGA Y ESTADO
+    // ================================================================
+
+    /**
+     * Elimina los eventos ya entregados a todos los sinks y más antiguos que la retención.
+     * Sin sinks registrados solo se aplica la retención.
+     */
+    @Scheduled(fixedDelayString = "${controledu.outbox.purga-ms:3600000}")
+    @Transactional
+    public void purgar() {
+        if (!habilitado) {
+            return;
+        }
+        long hastaId = Long.MAX_VALUE;
+        for (SinkOutbox sink : sinks) {
+            hastaId = Math.min(hastaId, checkpoint(sink.nombre()).getUltimoId());
+        }
+        int eliminados = eventoOutboxRepository.purgar(hastaId, LocalDateTime.now().minus(retencion));
+        if (eliminados > 0) {
+            log.info("Outbox: {} eventos entregados purgados", eliminados);
+        }
+    }
+
+    /** Eventos pendientes por sink. */
+    public Map<String, Long> pendientesPorSink() {
+        Map<String, Long> pendientes = new LinkedHashMap<>();
+        for (SinkOutbox sink : sinks) {
+            pendientes.put(sink.nombre(), eventoOutboxRepository.countByIdEventoGreaterThan(checkpoint(sink.nombre()).getUltimoId()));
+        }
+        return pendientes;
+    }
+}
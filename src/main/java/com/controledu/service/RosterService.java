@@ -0,0 +1,232 @@
+package com.controledu.service;
+
+import com.controledu.dto.EstudianteResumenDTO;
+import com.controledu.repository.EstudianteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Roster de estudiantes en memoria, compartido por los listados y formularios de docentes y director.
+ *
+ * Se publica como una instantánea inmutable y versionada: los lectores obtienen la referencia
+ * actual sin bloqueo y nunca ven un estado a medias. Las altas, ediciones y bajas de
+ * {@link EstudianteService} la parchean (copiando la instantánea con la fila cambiada); una
+ * importación masiva la invalida y la siguiente lectura la reconstruye con una sola consulta.
+ *
+ * Cada cambio local se anuncia a los demás nodos por {@link CoherenciaCacheService}; al recibir uno
+ * remoto, se relee solo la fila afectada.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RosterService implements CacheCoherente {
+
+    /** Orden de los listados: grado, sección, apellidos, nombres */
+    private static final Comparator<EstudianteResumenDTO> ORDEN =
+            Comparator.comparing(EstudianteResumenDTO::getGrado, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(EstudianteResumenDTO::getSeccion, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(EstudianteResumenDTO::getApellidos, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(EstudianteResumenDTO::getNombres, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final EstudianteRepository estudianteRepository;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    private volatile Instantanea actual;
+    private long ultimaVersion;
+
+    /**
+     * Estado inmutable del roster en una versión dada, con índices por grado y por grado y sección.
+     */
+    public static final class Instantanea {
+
+        private final long version;
+        private final List<EstudianteResumenDTO> estudiantes;
+        private final Map<Long, EstudianteResumenDTO> porId;
+        private final Map<String, List<EstudianteResumenDTO>> porGrado;
+        private final Map<String, List<EstudianteResumenDTO>> porGradoSeccion;
+        private final List<String> grados;
+        private final List<String> secciones;
+
+        Instantanea(long version, List<EstudianteResumenDTO> filas) {
+            List<EstudianteResumenDTO> ordenadas = new ArrayList<>(filas);
+            ordenadas.sort(ORDEN);
+
+            Map<Long, EstudianteResumenDTO> ids = new HashMap<>(ordenadas.size() * 2);
+            Map<String, List<EstudianteResumenDTO>> grado = new LinkedHashMap<>();
+            Map<String, List<EstudianteResumenDTO>> gradoSeccion = new LinkedHashMap<>();
+            TreeSet<String> valoresGrado = new TreeSet<>();
+            TreeSet<String> valoresSeccion = new TreeSet<>();
+            for (EstudianteResumenDTO fila : ordenadas) {
+                ids.put(fila.getId(), fila);
+                grado.computeIfAbsent(fila.getGrado(), g -> new ArrayList<>()).add(fila);
+                gradoSeccion.computeIfAbsent(clave(fila.getGrado(), fila.getSeccion()), g -> new ArrayList<>()).add(fila);
+                if (fila.getGrado() != null) {
+                    valoresGrado.add(fila.getGrado());
+                }
+                if (fila.getSeccion() != null) {
+                    valoresSeccion.add(fila.getSeccion());
+                }
+            }
+            grado.replaceAll((g, lista) -> Collections.unmodifiableList(lista));
+            gradoSeccion.replaceAll((g, lista) -> Collections.unmodifiableList(lista));
+
+            this.version = version;
+            this.estudiantes = Collections.unmodifiableList(ordenadas);
+            this.porId = Collections.unmodifiableMap(ids);
+            this.porGrado = Collections.unmodifiableMap(grado);
+            this.porGradoSeccion = Collections.unmodifiableMap(gradoSeccion);
+            this.grados = List.copyOf(valoresGrado);
+            this.secciones = List.copyOf(valoresSeccion);
+        }
+
+        private static String clave(String grado, String seccion) {
+            return grado + "\u0000" + seccion;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<EstudianteResumenDTO> getEstudiantes() {
+            return estudiantes;
+        }
+
+        public Optional<EstudianteResumenDTO> findById(Long id) {
+            return Optional.ofNullable(porId.get(id));
+        }
+
+        public List<EstudianteResumenDTO> findByGrado(String grado) {
+            return porGrado.getOrDefault(grado, List.of());
+        }
+
+        public List<EstudianteResumenDTO> findByGradoAndSeccion(String grado, String seccion) {
+            return porGradoSeccion.getOrDefault(clave(grado, seccion), List.of());
+        }
+
+        public List<String> getGrados() {
+            return grados;
+        }
+
+        public List<String> getSecciones() {
+            return secciones;
+        }
+
+        public int size() {
+            return estudiantes.size();
+        }
+    }
+
+    // ================================================================
+    // LECTURA
+    // ================================================================
+
+    /**
+     * Instantánea vigente; si no hay ninguna (arranque o tras una invalidación) se construye.
+     * Las lecturas concurrentes durante la construcción esperan la misma consulta.
+     */
+    public Instantanea instantanea() {
+        Instantanea instantanea = actual;
+        return instantanea != null ? instantanea : reconstruir();
+    }
+
+    public List<EstudianteResumenDTO> findAll() {
+        return instantanea().getEstudiantes();
+    }
+
+    // ================================================================
+    // ACTUALIZACIÓN
+    // ================================================================
+
+    private synchronized Instantanea reconstruir() {
+        if (actual != null) {
+            return actual;
+        }
+        long inicio = System.nanoTime();
+        Instantanea nueva = new Instantanea(++ultimaVersion, estudianteRepository.findAllResumen());
+        actual = nueva;
+        log.info("Roster en memoria construido: {} estudiantes, versión {} ({} ms)",
+                nueva.size(), nueva.getVersion(), (System.nanoTime() - inicio) / 1_000_000);
+        return nueva;
+    }
+
+    /** Aplica el alta o edición de un estudiante ya confirmada en la base de datos. */
+    public void guardado(EstudianteResumenDTO fila) {
+        coherenciaCacheService.publicar(nombreCache(), String.valueOf(fila.getId()), parchear(fila));
+    }
+
+    /** Aplica la baja de un estudiante ya confirmada en la base de datos. */
+    public void eliminado(Long id) {
+        coherenciaCacheService.publicar(nombreCache(), String.valueOf(id), quitar(id));
+    }
+
+    /** Descarta la instantánea; la siguiente lectura la reconstruye desde la base de datos. */
+    public void invalidar() {
+        coherenciaCacheService.publicar(nombreCache(), CoherenciaCacheService.TODAS, descartar());
+    }
+
+    private synchronized long parchear(EstudianteResumenDTO fila) {
+        Instantanea anterior = actual;
+        if (anterior == null) {
+            return ultimaVersion;
+        }
+        List<EstudianteResumenDTO> filas = new ArrayList<>(anterior.size() + 1);
+        for (EstudianteResumenDTO existente : anterior.getEstudiantes()) {
+            if (!existente.getId().equals(fila.getId())) {
+                filas.add(existente);
+            }
+        }
+        filas.add(fila);
+        actual = new Instantanea(++ultimaVersion, filas);
+        return ultimaVersion;
+    }
+
+    private synchronized long quitar(Long id) {
+        Instantanea anterior = actual;
+        if (anterior == null || anterior.findById(id).isEmpty()) {
+            return ultimaVersion;
+        }
+        List<EstudianteResumenDTO> filas = new ArrayList<>(anterior.getEstudiantes());
+        filas.removeIf(fila -> fila.getId().equals(id));
+        actual = new Instantanea(++ultimaVersion, filas);
+        return ultimaVersion;
+    }
+
+    private synchronized long descartar() {
+        actual = null;
+        return ultimaVersion;
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return "roster";
+    }
+
+    /** Relee de la base de datos la fila cambiada en otro nodo (o todo el roster si la clave es "*"). */
+    @Override
+    public void invalidarRemoto(String clave) {
+        if (CoherenciaCacheService.TODAS.equals(clave)) {
+            descartar();
+            return;
+        }
+        if (actual == null) {
+            return;
+        }
+        Long id = Long.valueOf(clave);
+        estudianteRepository.findResumenById(id).ifPresentOrElse(this::parchear, () -> quitar(id));
+    }
+}
@@ -0,0 +1,63 @@
+package com.controledu.service;
+
+import com.controledu.dto.ParametrosGeneracionDTO;
+import com.controledu.repository.EstudianteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Datos iniciales para una base de datos vacía.
+ *
+ * Crea los tipos de gravedad por defecto y, si no hay estudiantes, genera con
+ * {@link GeneradorDatosService} el volumen configurado en {@code controledu.semilla.*}: catálogo de
+ * conductas, las cuentas {@code director/director}, {@code docenteN/docenteN} y
+ * {@code estudianteN/estudianteN}, incidentes y observaciones. Con la misma semilla dos arranques
+ * producen los mismos datos.
+ *
+ * Si ya hay estudiantes no inserta nada más: se puede dejar activo contra una base persistente.
+ */
+@Slf4j
+@Service
+public class SemillaDatosService {
+
+    private final TipoGravedadService tipoGravedadService;
+    private final EstudianteRepository estudianteRepository;
+    private final GeneradorDatosService generadorDatosService;
+    private final ParametrosGeneracionDTO parametros = new ParametrosGeneracionDTO();
+
+    public SemillaDatosService(TipoGravedadService tipoGravedadService,
+                               EstudianteRepository estudianteRepository,
+                               GeneradorDatosService generadorDatosService,
+                               @Value("${controledu.semilla.grados:9}") int grados,
+                               @Value("${controledu.semilla.secciones-por-grado:3}") int seccionesPorGrado,
+                               @Value("${controledu.semilla.estudiantes-por-seccion:30}") int estudiantesPorSeccion,
+                               @Value("${controledu.semilla.docentes-por-materia:2}") int docentesPorMateria,
+                               @Value("${controledu.semilla.anios:1}") int anios,
+                               @Value("${controledu.semilla.incidentes:10000}") long incidentes,
+                               @Value("${controledu.semilla.observaciones:3000}") long observaciones,
+                               @Value("${controledu.semilla.zipf:1.1}") double exponenteZipf,
+                               @Value("${controledu.semilla.valor:42}") long semilla) {
+        this.tipoGravedadService = tipoGravedadService;
+        this.estudianteRepository = estudianteRepository;
+        this.generadorDatosService = generadorDatosService;
+        parametros.setGrados(Math.max(1, grados));
+        parametros.setSeccionesPorGrado(Math.max(1, Math.min(26, seccionesPorGrado)));
+        parametros.setEstudiantesPorSeccion(Math.max(1, estudiantesPorSeccion));
+        parametros.setDocentesPorMateria(Math.max(1, docentesPorMateria));
+        parametros.setAnios(Math.max(1, anios));
+        parametros.setIncidentes(Math.max(0, incidentes));
+        parametros.setObservaciones(Math.max(0, observaciones));
+        parametros.setExponenteZipf(exponenteZipf);
+        parametros.setSemilla(semilla);
+    }
+
+    public void sembrar() {
+        tipoGravedadService.initializeDefaultGravedades();
+        if (estudianteRepository.count() > 0) {
+            log.info("La base de datos ya tiene estudiantes; no se siembran datos sintéticos");
+            return;
+        }
+        generadorDatosService.generar(parametros);
+    }
+}
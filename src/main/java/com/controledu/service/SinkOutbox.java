@@ -0,0 +1,21 @@
+package com.controledu.service;
+
+import com.controledu.model.EventoOutbox;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox (sincronización con el SIS, correo, data warehouse...).
+ *
+ * RelayOutboxService entrega a cada sink los eventos en orden de id y en lotes, y solo avanza su
+ * checkpoint cuando {@link #enviar(List)} termina sin error. La entrega es "al menos una vez": tras
+ * un fallo o un reinicio el mismo lote puede repetirse, así que el destino debe deduplicar por id.
+ */
+public interface SinkOutbox {
+
+    /** Nombre único del destino; identifica su checkpoint. */
+    String nombre();
+
+    /** Entrega un lote ordenado. Cualquier excepción hace que el lote se reintente. */
+    void enviar(List<EventoOutbox> lote) throws Exception;
+}
@@ -0,0 +1,71 @@
+package com.controledu.service;
+
+import com.controledu.model.EventoOutbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink del outbox que agrega cada evento como una línea JSON (NDJSON) a un archivo local.
+ * Pensado para pruebas e integraciones simples: el archivo crece sin límite, por eso está apagado
+ * por defecto y se activa con {@code controledu.outbox.ndjson.habilitado} (el perfil embebido lo hace).
+ * El nombre del checkpoint no incluye la ruta, así que moverla no vuelve a entregar el historial.
+ */
+@Service
+@ConditionalOnProperty(name = "controledu.outbox.ndjson.habilitado", havingValue = "true")
+public class SinkOutboxNdjson implements SinkOutbox {
+
+    private final ObjectMapper objectMapper;
+    private final Path ruta;
+
+    public SinkOutboxNdjson(ObjectMapper objectMapper,
+                            @Value("${controledu.outbox.ndjson.ruta:data/outbox.ndjson}") String ruta) {
+        this.objectMapper = objectMapper;
+        this.ruta = Paths.get(ruta);
+    }
+
+    @Override
+    public String nombre() {
+        return "ndjson";
+    }
+
+    @Override
+    public void enviar(List<EventoOutbox> lote) throws IOException {
+        StringBuilder lineas = new StringBuilder(lote.size() * 256);
+        for (EventoOutbox evento : lote) {
+            ObjectNode linea = objectMapper.createObjectNode();
+            linea.put("id", evento.getIdEvento());
+            linea.put("agregado", evento.getAgregado());
+            linea.put("agregadoId", evento.getAgregadoId());
+            linea.put("tipo", evento.getTipo());
+            linea.put("creadoEn", evento.getCreadoEn().toString());
+            linea.set("payload", objectMapper.readTree(evento.getPayload()));
+            lineas.append(objectMapper.writeValueAsString(linea)).append('\n');
+        }
+
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        try (FileChannel canal = FileChannel.open(ruta,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            // Debe quedar en disco antes de que el relay avance el checkpoint
+            canal.force(false);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.controledu.service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Utilidades de lectura/escritura binaria compartidas por las secciones del snapshot.
+ * Todo se escribe en big-endian (DataOutputStream) y se lee desde un ByteBuffer mapeado.
+ */
+final class SnapshotFormato {
+
+    private SnapshotFormato() {
+    }
+
+    static void escribirTexto(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String leerTexto(ByteBuffer in) {
+        int longitud = in.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void escribirInts(DataOutputStream out, int[] valores, int cantidad) throws IOException {
+        out.writeInt(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            out.writeInt(valores[i]);
+        }
+    }
+
+    /** Lee un arreglo escrito con {@link #escribirInts} reservando al menos {@code capacidadMinima}. */
+    static int[] leerInts(ByteBuffer in, int capacidadMinima) {
+        int cantidad = in.getInt();
+        int[] valores = new int[Math.max(cantidad, capacidadMinima)];
+        in.asIntBuffer().get(valores, 0, cantidad);
+        in.position(in.position() + cantidad * Integer.BYTES);
+        return valores;
+    }
+
+    static void escribirBits(DataOutputStream out, BitSet bits) throws IOException {
+        long[] palabras = bits.toLongArray();
+        out.writeInt(palabras.length);
+        for (long palabra : palabras) {
+            out.writeLong(palabra);
+        }
+    }
+
+    static BitSet leerBits(ByteBuffer in) {
+        int cantidad = in.getInt();
+        long[] palabras = new long[cantidad];
+        in.asLongBuffer().get(palabras);
+        in.position(in.position() + cantidad * Long.BYTES);
+        return BitSet.valueOf(palabras);
+    }
+}
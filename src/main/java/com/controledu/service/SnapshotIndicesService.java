@@ -0,0 +1,544 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.EventoOutbox;
+import com.controledu.model.Observacion;
+import com.controledu.model.RegistroConducta;
+import com.controledu.repository.EventoOutboxRepository;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongFunction;
+
+/**
+ * Coordina las estructuras en memoria ({@link IndiceEnMemoria}) y su snapshot en disco.
+ *
+ * Al arrancar mapea el archivo de snapshot en memoria, restaura cada sección cuya versión coincida
+ * y la pone al día; las secciones que falten o estén desactualizadas se reconstruyen desde la base
+ * de datos. El snapshot se escribe
+ * periódicamente y al cerrar la aplicación, primero a un archivo temporal y luego con un
+ * movimiento atómico, así un corte a mitad de escritura nunca deja un archivo a medias.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int    MAGIC, int VERSION_FORMATO, long capturadoEn (epoch ms)
+ * marca de agua de registros y de observaciones (máximo id + ids recientes aplicados)
+ * int    cantidad de secciones
+ *        por sección: texto nombre, int versión, long longitud, bytes
+ * int    MAGIC_FIN
+ * </pre>
+ *
+ * Puesta al día en dos pasos:
+ * <ol>
+ *   <li>Las altas posteriores a la marca de agua se aplican como eventos CREADO, leyendo las tablas.</li>
+ *   <li>Los cambios del outbox desde la captura (menos {@link #MARGEN_OUTBOX}) no se pueden volver a
+ *       aplicar como eventos, porque no se sabe cuáles ya estaban en el snapshot y los contadores no son
+ *       idempotentes. En su lugar, cada estructura vuelve a leer de la base de datos las claves que
+ *       esos cambios afectan ({@link IndiceEnMemoria#clavesAfectadas}), lo mismo que hace con una
+ *       invalidación de otro nodo. Si son más de {@link #MAXIMO_CLAVES_REFRESCO}, se reconstruye.</li>
+ * </ol>
+ * Sin outbox, o con un snapshot más antiguo que {@code controledu.snapshot.edad-maxima-horas} o que
+ * la retención del outbox, se descarta y se reconstruye todo.
+ *
+ * El arranque corre con el servidor web ya aceptando peticiones, así que no retiene el mutex: los
+ * eventos que llegan mientras tanto se anotan en un diario y, al terminar, cada estructura vuelve a
+ * leer las claves que tocan, igual que con los cambios del outbox.
+ */
+@Slf4j
+@Service
+public class SnapshotIndicesService {
+
+    private static final int MAGIC = 0x43454458;     // "CEDX"
+    private static final int MAGIC_FIN = 0x46494E58; // "FINX"
+    private static final int VERSION_FORMATO = 1;
+
+    /**
+     * Ids por debajo del máximo que se vuelven a revisar al reproducir. Cubre transacciones que
+     * obtuvieron su id antes que otras pero confirmaron después de que se tomara el snapshot.
+     */
+    static final int MARGEN_IDS = 1000;
+
+    /**
+     * Antigüedad extra de los cambios del outbox que se revisan: cubre la demora entre el
+     * {@code creado_en} (antes del commit) y la aplicación del evento, y el desfase de relojes
+     * entre nodos. Volver a leer una clave es idempotente, así que sobrar no cuesta más que consultas.
+     */
+    static final Duration MARGEN_OUTBOX = Duration.ofMinutes(1);
+
+    /** Claves por estructura por encima de las cuales conviene reconstruirla entera. */
+    static final int MAXIMO_CLAVES_REFRESCO = 2000;
+
+    private static final int LOTE_OUTBOX = 1000;
+
+    private final List<IndiceEnMemoria> indices;
+    private final RegistroConductaRepository registroConductaRepository;
+    private final ObservacionRepository observacionRepository;
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    private final boolean habilitado;
+    private final Path ruta;
+    private final Duration edadMaxima;
+    private final boolean outboxHabilitado;
+    private final Duration retencionOutbox;
+
+    /** Serializa la aplicación de eventos con la captura del snapshot. */
+    private final Object mutex = new Object();
+    /** Serializa la escritura del archivo (tarea programada y cierre). */
+    private final Object archivo = new Object();
+
+    private MarcaDeAgua registros = new MarcaDeAgua();
+    private MarcaDeAgua observaciones = new MarcaDeAgua();
+    /** Momento de captura del snapshot restaurado (epoch ms) */
+    private long capturadoEn;
+    private volatile boolean listo = false;
+    /** Eventos confirmados durante el arranque, pendientes de releer; null fuera del arranque. Bajo el mutex. */
+    private List<Object> diario;
+
+    public SnapshotIndicesService(List<IndiceEnMemoria> indices,
+                                  RegistroConductaRepository registroConductaRepository,
+                                  ObservacionRepository observacionRepository,
+                                  EventoOutboxRepository eventoOutboxRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${controledu.snapshot.habilitado:true}") boolean habilitado,
+                                  @Value("${controledu.snapshot.ruta:data/indices.snap}") String ruta,
+                                  @Value("${controledu.snapshot.edad-maxima-horas:24}") long edadMaximaHoras,
+                                  @Value("${controledu.outbox.habilitado:true}") boolean outboxHabilitado,
+                                  @Value("${controledu.outbox.retencion-horas:72}") long retencionOutboxHoras) {
+        this.indices = indices;
+        this.registroConductaRepository = registroConductaRepository;
+        this.observacionRepository = observacionRepository;
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+        this.ruta = Paths.get(ruta);
+        this.edadMaxima = Duration.ofHours(edadMaximaHoras);
+        this.outboxHabilitado = outboxHabilitado;
+        this.retencionOutbox = Duration.ofHours(retencionOutboxHoras);
+    }
+
+    // ================================================================
+    // ARRANQUE
+    // ================================================================
+
+    /**
+     * Restaura o reconstruye las estructuras fuera del mutex, para no dejar esperando a las
+     * peticiones que confirman cambios mientras tanto. Esos eventos quedan en el diario y después
+     * se releen de la base de datos las claves que afectan: releer es idempotente, así que no
+     * importa si la consulta de la reconstrucción ya los había visto. Se repite hasta encontrar el
+     * diario vacío bajo el mutex; desde ahí los eventos se aplican directamente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        long inicio = System.currentTimeMillis();
+        synchronized (mutex) {
+            diario = new ArrayList<>();
+        }
+        Set<IndiceEnMemoria> restaurados = habilitado ? restaurar() : Set.of();
+
+        for (IndiceEnMemoria indice : indices) {
+            if (!restaurados.contains(indice)) {
+                indice.reconstruir();
+            }
+        }
+
+        if (restaurados.isEmpty()) {
+            registros = MarcaDeAgua.desde(registroConductaRepository.findMaxId(),
+                    registroConductaRepository::findIdsMayoresA);
+            observaciones = MarcaDeAgua.desde(observacionRepository.findMaxId(),
+                    observacionRepository::findIdsMayoresA);
+        } else {
+            reproducir(restaurados);
+        }
+
+        int releidas = 0;
+        while (true) {
+            List<Object> pendientes;
+            synchronized (mutex) {
+                if (diario.isEmpty()) {
+                    diario = null;
+                    listo = true;
+                    break;
+                }
+                pendientes = diario;
+                diario = new ArrayList<>();
+                pendientes.forEach(this::registrarAlta);
+            }
+            Map<IndiceEnMemoria, Set<String>> claves = new HashMap<>();
+            pendientes.forEach(evento -> anotarClaves(evento, indices, claves));
+            releidas += releer(claves);
+        }
+        log.info("Índices en memoria listos en {} ms ({} de {} restaurados del snapshot, {} claves releídas por cambios durante el arranque)",
+                System.currentTimeMillis() - inicio, restaurados.size(), indices.size(), releidas);
+    }
+
+    /**
+     * Mapea el snapshot y restaura las secciones válidas. Devuelve las estructuras restauradas;
+     * ante cualquier problema con el archivo devuelve un conjunto vacío para reconstruir todo.
+     */
+    private Set<IndiceEnMemoria> restaurar() {
+        if (!Files.isReadable(ruta)) {
+            log.info("No hay snapshot de índices en {}", ruta.toAbsolutePath());
+            return Set.of();
+        }
+        if (!outboxHabilitado) {
+            log.info("Sin outbox no se pueden recuperar los cambios posteriores al snapshot, se reconstruye");
+            return Set.of();
+        }
+        Set<IndiceEnMemoria> restaurados = new HashSet<>();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.limit() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION_FORMATO
+                    || buffer.getInt(buffer.limit() - Integer.BYTES) != MAGIC_FIN) {
+                log.warn("Snapshot de índices con formato desconocido o incompleto, se ignora");
+                return Set.of();
+            }
+            long capturado = buffer.getLong();
+            Duration edad = Duration.ofMillis(System.currentTimeMillis() - capturado);
+            if (edad.compareTo(edadMaxima) > 0 || edad.plus(MARGEN_OUTBOX).compareTo(retencionOutbox) >= 0) {
+                log.info("Snapshot de índices con {} h de antigüedad, se reconstruye", edad.toHours());
+                return Set.of();
+            }
+            MarcaDeAgua marcaRegistros = MarcaDeAgua.leer(buffer);
+            MarcaDeAgua marcaObservaciones = MarcaDeAgua.leer(buffer);
+
+            Map<String, IndiceEnMemoria> porNombre = new HashMap<>();
+            indices.forEach(indice -> porNombre.put(indice.nombre(), indice));
+
+            int secciones = buffer.getInt();
+            for (int i = 0; i < secciones; i++) {
+                String nombre = SnapshotFormato.leerTexto(buffer);
+                int version = buffer.getInt();
+                int longitud = Math.toIntExact(buffer.getLong());
+                int posicion = buffer.position();
+                IndiceEnMemoria indice = porNombre.get(nombre);
+                if (indice != null && indice.version() == version) {
+                    indice.leer(buffer.slice(posicion, longitud));
+                    restaurados.add(indice);
+                } else {
+                    log.info("Sección '{}' v{} del snapshot descartada", nombre, version);
+                }
+                buffer.position(posicion + longitud);
+            }
+            registros = marcaRegistros;
+            observaciones = marcaObservaciones;
+            capturadoEn = capturado;
+            return restaurados;
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo leer el snapshot de índices, se reconstruye: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * Pone al día las estructuras restauradas: altas posteriores a la marca de agua y claves
+     * afectadas por los cambios del outbox posteriores a la captura.
+     */
+    private void reproducir(Set<IndiceEnMemoria> restaurados) {
+        reproducirAltas(restaurados);
+        refrescarCambios(restaurados);
+    }
+
+    private void reproducirAltas(Set<IndiceEnMemoria> restaurados) {
+        int nuevos = 0;
+        for (RegistroConducta registro : registroConductaRepository
+                .findByIdRegistroGreaterThanOrderByIdRegistroAsc(registros.desdeParaReproducir())) {
+            if (registros.yaAplicado(registro.getIdRegistro())) {
+                continue;
+            }
+            RegistroConductaEvent evento = RegistroConductaEvent.de(RegistroConductaEvent.Tipo.CREADO, registro);
+            restaurados.forEach(indice -> indice.aplicar(evento));
+            registros.registrar(registro.getIdRegistro());
+            nuevos++;
+        }
+        for (Observacion observacion : observacionRepository
+                .findByIdObservacionGreaterThanOrderByIdObservacionAsc(observaciones.desdeParaReproducir())) {
+            if (observaciones.yaAplicado(observacion.getIdObservacion())) {
+                continue;
+            }
+            ObservacionEvent evento = ObservacionEvent.de(ObservacionEvent.Tipo.CREADO, observacion);
+            restaurados.forEach(indice -> indice.aplicar(evento));
+            observaciones.registrar(observacion.getIdObservacion());
+            nuevos++;
+        }
+        log.info("Reproducidas {} altas posteriores al snapshot", nuevos);
+    }
+
+    private void refrescarCambios(Set<IndiceEnMemoria> restaurados) {
+        Map<IndiceEnMemoria, Set<String>> claves = new HashMap<>();
+        LocalDateTime desde = LocalDateTime.ofInstant(Instant.ofEpochMilli(capturadoEn), ZoneId.systemDefault())
+                .minus(MARGEN_OUTBOX);
+        long ultimoId = 0;
+        int cambios = 0;
+        List<EventoOutbox> lote;
+        do {
+            lote = eventoOutboxRepository.findByCreadoEnGreaterThanEqualAndIdEventoGreaterThanOrderByIdEventoAsc(
+                    desde, ultimoId, Limit.of(LOTE_OUTBOX));
+            for (EventoOutbox fila : lote) {
+                ultimoId = fila.getIdEvento();
+                cambios++;
+                anotarClaves(leerEvento(fila), restaurados, claves);
+            }
+        } while (lote.size() == LOTE_OUTBOX);
+
+        int refrescadas = releer(claves);
+        log.info("{} cambios del outbox posteriores al snapshot: {} claves releídas", cambios, refrescadas);
+    }
+
+    /**
+     * Vuelve a leer de la base de datos las claves anotadas; la estructura con más de
+     * {@link #MAXIMO_CLAVES_REFRESCO} se reconstruye entera. Devuelve cuántas claves se releyeron.
+     */
+    private int releer(Map<IndiceEnMemoria, Set<String>> claves) {
+        int releidas = 0;
+        for (Map.Entry<IndiceEnMemoria, Set<String>> entrada : claves.entrySet()) {
+            IndiceEnMemoria indice = entrada.getKey();
+            if (entrada.getValue().size() > MAXIMO_CLAVES_REFRESCO) {
+                log.info("'{}' tiene {} claves modificadas, se reconstruye", indice.nombre(), entrada.getValue().size());
+                indice.reconstruir();
+                continue;
+            }
+            for (String clave : entrada.getValue()) {
+                ((CacheCoherente) indice).invalidarRemoto(clave);
+                releidas++;
+            }
+        }
+        return releidas;
+    }
+
+    private Object leerEvento(EventoOutbox fila) {
+        try {
+            return switch (fila.getAgregado()) {
+                case "INCIDENTE" -> objectMapper.readValue(fila.getPayload(), RegistroConductaEvent.class);
+                case "OBSERVACION" -> objectMapper.readValue(fila.getPayload(), ObservacionEvent.class);
+                default -> null;
+            };
+        } catch (IOException e) {
+            throw new IllegalStateException("Evento " + fila.getIdEvento() + " del outbox ilegible", e);
+        }
+    }
+
+    private static void anotarClaves(Object evento, Collection<IndiceEnMemoria> destino,
+                                     Map<IndiceEnMemoria, Set<String>> claves) {
+        for (IndiceEnMemoria indice : destino) {
+            if (!(indice instanceof CacheCoherente)) {
+                continue;
+            }
+            Set<String> afectadas = evento instanceof RegistroConductaEvent registro ? indice.clavesAfectadas(registro)
+                    : evento instanceof ObservacionEvent observacion ? indice.clavesAfectadas(observacion)
+                    : Set.of();
+            if (!afectadas.isEmpty()) {
+                claves.computeIfAbsent(indice, i -> new HashSet<>()).addAll(afectadas);
+            }
+        }
+    }
+
+    /** Anota en la marca de agua un alta recibida como evento. Bajo el mutex. */
+    private void registrarAlta(Object evento) {
+        if (evento instanceof RegistroConductaEvent registro
+                && registro.tipo() == RegistroConductaEvent.Tipo.CREADO && registro.idRegistro() != null) {
+            registros.registrar(registro.idRegistro());
+        } else if (evento instanceof ObservacionEvent observacion
+                && observacion.tipo() == ObservacionEvent.Tipo.CREADO && observacion.idObservacion() != null) {
+            observaciones.registrar(observacion.idObservacion());
+        }
+    }
+
+    // ================================================================
+    // DESPACHO DE EVENTOS
+    // ================================================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegistroConducta(RegistroConductaEvent evento) {
+        synchronized (mutex) {
+            if (diario != null) {
+                diario.add(evento);
+                return;
+            }
+            for (IndiceEnMemoria indice : indices) {
+                try {
+                    indice.aplicar(evento);
+                } catch (RuntimeException e) {
+                    log.error("Error aplicando {} en '{}'", evento.tipo(), indice.nombre(), e);
+                }
+            }
+            registrarAlta(evento);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onObservacion(ObservacionEvent evento) {
+        synchronized (mutex) {
+            if (diario != null) {
+                diario.add(evento);
+                return;
+            }
+            for (IndiceEnMemoria indice : indices) {
+                try {
+                    indice.aplicar(evento);
+                } catch (RuntimeException e) {
+                    log.error("Error aplicando {} en '{}'", evento.tipo(), indice.nombre(), e);
+                }
+            }
+            registrarAlta(evento);
+        }
+    }
+
+    // ================================================================
+    // ESCRITURA DEL SNAPSHOT
+    // ================================================================
+
+    @Scheduled(fixedDelayString = "${controledu.snapshot.intervalo-ms:300000}",
+            initialDelayString = "${controledu.snapshot.intervalo-ms:300000}")
+    public void escribirProgramado() {
+        if (habilitado && listo) {
+            escribir();
+        }
+    }
+
+    @PreDestroy
+    public void alCerrar() {
+        if (habilitado && listo) {
+            escribir();
+        }
+    }
+
+    /**
+     * Captura el estado de todas las estructuras bajo el mismo mutex que los eventos (para que la
+     * marca de agua corresponda exactamente al contenido) y lo escribe fuera del mutex.
+     */
+    public void escribir() {
+        long inicio = System.currentTimeMillis();
+        try {
+            ByteArrayOutputStream contenido = new ByteArrayOutputStream(1 << 20);
+            DataOutputStream datos = new DataOutputStream(contenido);
+            long capturado;
+            synchronized (mutex) {
+                capturado = System.currentTimeMillis();
+                registros.escribir(datos);
+                observaciones.escribir(datos);
+                datos.writeInt(indices.size());
+                for (IndiceEnMemoria indice : indices) {
+                    ByteArrayOutputStream seccion = new ByteArrayOutputStream();
+                    indice.escribir(new DataOutputStream(seccion));
+                    SnapshotFormato.escribirTexto(datos, indice.nombre());
+                    datos.writeInt(indice.version());
+                    datos.writeLong(seccion.size());
+                    seccion.writeTo(datos);
+                }
+            }
+
+            synchronized (archivo) {
+                Path absoluta = ruta.toAbsolutePath();
+                Files.createDirectories(absoluta.getParent());
+                Path temporal = absoluta.resolveSibling(absoluta.getFileName() + ".tmp");
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporal), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION_FORMATO);
+                    out.writeLong(capturado);
+                    contenido.writeTo(out);
+                    out.writeInt(MAGIC_FIN);
+                }
+                Files.move(temporal, absoluta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.debug("Snapshot de índices escrito ({} bytes) en {} ms",
+                    contenido.size(), System.currentTimeMillis() - inicio);
+        } catch (IOException e) {
+            log.warn("No se pudo escribir el snapshot de índices: {}", e.getMessage());
+        }
+    }
+
+    // ================================================================
+    // MARCA DE AGUA
+    // ================================================================
+
+    /**
+     * Máximo id aplicado y los ids aplicados dentro de los últimos {@link #MARGEN_IDS},
+     * para reproducir sin duplicar ni saltarse filas confirmadas fuera de orden.
+     * Se accede siempre bajo el mutex del servicio.
+     */
+    static final class MarcaDeAgua {
+
+        private long maximo;
+        private final TreeSet<Long> recientes = new TreeSet<>();
+
+        static MarcaDeAgua desde(Long maximo, LongFunction<List<Long>> idsMayoresA) {
+            MarcaDeAgua marca = new MarcaDeAgua();
+            if (maximo != null) {
+                marca.maximo = maximo;
+                marca.recientes.addAll(idsMayoresA.apply(marca.desdeParaReproducir()));
+            }
+            return marca;
+        }
+
+        void registrar(long id) {
+            maximo = Math.max(maximo, id);
+            recientes.add(id);
+            recientes.headSet(desdeParaReproducir(), true).clear();
+        }
+
+        long desdeParaReproducir() {
+            return Math.max(0, maximo - MARGEN_IDS);
+        }
+
+        boolean yaAplicado(long id) {
+            return id <= desdeParaReproducir() || recientes.contains(id);
+        }
+
+        void escribir(DataOutputStream out) throws IOException {
+            out.writeLong(maximo);
+            out.writeInt(recientes.size());
+            for (Long id : recientes) {
+                out.writeLong(id);
+            }
+        }
+
+        static MarcaDeAgua leer(ByteBuffer in) {
+            MarcaDeAgua marca = new MarcaDeAgua();
+            marca.maximo = in.getLong();
+            int cantidad = in.getInt();
+            List<Long> ids = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                ids.add(in.getLong());
+            }
+            marca.recientes.addAll(ids);
+            return marca;
+        }
+    }
+}
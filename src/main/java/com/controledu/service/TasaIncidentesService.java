@@ -0,0 +1,367 @@
+package com.controledu.service;
+
+import com.controledu.dto.TasaIncidentesDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.RegistroConductaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contadores en memoria de incidentes por grado y sección en ventanas móviles (hoy, 7 y 30 días).
+ *
+ * Cada grado/sección tiene un anillo de cubetas diarias de tipo long. Las escrituras llegan por
+ * los eventos de RegistroConductaService y la semilla inicial se obtiene del snapshot o de una sola
+ * consulta agregada al arrancar, así leer una tasa es sumar como máximo 30 valores en memoria.
+ *
+ * Mientras se recuenta desde la base de datos (carga inicial o invalidación de otro nodo), las
+ * altas y bajas que llegan se anotan en un diario y se aplican sobre el resultado antes de
+ * publicarlo, para no perderlas al reemplazar los contadores. Un cambio confirmado justo antes de
+ * la consulta pero notificado durante ella se cuenta dos veces hasta el siguiente recuento del grupo.
+ *
+ * Con varios nodos, cada alta o baja local se anuncia por {@link CoherenciaCacheService} con el
+ * grado y la sección como clave, y los demás nodos vuelven a contar ese grupo desde la base de datos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TasaIncidentesService implements IndiceEnMemoria, CacheCoherente {
+
+    /** Días que cubre el anillo (potencia de dos mayor que la ventana más larga). */
+    static final int DIAS_ANILLO = 32;
+
+    public static final int VENTANA_DIA = 1;
+    public static final int VENTANA_SEMANA = 7;
+    public static final int VENTANA_MES = 30;
+
+    private final RegistroConductaRepository registroConductaRepository;
+    private final CoherenciaCacheService coherenciaCacheService;
+
+    private volatile Map<Clave, VentanaDiaria> ventanas = new ConcurrentHashMap<>();
+
+    /** Un diario por recuento en curso; se modifica y se recorre sincronizando sobre el servicio */
+    private final List<List<Cambio>> diarios = new ArrayList<>();
+
+    // ================================================================
+    // CARGA INICIAL
+    // ================================================================
+
+    @Override
+    public String nombre() {
+        return "tasas-incidentes";
+    }
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    /**
+     * Reconstruye los contadores con una única consulta agrupada por grado, sección y día.
+     */
+    @Override
+    public void reconstruir() {
+        LocalDate hoy = LocalDate.now();
+        LocalDate desde = hoy.minusDays(DIAS_ANILLO - 1);
+
+        Map<Clave, VentanaDiaria> nuevas = new ConcurrentHashMap<>();
+        List<Cambio> diario = abrirDiario();
+        try {
+            for (Object[] fila : registroConductaRepository.countByGradoSeccionYFechaDesde(desde)) {
+                Clave clave = new Clave((String) fila[0], (String) fila[1]);
+                LocalDate fecha = (LocalDate) fila[2];
+                long total = ((Number) fila[3]).longValue();
+                nuevas.computeIfAbsent(clave, c -> new VentanaDiaria()).sumar(fecha.toEpochDay(), total, hoy.toEpochDay());
+            }
+            synchronized (this) {
+                for (Cambio cambio : diario) {
+                    nuevas.computeIfAbsent(cambio.clave(), c -> new VentanaDiaria())
+                            .sumar(cambio.dia(), cambio.delta(), hoy.toEpochDay());
+                }
+                this.ventanas = nuevas;
+            }
+        } finally {
+            cerrarDiario(diario);
+        }
+        log.info("Ventanas de incidentes inicializadas para {} grupos de grado/sección", nuevas.size());
+    }
+
+    // ================================================================
+    // ACTUALIZACIÓN POR ESCRITURAS
+    // ================================================================
+
+    @Override
+    public void aplicar(RegistroConductaEvent evento) {
+        if (evento.fechaRegistro() == null) {
+            return;
+        }
+        switch (evento.tipo()) {
+            case CREADO -> sumar(evento.grado(), evento.seccion(), evento.fechaRegistro(), 1);
+            case ELIMINADO -> sumar(evento.grado(), evento.seccion(), evento.fechaRegistro(), -1);
+            // Una edición puede mover el incidente de grupo o de día: se recuentan los grupos afectados
+            case ACTUALIZADO -> clavesAfectadas(evento).forEach(this::recontar);
+            default -> { /* lectura y estado no cambian la cantidad de incidentes */ }
+        }
+    }
+
+    void sumar(String grado, String seccion, LocalDate fecha, long delta) {
+        long hoy = LocalDate.now().toEpochDay();
+        Clave clave = new Clave(grado, seccion);
+        synchronized (this) {
+            ventanas.computeIfAbsent(clave, c -> new VentanaDiaria()).sumar(fecha.toEpochDay(), delta, hoy);
+            for (List<Cambio> diario : diarios) {
+                diario.add(new Cambio(clave, fecha.toEpochDay(), delta));
+            }
+        }
+        coherenciaCacheService.publicar(nombreCache(), clave.texto(), 0);
+    }
+
+    /** Vuelve a contar el grupo desde la base de datos y avisa a los demás nodos. */
+    private void recontar(String clave) {
+        invalidarRemoto(clave);
+        coherenciaCacheService.publicar(nombreCache(), clave, 0);
+    }
+
+    private synchronized List<Cambio> abrirDiario() {
+        List<Cambio> diario = new ArrayList<>();
+        diarios.add(diario);
+        return diario;
+    }
+
+    private synchronized void cerrarDiario(List<Cambio> diario) {
+        // Por identidad: dos diarios vacíos son iguales según equals
+        diarios.removeIf(d -> d == diario);
+    }
+
+    // ================================================================
+    // COHERENCIA ENTRE NODOS
+    // ================================================================
+
+    @Override
+    public String nombreCache() {
+        return nombre();
+    }
+
+    @Override
+    public Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+        if (evento.fechaRegistro() == null) {
+            return Set.of();
+        }
+        Set<String> claves = new HashSet<>();
+        if (evento.grado() != null || evento.seccion() != null) {
+            claves.add(new Clave(evento.grado(), evento.seccion()).texto());
+        }
+        RegistroConductaEvent.Anterior anterior = evento.anterior();
+        if (anterior != null && (anterior.grado() != null || anterior.seccion() != null)) {
+            claves.add(new Clave(anterior.grado(), anterior.seccion()).texto());
+        }
+        return claves;
+    }
+
+    /**
+     * Vuelve a contar desde la base de datos el grado y la sección modificados en otro nodo,
+     * conservando los cambios locales del grupo que lleguen durante la consulta.
+     */
+    @Override
+    public void invalidarRemoto(String clave) {
+        if (CoherenciaCacheService.TODAS.equals(clave)) {
+            reconstruir();
+            return;
+        }
+        Clave grupo = Clave.desdeTexto(clave);
+        LocalDate hoy = LocalDate.now();
+        VentanaDiaria nueva = new VentanaDiaria();
+        List<Cambio> diario = abrirDiario();
+        try {
+            for (Object[] fila : registroConductaRepository.countByFechaDesdeParaGradoSeccion(
+                    grupo.grado(), grupo.seccion(), hoy.minusDays(DIAS_ANILLO - 1))) {
+                nueva.sumar(((LocalDate) fila[0]).toEpochDay(), ((Number) fila[1]).longValue(), hoy.toEpochDay());
+            }
+            synchronized (this) {
+                for (Cambio cambio : diario) {
+                    if (cambio.clave().equals(grupo)) {
+                        nueva.sumar(cambio.dia(), cambio.delta(), hoy.toEpochDay());
+                    }
+                }
+                ventanas.put(grupo, nueva);
+            }
+        } finally {
+            cerrarDiario(diario);
+        }
+    }
+
+    // ================================================================
+    // SNAPSHOT
+    // ================================================================
+
+    @Override
+    public void escribir(DataOutputStream out) throws IOException {
+        Map<Clave, VentanaDiaria> actuales = this.ventanas;
+        out.writeInt(actuales.size());
+        for (Map.Entry<Clave, VentanaDiaria> entrada : actuales.entrySet()) {
+            SnapshotFormato.escribirTexto(out, entrada.getKey().grado());
+            SnapshotFormato.escribirTexto(out, entrada.getKey().seccion());
+            entrada.getValue().escribir(out);
+        }
+    }
+
+    @Override
+    public void leer(ByteBuffer in) {
+        Map<Clave, VentanaDiaria> nuevas = new ConcurrentHashMap<>();
+        int cantidad = in.getInt();
+        for (int i = 0; i < cantidad; i++) {
+            Clave clave = new Clave(SnapshotFormato.leerTexto(in), SnapshotFormato.leerTexto(in));
+            VentanaDiaria ventana = new VentanaDiaria();
+            ventana.leer(in);
+            nuevas.put(clave, ventana);
+        }
+        this.ventanas = nuevas;
+    }
+
+    // ================================================================
+    // LECTURA
+    // ================================================================
+
+    /**
+     * Tasas de todos los grados y secciones conocidos, ordenados por grado y sección.
+     */
+    public List<TasaIncidentesDTO> findTasasPorGradoSeccion() {
+        long hoy = LocalDate.now().toEpochDay();
+        List<TasaIncidentesDTO> resultado = new ArrayList<>();
+        ventanas.forEach((clave, ventana) -> resultado.add(tasa(clave.grado(), clave.seccion(), ventana, hoy)));
+        resultado.sort(Comparator.comparing(TasaIncidentesDTO::getGrado, Comparator.nullsLast(String::compareTo))
+                .thenComparing(TasaIncidentesDTO::getSeccion, Comparator.nullsLast(String::compareTo)));
+        return resultado;
+    }
+
+    /**
+     * Tasas agregadas por grado (suma de todas sus secciones).
+     */
+    public List<TasaIncidentesDTO> findTasasPorGrado() {
+        Map<String, TasaIncidentesDTO> porGrado = new LinkedHashMap<>();
+        for (TasaIncidentesDTO t : findTasasPorGradoSeccion()) {
+            TasaIncidentesDTO acumulado = porGrado.computeIfAbsent(t.getGrado(),
+                    g -> new TasaIncidentesDTO(g, null, 0, 0, 0));
+            acumulado.setUltimas24h(acumulado.getUltimas24h() + t.getUltimas24h());
+            acumulado.setUltimos7d(acumulado.getUltimos7d() + t.getUltimos7d());
+            acumulado.setUltimos30d(acumulado.getUltimos30d() + t.getUltimos30d());
+        }
+        return new ArrayList<>(porGrado.values());
+    }
+
+    /**
+     * Tasa de un grado y sección concretos (ceros si no hay incidentes recientes).
+     */
+    public TasaIncidentesDTO findTasa(String grado, String seccion) {
+        VentanaDiaria ventana = ventanas.get(new Clave(grado, seccion));
+        if (ventana == null) {
+            return new TasaIncidentesDTO(grado, seccion, 0, 0, 0);
+        }
+        return tasa(grado, seccion, ventana, LocalDate.now().toEpochDay());
+    }
+
+    private TasaIncidentesDTO tasa(String grado, String seccion, VentanaDiaria ventana, long hoy) {
+        return new TasaIncidentesDTO(grado, seccion,
+                ventana.total(hoy, VENTANA_DIA),
+                ventana.total(hoy, VENTANA_SEMANA),
+                ventana.total(hoy, VENTANA_MES));
+    }
+
+    // ================================================================
+    // ESTRUCTURAS INTERNAS
+    // ================================================================
+
+    record Clave(String grado, String seccion) {
+        Clave {
+            grado = Objects.requireNonNullElse(grado, "");
+            seccion = Objects.requireNonNullElse(seccion, "");
+        }
+
+        /** "grado|sección" para el log de invalidaciones (la sección nunca lleva '|'). */
+        String texto() {
+            return grado + "|" + seccion;
+        }
+
+        static Clave desdeTexto(String texto) {
+            int separador = texto.lastIndexOf('|');
+            return separador < 0 ? new Clave(texto, "")
+                    : new Clave(texto.substring(0, separador), texto.substring(separador + 1));
+        }
+    }
+
+    /** Alta (+1) o baja (-1) anotada durante un recuento. */
+    private record Cambio(Clave clave, long dia, long delta) {
+    }
+
+    /**
+     * Anillo de cubetas diarias. Cada posición guarda el día (epoch day) al que pertenece
+     * su conteo; una cubeta con un día antiguo se reinicia al reutilizarse.
+     * Las escrituras son poco frecuentes, por eso basta con sincronizar sobre la ventana.
+     */
+    static final class VentanaDiaria {
+
+        private final long[] dias = new long[DIAS_ANILLO];
+        private final long[] conteos = new long[DIAS_ANILLO];
+
+        VentanaDiaria() {
+            Arrays.fill(dias, Long.MIN_VALUE);
+        }
+
+        synchronized void sumar(long dia, long delta, long hoy) {
+            // Fuera del anillo (muy antiguo o en el futuro): no afecta a ninguna ventana
+            if (dia > hoy || dia <= hoy - DIAS_ANILLO) {
+                return;
+            }
+            int i = (int) Math.floorMod(dia, (long) DIAS_ANILLO);
+            if (dias[i] != dia) {
+                if (delta < 0) {
+                    return; // la cubeta ya fue reciclada, no hay nada que descontar
+                }
+                dias[i] = dia;
+                conteos[i] = 0;
+            }
+            conteos[i] = Math.max(0, conteos[i] + delta);
+        }
+
+        synchronized void escribir(DataOutputStream out) throws IOException {
+            for (int i = 0; i < DIAS_ANILLO; i++) {
+                out.writeLong(dias[i]);
+                out.writeLong(conteos[i]);
+            }
+        }
+
+        synchronized void leer(ByteBuffer in) {
+            for (int i = 0; i < DIAS_ANILLO; i++) {
+                dias[i] = in.getLong();
+                conteos[i] = in.getLong();
+            }
+        }
+
+        synchronized long total(long hoy, int ventanaDias) {
+            long suma = 0;
+            for (int k = 0; k < ventanaDias; k++) {
+                long dia = hoy - k;
+                int i = (int) Math.floorMod(dia, (long) DIAS_ANILLO);
+                if (dias[i] == dia) {
+                    suma += conteos[i];
+                }
+            }
+            return suma;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.controledu.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV en streaming: devuelve una fila por llamada sin cargar el archivo en memoria.
+ *
+ * Soporta campos entre comillas dobles (con comillas escapadas como "" y saltos de línea dentro
+ * del campo) y detecta el separador (',' o ';') a partir de la primera línea, ya que las hojas de
+ * cálculo en español suelen exportar con punto y coma.
+ */
+public class LectorCsv implements Closeable {
+
+    private final BufferedReader lector;
+    private char separador = 0;
+    private long caracteresLeidos;
+    private long lineaActual;
+
+    public LectorCsv(Reader reader) {
+        this.lector = reader instanceof BufferedReader br ? br : new BufferedReader(reader, 1 << 16);
+    }
+
+    /**
+     * Lee la siguiente fila.
+     *
+     * @return Campos de la fila o null al final del archivo.
+     */
+    public List<String> siguiente() throws IOException {
+        String linea = lector.readLine();
+        if (linea == null) {
+            return null;
+        }
+        contar(linea);
+        if (separador == 0) {
+            separador = linea.indexOf(';') >= 0 && linea.indexOf(',') < 0 ? ';' : ',';
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        int i = 0;
+        while (true) {
+            if (i >= linea.length()) {
+                if (!entreComillas) {
+                    break;
+                }
+                // Campo con salto de línea: se continúa con la siguiente línea física
+                String continuacion = lector.readLine();
+                if (continuacion == null) {
+                    break;
+                }
+                contar(continuacion);
+                campo.append('\n');
+                linea = continuacion;
+                i = 0;
+                continue;
+            }
+            char c = linea.charAt(i++);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i < linea.length() && linea.charAt(i) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    private void contar(String linea) {
+        caracteresLeidos += linea.length() + 1;
+        lineaActual++;
+    }
+
+    /** Caracteres consumidos hasta ahora (aproximación de bytes para el progreso). */
+    public long getCaracteresLeidos() {
+        return caracteresLeidos;
+    }
+
+    /** Número de la última línea física leída (1 = encabezado). */
+    public long getLineaActual() {
+        return lineaActual;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
@@ -0,0 +1,201 @@
+package com.controledu.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long → int con direccionamiento abierto (sondeo lineal) sobre arreglos primitivos.
+ *
+ * Evita el boxing de {@code Map<Long, Integer>}: cada entrada ocupa 12 bytes en los arreglos en
+ * lugar de dos objetos y un nodo. Las claves ausentes valen 0 y una entrada que llega a 0 se
+ * elimina, así que sirve directamente como tabla de contadores. No es thread-safe.
+ */
+public class LongIntHashMap {
+
+    /** Marca de casilla libre; la clave 0 se guarda aparte */
+    private static final long LIBRE = 0L;
+    private static final float CARGA_MAXIMA = 0.6f;
+
+    private long[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamanio;
+    private int limite;
+
+    private boolean tieneCero;
+    private int valorCero;
+
+    /** Consumidor de entradas para {@link #forEach(Consumidor)}. */
+    @FunctionalInterface
+    public interface Consumidor {
+        void aceptar(long clave, int valor);
+    }
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, (int) (capacidadEsperada / CARGA_MAXIMA)) - 1) << 1;
+        asignar(capacidad);
+    }
+
+    private void asignar(int capacidad) {
+        claves = new long[capacidad];
+        valores = new int[capacidad];
+        mascara = capacidad - 1;
+        limite = (int) (capacidad * CARGA_MAXIMA);
+    }
+
+    /** Valor asociado a la clave o 0 si no existe. */
+    public int get(long clave) {
+        if (clave == LIBRE) {
+            return tieneCero ? valorCero : 0;
+        }
+        int i = indice(clave);
+        while (claves[i] != LIBRE) {
+            if (claves[i] == clave) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return 0;
+    }
+
+    /** Asigna el valor; asignar 0 elimina la entrada. */
+    public void put(long clave, int valor) {
+        if (valor == 0) {
+            remove(clave);
+            return;
+        }
+        if (clave == LIBRE) {
+            if (!tieneCero) {
+                tieneCero = true;
+                tamanio++;
+            }
+            valorCero = valor;
+            return;
+        }
+        int i = indice(clave);
+        while (claves[i] != LIBRE) {
+            if (claves[i] == clave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        if (++tamanio > limite) {
+            redimensionar();
+        }
+    }
+
+    /**
+     * Suma {@code delta} al valor de la clave sin bajar de 0.
+     *
+     * @return Nuevo valor.
+     */
+    public int sumar(long clave, int delta) {
+        int nuevo = Math.max(0, get(clave) + delta);
+        put(clave, nuevo);
+        return nuevo;
+    }
+
+    public void remove(long clave) {
+        if (clave == LIBRE) {
+            if (tieneCero) {
+                tieneCero = false;
+                valorCero = 0;
+                tamanio--;
+            }
+            return;
+        }
+        int i = indice(clave);
+        while (claves[i] != LIBRE) {
+            if (claves[i] == clave) {
+                borrarEn(i);
+                tamanio--;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+    }
+
+    /**
+     * Borrado con desplazamiento hacia atrás: recoloca las entradas siguientes del mismo racimo
+     * para no dejar casillas "borradas" que alarguen las búsquedas.
+     */
+    private void borrarEn(int libre) {
+        int i = libre;
+        while (true) {
+            i = (i + 1) & mascara;
+            long clave = claves[i];
+            if (clave == LIBRE) {
+                break;
+            }
+            int ideal = indice(clave);
+            // La entrada puede ocupar la casilla libre si su posición ideal no está entre libre e i
+            boolean mover = libre <= i ? (ideal <= libre || ideal > i) : (ideal <= libre && ideal > i);
+            if (mover) {
+                claves[libre] = clave;
+                valores[libre] = valores[i];
+                libre = i;
+            }
+        }
+        claves[libre] = LIBRE;
+        valores[libre] = 0;
+    }
+
+    public int size() {
+        return tamanio;
+    }
+
+    public boolean isEmpty() {
+        return tamanio == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(claves, LIBRE);
+        Arrays.fill(valores, 0);
+        tieneCero = false;
+        valorCero = 0;
+        tamanio = 0;
+    }
+
+    public void forEach(Consumidor consumidor) {
+        if (tieneCero) {
+            consumidor.aceptar(0L, valorCero);
+        }
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != LIBRE) {
+                consumidor.aceptar(claves[i], valores[i]);
+            }
+        }
+    }
+
+    private void redimensionar() {
+        long[] clavesViejas = claves;
+        int[] valoresViejos = valores;
+        asignar(claves.length << 1);
+        for (int j = 0; j < clavesViejas.length; j++) {
+            long clave = clavesViejas[j];
+            if (clave != LIBRE) {
+                int i = indice(clave);
+                while (claves[i] != LIBRE) {
+                    i = (i + 1) & mascara;
+                }
+                claves[i] = clave;
+                valores[i] = valoresViejos[j];
+            }
+        }
+    }
+
+    private int indice(long clave) {
+        // Mezcla de bits (fmix64 de MurmurHash3) para ids consecutivos
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+}
@@ -0,0 +1,111 @@
+package com.controledu.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de lecturas idénticas ("single flight").
+ *
+ * Si varias peticiones piden la misma clave a la vez, solo la primera ejecuta la carga; las demás
+ * esperan y reciben el mismo resultado (o la misma excepción). Opcionalmente, el resultado se sigue
+ * compartiendo durante {@code ttlMs} después de terminar, para absorber ráfagas que llegan justo
+ * después. Con TTL 0 solo se comparten ejecuciones en curso.
+ *
+ * El resultado es el mismo objeto para todos: quien lo reciba no debe modificarlo.
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, Vuelo> vuelos = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    private final LongAdder ejecuciones = new LongAdder();
+    private final LongAdder compartidas = new LongAdder();
+
+    public SingleFlight(long ttlMs) {
+        this.ttlNanos = Math.max(0, ttlMs) * 1_000_000L;
+    }
+
+    /**
+     * Devuelve el resultado de {@code carga} para la clave, ejecutándola solo si no hay otra
+     * ejecución en curso (o un resultado vigente) para la misma clave.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T ejecutar(String clave, Supplier<T> carga) {
+        while (true) {
+            Vuelo nuevo = new Vuelo();
+            Vuelo existente = vuelos.putIfAbsent(clave, nuevo);
+            if (existente == null) {
+                ejecuciones.increment();
+                return (T) volar(clave, nuevo, carga);
+            }
+            if (existente.vencido(System.nanoTime())) {
+                vuelos.remove(clave, existente);
+                continue;
+            }
+            compartidas.increment();
+            return (T) existente.esperar();
+        }
+    }
+
+    private Object volar(String clave, Vuelo vuelo, Supplier<?> carga) {
+        Object valor;
+        try {
+            valor = carga.get();
+        } catch (RuntimeException | Error e) {
+            vuelos.remove(clave, vuelo);
+            vuelo.resultado.completeExceptionally(e);
+            throw e;
+        }
+        if (ttlNanos == 0) {
+            vuelos.remove(clave, vuelo);
+        } else {
+            vuelo.venceEn = System.nanoTime() + ttlNanos;
+        }
+        vuelo.resultado.complete(valor);
+        return valor;
+    }
+
+    /** Descarta el resultado compartido de la clave (por ejemplo, tras una escritura). */
+    public void olvidar(String clave) {
+        vuelos.remove(clave);
+    }
+
+    /** Cargas realmente ejecutadas. */
+    public long getEjecuciones() {
+        return ejecuciones.sum();
+    }
+
+    /** Llamadas que se resolvieron con el resultado de otra. */
+    public long getCompartidas() {
+        return compartidas.sum();
+    }
+
+    private static final class Vuelo {
+        final CompletableFuture<Object> resultado = new CompletableFuture<>();
+        /** Momento (nanoTime) en que deja de compartirse; MAX_VALUE mientras está en curso */
+        volatile long venceEn = Long.MAX_VALUE;
+
+        boolean vencido(long ahora) {
+            long vence = venceEn;
+            return vence != Long.MAX_VALUE && ahora - vence >= 0;
+        }
+
+        Object esperar() {
+            try {
+                return resultado.join();
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof RuntimeException re) {
+                    throw re;
+                }
+                if (causa instanceof Error err) {
+                    throw err;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Conexión SSE de los paneles (director, docente, estudiante).
+ *
+ * Lee la URL del atributo data-eventos del <body>, aplica cada delta sobre los contadores marcados
+ * con data-vivo="ENTIDAD:campo" (campos: total, noLeidos) y muestra un aviso para recargar los
+ * listados. El navegador reconecta solo si se corta la conexión.
+ */
+(function () {
+    'use strict';
+
+    var url = document.body.getAttribute('data-eventos');
+    if (!url || !window.EventSource) {
+        return;
+    }
+
+    var pendientes = 0;
+
+    function sumar(entidad, campo, delta) {
+        document.querySelectorAll('[data-vivo="' + entidad + ':' + campo + '"]').forEach(function (el) {
+            var valor = parseInt(el.textContent, 10);
+            if (!isNaN(valor)) {
+                el.textContent = Math.max(0, valor + delta);
+            }
+        });
+    }
+
+    function avisar(texto) {
+        var aviso = document.getElementById('avisoEnVivo');
+        if (!aviso) {
+            aviso = document.createElement('div');
+            aviso.id = 'avisoEnVivo';
+            aviso.className = 'alert alert-info shadow position-fixed bottom-0 end-0 m-3 d-flex align-items-center';
+            aviso.style.zIndex = 1100;
+            aviso.innerHTML = '<i class="fas fa-bell me-2"></i><span></span>' +
+                '<button type="button" class="btn btn-sm btn-primary ms-3">Recargar</button>';
+            aviso.querySelector('button').addEventListener('click', function () {
+                window.location.reload();
+            });
+            document.body.appendChild(aviso);
+        }
+        aviso.querySelector('span').textContent = texto;
+    }
+
+    var fuente = new EventSource(url);
+
+    fuente.addEventListener('cambio', function (e) {
+        var cambio = JSON.parse(e.data);
+        switch (cambio.tipo) {
+            case 'CREADO':
+                sumar(cambio.entidad, 'total', 1);
+                sumar(cambio.entidad, 'noLeidos', 1);
+                break;
+            case 'ELIMINADO':
+                sumar(cambio.entidad, 'total', -1);
+                break;
+            case 'LEIDO':
+                sumar(cambio.entidad, 'noLeidos', -1);
+                break;
+        }
+        pendientes++;
+        avisar(pendientes === 1 ? 'Hay 1 cambio nuevo.' : 'Hay ' + pendientes + ' cambios nuevos.');
+    });
+
+    // La cola del servidor descartó eventos: los contadores pueden estar desfasados.
+    fuente.addEventListener('desfase', function () {
+        avisar('Hay cambios que no se pudieron mostrar. Recargue para ver los datos actuales.');
+    });
+})();
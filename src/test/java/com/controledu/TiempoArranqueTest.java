@@ -0,0 +1,149 @@
+package com.controledu;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Tiempo de arranque medido como lo percibe el colegio: desde que se lanza la JVM hasta el primer
+ * login correcto, con la aplicación en el perfil {@code embebido} en un proceso aparte (en la JVM
+ * de las pruebas las clases ya estarían cargadas).
+ *
+ * Un tiempo absoluto no dice nada (depende de la máquina), así que solo corre en el perfil Maven
+ * {@code arranque} y fuera de {@code mvn test}: primero contra el jar sin optimizar, que deja su
+ * tiempo como referencia, y después con AOT y el archivo CDS, que no puede pasar de la referencia
+ * multiplicada por la proporción máxima. Propiedades:
+ * <ul>
+ *   <li>{@code arranque.jar}: jar ejecutable con {@code java -jar} (sin ella, el classpath de las pruebas);</li>
+ *   <li>{@code arranque.jvm}: opciones de la JVM separadas por espacios;</li>
+ *   <li>{@code arranque.guardar-referencia}: archivo donde dejar el tiempo medido;</li>
+ *   <li>{@code arranque.referencia}: archivo con el tiempo de referencia con el que comparar;</li>
+ *   <li>{@code arranque.proporcion-maxima}: tiempo permitido respecto a la referencia (1.0 por defecto).</li>
+ * </ul>
+ * La salida de la aplicación queda en {@code target/tiempo-arranque.log}.
+ */
+@Tag("arranque")
+class TiempoArranqueTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TiempoArranqueTest.class);
+
+    /** Solo para no esperar para siempre a una aplicación colgada; no es lo que se mide */
+    private static final long ESPERA_MAXIMA_MS = TimeUnit.MINUTES.toMillis(5);
+
+    @Test
+    void primerLoginFrenteALaReferencia() throws Exception {
+        long transcurridoMs = medirHastaPrimerLogin();
+
+        String guardar = System.getProperty("arranque.guardar-referencia", "").trim();
+        if (!guardar.isEmpty()) {
+            Path archivo = Path.of(guardar);
+            Files.createDirectories(archivo.toAbsolutePath().getParent());
+            Files.writeString(archivo, Long.toString(transcurridoMs));
+        }
+        String referencia = System.getProperty("arranque.referencia", "").trim();
+        if (!referencia.isEmpty()) {
+            long referenciaMs = Long.parseLong(Files.readString(Path.of(referencia)).trim());
+            double proporcionMaxima = Double.parseDouble(System.getProperty("arranque.proporcion-maxima", "1.0"));
+            log.info("Referencia: {} ms; proporción {} (máximo {})", referenciaMs,
+                    String.format(Locale.ROOT, "%.2f", (double) transcurridoMs / referenciaMs), proporcionMaxima);
+            assertThat((double) transcurridoMs)
+                    .as("Tiempo hasta el primer login frente a la referencia de %d ms", referenciaMs)
+                    .isLessThanOrEqualTo(referenciaMs * proporcionMaxima);
+        }
+    }
+
+    private static long medirHastaPrimerLogin() throws Exception {
+        int puerto = puertoLibre();
+        Path salida = Path.of("target", "tiempo-arranque.log");
+        Files.createDirectories(salida.getParent());
+
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvm = System.getProperty("arranque.jvm", "").trim();
+        if (!jvm.isEmpty()) {
+            comando.addAll(Arrays.asList(jvm.split("\\s+")));
+        }
+        String jar = System.getProperty("arranque.jar", "").trim();
+        if (!jar.isEmpty()) {
+            comando.addAll(List.of("-jar", jar));
+        } else {
+            comando.addAll(List.of("-cp", System.getProperty("java.class.path"), ControlEduApplication.class.getName()));
+        }
+        comando.addAll(List.of("--spring.profiles.active=embebido", "--server.port=" + puerto));
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("usuario=director&password=director"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(salida.toFile())
+                .start();
+        try {
+            while (true) {
+                long transcurridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                if (transcurridoMs > ESPERA_MAXIMA_MS) {
+                    fail("Sin login correcto tras %d ms; ver %s", transcurridoMs, salida);
+                }
+                if (!proceso.isAlive()) {
+                    fail("La aplicación terminó con código %d antes del primer login; ver %s", proceso.exitValue(), salida);
+                }
+                if (loginCorrecto(cliente, login)) {
+                    log.info("Tiempo hasta el primer login: {} ms ({})", transcurridoMs,
+                            jar.isEmpty() ? "classpath de pruebas" : (new File(jar).getName() + " " + jvm).trim());
+                    return transcurridoMs;
+                }
+                Thread.sleep(50);
+            }
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(15, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean loginCorrecto(HttpClient cliente, HttpRequest login) throws InterruptedException {
+        try {
+            HttpResponse<Void> respuesta = cliente.send(login, HttpResponse.BodyHandlers.discarding());
+            return respuesta.statusCode() == 302
+                    && respuesta.headers().firstValue("Location").orElse("").contains("/director/dashboard");
+        } catch (IOException e) {
+            // Todavía no escucha
+            return false;
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.controledu.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los endpoints de administración, del outbox y las métricas del actuator exigen una sesión de director.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("embebido")
+class AccesoAdminTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void sinSesionSeRechaza() throws Exception {
+        mockMvc.perform(get("/api/admin/consultas-lentas/recientes")).andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/admin/consultas-lentas")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/jfr/grabaciones")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/outbox/pendientes")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void healthSigueAbierto() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void otroRolSeRechaza() throws Exception {
+        mockMvc.perform(get("/api/admin/consultas-lentas").sessionAttr("rol", "DOCENTE"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void directorEnSesionPuedeConsultar() throws Exception {
+        mockMvc.perform(get("/api/admin/consultas-lentas").sessionAttr("rol", "DIRECTOR"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics").sessionAttr("rol", "DIRECTOR"))
+                .andExpect(status().isOk());
+    }
+}
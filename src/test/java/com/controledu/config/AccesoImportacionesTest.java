@@ -0,0 +1,46 @@
+package com.controledu.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las importaciones de roster crean cuentas con contraseña y sus reportes muestran las filas:
+ * exigen una sesión de director.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("embebido")
+class AccesoImportacionesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void sinSesionDeDirectorSeRechaza() throws Exception {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "docentes.csv", "text/csv",
+                "nombres,apellidos,materia,usuario,password\nAna,Pérez,Física,intruso,clave\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/importaciones").file(archivo).param("tipo", "DOCENTES"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/importaciones")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/importaciones/cualquiera")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/importaciones").sessionAttr("rol", "DOCENTE")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void directorEnSesionPuedeConsultar() throws Exception {
+        mockMvc.perform(get("/api/importaciones").sessionAttr("rol", "DIRECTOR")).andExpect(status().isOk());
+    }
+}
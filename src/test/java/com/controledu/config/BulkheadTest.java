@@ -0,0 +1,63 @@
+package com.controledu.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Bulkhead bulkhead = new Bulkhead("prueba", 2, 10, registry);
+
+    @Test
+    void sinLugarSeRechazaYAlLiberarSeVuelveAEntrar() {
+        assertThat(bulkhead.entrar()).isTrue();
+        assertThat(bulkhead.entrar()).isTrue();
+        assertThat(bulkhead.entrar()).isFalse();
+        assertThat(bulkhead.enUso()).isEqualTo(2);
+        assertThat(registry.get("controledu.bulkhead.rechazos").tag("clase", "prueba").counter().count()).isEqualTo(1);
+
+        bulkhead.salir();
+        assertThat(bulkhead.entrar()).isTrue();
+        assertThat(registry.get("controledu.bulkhead.disponibles").tag("clase", "prueba").gauge().value()).isZero();
+    }
+
+    @Test
+    void elInterceptorLiberaUnaSolaVezYNoLimitaLasEscrituras() {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead, true);
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        MockHttpServletRequest lectura = new MockHttpServletRequest("GET", "/api/conductas");
+
+        assertThat(interceptor.preHandle(lectura, respuesta, null)).isTrue();
+        assertThat(bulkhead.enUso()).isEqualTo(1);
+        interceptor.afterCompletion(lectura, respuesta, null, null);
+        // Una segunda notificación (p. ej. tras un dispatch de error) no libera dos veces
+        interceptor.afterCompletion(lectura, respuesta, null, null);
+        assertThat(bulkhead.enUso()).isZero();
+
+        MockHttpServletRequest escritura = new MockHttpServletRequest("POST", "/api/conductas");
+        assertThat(interceptor.preHandle(escritura, respuesta, null)).isTrue();
+        assertThat(bulkhead.enUso()).isZero();
+    }
+
+    @Test
+    void unaPeticionRechazadaNoLiberaUnLugarAjeno() {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(bulkhead, true);
+        MockHttpServletResponse respuesta = new MockHttpServletResponse();
+        bulkhead.entrar();
+        bulkhead.entrar();
+
+        MockHttpServletRequest rechazada = new MockHttpServletRequest("GET", "/api/conductas");
+        assertThatThrownBy(() -> interceptor.preHandle(rechazada, respuesta, null))
+                .isInstanceOf(ServicioOcupadoException.class)
+                .hasMessage("Servicio ocupado: prueba");
+        interceptor.afterCompletion(rechazada, respuesta, null, null);
+
+        assertThat(bulkhead.enUso()).isEqualTo(2);
+    }
+}
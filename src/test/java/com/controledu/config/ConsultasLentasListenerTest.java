@@ -0,0 +1,44 @@
+package com.controledu.config;
+
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsultasLentasListenerTest {
+
+    @Test
+    void sinValoresSoloRegistraPosicionYTipo() throws Exception {
+        String texto = ConsultasLentasListener.parametros(juego(), 1, false);
+
+        assertThat(texto).isEqualTo("1=<String>, 2=<Long>, 3=NULL");
+        assertThat(texto).doesNotContain("secreta");
+    }
+
+    @Test
+    void conValoresLosFormatea() throws Exception {
+        assertThat(ConsultasLentasListener.parametros(juego(), 3, true))
+                .isEqualTo("1='secreta', 2=25, 3=NULL (+2 juegos más)");
+    }
+
+    @Test
+    void lasSentenciasConContrasenaSonSensibles() {
+        assertThat(ConsultasLentasListener.esSensible(
+                "select d1_0.id from director d1_0 where d1_0.usuario=? and d1_0.password=?")).isTrue();
+        assertThat(ConsultasLentasListener.esSensible("select count(*) from estudiante")).isFalse();
+    }
+
+    private static List<ParameterSetOperation> juego() throws Exception {
+        return List.of(
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                        new Object[]{1, "secreta"}),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setLong", int.class, long.class),
+                        new Object[]{2, 25L}),
+                new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                        new Object[]{3, Types.BIGINT}));
+    }
+}
@@ -0,0 +1,133 @@
+package com.controledu.config;
+
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.repository.DocenteRepository;
+import com.controledu.repository.EstudianteRepository;
+import com.controledu.service.EstudianteService;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuestos SQL en modo estricto: un endpoint que excede su {@link PresupuestoSql} o repite
+ * una sentencia (N+1) hace fallar la petición, y con ella la prueba.
+ *
+ * Sin @Transactional: las peticiones deben abrir su propia transacción, como en producción (con la
+ * de la prueba, la caché de primer nivel ocultaría consultas). Las filas creadas se borran al final.
+ */
+@SpringBootTest(properties = "controledu.sql.presupuesto.estricto=true")
+// Sin volcar el modelo: el toString de las entidades recorre colecciones LAZY fuera de la sesión
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("embebido")
+@Import(PresupuestoSqlTest.ControladorPrueba.class)
+class PresupuestoSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    @Autowired
+    private EstudianteService estudianteService;
+
+    private final List<Long> estudiantesCreados = new ArrayList<>();
+    private final List<Long> docentesCreados = new ArrayList<>();
+
+    @AfterEach
+    void borrarFilasCreadas() {
+        estudiantesCreados.forEach(estudianteService::deleteById);
+        docentesCreados.forEach(docenteRepository::deleteById);
+    }
+
+    /** Endpoints de prueba que exceden su presupuesto a propósito. */
+    @RestController
+    static class ControladorPrueba {
+
+        @Autowired
+        private EstudianteRepository estudianteRepository;
+
+        @PresupuestoSql(2)
+        @GetMapping("/prueba/presupuesto")
+        long excedePresupuesto() {
+            return estudianteRepository.count() + estudianteRepository.count() + estudianteRepository.count();
+        }
+
+        @PresupuestoSql(value = 50, repeticiones = 3)
+        @GetMapping("/prueba/n-mas-uno")
+        long consultaPorFila() {
+            long encontrados = 0;
+            for (long id = 1; id <= 5; id++) {
+                encontrados += estudianteRepository.findById(-id).isPresent() ? 1 : 0;
+            }
+            return encontrados;
+        }
+    }
+
+    @Test
+    void registrarFaltaRespetaSuPresupuesto() throws Exception {
+        mockMvc.perform(get("/docente/registrar-falta").sessionAttr("usuario", docente()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listadoDeEstudiantesNoHaceUnConteoPorFila() throws Exception {
+        for (int i = 0; i < 15; i++) {
+            Estudiante estudiante = new Estudiante();
+            estudiante.setNombres("Estudiante " + i);
+            estudiante.setApellidos("Presupuesto");
+            estudiante.setGrado("9");
+            estudiante.setSeccion("A");
+            estudiante.setUsuario("presupuesto-" + System.nanoTime() + "-" + i);
+            estudiante.setPassword("clave");
+            estudiantesCreados.add(estudianteService.save(estudiante).getId());
+        }
+        mockMvc.perform(get("/docente/estudiantes").sessionAttr("usuario", docente()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void excederElPresupuestoHaceFallarLaPeticion() {
+        ServletException error = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/prueba/presupuesto")));
+        assertInstanceOf(PresupuestoSqlExcedidoException.class, NestedExceptionUtils.getMostSpecificCause(error));
+    }
+
+    @Test
+    void sentenciaRepetidaSeDetectaComoNMasUno() {
+        ServletException error = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/prueba/n-mas-uno")));
+        assertInstanceOf(PresupuestoSqlExcedidoException.class, NestedExceptionUtils.getMostSpecificCause(error));
+    }
+
+    private Docente docente() {
+        Docente docente = new Docente();
+        docente.setNombres("Docente");
+        docente.setApellidos("Presupuesto");
+        docente.setMateria("Matemática");
+        docente.setUsuario("presupuesto-docente-" + System.nanoTime());
+        docente.setPassword("clave");
+        Docente guardado = docenteRepository.save(docente);
+        docentesCreados.add(guardado.getId());
+        return guardado;
+    }
+}
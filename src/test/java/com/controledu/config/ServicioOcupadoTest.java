@@ -0,0 +1,78 @@
+package com.controledu.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+/**
+ * Con los lugares de un {@link Bulkhead} ocupados, sus rutas responden 503 de inmediato con
+ * Retry-After: JSON en la API y la vista "ocupado" en el panel del director.
+ */
+@SpringBootTest(properties = {
+        "controledu.bulkhead.reportes-api.espera-ms=10",
+        "controledu.bulkhead.reportes-director.espera-ms=10"})
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("embebido")
+class ServicioOcupadoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("bulkheadReportesApi")
+    private Bulkhead bulkheadReportesApi;
+
+    @Autowired
+    @Qualifier("bulkheadReportesDirector")
+    private Bulkhead bulkheadReportesDirector;
+
+    private int ocupadosApi;
+    private int ocupadosDirector;
+
+    @AfterEach
+    void liberar() {
+        for (; ocupadosApi > 0; ocupadosApi--) {
+            bulkheadReportesApi.salir();
+        }
+        for (; ocupadosDirector > 0; ocupadosDirector--) {
+            bulkheadReportesDirector.salir();
+        }
+    }
+
+    @Test
+    void laApiRespondeOcupadoSinTomarLugar() throws Exception {
+        while (bulkheadReportesApi.entrar()) {
+            ocupadosApi++;
+        }
+        mockMvc.perform(get("/api/conductas"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.clase").value("reportes-api"));
+        // La petición rechazada no liberó un lugar ajeno
+        assertThat(bulkheadReportesApi.enUso()).isEqualTo(ocupadosApi);
+    }
+
+    @Test
+    void elPanelDelDirectorMuestraLaVistaOcupado() throws Exception {
+        while (bulkheadReportesDirector.entrar()) {
+            ocupadosDirector++;
+        }
+        mockMvc.perform(get("/director/incidentes").sessionAttr("rol", "DIRECTOR"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(view().name("error/ocupado"));
+    }
+}
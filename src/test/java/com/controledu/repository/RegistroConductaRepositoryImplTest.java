@@ -0,0 +1,97 @@
+package com.controledu.repository;
+
+import com.controledu.model.Conducta;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.model.RegistroConducta;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Altas en lote por JDBC: cada registro recibe el id de su propia fila, también con varios lotes.
+ */
+@SpringBootTest
+@ActiveProfiles("embebido")
+class RegistroConductaRepositoryImplTest {
+
+    @Autowired
+    private RegistroConductaRepository registroConductaRepository;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    @Autowired
+    private ConductaRepository conductaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void cadaRegistroRecibeElIdDeSuFila() {
+        List<Estudiante> estudiantes = estudianteRepository.findAll();
+        Docente docente = docenteRepository.findAll().get(0);
+        Conducta conducta = conductaRepository.findAll().get(0);
+        // Más de un lote, y el último incompleto
+        List<RegistroConducta> registros = new ArrayList<>();
+        for (int i = 0; i < RegistroConductaRepositoryImpl.TAMANIO_LOTE + 7; i++) {
+            RegistroConducta registro = new RegistroConducta();
+            registro.setEstudiante(estudiantes.get(i % estudiantes.size()));
+            registro.setDocente(docente);
+            registro.setConducta(conducta);
+            registro.setFechaRegistro(LocalDate.now());
+            registro.setComentarios("lote-" + i);
+            registro.setEstado("ACTIVO");
+            registros.add(registro);
+        }
+
+        Integer insertados = transactionTemplate.execute(status -> registroConductaRepository.insertarEnLote(registros));
+        try {
+            assertThat(insertados).isEqualTo(registros.size());
+            assertThat(registros).extracting(RegistroConducta::getIdRegistro).doesNotContainNull().doesNotHaveDuplicates();
+            for (RegistroConducta registro : registros) {
+                RegistroConducta leido = registroConductaRepository.findById(registro.getIdRegistro()).orElseThrow();
+                assertThat(leido.getComentarios()).isEqualTo(registro.getComentarios());
+            }
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> registroConductaRepository.deleteAllByIdInBatch(
+                    registros.stream().map(RegistroConducta::getIdRegistro).filter(id -> id != null).toList()));
+        }
+    }
+
+    @Test
+    void menosClavesGeneradasQueFilasEsUnError() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocacion -> {
+            KeyHolder claves = invocacion.getArgument(2);
+            claves.getKeyList().add(Map.of("GENERATED_KEY", 1L));
+            return new int[]{1, 1};
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class));
+        RegistroConductaRepositoryImpl repositorio = new RegistroConductaRepositoryImpl(jdbcTemplate);
+
+        assertThatThrownBy(() -> repositorio.insertarEnLote(List.of(new RegistroConducta(), new RegistroConducta())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 claves generadas para un lote de 2");
+    }
+}
@@ -0,0 +1,83 @@
+package com.controledu.service;
+
+import com.controledu.dto.ActividadDocenteDTO;
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActividadDocentesServiceTest {
+
+    private static final LocalDate MARZO = LocalDate.of(2026, 3, 2);
+    private static final LocalDate ABRIL = LocalDate.of(2026, 4, 6);
+
+    private final RegistroConductaRepository registros = mock(RegistroConductaRepository.class);
+    private final ObservacionRepository observaciones = mock(ObservacionRepository.class);
+    private final CoherenciaCacheService sinCoherencia = new CoherenciaCacheService(null, null, false, "prueba", 0, 0, 0);
+    private final ActividadDocentesService actividad =
+            new ActividadDocentesService(registros, observaciones, sinCoherencia);
+
+    @Test
+    void altasYBajasActualizanTotalesMesesYUltimaActividad() {
+        actividad.reconstruir();
+        actividad.aplicar(incidente(RegistroConductaEvent.Tipo.CREADO, MARZO));
+        actividad.aplicar(incidente(RegistroConductaEvent.Tipo.CREADO, ABRIL));
+        actividad.aplicar(observacion(ObservacionEvent.Tipo.CREADO, ABRIL));
+        actividad.aplicar(incidente(RegistroConductaEvent.Tipo.ELIMINADO, ABRIL));
+        // Una lectura no cambia la actividad
+        actividad.aplicar(incidente(RegistroConductaEvent.Tipo.LEIDO, MARZO));
+
+        assertThat(actividad.countIncidentesByDocenteId(3L)).isEqualTo(1);
+        assertThat(actividad.countObservacionesByDocenteId(3L)).isEqualTo(1);
+        assertThat(actividad.findUltimaActividad(3L)).contains(ABRIL);
+        assertThat(actividad.findActividad(3L).getPorMes()).containsExactly(
+                new ActividadDocenteDTO.Mes(2026, 3, 1, 0),
+                new ActividadDocenteDTO.Mes(2026, 4, 0, 1));
+    }
+
+    @Test
+    void laCargaConservaLasAltasQueLleganMientrasConsulta() {
+        when(registros.countByDocenteYMes()).thenAnswer(invocacion -> {
+            actividad.aplicar(incidente(RegistroConductaEvent.Tipo.CREADO, ABRIL));
+            return List.<Object[]>of(new Object[]{3L, 2026, 3, 5L, MARZO});
+        });
+
+        actividad.reconstruir();
+
+        assertThat(actividad.countIncidentesByDocenteId(3L)).isEqualTo(6);
+        assertThat(actividad.findUltimaActividad(3L)).contains(ABRIL);
+    }
+
+    @Test
+    void elRecuentoDeUnDocenteConservaSusCambiosLocales() {
+        actividad.reconstruir();
+        when(registros.countByMesParaDocente(3L)).thenAnswer(invocacion -> {
+            actividad.aplicar(incidente(RegistroConductaEvent.Tipo.CREADO, ABRIL));
+            // Otro docente: no entra en el recuento del 3
+            actividad.aplicar(new RegistroConductaEvent(RegistroConductaEvent.Tipo.CREADO, 2L, 2L, 4L, 4L,
+                    "grave", "7", "A", ABRIL, "ACTIVO", false));
+            return List.<Object[]>of(new Object[]{3L, 2026, 3, 2L, MARZO});
+        });
+
+        actividad.invalidarRemoto("3");
+
+        assertThat(actividad.countIncidentesByDocenteId(3L)).isEqualTo(3);
+        assertThat(actividad.countIncidentesByDocenteId(4L)).isEqualTo(1);
+    }
+
+    private static RegistroConductaEvent incidente(RegistroConductaEvent.Tipo tipo, LocalDate fecha) {
+        return new RegistroConductaEvent(tipo, 1L, 2L, 3L, 4L, "grave", "7", "A", fecha, "ACTIVO", false);
+    }
+
+    private static ObservacionEvent observacion(ObservacionEvent.Tipo tipo, LocalDate fecha) {
+        return new ObservacionEvent(tipo, 1L, 2L, 3L, "Conducta", fecha, false);
+    }
+}
@@ -0,0 +1,102 @@
+package com.controledu.service;
+
+import com.controledu.dto.SeleccionMasivaDTO;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AcuseLecturaServiceTest {
+
+    private final RegistroConductaService registros = mock(RegistroConductaService.class);
+    private final ObservacionService observaciones = mock(ObservacionService.class);
+
+    @Test
+    void elVolcadoDeduplicaYSeparaPorTipo() {
+        AcuseLecturaService acuses = new AcuseLecturaService(registros, observaciones, 200);
+        for (long id = 1; id <= 150; id++) {
+            acuses.incidenteLeido(id, false);
+            acuses.incidenteLeido(id, null);
+        }
+        // Ya leídos o sin id: no se encolan
+        acuses.incidenteLeido(999L, true);
+        acuses.observacionLeida(null, false);
+        acuses.observacionLeida(7L, false);
+        assertThat(acuses.pendientes()).isEqualTo(151);
+
+        acuses.vaciar();
+
+        assertThat(acuses.pendientes()).isZero();
+        List<Long> volcados = idsVolcados(1);
+        assertThat(volcados).hasSize(150).doesNotHaveDuplicates().doesNotContain(999L);
+        ArgumentCaptor<SeleccionMasivaDTO> observacion = ArgumentCaptor.forClass(SeleccionMasivaDTO.class);
+        verify(observaciones).marcarComoLeidaMasivo(observacion.capture());
+        assertThat(observacion.getValue().getIds()).containsExactly(7L);
+    }
+
+    @Test
+    void alLlenarseElLoteSeVuelcaSinEsperarAlCiclo() {
+        AcuseLecturaService acuses = new AcuseLecturaService(registros, observaciones, 3);
+        acuses.incidenteLeido(1L, false);
+        acuses.incidenteLeido(2L, false);
+        verify(registros, never()).marcarComoLeidoMasivo(any());
+
+        acuses.incidenteLeido(3L, false);
+
+        verify(registros, timeout(2000)).marcarComoLeidoMasivo(any());
+        assertThat(idsVolcados(1)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        acuses.detener();
+    }
+
+    @Test
+    void unVolcadoFallidoDevuelveLosIdsAlBuffer() {
+        AcuseLecturaService acuses = new AcuseLecturaService(registros, observaciones, 2);
+        when(registros.marcarComoLeidoMasivo(any()))
+                .thenThrow(new IllegalStateException("sin conexión"))
+                .thenReturn(null);
+        for (long id = 1; id <= 5; id++) {
+            acuses.incidenteLeido(id, false);
+        }
+        acuses.detener();
+        // detener() espera a los volcados anticipados y vacía lo que queda: el lote fallido se reintenta
+        assertThat(acuses.pendientes()).isZero();
+        ArgumentCaptor<SeleccionMasivaDTO> seleccion = ArgumentCaptor.forClass(SeleccionMasivaDTO.class);
+        verify(registros, atLeast(4)).marcarComoLeidoMasivo(seleccion.capture());
+        assertThat(seleccion.getAllValues()).allSatisfy(s -> assertThat(s.getIds()).hasSizeLessThanOrEqualTo(2));
+        List<Long> volcados = new ArrayList<>();
+        seleccion.getAllValues().stream().skip(1).forEach(s -> volcados.addAll(s.getIds()));
+        assertThat(volcados).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void alCerrarSeVaciaLoPendiente() {
+        AcuseLecturaService acuses = new AcuseLecturaService(registros, observaciones, 200);
+        acuses.incidenteLeido(1L, false);
+        acuses.observacionLeida(2L, false);
+
+        acuses.detener();
+
+        assertThat(acuses.pendientes()).isZero();
+        verify(registros, times(1)).marcarComoLeidoMasivo(any());
+        verify(observaciones, times(1)).marcarComoLeidaMasivo(any());
+    }
+
+    private List<Long> idsVolcados(int llamadas) {
+        ArgumentCaptor<SeleccionMasivaDTO> seleccion = ArgumentCaptor.forClass(SeleccionMasivaDTO.class);
+        verify(registros, times(llamadas)).marcarComoLeidoMasivo(seleccion.capture());
+        List<Long> ids = new ArrayList<>();
+        seleccion.getAllValues().forEach(s -> ids.addAll(s.getIds()));
+        return ids;
+    }
+}
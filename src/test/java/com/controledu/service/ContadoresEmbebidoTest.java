@@ -0,0 +1,200 @@
+package com.controledu.service;
+
+import com.controledu.dto.DocenteResumenDTO;
+import com.controledu.dto.ImportacionEstadoDTO;
+import com.controledu.dto.TasaIncidentesDTO;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.model.Observacion;
+import com.controledu.model.RegistroConducta;
+import com.controledu.repository.DocenteRepository;
+import com.controledu.repository.EstudianteRepository;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contadores en memoria sembrados al arrancar sobre los datos sintéticos del perfil
+ * {@code embebido}: deben coincidir con lo que cuenta la base de datos.
+ */
+@SpringBootTest
+@ActiveProfiles("embebido")
+class ContadoresEmbebidoTest {
+
+    @Autowired
+    private TasaIncidentesService tasaIncidentesService;
+
+    @Autowired
+    private ActividadDocentesService actividadDocentesService;
+
+    @Autowired
+    private DocenteService docenteService;
+
+    @Autowired
+    private ImportacionRosterService importacionRosterService;
+
+    @Autowired
+    private RegistroConductaService registroConductaService;
+
+    @Autowired
+    private ObservacionService observacionService;
+
+    @Autowired
+    private NoLeidosEstudiantesService noLeidosEstudiantesService;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private RegistroConductaRepository registroConductaRepository;
+
+    @Autowired
+    private ObservacionRepository observacionRepository;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    @Test
+    void lasVentanasDeIncidentesCoincidenConLaBaseDeDatos() {
+        LocalDate hoy = LocalDate.now();
+        Map<String, Long> esperados = new HashMap<>();
+        for (Object[] fila : registroConductaRepository.countByGradoSeccionYFechaDesde(
+                hoy.minusDays(TasaIncidentesService.VENTANA_MES - 1))) {
+            if (!((LocalDate) fila[2]).isAfter(hoy)) {
+                esperados.merge(fila[0] + "|" + fila[1], ((Number) fila[3]).longValue(), Long::sum);
+            }
+        }
+
+        Map<String, Long> enMemoria = new HashMap<>();
+        for (TasaIncidentesDTO tasa : tasaIncidentesService.findTasasPorGradoSeccion()) {
+            if (tasa.getUltimos30d() > 0) {
+                enMemoria.put(tasa.getGrado() + "|" + tasa.getSeccion(), tasa.getUltimos30d());
+            }
+        }
+        assertThat(esperados).isNotEmpty();
+        assertThat(enMemoria).isEqualTo(esperados);
+    }
+
+    @Test
+    void laActividadDeDocentesCoincideConLaBaseDeDatos() {
+        List<Docente> docentes = docenteRepository.findAll();
+        assertThat(docentes).isNotEmpty();
+        for (Docente docente : docentes) {
+            assertThat(actividadDocentesService.countIncidentesByDocenteId(docente.getId()))
+                    .isEqualTo(registroConductaRepository.countByDocenteId(docente.getId()));
+            assertThat(actividadDocentesService.countObservacionesByDocenteId(docente.getId()))
+                    .isEqualTo(observacionRepository.countByDocenteId(docente.getId()));
+        }
+
+        List<Object[]> ranking = docenteService.findDocentesConMasRegistros();
+        assertThat(ranking).hasSize(docentes.size());
+        assertThat(ranking.get(0)[1]).isEqualTo(docentes.stream()
+                .mapToLong(docente -> registroConductaRepository.countByDocenteId(docente.getId())).max().orElseThrow());
+        // La plantilla en memoria no lleva credenciales
+        assertThat(ranking.get(0)[0]).isInstanceOf(DocenteResumenDTO.class);
+    }
+
+    @Test
+    void elRankingIncluyeLosDocentesImportados() throws InterruptedException {
+        int antes = docenteService.findDocentesConMasRegistros().size();
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "docentes.csv", "text/csv",
+                "nombres,apellidos,materia,usuario,password\nRanking,Importado,Física,ranking.importado,clave\n"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        String id = importacionRosterService.iniciar(ImportacionRosterService.Tipo.DOCENTES, archivo).getId();
+        try {
+            ImportacionEstadoDTO estado = esperar(id);
+            assertThat(estado.getFilasImportadas()).isEqualTo(1);
+
+            assertThat(docenteService.findDocentesConMasRegistros()).hasSize(antes + 1)
+                    .anySatisfy(fila -> assertThat(((DocenteResumenDTO) fila[0]).getNombreCompleto())
+                            .isEqualTo("Ranking Importado"));
+        } finally {
+            docenteRepository.findByUsuario("ranking.importado")
+                    .ifPresent(docente -> docenteService.deleteById(docente.getId()));
+        }
+    }
+
+    @Test
+    void lasEdicionesRecuentanLasClavesAnterioresYLasNuevas() {
+        RegistroConducta registro = registroConductaRepository.findTop5ByOrderByFechaRegistroDesc().get(0);
+        Object[] datos = registroConductaRepository.findDatosEventoById(registro.getIdRegistro()).get(0);
+        Long estudianteOriginal = (Long) datos[0];
+        Long docenteOriginal = (Long) datos[1];
+        String grupoOriginal = datos[4] + "|" + datos[5];
+        Boolean leidoOriginal = registro.getLeido();
+        // Otro estudiante de otro grupo y otro docente
+        Estudiante otroEstudiante = estudianteRepository.findAll().stream()
+                .filter(estudiante -> !(estudiante.getGrado() + "|" + estudiante.getSeccion()).equals(grupoOriginal))
+                .findFirst().orElseThrow();
+        Docente otroDocente = docenteRepository.findAll().stream()
+                .filter(docente -> !docente.getId().equals(docenteOriginal))
+                .findFirst().orElseThrow();
+
+        Observacion observacion = observacionRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Object[] clavesObservacion = observacionRepository.findClavesById(observacion.getIdObservacion()).get(0);
+        Boolean leidaOriginal = observacion.getLeido();
+
+        List<Long> estudiantes = List.of(estudianteOriginal, otroEstudiante.getId(), (Long) clavesObservacion[0]);
+        try {
+            registro.setEstudiante(otroEstudiante);
+            registro.setDocente(otroDocente);
+            registro.setLeido(!Boolean.TRUE.equals(leidoOriginal));
+            registroConductaService.guardar(registro);
+            observacion.setEstudiante(otroEstudiante);
+            observacion.setDocente(otroDocente);
+            observacion.setLeido(!Boolean.TRUE.equals(leidaOriginal));
+            observacionService.guardar(observacion);
+
+            lasVentanasDeIncidentesCoincidenConLaBaseDeDatos();
+            laActividadDeDocentesCoincideConLaBaseDeDatos();
+            comprobarNoLeidos(estudiantes);
+        } finally {
+            registro.setEstudiante(estudianteRepository.findById(estudianteOriginal).orElseThrow());
+            registro.setDocente(docenteRepository.findById(docenteOriginal).orElseThrow());
+            registro.setLeido(leidoOriginal);
+            registroConductaService.guardar(registro);
+            observacion.setEstudiante(estudianteRepository.findById((Long) clavesObservacion[0]).orElseThrow());
+            observacion.setDocente(docenteRepository.findById((Long) clavesObservacion[1]).orElseThrow());
+            observacion.setLeido(leidaOriginal);
+            observacionService.guardar(observacion);
+        }
+
+        lasVentanasDeIncidentesCoincidenConLaBaseDeDatos();
+        laActividadDeDocentesCoincideConLaBaseDeDatos();
+        comprobarNoLeidos(estudiantes);
+    }
+
+    private void comprobarNoLeidos(List<Long> estudiantes) {
+        for (Long estudianteId : estudiantes) {
+            assertThat(noLeidosEstudiantesService.countIncidentesNoLeidos(estudianteId))
+                    .isEqualTo(registroConductaRepository.countNoLeidosByEstudianteId(estudianteId));
+            assertThat(noLeidosEstudiantesService.countObservacionesNoLeidas(estudianteId))
+                    .isEqualTo(observacionRepository.countNoLeidasByEstudianteId(estudianteId));
+        }
+    }
+
+    private ImportacionEstadoDTO esperar(String id) throws InterruptedException {
+        for (int intento = 0; intento < 100; intento++) {
+            ImportacionEstadoDTO estado = importacionRosterService.findById(id).orElseThrow();
+            if (estado.getFinalizada() != null) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La importación " + id + " no terminó");
+    }
+}
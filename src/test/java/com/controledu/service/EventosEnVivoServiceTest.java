@@ -0,0 +1,147 @@
+package com.controledu.service;
+
+import com.controledu.dto.EventoEnVivoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class EventosEnVivoServiceTest {
+
+    private final EventosEnVivoService eventos = new EventosEnVivoService(2, 60_000);
+
+    @AfterEach
+    void detener() {
+        eventos.detener();
+    }
+
+    @Test
+    void unClienteLentoPierdeLosMasAntiguosYRecibeElDesfase() throws InterruptedException {
+        PanelFalso panel = new PanelFalso();
+        panel.bloquear();
+        eventos.suscribir(EventosEnVivoService.Rol.DIRECTOR, null, panel);
+
+        eventos.publicar(delta(1L, 10L, 20L));
+        // El envío del primero queda bloqueado: los siguientes se acumulan en la cola de capacidad 2
+        assertThat(panel.enviando.await(5, TimeUnit.SECONDS)).isTrue();
+        eventos.publicar(delta(2L, 10L, 20L));
+        eventos.publicar(delta(3L, 10L, 20L));
+        eventos.publicar(delta(4L, 10L, 20L));
+        panel.liberar.countDown();
+
+        esperar(() -> panel.enviados.size() == 4);
+        assertThat(panel.enviados).extracting(Enviado::nombre, Enviado::dato).containsExactly(
+                tuple("cambio", 1L),
+                tuple("desfase", 1),
+                tuple("cambio", 3L),
+                tuple("cambio", 4L));
+    }
+
+    @Test
+    void cadaDocenteYEstudianteRecibeSoloLoSuyo() throws InterruptedException {
+        PanelFalso director = new PanelFalso();
+        PanelFalso docente = new PanelFalso();
+        PanelFalso estudiante = new PanelFalso();
+        eventos.suscribir(EventosEnVivoService.Rol.DIRECTOR, null, director);
+        eventos.suscribir(EventosEnVivoService.Rol.DOCENTE, 10L, docente);
+        eventos.suscribir(EventosEnVivoService.Rol.ESTUDIANTE, 20L, estudiante);
+
+        eventos.publicar(delta(1L, 10L, 21L));
+        eventos.publicar(delta(2L, 11L, 20L));
+        eventos.publicar(delta(3L, 11L, 21L));
+
+        esperar(() -> director.enviados.size() == 3);
+        esperar(() -> docente.enviados.size() == 1 && estudiante.enviados.size() == 1);
+        assertThat(docente.enviados).extracting(Enviado::dato).containsExactly(1L);
+        assertThat(estudiante.enviados).extracting(Enviado::dato).containsExactly(2L);
+    }
+
+    @Test
+    void unPanelQueFallaAlEnviarSeDesconecta() throws InterruptedException {
+        PanelFalso panel = new PanelFalso();
+        panel.fallar = true;
+        eventos.suscribir(EventosEnVivoService.Rol.DOCENTE, 10L, panel);
+        assertThat(eventos.getConectados()).isEqualTo(1);
+
+        eventos.publicar(delta(1L, 10L, 20L));
+
+        esperar(() -> eventos.getConectados() == 0);
+        // Ya no recibe nada más
+        panel.fallar = false;
+        eventos.publicar(delta(2L, 10L, 20L));
+        eventos.latido();
+        assertThat(panel.enviados).isEmpty();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        for (int intento = 0; intento < 200 && !condicion.getAsBoolean(); intento++) {
+            Thread.sleep(25);
+        }
+        assertThat(condicion.getAsBoolean()).isTrue();
+    }
+
+    private static EventoEnVivoDTO delta(Long id, Long docenteId, Long estudianteId) {
+        return new EventoEnVivoDTO("INCIDENTE", "CREADO", id, estudianteId, docenteId, "ACTIVO", "grave",
+                LocalDate.now());
+    }
+
+    /** Nombre del evento SSE y su dato (el id del delta para los cambios). */
+    private record Enviado(String nombre, Object dato) {
+    }
+
+    /** Emitter que registra lo enviado en lugar de escribir en una respuesta HTTP. */
+    private static final class PanelFalso extends SseEmitter {
+
+        private static final Pattern NOMBRE = Pattern.compile("event:(\\w+)");
+
+        final List<Enviado> enviados = new CopyOnWriteArrayList<>();
+        final CountDownLatch enviando = new CountDownLatch(1);
+        volatile CountDownLatch liberar = new CountDownLatch(0);
+        volatile boolean fallar;
+
+        void bloquear() {
+            liberar = new CountDownLatch(1);
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            enviando.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fallar) {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+            String nombre = null;
+            Object dato = null;
+            for (ResponseBodyEmitter.DataWithMediaType parte : evento.build()) {
+                if (parte.getData() instanceof String texto) {
+                    Matcher matcher = NOMBRE.matcher(texto);
+                    if (matcher.find()) {
+                        nombre = matcher.group(1);
+                    }
+                } else {
+                    dato = parte.getData() instanceof EventoEnVivoDTO delta ? delta.getId() : parte.getData();
+                }
+            }
+            if (nombre != null) {
+                enviados.add(new Enviado(nombre, dato));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.controledu.service;
+
+import com.controledu.dto.SeleccionMasivaDTO;
+import com.controledu.dto.TransicionEstadoDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.HistorialEstadoRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FlujoIncidentesServiceTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2026, 3, 2);
+
+    private final RegistroConductaRepository repositorio = mock(RegistroConductaRepository.class);
+    private final ApplicationEventPublisher publicador = mock(ApplicationEventPublisher.class);
+    private final FlujoIncidentesService flujo =
+            new FlujoIncidentesService(repositorio, mock(HistorialEstadoRepository.class), publicador);
+
+    @Test
+    void laTransicionPublicaLosDatosDeLaFila() {
+        when(repositorio.findEstadoById(5L)).thenReturn("ACTIVO");
+        when(repositorio.cambiarEstadoSi(5L, "ACTIVO", "RESUELTO")).thenReturn(true);
+        when(repositorio.findDatosEventoById(5L)).thenReturn(List.<Object[]>of(
+                new Object[]{12L, 3L, 4L, "Grave", "7", "A", FECHA, true}));
+
+        assertThat(flujo.transicionar(5L, null, "RESUELTO", "director").getResultado())
+                .isEqualTo(FlujoIncidentesService.Resultado.APLICADA);
+
+        assertThat(eventoPublicado()).isEqualTo(new RegistroConductaEvent(RegistroConductaEvent.Tipo.ESTADO_CAMBIADO,
+                5L, 12L, 3L, 4L, "Grave", "7", "A", FECHA, "RESUELTO", true));
+    }
+
+    @Test
+    void elEstadoLeidoDeLaColumnaSeNormaliza() {
+        when(repositorio.findEstadoById(5L)).thenReturn(" activo ");
+        when(repositorio.cambiarEstadoSi(5L, "ACTIVO", "RESUELTO")).thenReturn(true);
+        when(repositorio.findDatosEventoById(5L)).thenReturn(List.<Object[]>of(
+                new Object[]{12L, 3L, 4L, "Grave", "7", "A", FECHA, false}));
+
+        TransicionEstadoDTO transicion = flujo.transicionar(5L, null, "resuelto", "director");
+
+        assertThat(transicion.getResultado()).isEqualTo(FlujoIncidentesService.Resultado.APLICADA);
+        assertThat(transicion.getEstadoAnterior()).isEqualTo("ACTIVO");
+    }
+
+    @Test
+    void laTransicionEnLotePublicaLosDatosDeCadaFila() {
+        when(repositorio.cambiarEstadoEnLote(eq(Set.of("ACTIVO")), eq("RESUELTO"), any(), isNull(), isNull()))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, 12L, null, FECHA, "activo", true}));
+        when(repositorio.findDatosEventoByIds(List.of(5L))).thenReturn(List.<Object[]>of(
+                new Object[]{12L, null, 4L, "Grave", "7", "A", FECHA, true, 5L}));
+        SeleccionMasivaDTO seleccion = new SeleccionMasivaDTO();
+        seleccion.setIds(List.of(5L));
+        seleccion.setEstado("RESUELTO");
+
+        flujo.transicionarEnLote(seleccion, "director");
+
+        assertThat(eventoPublicado()).isEqualTo(new RegistroConductaEvent(RegistroConductaEvent.Tipo.ESTADO_CAMBIADO,
+                5L, 12L, null, 4L, "Grave", "7", "A", FECHA, "RESUELTO", true));
+    }
+
+    private RegistroConductaEvent eventoPublicado() {
+        ArgumentCaptor<Object> evento = ArgumentCaptor.forClass(Object.class);
+        verify(publicador).publishEvent(evento.capture());
+        return (RegistroConductaEvent) evento.getValue();
+    }
+}
@@ -0,0 +1,146 @@
+package com.controledu.service;
+
+import com.controledu.dto.ImportacionEstadoDTO;
+import com.controledu.model.Docente;
+import com.controledu.model.Estudiante;
+import com.controledu.repository.DocenteRepository;
+import com.controledu.repository.EstudianteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportacionRosterServiceTest {
+
+    private final EstudianteRepository estudiantes = mock(EstudianteRepository.class);
+    private final DocenteRepository docentes = mock(DocenteRepository.class);
+    private final EstudianteService estudianteService = mock(EstudianteService.class);
+    private final DocenteService docenteService = mock(DocenteService.class);
+    private final ImportacionRosterService importaciones = new ImportacionRosterService(
+            estudiantes, docentes, estudianteService, docenteService, mock(PlatformTransactionManager.class));
+
+    @AfterEach
+    void detener() {
+        importaciones.detener();
+    }
+
+    @Test
+    void reportaLasFilasInvalidasYLosUsuariosRepetidos() throws InterruptedException {
+        when(estudiantes.findAllUsuariosDelSistema()).thenReturn(List.of("Existente"));
+        List<Estudiante> guardados = new ArrayList<>();
+        when(estudiantes.insertarEnLote(anyList())).thenAnswer(invocacion -> guardar(invocacion.getArgument(0), guardados));
+
+        ImportacionEstadoDTO estado = importar(ImportacionRosterService.Tipo.ESTUDIANTES, """
+                Nombres;Apellidos;Grado;Sección;Fecha_Nacimiento;Usuario;Password
+                Ana;Pérez;7;A;14/03/2012;ana.perez;clave
+                Luis;Gómez;7;A;;existente;clave
+                Eva;Ruiz;7;B;2012-05-01;ANA.PEREZ;clave
+                Sol;Díaz;;B;;sol.diaz;clave
+
+                Raúl;Mora;8;C;2011/13/01;raul.mora;clave
+                """);
+
+        assertThat(estado.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(estado.getFilasProcesadas()).isEqualTo(5);
+        assertThat(estado.getFilasImportadas()).isEqualTo(1);
+        assertThat(estado.getFilasConError()).isEqualTo(4);
+        assertThat(estado.getErrores()).extracting(ImportacionEstadoDTO.ErrorFila::getLinea,
+                        ImportacionEstadoDTO.ErrorFila::getUsuario, ImportacionEstadoDTO.ErrorFila::getMensaje)
+                .containsExactly(
+                        tuple(3L, "existente", "El usuario ya existe"),
+                        tuple(4L, "ANA.PEREZ", "El usuario ya existe"),
+                        tuple(5L, null, "El campo 'grado' es obligatorio"),
+                        tuple(7L, null, "Fecha de nacimiento inválida: 2011/13/01"));
+
+        assertThat(guardados).singleElement().satisfies(estudiante -> {
+            assertThat(estudiante.getUsuario()).isEqualTo("ana.perez");
+            assertThat(estudiante.getFechaNacimiento()).isEqualTo(LocalDate.of(2012, 3, 14));
+        });
+        verify(estudianteService).olvidarRoster();
+    }
+
+    @Test
+    void unLoteQueFallaQuedaReportadoFilaPorFila() throws InterruptedException {
+        when(estudiantes.findAllUsuariosDelSistema()).thenReturn(List.of());
+        when(docentes.insertarEnLote(anyList())).thenThrow(new IllegalStateException("clave duplicada"));
+
+        ImportacionEstadoDTO estado = importar(ImportacionRosterService.Tipo.DOCENTES, """
+                nombres,apellidos,materia,usuario,password
+                Ana,Pérez,Física,ana.perez,clave
+                Luis,Gómez,,luis.gomez,clave
+                """);
+
+        assertThat(estado.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(estado.getFilasImportadas()).isZero();
+        assertThat(estado.getErrores()).extracting(ImportacionEstadoDTO.ErrorFila::getLinea).containsExactly(2L, 3L);
+        assertThat(estado.getErrores()).allSatisfy(error ->
+                assertThat(error.getMensaje()).isEqualTo("Error al guardar el lote: clave duplicada"));
+        // Nada guardado: la plantilla del ranking sigue valiendo
+        verify(docenteService, never()).olvidarPlantilla();
+    }
+
+    @Test
+    void sinLasColumnasObligatoriasFalla() throws InterruptedException {
+        when(estudiantes.findAllUsuariosDelSistema()).thenReturn(List.of());
+
+        ImportacionEstadoDTO estado = importar(ImportacionRosterService.Tipo.DOCENTES, """
+                nombres,usuario
+                Ana,ana.perez
+                """);
+
+        assertThat(estado.getEstado()).isEqualTo("FALLIDA");
+        assertThat(estado.getMensaje()).isEqualTo("Faltan columnas en el encabezado: [apellidos, password]");
+        verify(docentes, never()).insertarEnLote(any());
+    }
+
+    @Test
+    void losDocentesImportadosRenuevanLaPlantilla() throws InterruptedException {
+        when(estudiantes.findAllUsuariosDelSistema()).thenReturn(List.of());
+        List<Docente> guardados = new ArrayList<>();
+        when(docentes.insertarEnLote(anyList())).thenAnswer(invocacion -> guardar(invocacion.getArgument(0), guardados));
+
+        ImportacionEstadoDTO estado = importar(ImportacionRosterService.Tipo.DOCENTES, """
+                nombres,apellidos,materia,usuario,password
+                Ana,Pérez,Física,ana.perez,clave
+                """);
+
+        assertThat(estado.getFilasImportadas()).isEqualTo(1);
+        assertThat(guardados).singleElement().extracting(Docente::getMateria).isEqualTo("Física");
+        verify(docenteService).olvidarPlantilla();
+        verify(estudianteService, never()).olvidarRoster();
+    }
+
+    /** El servicio reutiliza la lista del lote: se copia antes de que la vacíe. */
+    private static <T> int guardar(List<T> lote, List<T> guardados) {
+        guardados.addAll(lote);
+        return lote.size();
+    }
+
+    private ImportacionEstadoDTO importar(ImportacionRosterService.Tipo tipo, String csv) throws InterruptedException {
+        MockMultipartFile archivo = new MockMultipartFile("archivo", "roster.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+        String id = importaciones.iniciar(tipo, archivo).getId();
+        for (int intento = 0; intento < 200; intento++) {
+            ImportacionEstadoDTO estado = importaciones.findById(id).orElseThrow();
+            if (estado.getFinalizada() != null) {
+                return estado;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("La importación " + id + " no terminó");
+    }
+}
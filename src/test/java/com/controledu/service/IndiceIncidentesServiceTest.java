@@ -0,0 +1,68 @@
+package com.controledu.service;
+
+import com.controledu.dto.FiltroIncidentesDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.RegistroConductaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndiceIncidentesServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 3, 2);
+
+    private final RegistroConductaRepository repositorio = mock(RegistroConductaRepository.class);
+    private final CoherenciaCacheService sinCoherencia = new CoherenciaCacheService(null, null, false, "prueba", 0, 0, 0);
+    private final IndiceIncidentesService indice = new IndiceIncidentesService(repositorio, null, sinCoherencia);
+
+    @Test
+    void unaModificacionReescribeLaFilaEnSuLugar() {
+        indice.cargar(Stream.empty());
+        indice.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, 1L, "7", "ACTIVO"));
+        indice.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, 2L, "7", "ACTIVO"));
+        indice.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, 3L, "8", "ACTIVO"));
+
+        for (int i = 0; i < 3; i++) {
+            indice.aplicar(evento(RegistroConductaEvent.Tipo.ACTUALIZADO, 1L, "8", "RESUELTO"));
+        }
+
+        assertThat(indice.contar(null)).isEqualTo(3);
+        assertThat(indice.contar(filtro("8", null))).isEqualTo(2);
+        assertThat(indice.contar(filtro(null, "RESUELTO"))).isEqualTo(1);
+        // Conserva su posición: sigue siendo el más antiguo
+        assertThat(indice.findIds(null, 0)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void antesDeCargarseConsultaLaBaseDeDatos() {
+        when(repositorio.countFiltrados(any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(5L);
+        FiltroIncidentesDTO filtro = filtro(" ", "RESUELTO");
+
+        assertThat(indice.contar(filtro)).isEqualTo(5);
+        verify(repositorio).countFiltrados(isNull(), isNull(), isNull(), eq("RESUELTO"),
+                isNull(), isNull(), isNull(), isNull(), isNull());
+
+        indice.cargar(Stream.empty());
+        assertThat(indice.contar(filtro)).isZero();
+    }
+
+    private static FiltroIncidentesDTO filtro(String grado, String estado) {
+        FiltroIncidentesDTO filtro = new FiltroIncidentesDTO();
+        filtro.setGrado(grado);
+        filtro.setEstado(estado);
+        return filtro;
+    }
+
+    private static RegistroConductaEvent evento(RegistroConductaEvent.Tipo tipo, Long id, String grado, String estado) {
+        return new RegistroConductaEvent(tipo, id, 10L + id, 1L, 4L, "grave", grado, "A", HOY, estado, false);
+    }
+}
@@ -0,0 +1,97 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.EventoOutbox;
+import com.controledu.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class OutboxServiceTest {
+
+    private final EventoOutboxRepository repositorio = mock(EventoOutboxRepository.class);
+    private final OutboxService outbox = new OutboxService(repositorio, new ObjectMapper().findAndRegisterModules(), true);
+    private final TransactionTemplate transaccion = new TransactionTemplate(new TransaccionesFalsas());
+
+    @Test
+    void losEventosDeUnaTransaccionSeInsertanJuntosAlConfirmar() {
+        transaccion.executeWithoutResult(status -> {
+            outbox.onRegistroConducta(incidente(1L));
+            outbox.onObservacion(new ObservacionEvent(ObservacionEvent.Tipo.CREADO, 2L, 3L, 4L, "Conducta",
+                    LocalDate.now(), false));
+            // Nada se escribe antes del commit
+            verify(repositorio, never()).insertarEnLote(any());
+        });
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EventoOutbox>> lote = ArgumentCaptor.forClass(List.class);
+        verify(repositorio).insertarEnLote(lote.capture());
+        assertThat(lote.getValue()).extracting(EventoOutbox::getAgregado, EventoOutbox::getAgregadoId, EventoOutbox::getTipo)
+                .containsExactly(
+                        tuple("INCIDENTE", 1L, "CREADO"),
+                        tuple("OBSERVACION", 2L, "CREADO"));
+        assertThat(lote.getValue()).allSatisfy(fila -> {
+            assertThat(fila.getCreadoEn()).isNotNull();
+            assertThat(fila.getPayload()).contains("\"estudianteId\"");
+        });
+    }
+
+    @Test
+    void unaTransaccionRevertidaNoDejaNadaEnElOutbox() {
+        assertThatThrownBy(() -> transaccion.executeWithoutResult(status -> {
+            outbox.onRegistroConducta(incidente(1L));
+            throw new IllegalStateException("falla la validación");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(repositorio, never()).insertarEnLote(any());
+
+        // La siguiente transacción empieza con su propio lote, sin restos de la revertida
+        transaccion.executeWithoutResult(status -> outbox.onRegistroConducta(incidente(5L)));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EventoOutbox>> lote = ArgumentCaptor.forClass(List.class);
+        verify(repositorio).insertarEnLote(lote.capture());
+        assertThat(lote.getValue()).extracting(EventoOutbox::getAgregadoId).containsExactly(5L);
+    }
+
+    private static RegistroConductaEvent incidente(Long id) {
+        return new RegistroConductaEvent(RegistroConductaEvent.Tipo.CREADO, id, 2L, 3L, 4L, "grave", "7", "A",
+                LocalDate.now(), "ACTIVO", false);
+    }
+
+    /** Gestor de transacciones sin recurso: solo dispara las sincronizaciones de commit y rollback. */
+    private static final class TransaccionesFalsas extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
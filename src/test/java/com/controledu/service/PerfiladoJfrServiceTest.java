@@ -0,0 +1,71 @@
+package com.controledu.service;
+
+import com.controledu.dto.GrabacionJfrDTO;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfiladoJfrServiceTest {
+
+    private final PerfiladoJfrService servicio = new PerfiladoJfrService(Duration.ofMinutes(5), 50, 1);
+    private final List<Long> iniciadas = new ArrayList<>();
+
+    @AfterEach
+    void cerrar() {
+        iniciadas.forEach(servicio::cerrar);
+    }
+
+    @Test
+    void laDuracionSeRecortaALaMaxima() {
+        assertThat(PerfiladoJfrService.duracionAcotada(Duration.ofDays(1), Duration.ofMinutes(5)))
+                .isEqualTo(Duration.ofMinutes(5));
+        assertThat(PerfiladoJfrService.duracionAcotada(null, Duration.ofMinutes(5))).isEqualTo(Duration.ofMinutes(5));
+        assertThat(PerfiladoJfrService.duracionAcotada(Duration.ofSeconds(-1), Duration.ofMinutes(5)))
+                .isEqualTo(Duration.ofMinutes(5));
+        assertThat(PerfiladoJfrService.duracionAcotada(Duration.ofSeconds(30), Duration.ofMinutes(5)))
+                .isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void noSuperaElMaximoDeGrabacionesActivas() {
+        GrabacionJfrDTO primera = iniciar();
+        assertThat(primera.getDuracionMaximaSegundos()).isEqualTo(300);
+
+        assertThat(servicio.iniciar("default", Duration.ofDays(1), 0)).isEmpty();
+
+        servicio.detener(primera.getId());
+        iniciar();
+    }
+
+    @Test
+    void laGrabacionNoExponeElEntornoDelServidor() throws Exception {
+        GrabacionJfrDTO grabacion = iniciar();
+        Path archivo = servicio.volcar(grabacion.getId()).orElseThrow();
+        try {
+            List<String> tipos = RecordingFile.readAllEvents(archivo).stream()
+                    .map(RecordedEvent::getEventType)
+                    .map(EventType::getName)
+                    .distinct()
+                    .toList();
+            assertThat(tipos).isNotEmpty().doesNotContainAnyElementsOf(PerfiladoJfrService.EVENTOS_SENSIBLES);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private GrabacionJfrDTO iniciar() {
+        GrabacionJfrDTO grabacion = servicio.iniciar("default", Duration.ofDays(1), 0).orElseThrow();
+        iniciadas.add(grabacion.getId());
+        return grabacion;
+    }
+}
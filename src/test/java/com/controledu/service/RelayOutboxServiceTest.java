@@ -0,0 +1,121 @@
+package com.controledu.service;
+
+import com.controledu.model.CheckpointOutbox;
+import com.controledu.model.EventoOutbox;
+import com.controledu.repository.CheckpointOutboxRepository;
+import com.controledu.repository.EventoOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RelayOutboxServiceTest {
+
+    private final EventoOutboxRepository eventos = mock(EventoOutboxRepository.class);
+    private final CheckpointOutboxRepository checkpoints = mock(CheckpointOutboxRepository.class);
+    private final Map<String, Long> guardados = new HashMap<>();
+    private final SinkFalso sink = new SinkFalso();
+    private final RelayOutboxService relay =
+            new RelayOutboxService(List.of(sink), eventos, checkpoints, true, 3, 0, 72);
+
+    RelayOutboxServiceTest() {
+        // Outbox con los ids 1..7; cada consulta devuelve hasta el límite a partir del checkpoint
+        when(eventos.findByIdEventoGreaterThanAndCreadoEnLessThanEqualOrderByIdEventoAsc(anyLong(), any(), any()))
+                .thenAnswer(invocacion -> {
+                    long desde = invocacion.getArgument(0);
+                    Limit limite = invocacion.getArgument(2);
+                    return LongStream.rangeClosed(desde + 1, 7).limit(limite.max())
+                            .mapToObj(RelayOutboxServiceTest::evento).toList();
+                });
+        when(checkpoints.findById(anyString())).thenAnswer(invocacion -> {
+            Long ultimoId = guardados.get(invocacion.<String>getArgument(0));
+            if (ultimoId == null) {
+                return Optional.empty();
+            }
+            CheckpointOutbox checkpoint = new CheckpointOutbox();
+            checkpoint.setSink(invocacion.getArgument(0));
+            checkpoint.setUltimoId(ultimoId);
+            return Optional.of(checkpoint);
+        });
+        when(checkpoints.save(any())).thenAnswer(invocacion -> {
+            CheckpointOutbox checkpoint = invocacion.getArgument(0);
+            guardados.put(checkpoint.getSink(), checkpoint.getUltimoId());
+            return checkpoint;
+        });
+    }
+
+    @Test
+    void elCheckpointAvanzaLoteALoteHastaElUltimoParcial() {
+        relay.drenar();
+
+        assertThat(sink.lotes).containsExactly(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L), List.of(7L));
+        assertThat(guardados).containsEntry("falso", 7L);
+
+        // Sin eventos nuevos no se entrega nada más
+        relay.drenar();
+        assertThat(sink.lotes).hasSize(3);
+    }
+
+    @Test
+    void unLoteRechazadoSeReintentaSinAvanzarElCheckpoint() {
+        sink.fallosPendientes = 1;
+        guardados.put("falso", 3L);
+
+        relay.drenar();
+        assertThat(guardados).containsEntry("falso", 3L);
+        assertThat(sink.lotes).isEmpty();
+        assertThat(sink.intentos).containsExactly(List.of(4L, 5L, 6L));
+
+        relay.drenar();
+        assertThat(sink.lotes).containsExactly(List.of(4L, 5L, 6L), List.of(7L));
+        assertThat(guardados).containsEntry("falso", 7L);
+    }
+
+    private static EventoOutbox evento(long id) {
+        EventoOutbox evento = new EventoOutbox();
+        evento.setIdEvento(id);
+        evento.setAgregado("INCIDENTE");
+        evento.setAgregadoId(id);
+        evento.setTipo("CREADO");
+        evento.setPayload("{}");
+        evento.setCreadoEn(LocalDateTime.now().minusMinutes(1));
+        return evento;
+    }
+
+    /** Sink que registra los ids de cada lote y puede rechazar los primeros intentos. */
+    private static final class SinkFalso implements SinkOutbox {
+
+        final List<List<Long>> intentos = new ArrayList<>();
+        final List<List<Long>> lotes = new ArrayList<>();
+        int fallosPendientes;
+
+        @Override
+        public String nombre() {
+            return "falso";
+        }
+
+        @Override
+        public void enviar(List<EventoOutbox> lote) throws Exception {
+            List<Long> ids = lote.stream().map(EventoOutbox::getIdEvento).toList();
+            intentos.add(ids);
+            if (fallosPendientes > 0) {
+                fallosPendientes--;
+                throw new Exception("destino no disponible");
+            }
+            lotes.add(ids);
+        }
+    }
+}
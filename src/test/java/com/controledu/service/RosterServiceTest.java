@@ -0,0 +1,108 @@
+package com.controledu.service;
+
+import com.controledu.dto.EstudianteResumenDTO;
+import com.controledu.repository.EstudianteRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RosterServiceTest {
+
+    private final EstudianteRepository repositorio = mock(EstudianteRepository.class);
+    private final CoherenciaCacheService sinCoherencia = new CoherenciaCacheService(null, null, false, "prueba", 0, 0, 0);
+    private final RosterService roster = new RosterService(repositorio, sinCoherencia);
+
+    @Test
+    void laInstantaneaSeConstruyeUnaVezConSusIndices() {
+        when(repositorio.findAllResumen()).thenReturn(List.of(
+                fila(1L, "Ruiz", "8", "B"), fila(2L, "Díaz", "7", "B"), fila(3L, "Alva", "7", "A")));
+
+        RosterService.Instantanea instantanea = roster.instantanea();
+
+        assertThat(roster.instantanea()).isSameAs(instantanea);
+        verify(repositorio, times(1)).findAllResumen();
+        assertThat(instantanea.getEstudiantes()).extracting(EstudianteResumenDTO::getId).containsExactly(3L, 2L, 1L);
+        assertThat(instantanea.findByGrado("7")).extracting(EstudianteResumenDTO::getId).containsExactly(3L, 2L);
+        assertThat(instantanea.findByGradoAndSeccion("7", "B")).extracting(EstudianteResumenDTO::getId).containsExactly(2L);
+        assertThat(instantanea.getGrados()).containsExactly("7", "8");
+        assertThat(instantanea.getSecciones()).containsExactly("A", "B");
+    }
+
+    @Test
+    void altasEdicionesYBajasParcheanUnaNuevaVersion() {
+        when(repositorio.findAllResumen()).thenReturn(List.of(fila(1L, "Ruiz", "8", "B"), fila(2L, "Díaz", "7", "B")));
+        RosterService.Instantanea inicial = roster.instantanea();
+
+        roster.guardado(fila(3L, "Alva", "7", "A"));
+        // La edición cambia de grupo: sale del índice anterior y entra en el nuevo
+        roster.guardado(fila(1L, "Ruiz", "7", "A"));
+        roster.eliminado(2L);
+        // Una baja desconocida no crea versión
+        long version = roster.instantanea().getVersion();
+        roster.eliminado(99L);
+
+        RosterService.Instantanea actual = roster.instantanea();
+        assertThat(actual.getVersion()).isEqualTo(version).isGreaterThan(inicial.getVersion());
+        assertThat(actual.getEstudiantes()).extracting(EstudianteResumenDTO::getId).containsExactly(3L, 1L);
+        assertThat(actual.findByGrado("8")).isEmpty();
+        assertThat(actual.findByGradoAndSeccion("7", "A")).hasSize(2);
+        assertThat(actual.findById(2L)).isEmpty();
+        // La instantánea anterior no cambia: los lectores que la tenían siguen viendo un estado completo
+        assertThat(inicial.getEstudiantes()).extracting(EstudianteResumenDTO::getId).containsExactly(2L, 1L);
+        verify(repositorio, times(1)).findAllResumen();
+    }
+
+    @Test
+    void sinInstantaneaLosParchesNoCarganNada() {
+        roster.guardado(fila(1L, "Ruiz", "8", "B"));
+        roster.eliminado(1L);
+        verify(repositorio, never()).findAllResumen();
+
+        when(repositorio.findAllResumen()).thenReturn(List.of(fila(2L, "Díaz", "7", "B")));
+        assertThat(roster.findAll()).extracting(EstudianteResumenDTO::getId).containsExactly(2L);
+    }
+
+    @Test
+    void invalidarReconstruyeEnLaSiguienteLectura() {
+        when(repositorio.findAllResumen())
+                .thenReturn(List.of(fila(1L, "Ruiz", "8", "B")))
+                .thenReturn(List.of(fila(1L, "Ruiz", "8", "B"), fila(2L, "Díaz", "7", "B")));
+        RosterService.Instantanea inicial = roster.instantanea();
+
+        roster.invalidar();
+
+        RosterService.Instantanea reconstruida = roster.instantanea();
+        assertThat(reconstruida.getVersion()).isGreaterThan(inicial.getVersion());
+        assertThat(reconstruida.size()).isEqualTo(2);
+        verify(repositorio, times(2)).findAllResumen();
+    }
+
+    @Test
+    void unCambioRemotoReleeSoloLaFilaAfectada() {
+        when(repositorio.findAllResumen()).thenReturn(List.of(fila(1L, "Ruiz", "8", "B"), fila(2L, "Díaz", "7", "B")));
+        roster.instantanea();
+        when(repositorio.findResumenById(1L)).thenReturn(Optional.of(fila(1L, "Ruiz Mora", "8", "B")));
+        when(repositorio.findResumenById(2L)).thenReturn(Optional.empty());
+
+        roster.invalidarRemoto("1");
+        roster.invalidarRemoto("2");
+
+        assertThat(roster.findAll()).extracting(EstudianteResumenDTO::getApellidos).containsExactly("Ruiz Mora");
+
+        roster.invalidarRemoto(CoherenciaCacheService.TODAS);
+        roster.findAll();
+        verify(repositorio, times(2)).findAllResumen();
+    }
+
+    private static EstudianteResumenDTO fila(Long id, String apellidos, String grado, String seccion) {
+        return new EstudianteResumenDTO(id, "Nombre", apellidos, grado, seccion, "usuario" + id, null);
+    }
+}
@@ -0,0 +1,328 @@
+package com.controledu.service;
+
+import com.controledu.event.ObservacionEvent;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.model.EventoOutbox;
+import com.controledu.model.RegistroConducta;
+import com.controledu.repository.EventoOutboxRepository;
+import com.controledu.repository.ObservacionRepository;
+import com.controledu.repository.RegistroConductaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SnapshotIndicesServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    private final RegistroConductaRepository registros = mock(RegistroConductaRepository.class);
+    private final ObservacionRepository observaciones = mock(ObservacionRepository.class);
+    private final EventoOutboxRepository outbox = mock(EventoOutboxRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // ================================================================
+    // FORMATO DEL ARCHIVO
+    // ================================================================
+
+    @Test
+    void elArchivoTieneCabeceraSeccionesYMarcaDeFin() throws IOException {
+        servicio(new IndiceFalso("prueba", 3, new byte[]{1, 2, 3})).escribir();
+
+        ByteBuffer archivo = ByteBuffer.wrap(Files.readAllBytes(ruta()));
+        assertThat(archivo.getInt()).isEqualTo(0x43454458);
+        assertThat(archivo.getInt()).isEqualTo(1);
+        assertThat(archivo.getLong()).isCloseTo(System.currentTimeMillis(), within(60_000L));
+        SnapshotIndicesService.MarcaDeAgua.leer(archivo);
+        SnapshotIndicesService.MarcaDeAgua.leer(archivo);
+        assertThat(archivo.getInt()).isEqualTo(1);
+        assertThat(SnapshotFormato.leerTexto(archivo)).isEqualTo("prueba");
+        assertThat(archivo.getInt()).isEqualTo(3);
+        assertThat(archivo.getLong()).isEqualTo(3);
+        archivo.position(archivo.position() + 3);
+        assertThat(archivo.getInt()).isEqualTo(0x46494E58);
+        assertThat(archivo.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void restauraLasSeccionesConLaMismaVersion() {
+        servicio(new IndiceFalso("prueba", 3, new byte[]{1, 2, 3})).escribir();
+
+        IndiceFalso restaurado = new IndiceFalso("prueba", 3, new byte[0]);
+        IndiceFalso otraVersion = new IndiceFalso("prueba", 4, new byte[0]);
+        servicio(restaurado).inicializar();
+        servicio(otraVersion).inicializar();
+
+        assertThat(restaurado.contenido).containsExactly(1, 2, 3);
+        assertThat(restaurado.reconstrucciones).isZero();
+        assertThat(otraVersion.contenido).isEmpty();
+        assertThat(otraVersion.reconstrucciones).isEqualTo(1);
+    }
+
+    @Test
+    void unArchivoIncompletoSeDescarta() throws IOException {
+        servicio(new IndiceFalso("prueba", 3, new byte[]{1, 2, 3})).escribir();
+        try (FileChannel canal = FileChannel.open(ruta(), StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 2);
+        }
+
+        IndiceFalso indice = new IndiceFalso("prueba", 3, new byte[0]);
+        servicio(indice).inicializar();
+
+        assertThat(indice.reconstrucciones).isEqualTo(1);
+        assertThat(indice.contenido).isEmpty();
+    }
+
+    // ================================================================
+    // PUESTA AL DÍA
+    // ================================================================
+
+    @Test
+    void reproduceLasAltasPosterioresALaMarcaDeAgua() {
+        when(registros.findMaxId()).thenReturn(10L);
+        when(registros.findIdsMayoresA(any())).thenReturn(List.of(8L, 10L));
+        SnapshotIndicesService anterior = servicio(new IndiceFalso("prueba", 1, new byte[0]));
+        anterior.inicializar();
+        anterior.escribir();
+
+        // 9 confirmó tarde y 11 después del snapshot; 8 y 10 ya estaban
+        when(registros.findByIdRegistroGreaterThanOrderByIdRegistroAsc(any()))
+                .thenReturn(List.of(registro(8L), registro(9L), registro(10L), registro(11L)));
+        IndiceFalso indice = new IndiceFalso("prueba", 1, new byte[0]);
+        servicio(indice).inicializar();
+
+        assertThat(indice.aplicados).extracting(RegistroConductaEvent::idRegistro).containsExactly(9L, 11L);
+    }
+
+    @Test
+    void releeLasClavesDeLosCambiosDelOutboxPosterioresALaCaptura() throws IOException {
+        servicio(new IndiceFalso("prueba", 1, new byte[0])).escribir();
+        when(outbox.findByCreadoEnGreaterThanEqualAndIdEventoGreaterThanOrderByIdEventoAsc(any(), anyLong(), any()))
+                .thenReturn(List.of(
+                        fila(1L, "INCIDENTE", evento(RegistroConductaEvent.Tipo.LEIDO, 7L)),
+                        fila(2L, "INCIDENTE", evento(RegistroConductaEvent.Tipo.ESTADO_CAMBIADO, 7L)),
+                        fila(3L, "INCIDENTE", evento(RegistroConductaEvent.Tipo.ELIMINADO, 9L)),
+                        fila(4L, "OBSERVACION", objectMapper.writeValueAsString(
+                                new ObservacionEvent(ObservacionEvent.Tipo.LEIDO, 5L, 1L, 2L, "x", LocalDate.now(), true)))));
+
+        IndiceFalso indice = new IndiceFalso("prueba", 1, new byte[0]);
+        servicio(indice).inicializar();
+
+        assertThat(indice.releidas).containsExactlyInAnyOrder("7", "9", "obs-5");
+        assertThat(indice.reconstrucciones).isZero();
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outbox).findByCreadoEnGreaterThanEqualAndIdEventoGreaterThanOrderByIdEventoAsc(desde.capture(), anyLong(), any());
+        assertThat(desde.getValue()).isBefore(LocalDateTime.now().minus(SnapshotIndicesService.MARGEN_OUTBOX).plusSeconds(5));
+    }
+
+    @Test
+    void demasiadasClavesModificadasReconstruyen() throws IOException {
+        servicio(new IndiceFalso("prueba", 1, new byte[0])).escribir();
+        List<EventoOutbox> filas = new ArrayList<>();
+        for (long id : LongStream.rangeClosed(1, SnapshotIndicesService.MAXIMO_CLAVES_REFRESCO + 1).toArray()) {
+            filas.add(fila(id, "INCIDENTE", evento(RegistroConductaEvent.Tipo.LEIDO, id)));
+        }
+        when(outbox.findByCreadoEnGreaterThanEqualAndIdEventoGreaterThanOrderByIdEventoAsc(any(), anyLong(), any()))
+                .thenReturn(filas);
+
+        IndiceFalso indice = new IndiceFalso("prueba", 1, new byte[0]);
+        servicio(indice).inicializar();
+
+        assertThat(indice.reconstrucciones).isEqualTo(1);
+        assertThat(indice.releidas).isEmpty();
+    }
+
+    @Test
+    void sinOutboxSeReconstruye() {
+        servicio(new IndiceFalso("prueba", 1, new byte[0])).escribir();
+
+        IndiceFalso indice = new IndiceFalso("prueba", 1, new byte[0]);
+        new SnapshotIndicesService(List.of(indice), registros, observaciones, outbox, objectMapper,
+                true, ruta().toString(), 24, false, 72).inicializar();
+
+        assertThat(indice.reconstrucciones).isEqualTo(1);
+    }
+
+    @Test
+    void losEventosDuranteElArranqueNoEsperanAlMutexYSeReleen() {
+        IndiceFalso indice = new IndiceFalso("prueba", 1, new byte[0]);
+        SnapshotIndicesService servicio = servicio(indice);
+        // El commit de una petición llega desde otro hilo mientras se reconstruye
+        indice.alReconstruir = () -> CompletableFuture
+                .runAsync(() -> servicio.onRegistroConducta(alta(12L)))
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        servicio.inicializar();
+
+        assertThat(indice.aplicados).isEmpty();
+        assertThat(indice.releidas).containsExactly("12");
+
+        servicio.onRegistroConducta(alta(13L));
+        assertThat(indice.aplicados).extracting(RegistroConductaEvent::idRegistro).containsExactly(13L);
+    }
+
+    // ================================================================
+    // MARCA DE AGUA
+    // ================================================================
+
+    @Test
+    void laMarcaDeAguaRecuerdaLosIdsRecientesFueraDeOrden() throws IOException {
+        SnapshotIndicesService.MarcaDeAgua marca = new SnapshotIndicesService.MarcaDeAgua();
+        marca.registrar(5_000);
+        marca.registrar(4_998);
+
+        assertThat(marca.desdeParaReproducir()).isEqualTo(5_000 - SnapshotIndicesService.MARGEN_IDS);
+        assertThat(marca.yaAplicado(3_000)).isTrue();
+        assertThat(marca.yaAplicado(4_998)).isTrue();
+        assertThat(marca.yaAplicado(4_999)).isFalse();
+        assertThat(marca.yaAplicado(5_001)).isFalse();
+
+        marca.registrar(7_000);
+        assertThat(marca.yaAplicado(4_999)).isTrue(); // quedó por debajo del margen
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        marca.escribir(new DataOutputStream(bytes));
+        SnapshotIndicesService.MarcaDeAgua leida = SnapshotIndicesService.MarcaDeAgua.leer(ByteBuffer.wrap(bytes.toByteArray()));
+        assertThat(leida.desdeParaReproducir()).isEqualTo(marca.desdeParaReproducir());
+        assertThat(leida.yaAplicado(7_000)).isTrue();
+        assertThat(leida.yaAplicado(6_999)).isFalse();
+    }
+
+    // ================================================================
+    // AUXILIARES
+    // ================================================================
+
+    private Path ruta() {
+        return directorio.resolve("indices.snap");
+    }
+
+    private SnapshotIndicesService servicio(IndiceEnMemoria indice) {
+        return new SnapshotIndicesService(List.of(indice), registros, observaciones, outbox, objectMapper,
+                true, ruta().toString(), 24, true, 72);
+    }
+
+    private static RegistroConducta registro(Long id) {
+        RegistroConducta registro = new RegistroConducta();
+        registro.setIdRegistro(id);
+        return registro;
+    }
+
+    private static RegistroConductaEvent alta(Long id) {
+        return new RegistroConductaEvent(RegistroConductaEvent.Tipo.CREADO, id, 1L, 2L, 3L, "leve", "7", "A",
+                LocalDate.now(), "ACTIVO", false);
+    }
+
+    private String evento(RegistroConductaEvent.Tipo tipo, Long id) throws IOException {
+        return objectMapper.writeValueAsString(
+                new RegistroConductaEvent(tipo, id, 1L, 2L, 3L, "leve", "7", "A", LocalDate.now(), "ACTIVO", true));
+    }
+
+    private static EventoOutbox fila(Long id, String agregado, String payload) {
+        EventoOutbox fila = new EventoOutbox();
+        fila.setIdEvento(id);
+        fila.setAgregado(agregado);
+        fila.setPayload(payload);
+        fila.setCreadoEn(LocalDateTime.now());
+        return fila;
+    }
+
+    /** Sección opaca que registra cómo la trata el servicio. */
+    private static final class IndiceFalso implements IndiceEnMemoria, CacheCoherente {
+
+        private final String nombre;
+        private final int version;
+        byte[] contenido;
+        int reconstrucciones;
+        Runnable alReconstruir = () -> {
+        };
+        final List<RegistroConductaEvent> aplicados = new ArrayList<>();
+        final List<String> releidas = new ArrayList<>();
+
+        IndiceFalso(String nombre, int version, byte[] contenido) {
+            this.nombre = nombre;
+            this.version = version;
+            this.contenido = contenido;
+        }
+
+        @Override
+        public String nombre() {
+            return nombre;
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+        @Override
+        public void reconstruir() {
+            reconstrucciones++;
+            alReconstruir.run();
+        }
+
+        @Override
+        public void escribir(DataOutputStream out) throws IOException {
+            out.write(contenido);
+        }
+
+        @Override
+        public void leer(ByteBuffer in) {
+            contenido = new byte[in.remaining()];
+            in.get(contenido);
+        }
+
+        @Override
+        public void aplicar(RegistroConductaEvent evento) {
+            aplicados.add(evento);
+        }
+
+        @Override
+        public Set<String> clavesAfectadas(RegistroConductaEvent evento) {
+            return Set.of(evento.idRegistro().toString());
+        }
+
+        @Override
+        public Set<String> clavesAfectadas(ObservacionEvent evento) {
+            return Set.of("obs-" + evento.idObservacion());
+        }
+
+        @Override
+        public String nombreCache() {
+            return nombre;
+        }
+
+        @Override
+        public void invalidarRemoto(String clave) {
+            releidas.add(clave);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.controledu.service;
+
+import com.controledu.dto.TasaIncidentesDTO;
+import com.controledu.event.RegistroConductaEvent;
+import com.controledu.repository.RegistroConductaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TasaIncidentesServiceTest {
+
+    private final RegistroConductaRepository repositorio = mock(RegistroConductaRepository.class);
+    private final CoherenciaCacheService sinCoherencia = new CoherenciaCacheService(null, null, false, "prueba", 0, 0, 0);
+    private final TasaIncidentesService tasas = new TasaIncidentesService(repositorio, sinCoherencia);
+
+    @Test
+    void altasYBajasSeCuentanEnCadaVentana() {
+        LocalDate hoy = LocalDate.now();
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy));
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy));
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy.minusDays(3)));
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy.minusDays(10)));
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.ELIMINADO, hoy));
+        // Un cambio de estado no cambia la cantidad
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.ESTADO_CAMBIADO, hoy));
+
+        assertThat(tasas.findTasa("7", "A")).isEqualTo(new TasaIncidentesDTO("7", "A", 1, 2, 3));
+        assertThat(tasas.findTasa("8", "A")).isEqualTo(new TasaIncidentesDTO("8", "A", 0, 0, 0));
+    }
+
+    @Test
+    void lasCubetasSalenDeLaVentanaYSeReciclan() {
+        TasaIncidentesService.VentanaDiaria ventana = new TasaIncidentesService.VentanaDiaria();
+        ventana.sumar(100, 5, 100);
+
+        assertThat(ventana.total(100, TasaIncidentesService.VENTANA_DIA)).isEqualTo(5);
+        assertThat(ventana.total(101, TasaIncidentesService.VENTANA_DIA)).isZero();
+        assertThat(ventana.total(106, TasaIncidentesService.VENTANA_SEMANA)).isEqualTo(5);
+        assertThat(ventana.total(107, TasaIncidentesService.VENTANA_SEMANA)).isZero();
+        assertThat(ventana.total(129, TasaIncidentesService.VENTANA_MES)).isEqualTo(5);
+        assertThat(ventana.total(130, TasaIncidentesService.VENTANA_MES)).isZero();
+
+        // El día 132 cae en la misma cubeta que el 100: la reinicia en lugar de acumular
+        ventana.sumar(100 + TasaIncidentesService.DIAS_ANILLO, 1, 132);
+        assertThat(ventana.total(132, TasaIncidentesService.VENTANA_DIA)).isEqualTo(1);
+        // Una baja de un día ya reciclado se ignora
+        ventana.sumar(100, -1, 132);
+        assertThat(ventana.total(132, TasaIncidentesService.VENTANA_DIA)).isEqualTo(1);
+    }
+
+    @Test
+    void laCargaConservaLasAltasQueLleganMientrasConsulta() {
+        LocalDate hoy = LocalDate.now();
+        when(repositorio.countByGradoSeccionYFechaDesde(any())).thenAnswer(invocacion -> {
+            tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy));
+            return List.<Object[]>of(new Object[]{"7", "A", hoy, 3L});
+        });
+
+        tasas.reconstruir();
+
+        assertThat(tasas.findTasa("7", "A").getUltimas24h()).isEqualTo(4);
+    }
+
+    @Test
+    void elRecuentoDeUnGrupoConservaSusCambiosLocales() {
+        LocalDate hoy = LocalDate.now();
+        when(repositorio.countByFechaDesdeParaGradoSeccion(eq("7"), eq("A"), any())).thenAnswer(invocacion -> {
+            tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy));
+            return List.<Object[]>of(new Object[]{hoy, 2L});
+        });
+
+        tasas.invalidarRemoto("7|A");
+
+        assertThat(tasas.findTasa("7", "A").getUltimas24h()).isEqualTo(3);
+    }
+
+    @Test
+    void unaEdicionRecuentaElGrupoAnteriorYElNuevo() {
+        LocalDate hoy = LocalDate.now();
+        tasas.aplicar(evento(RegistroConductaEvent.Tipo.CREADO, hoy));
+        // El incidente pasó a un estudiante de 8° B: en la base de datos 7° A quedó sin incidentes
+        when(repositorio.countByFechaDesdeParaGradoSeccion(eq("7"), eq("A"), any())).thenReturn(List.of());
+        when(repositorio.countByFechaDesdeParaGradoSeccion(eq("8"), eq("B"), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{hoy, 1L}));
+
+        tasas.aplicar(new RegistroConductaEvent(RegistroConductaEvent.Tipo.ACTUALIZADO, 1L, 5L, 3L, 4L, "grave",
+                "8", "B", hoy, "ACTIVO", false, new RegistroConductaEvent.Anterior(2L, 3L, "7", "A")));
+
+        assertThat(tasas.findTasa("7", "A").getUltimas24h()).isZero();
+        assertThat(tasas.findTasa("8", "B").getUltimas24h()).isEqualTo(1);
+    }
+
+    private static RegistroConductaEvent evento(RegistroConductaEvent.Tipo tipo, LocalDate fecha) {
+        return new RegistroConductaEvent(tipo, 1L, 2L, 3L, 4L, "grave", "7", "A", fecha, "ACTIVO", false);
+    }
+}
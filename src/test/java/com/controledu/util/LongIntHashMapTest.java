@@ -0,0 +1,136 @@
+package com.controledu.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    /** Casillas de un mapa nuevo con la capacidad por defecto */
+    private static final int CASILLAS = 32;
+
+    @Test
+    void borrarEnMedioDeUnRacimoConservaLasDemasClaves() {
+        List<Long> racimo = clavesConIndice(5, 7);
+        LongIntHashMap mapa = new LongIntHashMap();
+        for (int i = 0; i < racimo.size(); i++) {
+            mapa.put(racimo.get(i), i + 1);
+        }
+
+        mapa.remove(racimo.get(0));
+        mapa.remove(racimo.get(2));
+
+        assertThat(mapa.size()).isEqualTo(3);
+        assertThat(mapa.get(racimo.get(0))).isZero();
+        assertThat(mapa.get(racimo.get(1))).isEqualTo(2);
+        assertThat(mapa.get(racimo.get(2))).isZero();
+        assertThat(mapa.get(racimo.get(3))).isEqualTo(4);
+        assertThat(mapa.get(racimo.get(4))).isEqualTo(5);
+    }
+
+    @Test
+    void borrarEnUnRacimoQueDaLaVuelta() {
+        // Ideal en la última casilla: el racimo continúa desde la casilla 0
+        List<Long> racimo = clavesConIndice(4, CASILLAS - 1);
+        List<Long> vecinas = clavesConIndice(2, 0);
+        LongIntHashMap mapa = new LongIntHashMap();
+        racimo.forEach(clave -> mapa.put(clave, 1));
+        vecinas.forEach(clave -> mapa.put(clave, 2));
+
+        mapa.remove(racimo.get(1));
+
+        racimo.subList(2, 4).forEach(clave -> assertThat(mapa.get(clave)).isEqualTo(1));
+        vecinas.forEach(clave -> assertThat(mapa.get(clave)).isEqualTo(2));
+        assertThat(mapa.get(racimo.get(0))).isEqualTo(1);
+        assertThat(mapa.size()).isEqualTo(5);
+    }
+
+    @Test
+    void crecerConservaTodasLasEntradas() {
+        LongIntHashMap mapa = new LongIntHashMap(4);
+        for (long clave = 1; clave <= 10_000; clave++) {
+            mapa.put(clave * 31, (int) clave);
+        }
+
+        assertThat(mapa.size()).isEqualTo(10_000);
+        for (long clave = 1; clave <= 10_000; clave++) {
+            assertThat(mapa.get(clave * 31)).isEqualTo((int) clave);
+        }
+        long[] suma = {0};
+        mapa.forEach((clave, valor) -> suma[0] += valor);
+        assertThat(suma[0]).isEqualTo(10_000L * 10_001 / 2);
+    }
+
+    @Test
+    void borrarUnaClaveAusenteNoCambiaNada() {
+        LongIntHashMap mapa = new LongIntHashMap();
+        mapa.put(7, 3);
+
+        mapa.remove(8);
+        mapa.remove(0);
+
+        assertThat(mapa.size()).isEqualTo(1);
+        assertThat(mapa.get(7)).isEqualTo(3);
+    }
+
+    @Test
+    void laClaveCeroYElValorCero() {
+        LongIntHashMap mapa = new LongIntHashMap();
+        mapa.put(0, 5);
+        assertThat(mapa.get(0)).isEqualTo(5);
+        assertThat(mapa.size()).isEqualTo(1);
+
+        assertThat(mapa.sumar(0, -9)).isZero();
+        assertThat(mapa.size()).isZero();
+
+        mapa.put(4, 2);
+        mapa.put(4, 0);
+        assertThat(mapa.isEmpty()).isTrue();
+    }
+
+    @Test
+    void secuenciaAleatoriaIgualQueUnHashMap() {
+        Random azar = new Random(42);
+        LongIntHashMap mapa = new LongIntHashMap();
+        Map<Long, Integer> esperado = new HashMap<>();
+        for (int paso = 0; paso < 200_000; paso++) {
+            long clave = azar.nextInt(2_000);
+            int delta = azar.nextInt(7) - 3;
+            int nuevo = mapa.sumar(clave, delta);
+            int anterior = esperado.getOrDefault(clave, 0);
+            int valor = Math.max(0, anterior + delta);
+            if (valor == 0) {
+                esperado.remove(clave);
+            } else {
+                esperado.put(clave, valor);
+            }
+            assertThat(nuevo).isEqualTo(valor);
+        }
+
+        assertThat(mapa.size()).isEqualTo(esperado.size());
+        Map<Long, Integer> contenido = new HashMap<>();
+        mapa.forEach(contenido::put);
+        assertThat(contenido).isEqualTo(esperado);
+    }
+
+    /** Primeras claves positivas cuya casilla ideal en un mapa de {@link #CASILLAS} es {@code indice}. */
+    private static List<Long> clavesConIndice(int cantidad, int indice) {
+        List<Long> claves = new ArrayList<>();
+        for (long clave = 1; claves.size() < cantidad; clave++) {
+            long h = clave;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            if (((int) h & (CASILLAS - 1)) == indice) {
+                claves.add(clave);
+            }
+        }
+        return claves;
+    }
+}
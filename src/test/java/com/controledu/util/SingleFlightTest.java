@@ -0,0 +1,120 @@
+package com.controledu.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final ExecutorService hilos = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void detener() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void lasLlamadasSimultaneasCompartenUnaSolaCarga() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(0);
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        AtomicInteger cargas = new AtomicInteger();
+
+        CompletableFuture<Object> primera = CompletableFuture.supplyAsync(() -> singleFlight.ejecutar("clave", () -> {
+            cargas.incrementAndGet();
+            cargando.countDown();
+            esperar(terminar);
+            return new Object();
+        }), hilos);
+        assertThat(cargando.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> segunda = CompletableFuture.supplyAsync(() -> singleFlight.ejecutar("clave", () -> {
+            cargas.incrementAndGet();
+            return new Object();
+        }), hilos);
+        // Otra clave no espera a la primera
+        assertThat(singleFlight.<String>ejecutar("otra", () -> "independiente")).isEqualTo("independiente");
+
+        esperarCompartida(singleFlight);
+        terminar.countDown();
+
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(primera.get(5, TimeUnit.SECONDS));
+        assertThat(cargas).hasValue(1);
+        assertThat(singleFlight.getEjecuciones()).isEqualTo(2);
+        assertThat(singleFlight.getCompartidas()).isEqualTo(1);
+
+        // Con TTL 0, terminada la carga la siguiente llamada vuelve a ejecutar
+        singleFlight.ejecutar("clave", () -> cargas.incrementAndGet());
+        assertThat(cargas).hasValue(2);
+    }
+
+    @Test
+    void elResultadoSeCompartePorElTtlYSePuedeOlvidar() throws InterruptedException {
+        SingleFlight singleFlight = new SingleFlight(200);
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertThat(singleFlight.<Integer>ejecutar("clave", cargas::incrementAndGet)).isEqualTo(1);
+        assertThat(singleFlight.<Integer>ejecutar("clave", cargas::incrementAndGet)).isEqualTo(1);
+
+        singleFlight.olvidar("clave");
+        assertThat(singleFlight.<Integer>ejecutar("clave", cargas::incrementAndGet)).isEqualTo(2);
+
+        Thread.sleep(250);
+        assertThat(singleFlight.<Integer>ejecutar("clave", cargas::incrementAndGet)).isEqualTo(3);
+        assertThat(singleFlight.getEjecuciones()).isEqualTo(3);
+        assertThat(singleFlight.getCompartidas()).isEqualTo(1);
+    }
+
+    @Test
+    void laExcepcionLlegaATodosYNoSeGuarda() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(60_000);
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch fallar = new CountDownLatch(1);
+        IllegalStateException error = new IllegalStateException("base de datos caída");
+
+        CompletableFuture<Object> primera = CompletableFuture.supplyAsync(() -> singleFlight.ejecutar("clave", () -> {
+            cargando.countDown();
+            esperar(fallar);
+            throw error;
+        }), hilos);
+        assertThat(cargando.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> segunda = CompletableFuture.supplyAsync(
+                () -> singleFlight.ejecutar("clave", () -> "no debería cargar"), hilos);
+        esperarCompartida(singleFlight);
+        fallar.countDown();
+
+        for (CompletableFuture<Object> llamada : List.of(primera, segunda)) {
+            assertThatThrownBy(() -> llamada.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause().isSameAs(error);
+        }
+        // Un fallo no se comparte durante el TTL: la siguiente llamada reintenta
+        assertThat(singleFlight.<String>ejecutar("clave", () -> "recuperado")).isEqualTo("recuperado");
+    }
+
+    /** Espera a que la segunda llamada se haya sumado al vuelo en curso. */
+    private static void esperarCompartida(SingleFlight singleFlight) throws InterruptedException {
+        for (int intento = 0; intento < 200 && singleFlight.getCompartidas() == 0; intento++) {
+            Thread.sleep(10);
+        }
+        assertThat(singleFlight.getCompartidas()).isEqualTo(1);
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}